@@ -21,8 +21,6 @@ import androidx.core.content.ContextCompat;
  * native class or an instance of that class.
  */
 class ImageAnalysisProxyApi extends PigeonApiImageAnalysis {
-  static final long CLEAR_FINALIZED_WEAK_REFERENCES_INTERVAL_FOR_IMAGE_ANALYSIS = 1000;
-
   // Range<?> is defined as Range<Integer> in pigeon.
   @SuppressWarnings("unchecked")
   @OptIn(markerClass = ExperimentalCamera2Interop.class)
@@ -66,10 +64,6 @@ class ImageAnalysisProxyApi extends PigeonApiImageAnalysis {
 
   @Override
   public void setAnalyzer(ImageAnalysis pigeonInstance, @NonNull ImageAnalysis.Analyzer analyzer) {
-    getPigeonRegistrar()
-        .getInstanceManager()
-        .setClearFinalizedWeakReferencesInterval(
-            CLEAR_FINALIZED_WEAK_REFERENCES_INTERVAL_FOR_IMAGE_ANALYSIS);
     pigeonInstance.setAnalyzer(
         ContextCompat.getMainExecutor(getPigeonRegistrar().getContext()), analyzer);
   }
@@ -77,10 +71,6 @@ class ImageAnalysisProxyApi extends PigeonApiImageAnalysis {
   @Override
   public void clearAnalyzer(ImageAnalysis pigeonInstance) {
     pigeonInstance.clearAnalyzer();
-    getPigeonRegistrar()
-        .getInstanceManager()
-        .setClearFinalizedWeakReferencesInterval(
-            getPigeonRegistrar().getDefaultClearFinalizedWeakReferencesInterval());
   }
 
   @Override
@@ -136,10 +136,6 @@ public class ProxyApiRegistrar extends CameraXLibraryPigeonProxyApiRegistrar {
     return textureRegistry;
   }
 
-  long getDefaultClearFinalizedWeakReferencesInterval() {
-    return 3000;
-  }
-
   @SuppressWarnings(
       "deprecation") // getSystemService was the way of getting the default display prior to API 30
   @Nullable
@@ -6,6 +6,7 @@ package io.flutter.plugins.camerax;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
@@ -18,6 +19,7 @@ import androidx.annotation.NonNull;
 import androidx.camera.core.ImageCapture;
 import androidx.camera.core.ImageCaptureException;
 import androidx.camera.core.resolutionselector.ResolutionSelector;
+import io.flutter.plugin.common.BinaryMessenger;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Executor;
@@ -234,4 +236,23 @@ public class ImageCaptureTest {
 
     verify(instance).setTargetRotation((int) rotation);
   }
+
+  @Test
+  public void setUpMessageHandlers_handlesTakePictureOnBackgroundTaskQueue() {
+    final PigeonApiImageCapture api = new TestProxyApiRegistrar().getPigeonApiImageCapture();
+    final BinaryMessenger mockBinaryMessenger = mock(BinaryMessenger.class);
+    final BinaryMessenger.TaskQueue mockTaskQueue = mock(BinaryMessenger.TaskQueue.class);
+    when(mockBinaryMessenger.makeBackgroundTaskQueue()).thenReturn(mockTaskQueue);
+
+    PigeonApiImageCapture.Companion.setUpMessageHandlers(mockBinaryMessenger, api);
+
+    verify(mockBinaryMessenger)
+        .setMessageHandler(
+            eq("dev.flutter.pigeon.camera_android_camerax.ImageCapture.takePicture"),
+            any(),
+            eq(mockTaskQueue));
+    verify(mockBinaryMessenger)
+        .setMessageHandler(
+            eq("dev.flutter.pigeon.camera_android_camerax.ImageCapture.setTargetRotation"), any());
+  }
 }
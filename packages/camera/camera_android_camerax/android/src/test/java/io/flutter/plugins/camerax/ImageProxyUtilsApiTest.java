@@ -5,9 +5,15 @@
 package io.flutter.plugins.camerax;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import androidx.camera.core.ImageProxy.PlaneProxy;
+import io.flutter.plugin.common.BinaryMessenger;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
@@ -45,4 +51,20 @@ public class ImageProxyUtilsApiTest {
       mockedStatic.verify(() -> ImageProxyUtils.planesToNV21(planes, (int) width, (int) height));
     }
   }
+
+  @Test
+  public void setUpMessageHandlers_handlesGetNv21BufferOnBackgroundTaskQueue() {
+    final PigeonApiImageProxyUtils api = new TestProxyApiRegistrar().getPigeonApiImageProxyUtils();
+    final BinaryMessenger mockBinaryMessenger = mock(BinaryMessenger.class);
+    final BinaryMessenger.TaskQueue mockTaskQueue = mock(BinaryMessenger.TaskQueue.class);
+    when(mockBinaryMessenger.makeBackgroundTaskQueue()).thenReturn(mockTaskQueue);
+
+    PigeonApiImageProxyUtils.Companion.setUpMessageHandlers(mockBinaryMessenger, api);
+
+    verify(mockBinaryMessenger)
+        .setMessageHandler(
+            eq("dev.flutter.pigeon.camera_android_camerax.ImageProxyUtils.getNv21Buffer"),
+            any(),
+            eq(mockTaskQueue));
+  }
 }
@@ -604,6 +604,9 @@ abstract class ImageCapture extends UseCase {
 
   /// Captures a new still image for in memory access.
   @async
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  // Handled on a background thread, since it creates the file the image is
+  // saved to.
   String takePicture();
 
   /// Sets the desired rotation of the output image.
@@ -946,6 +949,8 @@ abstract class ImageProxy {
 abstract class ImageProxyUtils {
   /// Returns a single buffer that is representative of three NV21-compatible [planes].
   @static
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  // Handled on a background thread, since it copies each plane.
   Uint8List getNv21Buffer(
     int imageWidth,
     int imageHeight,
@@ -21,8 +21,7 @@ import androidx.test.espresso.flutter.api.FlutterAction;
 import androidx.test.espresso.flutter.api.FlutterTestingProtocol;
 import androidx.test.espresso.flutter.api.WidgetMatcher;
 import androidx.test.espresso.flutter.internal.idgenerator.IdGenerator;
-import androidx.test.espresso.flutter.internal.jsonrpc.JsonRpcClient;
-import androidx.test.espresso.flutter.internal.protocol.impl.DartVmService;
+import androidx.test.espresso.flutter.internal.protocol.impl.DartVmServiceCache;
 import androidx.test.espresso.flutter.internal.protocol.impl.DartVmServiceUtil;
 import androidx.test.espresso.flutter.internal.protocol.impl.FlutterProtocolException;
 import com.google.common.annotations.VisibleForTesting;
@@ -32,7 +31,6 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.flutter.embedding.android.FlutterView;
 import io.flutter.embedding.engine.FlutterJNI;
-import java.net.URI;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -107,17 +105,17 @@ public final class FlutterViewAction<T> implements ViewAction {
     // engine & Dart isolates are actually up and running. Check whether the first frame has been
     // rendered before proceeding in an unblocking way.
     loopUntilFlutterViewRendered(flutterView, uiController);
-    // The url {@code FlutterNativeView} returns is the http url that the Dart VM Observatory http
-    // server serves at. Need to convert to the one that the WebSocket uses.
-    URI dartVmServiceProtocolUrl =
-        DartVmServiceUtil.getServiceProtocolUri(FlutterJNI.getVMServiceUri());
+    // The connection to the Dart VM service, and whether the testing API is registered with the
+    // isolate, are reused across actions performed on the same Flutter view.
     String isolateId = DartVmServiceUtil.getDartIsolateId(flutterView);
     final FlutterTestingProtocol flutterTestingProtocol =
-        new DartVmService(
-            isolateId,
-            new JsonRpcClient(webSocketClient, dartVmServiceProtocolUrl),
-            messageIdGenerator,
-            taskExecutor);
+        DartVmServiceCache.getInstance()
+            .get(
+                FlutterJNI.getVMServiceUri(),
+                isolateId,
+                webSocketClient,
+                messageIdGenerator,
+                taskExecutor);
 
     try {
       // First checks the testing protocol is ready for use and then waits until the Flutter app is
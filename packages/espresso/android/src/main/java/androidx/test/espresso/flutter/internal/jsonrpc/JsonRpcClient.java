@@ -15,9 +15,15 @@ import androidx.test.espresso.flutter.internal.jsonrpc.message.JsonRpcResponse;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import java.net.ConnectException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -27,37 +33,82 @@ import okhttp3.WebSocketListener;
 /**
  * A client that can be used to talk to a WebSocket-based JSON-RPC server.
  *
- * <p>One {@code JsonRpcClient} instance is not supposed to be shared between multiple threads.
- * Always create a new instance of {@code JsonRpcClient} for connecting to a new JSON-RPC URI, but
- * try to reuse the {@link OkHttpClient} instance, which is thread-safe and maintains a thread pool
- * in handling requests and responses.
+ * <p>Always create a new instance of {@code JsonRpcClient} for connecting to a new JSON-RPC URI,
+ * but try to reuse the {@link OkHttpClient} instance, which is thread-safe and maintains a thread
+ * pool in handling requests and responses.
+ *
+ * <p>If the WebSocket connection is closed by the server or fails, requests that are waiting for a
+ * response fail with a {@code ConnectException}, and the next request opens a new connection.
  */
 public class JsonRpcClient {
 
   private static final String TAG = JsonRpcClient.class.getSimpleName();
   private static final int NORMAL_CLOSURE_STATUS = 1000;
+  /** Json property name for the method of a JSON-RPC request or notification. */
+  private static final String METHOD_TAG = "method";
+
+  /** A listener for JSON-RPC notifications sent by the server, such as Dart VM service events. */
+  public interface NotificationListener {
+    /** Called on a background thread when the server sends a notification. */
+    void onNotification(JsonRpcRequest notification);
+  }
 
+  private final OkHttpClient client;
   private final URI webSocketUri;
-  private final ConcurrentMap<String, SettableFuture<JsonRpcResponse>> responseFutures;
+  private final Object lock = new Object();
+  // Guarded by lock.
   private WebSocket webSocketConn;
+  // Guarded by lock. The listener of webSocketConn, which holds the requests waiting for a response
+  // on it.
+  private WebSocketListenerImpl webSocketListener;
+  // Guarded by lock. Whether webSocketConn is closed or failed, and needs to be replaced before the
+  // next request.
+  private boolean isClosed;
+  // Guarded by lock.
+  private int reconnectCount;
+  private final List<NotificationListener> notificationListeners = new CopyOnWriteArrayList<>();
 
   /** {@code client} can be shared between multiple {@code JsonRpcClient}s. */
   public JsonRpcClient(OkHttpClient client, URI webSocketUri) {
+    this.client = checkNotNull(client, "OkHttpClient can't be null.");
     this.webSocketUri = checkNotNull(webSocketUri, "WebSocket URL can't be null.");
-    responseFutures = Maps.newConcurrentMap();
-    connect(checkNotNull(client, "OkHttpClient can't be null."), webSocketUri);
+    synchronized (lock) {
+      connect();
+    }
   }
 
-  private void connect(OkHttpClient client, URI webSocketUri) {
+  // Must be called while holding lock.
+  private void connect() {
     Request request = new Request.Builder().url(webSocketUri.toString()).build();
-    WebSocketListener webSocketListener = new WebSocketListenerImpl();
+    webSocketListener = new WebSocketListenerImpl();
     webSocketConn = client.newWebSocket(request, webSocketListener);
+    isClosed = false;
   }
 
   /** Closes the web socket connection. Non-blocking, and will return immediately. */
   public void disconnect() {
-    if (webSocketConn != null) {
-      webSocketConn.close(NORMAL_CLOSURE_STATUS, "Client request closing. All requests handled.");
+    synchronized (lock) {
+      if (webSocketConn != null) {
+        webSocketConn.close(NORMAL_CLOSURE_STATUS, "Client request closing. All requests handled.");
+        isClosed = true;
+      }
+    }
+  }
+
+  /** Adds a listener that is called with each notification sent by the server. */
+  public void addNotificationListener(NotificationListener listener) {
+    notificationListeners.add(checkNotNull(listener));
+  }
+
+  /** Removes a listener added with {@link #addNotificationListener}. */
+  public void removeNotificationListener(NotificationListener listener) {
+    notificationListeners.remove(listener);
+  }
+
+  /** Returns the number of times the connection was reopened after it was closed or failed. */
+  public int getReconnectCount() {
+    synchronized (lock) {
+      return reconnectCount;
     }
   }
 
@@ -73,58 +124,136 @@ public class JsonRpcClient {
    */
   public ListenableFuture<JsonRpcResponse> request(JsonRpcRequest request) {
     checkNotNull(request, "JSON-RPC request shouldn't be null.");
-    if (Log.isLoggable(TAG, Log.DEBUG)) {
-      Log.d(
-          TAG,
-          String.format("JSON-RPC Request sent to uri %s: %s.", webSocketUri, request.toJson()));
-    }
-    if (webSocketConn == null) {
-      ConnectException e =
-          new ConnectException("WebSocket connection was not initiated correctly.");
-      return immediateFailedFuture(e);
+    return requestAll(Collections.singletonList(request)).get(0);
+  }
+
+  /**
+   * Sends the given JSON-RPC requests back to back, without waiting for the response of one before
+   * sending the next, and returns a {@link ListenableFuture} for each of them in the same order.
+   *
+   * <p>Each {@code ListenableFuture} completes as soon as the response to its own request arrives,
+   * in whatever order the server responds. As with {@link #request}, the {@code ListenableFuture}s
+   * of JSON-RPC notifications complete immediately with a {@code null} response.
+   *
+   * @param requests the JSON-RPC requests to be sent.
+   * @return a {@code ListenableFuture} for each request, which yields an {@code ExecutionException}
+   *     that wraps a {@code ConnectException} if failed to send the request.
+   */
+  public List<ListenableFuture<JsonRpcResponse>> requestAll(List<JsonRpcRequest> requests) {
+    checkNotNull(requests, "JSON-RPC requests shouldn't be null.");
+    List<SettableFuture<JsonRpcResponse>> pendingFutures = new ArrayList<>(requests.size());
+    WebSocket connection;
+    WebSocketListenerImpl connectionListener;
+    synchronized (lock) {
+      if (webSocketConn == null) {
+        ConnectException e =
+            new ConnectException("WebSocket connection was not initiated correctly.");
+        List<ListenableFuture<JsonRpcResponse>> failedFutures = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+          failedFutures.add(immediateFailedFuture(e));
+        }
+        return failedFutures;
+      }
+      if (isClosed) {
+        Log.d(TAG, String.format("Reconnecting to closed WebSocket at uri %s.", webSocketUri));
+        connect();
+        reconnectCount++;
+      }
+      connection = webSocketConn;
+      connectionListener = webSocketListener;
+      // Adds the ListenableFutures to the futures of the connection before sending, so that the
+      // thread of {@code WebSocketListenerImpl#onMessage} finds them however soon the responses
+      // arrive, and so that they fail if the connection is lost before then.
+      // The requests are then sent without holding the lock, so that responses to earlier requests
+      // can be handled while later ones are still being sent.
+      for (JsonRpcRequest request : requests) {
+        checkNotNull(request, "JSON-RPC request shouldn't be null.");
+        if (isNullOrEmpty(request.getId())) {
+          pendingFutures.add(null);
+        } else {
+          SettableFuture<JsonRpcResponse> responseFuture = SettableFuture.create();
+          connectionListener.responseFutures.put(request.getId(), responseFuture);
+          pendingFutures.add(responseFuture);
+        }
+      }
     }
-    synchronized (responseFutures) {
-      // Holding the lock of responseFutures for send-and-add operations, so that we could make sure
-      // to add its ListenableFuture to the responseFutures map before the thread of
-      // {@code WebSocketListenerImpl#onMessage} method queries the map.
-      boolean succeeded = webSocketConn.send(request.toJson());
-      if (!succeeded) {
-        ConnectException e = new ConnectException("Failed to send request: " + request);
-        return immediateFailedFuture(e);
+
+    List<ListenableFuture<JsonRpcResponse>> futures = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      JsonRpcRequest request = requests.get(i);
+      SettableFuture<JsonRpcResponse> responseFuture = pendingFutures.get(i);
+      if (Log.isLoggable(TAG, Log.DEBUG)) {
+        Log.d(
+            TAG,
+            String.format("JSON-RPC Request sent to uri %s: %s.", webSocketUri, request.toJson()));
       }
-      if (isNullOrEmpty(request.getId())) {
+      boolean succeeded = connection.send(request.toJson());
+      if (responseFuture == null) {
         // Request id is null or empty. This is a notification request, so returns immediately.
-        return immediateFuture(null);
+        futures.add(
+            succeeded
+                ? immediateFuture(null)
+                : immediateFailedFuture(
+                    new ConnectException("Failed to send request: " + request)));
       } else {
-        SettableFuture<JsonRpcResponse> responseFuture = SettableFuture.create();
-        responseFutures.put(request.getId(), responseFuture);
-        return responseFuture;
+        if (!succeeded) {
+          connectionListener.responseFutures.remove(request.getId());
+          responseFuture.setException(new ConnectException("Failed to send request: " + request));
+        }
+        futures.add(responseFuture);
       }
     }
+    return futures;
   }
 
   /** A callback listener that handles incoming web socket messages. */
   private class WebSocketListenerImpl extends WebSocketListener {
+    // The requests sent on the WebSocket of this listener that are waiting for a response.
+    private final ConcurrentMap<String, SettableFuture<JsonRpcResponse>> responseFutures =
+        Maps.newConcurrentMap();
+
+    /**
+     * Marks {@code webSocket} as closed, if it is still the current connection, and fails the
+     * requests that were waiting for a response on it, even if it was already replaced.
+     */
+    private void onConnectionLost(WebSocket webSocket, String reason) {
+      synchronized (lock) {
+        if (webSocket == webSocketConn) {
+          isClosed = true;
+        }
+        for (SettableFuture<JsonRpcResponse> responseFuture : responseFutures.values()) {
+          responseFuture.setException(new ConnectException(reason));
+        }
+        responseFutures.clear();
+      }
+    }
+
     @Override
     public void onMessage(WebSocket webSocket, String response) {
       if (Log.isLoggable(TAG, Log.DEBUG)) {
         Log.d(TAG, String.format("JSON-RPC response received: %s.", response));
       }
-      JsonRpcResponse responseObj = JsonRpcResponse.fromJson(response);
-      synchronized (responseFutures) {
-        if (isNullOrEmpty(responseObj.getId())
-            || !responseFutures.containsKey(responseObj.getId())) {
-          Log.w(
-              TAG,
-              String.format(
-                  "Received a message with empty or unknown ID: %s. Drop the message.",
-                  responseObj.getId()));
-          return;
+      JsonObject message = JsonParser.parseString(response).getAsJsonObject();
+      if (message.has(METHOD_TAG)) {
+        // Messages with a method are notifications sent by the server, rather than responses.
+        JsonRpcRequest notification = JsonRpcRequest.fromJson(response);
+        for (NotificationListener listener : notificationListeners) {
+          listener.onNotification(notification);
         }
-        SettableFuture<JsonRpcResponse> responseFuture =
-            responseFutures.remove(responseObj.getId());
-        responseFuture.set(responseObj);
+        return;
       }
+      JsonRpcResponse responseObj = JsonRpcResponse.fromJson(response);
+      SettableFuture<JsonRpcResponse> responseFuture =
+          isNullOrEmpty(responseObj.getId()) ? null : responseFutures.remove(responseObj.getId());
+      if (responseFuture == null) {
+        Log.w(
+            TAG,
+            String.format(
+                "Received a message with empty or unknown ID: %s. Drop the message.",
+                responseObj.getId()));
+        return;
+      }
+      responseFuture.set(responseObj);
     }
 
     @Override
@@ -133,13 +262,19 @@ public class JsonRpcClient {
           TAG,
           String.format(
               "Server requested connection close with code %d, reason: %s", code, reason));
+      onConnectionLost(webSocket, "WebSocket connection closed by server: " + reason);
       webSocket.close(NORMAL_CLOSURE_STATUS, "Server requested closing connection.");
     }
 
+    @Override
+    public void onClosed(WebSocket webSocket, int code, String reason) {
+      onConnectionLost(webSocket, "WebSocket connection closed: " + reason);
+    }
+
     @Override
     public void onFailure(WebSocket webSocket, Throwable t, Response response) {
       Log.w(TAG, String.format("Failed to deliver message with error: %s.", t.getMessage()));
-      throw new RuntimeException("WebSocket request failure.", t);
+      onConnectionLost(webSocket, "WebSocket request failure: " + t.getMessage());
     }
   }
 }
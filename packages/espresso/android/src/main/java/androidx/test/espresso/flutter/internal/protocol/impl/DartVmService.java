@@ -4,6 +4,7 @@
 
 package androidx.test.espresso.flutter.internal.protocol.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.transform;
@@ -26,15 +27,22 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -62,13 +70,42 @@ public final class DartVmService implements FlutterTestingProtocol {
   /** The JSON-RPC method for retrieving Dart VM info. */
   private static final String GET_VM_METHOD = "getVM";
 
+  /** The JSON-RPC method for subscribing to a Dart VM service event stream. */
+  private static final String STREAM_LISTEN_METHOD = "streamListen";
+  /** The JSON-RPC method of the notifications that deliver Dart VM service events. */
+  private static final String STREAM_NOTIFY_METHOD = "streamNotify";
+  /** The Dart VM service event stream for isolate lifecycle and service extension events. */
+  private static final String ISOLATE_STREAM_ID = "Isolate";
+  /** The Dart VM service error code returned when the stream is already subscribed to. */
+  private static final int STREAM_ALREADY_SUBSCRIBED_ERROR_CODE = 103;
+
   /** Json property name for the Dart VM isolate id. */
   private static final String ISOLATE_ID_TAG = "isolateId";
+  /** Json param name for the id of the event stream to subscribe to. */
+  private static final String STREAM_ID_TAG = "streamId";
+  /** Json property names used in Dart VM service events. */
+  private static final String EVENT_TAG = "event";
+
+  private static final String KIND_TAG = "kind";
+  private static final String EXTENSION_RPC_TAG = "extensionRPC";
+  private static final String ISOLATE_TAG = "isolate";
+  private static final String ID_TAG = "id";
+
+  /** The default of how long {@link #connect} waits for the testing API to be registered. */
+  private static final long DEFAULT_TESTING_API_REGISTRATION_TIMEOUT_MILLIS = 10000;
+
+  private static volatile long testingApiRegistrationTimeoutMillis =
+      DEFAULT_TESTING_API_REGISTRATION_TIMEOUT_MILLIS;
 
   private final JsonRpcClient client;
   private final IdGenerator<Integer> messageIdGenerator;
   private final String isolateId;
   private final ListeningExecutorService taskExecutor;
+  // Whether the testing API has been found to be registered with the isolate. Registration cannot
+  // be undone, so it is only checked until it succeeds.
+  private volatile boolean isTestingApiRegistered;
+  // The total time spent waiting for the testing API to be registered.
+  private final AtomicLong testingApiWaitMillis = new AtomicLong();
 
   /**
    * Constructs a {@code DartVmService} instance that can be used to talk to the testing protocol
@@ -110,10 +147,15 @@ public final class DartVmService implements FlutterTestingProtocol {
    *   <li>Dart VM Observatory is up and running.
    *   <li>The Flutter testing API is registered with the running Dart VM service protocol.
    * </ul>
+   *
+   * <p>Once the testing API has been found to be registered, it is not checked again.
    */
   @Override
   @SuppressWarnings("unchecked")
   public Future<Void> connect() {
+    if (isTestingApiRegistered) {
+      return Futures.immediateFuture(null);
+    }
     return (Future<Void>) taskExecutor.submit(new IsDartVmServiceReady(isolateId, this));
   }
 
@@ -121,8 +163,7 @@ public final class DartVmService implements FlutterTestingProtocol {
   public Future<Void> perform(
       @Nullable final WidgetMatcher widgetMatcher, final SyntheticAction action) {
     // Assumes all the actions require a response.
-    ListenableFuture<JsonRpcResponse> responseFuture =
-        client.request(getActionRequest(widgetMatcher, action));
+    ListenableFuture<JsonRpcResponse> responseFuture = sendCommand(widgetMatcher, action);
     Function<JsonRpcResponse, Void> resultTransformFunc =
         new Function<JsonRpcResponse, Void>() {
           public Void apply(JsonRpcResponse response) {
@@ -146,8 +187,8 @@ public final class DartVmService implements FlutterTestingProtocol {
 
   @Override
   public Future<WidgetInfo> matchWidget(@Nonnull WidgetMatcher widgetMatcher) {
-    JsonRpcRequest request = getActionRequest(widgetMatcher, new GetWidgetDiagnosticsAction());
-    ListenableFuture<JsonRpcResponse> jsonResponseFuture = client.request(request);
+    ListenableFuture<JsonRpcResponse> jsonResponseFuture =
+        sendCommand(widgetMatcher, new GetWidgetDiagnosticsAction());
 
     Function<JsonRpcResponse, WidgetInfo> widgetInfoTransformer =
         new Function<JsonRpcResponse, WidgetInfo>() {
@@ -162,13 +203,14 @@ public final class DartVmService implements FlutterTestingProtocol {
 
   @Override
   public Future<Rect> getLocalRect(@Nonnull WidgetMatcher widgetMatcher) {
-    ListenableFuture<JsonRpcResponse> topLeftFuture =
-        client.request(getActionRequest(widgetMatcher, new GetOffsetAction(OffsetType.TOP_LEFT)));
-    ListenableFuture<JsonRpcResponse> bottomRightFuture =
-        client.request(
-            getActionRequest(widgetMatcher, new GetOffsetAction(OffsetType.BOTTOM_RIGHT)));
+    // Both offsets are requested in one pipelined group.
     ListenableFuture<List<JsonRpcResponse>> responses =
-        Futures.allAsList(topLeftFuture, bottomRightFuture);
+        Futures.allAsList(
+            sendCommands(
+                Arrays.asList(
+                    new DriverCommand(widgetMatcher, new GetOffsetAction(OffsetType.TOP_LEFT)),
+                    new DriverCommand(
+                        widgetMatcher, new GetOffsetAction(OffsetType.BOTTOM_RIGHT)))));
     Function<List<JsonRpcResponse>, Rect> rectTransformer =
         new Function<List<JsonRpcResponse>, Rect>() {
           public Rect apply(List<JsonRpcResponse> jsonResponses) {
@@ -203,6 +245,53 @@ public final class DartVmService implements FlutterTestingProtocol {
     return transform(responses, rectTransformer, directExecutor());
   }
 
+  /**
+   * Sends the given testing extension commands as one pipelined group, without waiting for the
+   * response to one command before sending the next.
+   *
+   * <p>Returns a {@code ListenableFuture} for each command in the same order, which completes as
+   * soon as the response to that command arrives. The testing extension handles the commands
+   * concurrently, so only commands that do not depend on each other's effects, e.g. queries,
+   * should be sent in the same group.
+   *
+   * <p>The time each command takes to complete is logged at debug level.
+   */
+  public List<ListenableFuture<JsonRpcResponse>> sendCommands(List<DriverCommand> commands) {
+    checkNotNull(commands, "Commands cannot be null.");
+    List<JsonRpcRequest> requests = new ArrayList<>(commands.size());
+    for (DriverCommand command : commands) {
+      requests.add(getActionRequest(command.widgetMatcher, command.action));
+    }
+    final long startNanos = System.nanoTime();
+    List<ListenableFuture<JsonRpcResponse>> responseFutures = client.requestAll(requests);
+    if (Log.isLoggable(TAG, Log.DEBUG)) {
+      for (int i = 0; i < commands.size(); i++) {
+        final DriverCommand command = commands.get(i);
+        responseFutures
+            .get(i)
+            .addListener(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    Log.d(
+                        TAG,
+                        String.format(
+                            "Command %s took %d ms.",
+                            command,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)));
+                  }
+                },
+                directExecutor());
+      }
+    }
+    return responseFutures;
+  }
+
+  private ListenableFuture<JsonRpcResponse> sendCommand(
+      @Nullable WidgetMatcher widgetMatcher, SyntheticAction action) {
+    return sendCommands(Collections.singletonList(new DriverCommand(widgetMatcher, action))).get(0);
+  }
+
   @Override
   public Future<Void> waitUntilIdle() {
     return perform(
@@ -220,6 +309,25 @@ public final class DartVmService implements FlutterTestingProtocol {
     }
   }
 
+  /**
+   * Sets how long {@link #connect} waits for the Flutter testing API to be registered with the
+   * isolate before failing. Defaults to 10 seconds.
+   */
+  public static void setTestingApiRegistrationTimeout(long timeout, TimeUnit unit) {
+    checkArgument(timeout > 0, "Timeout must be positive.");
+    testingApiRegistrationTimeoutMillis = unit.toMillis(timeout);
+  }
+
+  /** Returns the total time spent waiting for the testing API to be registered. */
+  public long getTestingApiWaitMillis() {
+    return testingApiWaitMillis.get();
+  }
+
+  /** Returns the number of times the JSON-RPC connection was reopened after it was lost. */
+  public int getReconnectCount() {
+    return client.getReconnectCount();
+  }
+
   /** Queries the Dart isolate information. */
   public ListenableFuture<JsonRpcResponse> getIsolateInfo() {
     JsonRpcRequest getIsolateReq =
@@ -230,6 +338,31 @@ public final class DartVmService implements FlutterTestingProtocol {
     return client.request(getIsolateReq);
   }
 
+  /**
+   * Subscribes to the events of the Dart VM service's Isolate stream, which include the events
+   * sent when service extensions are registered.
+   *
+   * @return whether the events will be received.
+   */
+  private boolean listenToIsolateEvents() {
+    JsonRpcRequest streamListenReq =
+        new JsonRpcRequest.Builder(STREAM_LISTEN_METHOD)
+            .setId(getNextMessageId())
+            .addParam(STREAM_ID_TAG, ISOLATE_STREAM_ID)
+            .build();
+    try {
+      JsonRpcResponse response = client.request(streamListenReq).get();
+      return response.getError() == null
+          || response.getError().getCode() == STREAM_ALREADY_SUBSCRIBED_ERROR_CODE;
+    } catch (ExecutionException e) {
+      Log.d(TAG, "Error occurred during subscribing to Dart isolate events.", e.getCause());
+      return false;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt(); // Restores the interrupted status.
+      return false;
+    }
+  }
+
   /** Queries the Dart VM information. */
   public ListenableFuture<GetVmResponse> getVmInfo() {
     JsonRpcRequest getVmReq =
@@ -290,15 +423,43 @@ public final class DartVmService implements FlutterTestingProtocol {
     }
   }
 
+  /** A testing extension command, to be sent with {@link #sendCommands}. */
+  public static final class DriverCommand {
+    @Nullable private final WidgetMatcher widgetMatcher;
+    private final SyntheticAction action;
+
+    /**
+     * Constructs a command that performs {@code action} on the widget matched by {@code
+     * widgetMatcher}, or not on a specific widget if {@code widgetMatcher} is {@code null}.
+     */
+    public DriverCommand(@Nullable WidgetMatcher widgetMatcher, @Nonnull SyntheticAction action) {
+      this.widgetMatcher = widgetMatcher;
+      this.action = checkNotNull(action, "Action cannot be null.");
+    }
+
+    @Override
+    public String toString() {
+      return widgetMatcher == null
+          ? action.toString()
+          : String.format("%s on widget matched %s", action, widgetMatcher);
+    }
+  }
+
   /** A {@link Runnable} that waits until the Dart VM testing extension is ready for use. */
   static class IsDartVmServiceReady implements Runnable {
 
-    /** Maximum number of retries for checking extension APIs' availability. */
-    private static final int EXTENSION_API_CHECKING_RETRIES = 5;
+    /** Initial delay between checks of extension APIs' availability, if events are unavailable. */
+    private static final long INITIAL_POLLING_DELAY_MILLIS = 50;
+
+    /** Maximum delay between checks of extension APIs' availability, if events are unavailable. */
+    private static final long MAX_POLLING_DELAY_MILLIS = 1000;
 
     /** Json param name for retrieving all the available extension APIs. */
     private static final String EXTENSION_RPCS_TAG = "extensionRPCs";
 
+    /** The Dart VM service event kind sent when an isolate registers a service extension. */
+    private static final String SERVICE_EXTENSION_ADDED_KIND = "ServiceExtensionAdded";
+
     private final String isolateId;
     private final DartVmService dartVmService;
 
@@ -310,41 +471,132 @@ public final class DartVmService implements FlutterTestingProtocol {
     @Override
     public void run() {
       waitForTestingApiRegistered();
+      dartVmService.isTestingApiRegistered = true;
     }
 
     /**
      * Blocks until the Flutter testing/driver API is registered with the running Dart VM service
-     * protocol by querying whether it's listed in the isolate's 'extensionRPCs'.
+     * protocol.
+     *
+     * <p>Subscribes to the isolate's events and then checks whether the API is already listed in
+     * the isolate's 'extensionRPCs'. If it is not, waits for the event sent when it is registered,
+     * rather than querying the isolate repeatedly. Falls back to querying with backoff if the
+     * subscription fails.
      */
     @VisibleForTesting
     void waitForTestingApiRegistered() {
-      int retries = EXTENSION_API_CHECKING_RETRIES;
-      boolean isApiRegistered = false;
-      do {
-        retries--;
+      final long startNanos = System.nanoTime();
+      final long deadlineNanos =
+          startNanos + TimeUnit.MILLISECONDS.toNanos(testingApiRegistrationTimeoutMillis);
+      final SettableFuture<Void> registeredEvent = SettableFuture.create();
+      JsonRpcClient.NotificationListener listener =
+          new JsonRpcClient.NotificationListener() {
+            @Override
+            public void onNotification(JsonRpcRequest notification) {
+              if (isTestingApiAddedEvent(notification)) {
+                registeredEvent.set(null);
+              }
+            }
+          };
+      dartVmService.client.addNotificationListener(listener);
+      String signal = "event";
+      boolean isApiRegistered;
+      try {
+        // Subscribes before querying the isolate, so that the API cannot be registered between the
+        // query and the subscription without an event being received.
+        boolean isSubscribed = dartVmService.listenToIsolateEvents();
+        isApiRegistered = checkTestingApiRegistered();
+        if (isApiRegistered) {
+          signal = "isolate info";
+        } else if (isSubscribed) {
+          isApiRegistered = waitForEvent(registeredEvent, deadlineNanos);
+          if (!isApiRegistered) {
+            // Checks once more in case the event was missed, e.g. because of a reconnection.
+            isApiRegistered = checkTestingApiRegistered();
+          }
+        } else {
+          signal = "polling";
+          isApiRegistered = pollTestingApiRegistered(deadlineNanos);
+        }
+      } finally {
+        dartVmService.client.removeNotificationListener(listener);
+      }
+
+      long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      dartVmService.testingApiWaitMillis.addAndGet(waitedMillis);
+      if (!isApiRegistered) {
+        throw new FlutterProtocolException(
+            String.format(
+                "Flutter testing APIs not registered with Dart isolate %s after %d ms.",
+                isolateId, waitedMillis));
+      }
+      Log.d(
+          TAG,
+          String.format(
+              "Flutter testing API registration signalled by %s after %d ms.",
+              signal, waitedMillis));
+    }
+
+    private boolean waitForEvent(SettableFuture<Void> event, long deadlineNanos) {
+      try {
+        event.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        return true;
+      } catch (TimeoutException | ExecutionException e) {
+        return false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt(); // Restores the interrupted status.
+        return false;
+      }
+    }
+
+    private boolean pollTestingApiRegistered(long deadlineNanos) {
+      long delayMillis = INITIAL_POLLING_DELAY_MILLIS;
+      while (System.nanoTime() < deadlineNanos) {
         try {
-          JsonRpcResponse isolateResp = dartVmService.getIsolateInfo().get();
-          isApiRegistered = isTestingApiRegistered(isolateResp);
-        } catch (ExecutionException e) {
-          Log.d(
-              TAG,
-              "Error occurred during retrieving Dart isolate information. Retry.",
-              e.getCause());
-          continue;
+          Thread.sleep(delayMillis);
         } catch (InterruptedException e) {
-          Log.d(
-              TAG,
-              "InterruptedException occurred during retrieving Dart isolate information. Retry.",
-              e);
           Thread.currentThread().interrupt(); // Restores the interrupted status.
-          continue;
+          return false;
+        }
+        if (checkTestingApiRegistered()) {
+          return true;
         }
-      } while (!isApiRegistered && retries > 0);
+        delayMillis = Math.min(delayMillis * 2, MAX_POLLING_DELAY_MILLIS);
+      }
+      return false;
+    }
 
-      if (!isApiRegistered) {
-        throw new FlutterProtocolException(
-            String.format("Flutter testing APIs not registered with Dart isolate %s.", isolateId));
+    private boolean checkTestingApiRegistered() {
+      try {
+        return isTestingApiRegistered(dartVmService.getIsolateInfo().get());
+      } catch (ExecutionException e) {
+        Log.d(TAG, "Error occurred during retrieving Dart isolate information.", e.getCause());
+        return false;
+      } catch (InterruptedException e) {
+        Log.d(TAG, "InterruptedException occurred during retrieving Dart isolate information.", e);
+        Thread.currentThread().interrupt(); // Restores the interrupted status.
+        return false;
+      }
+    }
+
+    @VisibleForTesting
+    boolean isTestingApiAddedEvent(JsonRpcRequest notification) {
+      if (!STREAM_NOTIFY_METHOD.equals(notification.getMethod())
+          || notification.getParams() == null
+          || !notification.getParams().has(EVENT_TAG)) {
+        return false;
       }
+      JsonObject event = notification.getParams().getAsJsonObject(EVENT_TAG);
+      return SERVICE_EXTENSION_ADDED_KIND.equals(getString(event, KIND_TAG))
+          && TESTING_EXTENSION_METHOD.equals(getString(event, EXTENSION_RPC_TAG))
+          && event.has(ISOLATE_TAG)
+          && isolateId.equals(getString(event.getAsJsonObject(ISOLATE_TAG), ID_TAG));
+    }
+
+    @Nullable
+    private static String getString(JsonObject object, String tag) {
+      JsonElement element = object.get(tag);
+      return element == null || !element.isJsonPrimitive() ? null : element.getAsString();
     }
 
     @VisibleForTesting
@@ -0,0 +1,154 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package androidx.test.espresso.flutter.internal.protocol.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import android.util.Log;
+import androidx.test.espresso.flutter.internal.idgenerator.IdGenerator;
+import androidx.test.espresso.flutter.internal.jsonrpc.JsonRpcClient;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import javax.annotation.Nonnull;
+import okhttp3.OkHttpClient;
+
+/**
+ * A cache of {@link DartVmService}s, one for each Dart VM service and isolate.
+ *
+ * <p>Actions performed on the same {@code FlutterView} share one {@code DartVmService}, and with it
+ * one JSON-RPC WebSocket connection, which is reopened if it is lost. Whether the Flutter testing
+ * API is registered with the isolate is checked only until it succeeds, rather than before every
+ * action.
+ */
+public final class DartVmServiceCache {
+
+  private static final String TAG = DartVmServiceCache.class.getSimpleName();
+
+  /**
+   * The maximum number of cached services. Services for isolates that are no longer in use, e.g.
+   * after an activity has been relaunched with a new engine, are closed once this is exceeded.
+   */
+  private static final int MAX_CACHED_SERVICES = 4;
+
+  private static final DartVmServiceCache INSTANCE = new DartVmServiceCache();
+
+  // Guarded by this.
+  private final Map<String, DartVmService> services =
+      new LinkedHashMap<String, DartVmService>(MAX_CACHED_SERVICES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DartVmService> eldest) {
+          if (size() > MAX_CACHED_SERVICES) {
+            eldest.getValue().close();
+            return true;
+          }
+          return false;
+        }
+      };
+  // Guarded by this.
+  private final Map<String, URI> serviceProtocolUris = new LinkedHashMap<>();
+  // Guarded by this.
+  private int createdCount;
+  // Guarded by this.
+  private int reusedCount;
+
+  private DartVmServiceCache() {}
+
+  /** Returns the cache shared by all Flutter actions in the process. */
+  public static DartVmServiceCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the {@code DartVmService} for the given isolate of the Dart VM service at {@code
+   * vmServiceUrl}, creating it if needed.
+   *
+   * @param vmServiceUrl the http URL of the Dart VM service.
+   * @param isolateId the ID of the Dart isolate that draws the Flutter UI.
+   * @param webSocketClient the WebSocket client used to create the service's connection.
+   * @param messageIdGenerator the ID generator used by a newly created service.
+   * @param taskExecutor the executor used by a newly created service.
+   */
+  public synchronized DartVmService get(
+      @Nonnull String vmServiceUrl,
+      @Nonnull String isolateId,
+      @Nonnull OkHttpClient webSocketClient,
+      @Nonnull IdGenerator<Integer> messageIdGenerator,
+      @Nonnull ExecutorService taskExecutor) {
+    checkNotNull(vmServiceUrl);
+    checkNotNull(isolateId);
+    String key = vmServiceUrl + " " + isolateId;
+    DartVmService service = services.get(key);
+    if (service == null) {
+      URI serviceProtocolUri = serviceProtocolUris.get(vmServiceUrl);
+      if (serviceProtocolUri == null) {
+        serviceProtocolUri = DartVmServiceUtil.getServiceProtocolUri(vmServiceUrl);
+        serviceProtocolUris.put(vmServiceUrl, serviceProtocolUri);
+      }
+      service =
+          new DartVmService(
+              isolateId,
+              new JsonRpcClient(webSocketClient, serviceProtocolUri),
+              messageIdGenerator,
+              taskExecutor);
+      services.put(key, service);
+      createdCount++;
+    } else {
+      reusedCount++;
+    }
+    if (Log.isLoggable(TAG, Log.DEBUG)) {
+      Log.d(TAG, getStatistics());
+    }
+    return service;
+  }
+
+  /** Returns the number of services, and so WebSocket connections, that have been created. */
+  public synchronized int getCreatedCount() {
+    return createdCount;
+  }
+
+  /** Returns the number of times a cached service was reused instead of creating a new one. */
+  public synchronized int getReusedCount() {
+    return reusedCount;
+  }
+
+  /** Returns the number of times the connections of the cached services have been reopened. */
+  public synchronized int getReconnectCount() {
+    int reconnectCount = 0;
+    for (DartVmService service : services.values()) {
+      reconnectCount += service.getReconnectCount();
+    }
+    return reconnectCount;
+  }
+
+  /**
+   * Returns the total time the cached services have spent waiting for the Flutter testing API to
+   * be registered.
+   */
+  public synchronized long getTestingApiWaitMillis() {
+    long waitMillis = 0;
+    for (DartVmService service : services.values()) {
+      waitMillis += service.getTestingApiWaitMillis();
+    }
+    return waitMillis;
+  }
+
+  /** Returns a human-readable summary of the connection reuse statistics. */
+  public synchronized String getStatistics() {
+    return String.format(
+        "Dart VM service connections: %d created, %d reused, %d reconnected, "
+            + "%d ms waiting for the testing API.",
+        createdCount, reusedCount, getReconnectCount(), getTestingApiWaitMillis());
+  }
+
+  /** Closes and removes all cached services. */
+  public synchronized void clear() {
+    for (DartVmService service : services.values()) {
+      service.close();
+    }
+    services.clear();
+  }
+}
@@ -0,0 +1,170 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package androidx.test.espresso.flutter.internal.jsonrpc;
+
+import androidx.test.espresso.flutter.internal.jsonrpc.message.ErrorObject;
+import androidx.test.espresso.flutter.internal.jsonrpc.message.JsonRpcRequest;
+import androidx.test.espresso.flutter.internal.jsonrpc.message.JsonRpcResponse;
+import com.google.gson.JsonObject;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.annotation.Nullable;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okio.ByteString;
+
+/**
+ * An {@link OkHttpClient} that opens {@link FakeWebSocket}s instead of connecting to a server, so
+ * that tests can answer the JSON-RPC requests sent on them and drop the connections.
+ */
+public final class FakeWebSocketClient extends OkHttpClient {
+
+  /** Answers the JSON-RPC requests sent on a {@link FakeWebSocket}. */
+  public interface RequestHandler {
+    /** Called on the sending thread, before {@code WebSocket#send} returns. */
+    void onRequest(FakeWebSocket webSocket, JsonRpcRequest request);
+  }
+
+  private final List<FakeWebSocket> webSockets = new CopyOnWriteArrayList<>();
+  private volatile RequestHandler requestHandler =
+      new RequestHandler() {
+        @Override
+        public void onRequest(FakeWebSocket webSocket, JsonRpcRequest request) {}
+      };
+
+  /** Sets the handler of the requests sent on all the WebSockets of this client. */
+  public void setRequestHandler(RequestHandler requestHandler) {
+    this.requestHandler = requestHandler;
+  }
+
+  /** Returns the WebSockets opened by this client, in the order they were opened. */
+  public List<FakeWebSocket> getWebSockets() {
+    return webSockets;
+  }
+
+  /** Returns the WebSocket opened last by this client. */
+  public FakeWebSocket getLastWebSocket() {
+    return webSockets.get(webSockets.size() - 1);
+  }
+
+  @Override
+  public WebSocket newWebSocket(Request request, WebSocketListener listener) {
+    FakeWebSocket webSocket = new FakeWebSocket(request, listener);
+    webSockets.add(webSocket);
+    return webSocket;
+  }
+
+  /** A WebSocket that records the requests sent on it and delivers messages to its listener. */
+  public final class FakeWebSocket implements WebSocket {
+    private final Request request;
+    private final WebSocketListener listener;
+    private final List<JsonRpcRequest> sentRequests = new CopyOnWriteArrayList<>();
+    private volatile boolean isClosed;
+
+    private FakeWebSocket(Request request, WebSocketListener listener) {
+      this.request = request;
+      this.listener = listener;
+    }
+
+    /** Returns the requests sent on this WebSocket. */
+    public List<JsonRpcRequest> getSentRequests() {
+      return sentRequests;
+    }
+
+    /** Returns the number of requests sent on this WebSocket with the given method. */
+    public int getSentRequestCount(String method) {
+      int count = 0;
+      for (JsonRpcRequest sentRequest : sentRequests) {
+        if (method.equals(sentRequest.getMethod())) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    /** Returns whether this WebSocket was closed or cancelled by the client. */
+    public boolean isClosed() {
+      return isClosed;
+    }
+
+    /** Delivers a successful response to the request with the given ID. */
+    public void respond(String id, JsonObject result) {
+      JsonRpcResponse response = new JsonRpcResponse(id);
+      response.setResult(result);
+      listener.onMessage(this, response.toJson());
+    }
+
+    /** Delivers an error response to the request with the given ID. */
+    public void respondWithError(String id, int code, String message) {
+      JsonRpcResponse response = new JsonRpcResponse(id);
+      response.setError(new ErrorObject(code, message));
+      listener.onMessage(this, response.toJson());
+    }
+
+    /** Delivers a notification sent by the server. */
+    public void sendNotification(String method, @Nullable JsonObject params) {
+      JsonRpcRequest.Builder builder = new JsonRpcRequest.Builder(method);
+      if (params != null) {
+        builder.setParams(params);
+      }
+      listener.onMessage(this, builder.build().toJson());
+    }
+
+    /** Starts a close of the connection by the server. */
+    public void closeByServer(String reason) {
+      listener.onClosing(this, 1001, reason);
+    }
+
+    /** Finishes the close of the connection. */
+    public void finishClosing(String reason) {
+      listener.onClosed(this, 1001, reason);
+    }
+
+    /** Fails the connection, as when it is reset. */
+    public void fail(String message) {
+      listener.onFailure(this, new IOException(message), null);
+    }
+
+    @Override
+    public Request request() {
+      return request;
+    }
+
+    @Override
+    public long queueSize() {
+      return 0;
+    }
+
+    @Override
+    public boolean send(String text) {
+      if (isClosed) {
+        return false;
+      }
+      JsonRpcRequest sentRequest = JsonRpcRequest.fromJson(text);
+      sentRequests.add(sentRequest);
+      requestHandler.onRequest(this, sentRequest);
+      return true;
+    }
+
+    @Override
+    public boolean send(ByteString bytes) {
+      return false;
+    }
+
+    @Override
+    public boolean close(int code, @Nullable String reason) {
+      isClosed = true;
+      return true;
+    }
+
+    @Override
+    public void cancel() {
+      isClosed = true;
+    }
+  }
+}
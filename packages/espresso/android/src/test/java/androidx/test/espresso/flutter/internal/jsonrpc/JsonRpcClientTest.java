@@ -0,0 +1,164 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package androidx.test.espresso.flutter.internal.jsonrpc;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import androidx.test.espresso.flutter.internal.jsonrpc.FakeWebSocketClient.FakeWebSocket;
+import androidx.test.espresso.flutter.internal.jsonrpc.message.JsonRpcRequest;
+import androidx.test.espresso.flutter.internal.jsonrpc.message.JsonRpcResponse;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.gson.JsonObject;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JsonRpcClientTest {
+
+  private static final URI WEB_SOCKET_URI = URI.create("ws://127.0.0.1:1234/abc=/ws");
+
+  private FakeWebSocketClient webSocketClient;
+  private JsonRpcClient client;
+
+  @Before
+  public void setUp() {
+    webSocketClient = new FakeWebSocketClient();
+    client = new JsonRpcClient(webSocketClient, WEB_SOCKET_URI);
+  }
+
+  @Test
+  public void request_completesWithTheResponseWithItsId() throws Exception {
+    List<ListenableFuture<JsonRpcResponse>> futures =
+        client.requestAll(Arrays.asList(newRequest("1"), newRequest("2")));
+    FakeWebSocket webSocket = webSocketClient.getLastWebSocket();
+    assertThat(webSocket.getSentRequests()).hasSize(2);
+
+    webSocket.respond("2", new JsonObject());
+
+    assertThat(futures.get(0).isDone()).isFalse();
+    assertThat(futures.get(1).get().getId()).isEqualTo("2");
+  }
+
+  @Test
+  public void request_completesWhenRespondedWhileSending() throws Exception {
+    webSocketClient.setRequestHandler(
+        new FakeWebSocketClient.RequestHandler() {
+          @Override
+          public void onRequest(FakeWebSocket webSocket, JsonRpcRequest request) {
+            webSocket.respond(request.getId(), new JsonObject());
+          }
+        });
+
+    assertThat(client.request(newRequest("1")).get().getId()).isEqualTo("1");
+  }
+
+  @Test
+  public void request_notificationCompletesImmediately() throws Exception {
+    ListenableFuture<JsonRpcResponse> future =
+        client.request(new JsonRpcRequest.Builder("notify").build());
+
+    assertThat(future.get()).isNull();
+    assertThat(webSocketClient.getLastWebSocket().getSentRequests()).hasSize(1);
+  }
+
+  @Test
+  public void lostConnection_failsPendingRequests() {
+    ListenableFuture<JsonRpcResponse> future = client.request(newRequest("1"));
+
+    webSocketClient.getLastWebSocket().fail("Connection reset");
+
+    ExecutionException e = assertThrows(ExecutionException.class, future::get);
+    assertThat(e).hasCauseThat().isInstanceOf(ConnectException.class);
+  }
+
+  @Test
+  public void lostConnection_reconnectsOnTheNextRequest() throws Exception {
+    FakeWebSocket firstWebSocket = webSocketClient.getLastWebSocket();
+    firstWebSocket.closeByServer("Going away");
+    assertThat(firstWebSocket.isClosed()).isTrue();
+    assertThat(webSocketClient.getWebSockets()).hasSize(1);
+
+    ListenableFuture<JsonRpcResponse> future = client.request(newRequest("1"));
+
+    assertThat(webSocketClient.getWebSockets()).hasSize(2);
+    assertThat(client.getReconnectCount()).isEqualTo(1);
+    FakeWebSocket secondWebSocket = webSocketClient.getLastWebSocket();
+    assertThat(firstWebSocket.getSentRequests()).isEmpty();
+    assertThat(secondWebSocket.getSentRequests()).hasSize(1);
+    assertThat(secondWebSocket.request().url().encodedPath()).isEqualTo("/abc=/ws");
+
+    secondWebSocket.respond("1", new JsonObject());
+
+    assertThat(future.get().getId()).isEqualTo("1");
+  }
+
+  @Test
+  public void lostConnection_doesNotFailRequestsOnTheNewConnection() throws Exception {
+    FakeWebSocket firstWebSocket = webSocketClient.getLastWebSocket();
+    ListenableFuture<JsonRpcResponse> firstFuture = client.request(newRequest("1"));
+    firstWebSocket.closeByServer("Going away");
+    ListenableFuture<JsonRpcResponse> secondFuture = client.request(newRequest("2"));
+    FakeWebSocket secondWebSocket = webSocketClient.getLastWebSocket();
+
+    // The first connection finishes closing after the second one was opened.
+    firstWebSocket.finishClosing("Going away");
+
+    assertThrows(ExecutionException.class, firstFuture::get);
+    assertThat(secondFuture.isDone()).isFalse();
+    client.request(newRequest("3"));
+    assertThat(webSocketClient.getWebSockets()).hasSize(2);
+    assertThat(client.getReconnectCount()).isEqualTo(1);
+
+    secondWebSocket.respond("2", new JsonObject());
+
+    assertThat(secondFuture.get().getId()).isEqualTo("2");
+  }
+
+  @Test
+  public void disconnect_reconnectsOnTheNextRequest() {
+    client.disconnect();
+    assertThat(webSocketClient.getLastWebSocket().isClosed()).isTrue();
+
+    client.request(newRequest("1"));
+
+    assertThat(webSocketClient.getWebSockets()).hasSize(2);
+    assertThat(webSocketClient.getLastWebSocket().getSentRequests()).hasSize(1);
+  }
+
+  @Test
+  public void notifications_areDeliveredToListeners() {
+    final List<JsonRpcRequest> notifications = new ArrayList<>();
+    JsonRpcClient.NotificationListener listener =
+        new JsonRpcClient.NotificationListener() {
+          @Override
+          public void onNotification(JsonRpcRequest notification) {
+            notifications.add(notification);
+          }
+        };
+    client.addNotificationListener(listener);
+    ListenableFuture<JsonRpcResponse> future = client.request(newRequest("1"));
+    JsonObject params = new JsonObject();
+    params.addProperty("streamId", "Isolate");
+
+    webSocketClient.getLastWebSocket().sendNotification("streamNotify", params);
+    client.removeNotificationListener(listener);
+    webSocketClient.getLastWebSocket().sendNotification("streamNotify", params);
+
+    assertThat(notifications).hasSize(1);
+    assertThat(notifications.get(0).getMethod()).isEqualTo("streamNotify");
+    assertThat(notifications.get(0).getParams()).isEqualTo(params);
+    assertThat(future.isDone()).isFalse();
+  }
+
+  private static JsonRpcRequest newRequest(String id) {
+    return new JsonRpcRequest.Builder("getVM").setId(id).build();
+  }
+}
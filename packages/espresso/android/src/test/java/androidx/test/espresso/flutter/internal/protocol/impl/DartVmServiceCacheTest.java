@@ -0,0 +1,107 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package androidx.test.espresso.flutter.internal.protocol.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import androidx.test.espresso.flutter.internal.idgenerator.IdGenerators;
+import androidx.test.espresso.flutter.internal.jsonrpc.FakeWebSocketClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DartVmServiceCacheTest {
+
+  private static final String VM_SERVICE_URL = "http://127.0.0.1:1234/abc=/";
+
+  private final DartVmServiceCache cache = DartVmServiceCache.getInstance();
+  private FakeWebSocketClient webSocketClient;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    cache.clear();
+    webSocketClient = new FakeWebSocketClient();
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    cache.clear();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void get_reusesTheServiceOfTheSameIsolate() {
+    int createdCount = cache.getCreatedCount();
+    int reusedCount = cache.getReusedCount();
+
+    DartVmService first = get(VM_SERVICE_URL, "isolates/1");
+    DartVmService second = get(VM_SERVICE_URL, "isolates/1");
+
+    assertThat(second).isSameInstanceAs(first);
+    assertThat(cache.getCreatedCount()).isEqualTo(createdCount + 1);
+    assertThat(cache.getReusedCount()).isEqualTo(reusedCount + 1);
+    assertThat(webSocketClient.getWebSockets()).hasSize(1);
+    assertThat(webSocketClient.getLastWebSocket().request().url().encodedPath())
+        .isEqualTo("/abc=/ws");
+  }
+
+  @Test
+  public void get_createsAServicePerIsolate() {
+    DartVmService first = get(VM_SERVICE_URL, "isolates/1");
+    DartVmService second = get(VM_SERVICE_URL, "isolates/2");
+
+    assertThat(second).isNotSameInstanceAs(first);
+    assertThat(webSocketClient.getWebSockets()).hasSize(2);
+  }
+
+  @Test
+  public void get_closesTheLeastRecentlyUsedService() {
+    get(VM_SERVICE_URL, "isolates/1");
+    get(VM_SERVICE_URL, "isolates/2");
+    get(VM_SERVICE_URL, "isolates/3");
+    get(VM_SERVICE_URL, "isolates/4");
+    get(VM_SERVICE_URL, "isolates/1");
+
+    get(VM_SERVICE_URL, "isolates/5");
+
+    assertThat(webSocketClient.getWebSockets().get(0).isClosed()).isFalse();
+    assertThat(webSocketClient.getWebSockets().get(1).isClosed()).isTrue();
+    assertThat(webSocketClient.getWebSockets().get(2).isClosed()).isFalse();
+  }
+
+  @Test
+  public void clear_closesTheServices() {
+    DartVmService service = get(VM_SERVICE_URL, "isolates/1");
+
+    cache.clear();
+
+    assertThat(webSocketClient.getLastWebSocket().isClosed()).isTrue();
+    assertThat(get(VM_SERVICE_URL, "isolates/1")).isNotSameInstanceAs(service);
+  }
+
+  @Test
+  public void getReconnectCount_sumsTheReconnectionsOfTheServices() {
+    DartVmService first = get(VM_SERVICE_URL, "isolates/1");
+    get(VM_SERVICE_URL, "isolates/2");
+    webSocketClient.getWebSockets().get(0).fail("Connection reset");
+
+    first.getIsolateInfo();
+
+    assertThat(cache.getReconnectCount()).isEqualTo(1);
+  }
+
+  private DartVmService get(String vmServiceUrl, String isolateId) {
+    return cache.get(
+        vmServiceUrl,
+        isolateId,
+        webSocketClient,
+        IdGenerators.newIntegerIdGenerator(),
+        executor);
+  }
+}
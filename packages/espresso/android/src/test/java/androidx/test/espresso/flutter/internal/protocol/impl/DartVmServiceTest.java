@@ -0,0 +1,194 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package androidx.test.espresso.flutter.internal.protocol.impl;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import androidx.test.espresso.flutter.internal.idgenerator.IdGenerators;
+import androidx.test.espresso.flutter.internal.jsonrpc.FakeWebSocketClient;
+import androidx.test.espresso.flutter.internal.jsonrpc.FakeWebSocketClient.FakeWebSocket;
+import androidx.test.espresso.flutter.internal.jsonrpc.JsonRpcClient;
+import androidx.test.espresso.flutter.internal.jsonrpc.message.JsonRpcRequest;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DartVmServiceTest {
+
+  private static final URI WEB_SOCKET_URI = URI.create("ws://127.0.0.1:1234/abc=/ws");
+  private static final String ISOLATE_ID = "isolates/1";
+  private static final String TESTING_EXTENSION_METHOD = "ext.flutter.driver";
+
+  private FakeWebSocketClient webSocketClient;
+  private ExecutorService executor;
+  private DartVmService service;
+
+  @Before
+  public void setUp() {
+    webSocketClient = new FakeWebSocketClient();
+    executor = Executors.newSingleThreadExecutor();
+    service =
+        new DartVmService(
+            ISOLATE_ID,
+            new JsonRpcClient(webSocketClient, WEB_SOCKET_URI),
+            IdGenerators.newIntegerIdGenerator(),
+            executor);
+    DartVmService.setTestingApiRegistrationTimeout(5, TimeUnit.SECONDS);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+    DartVmService.setTestingApiRegistrationTimeout(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void connect_whenTestingApiIsListed_checksTheIsolateOnce() throws Exception {
+    webSocketClient.setRequestHandler(new FakeVmService(true, 1, null));
+
+    service.connect().get(5, TimeUnit.SECONDS);
+    service.connect().get(5, TimeUnit.SECONDS);
+
+    FakeWebSocket webSocket = webSocketClient.getLastWebSocket();
+    assertThat(webSocket.getSentRequestCount("streamListen")).isEqualTo(1);
+    assertThat(webSocket.getSentRequestCount("getIsolate")).isEqualTo(1);
+  }
+
+  @Test
+  public void connect_waitsForTheServiceExtensionAddedEvent() throws Exception {
+    webSocketClient.setRequestHandler(new FakeVmService(true, Integer.MAX_VALUE, ISOLATE_ID));
+
+    service.connect().get(5, TimeUnit.SECONDS);
+
+    FakeWebSocket webSocket = webSocketClient.getLastWebSocket();
+    assertThat(webSocket.getSentRequestCount("getIsolate")).isEqualTo(1);
+  }
+
+  @Test
+  public void connect_ignoresTheEventsOfOtherIsolates() {
+    DartVmService.setTestingApiRegistrationTimeout(200, TimeUnit.MILLISECONDS);
+    webSocketClient.setRequestHandler(new FakeVmService(true, Integer.MAX_VALUE, "isolates/2"));
+
+    ExecutionException e =
+        assertThrows(ExecutionException.class, () -> service.connect().get(5, TimeUnit.SECONDS));
+
+    assertThat(e).hasCauseThat().isInstanceOf(FlutterProtocolException.class);
+    // The isolate is checked once more after the wait for the event times out.
+    assertThat(webSocketClient.getLastWebSocket().getSentRequestCount("getIsolate")).isEqualTo(2);
+  }
+
+  @Test
+  public void connect_whenEventsAreUnavailable_pollsTheIsolate() throws Exception {
+    webSocketClient.setRequestHandler(new FakeVmService(false, 3, null));
+
+    service.connect().get(5, TimeUnit.SECONDS);
+
+    assertThat(webSocketClient.getLastWebSocket().getSentRequestCount("getIsolate")).isEqualTo(3);
+  }
+
+  @Test
+  public void isTestingApiAddedEvent_matchesOnlyTheTestingApiOfTheIsolate() {
+    DartVmService.IsDartVmServiceReady isReady =
+        new DartVmService.IsDartVmServiceReady(ISOLATE_ID, service);
+
+    assertThat(isReady.isTestingApiAddedEvent(newEvent(TESTING_EXTENSION_METHOD, ISOLATE_ID)))
+        .isTrue();
+    assertThat(isReady.isTestingApiAddedEvent(newEvent("ext.flutter.other", ISOLATE_ID)))
+        .isFalse();
+    assertThat(isReady.isTestingApiAddedEvent(newEvent(TESTING_EXTENSION_METHOD, "isolates/2")))
+        .isFalse();
+    assertThat(isReady.isTestingApiAddedEvent(new JsonRpcRequest.Builder("streamNotify").build()))
+        .isFalse();
+  }
+
+  @Test
+  public void getReconnectCount_countsReconnectionsOfTheClient() {
+    webSocketClient.getLastWebSocket().fail("Connection reset");
+
+    service.getIsolateInfo();
+
+    assertThat(service.getReconnectCount()).isEqualTo(1);
+    assertThat(webSocketClient.getWebSockets()).hasSize(2);
+  }
+
+  private static JsonObject newEventParams(String extensionRpc, String isolateId) {
+    JsonObject isolate = new JsonObject();
+    isolate.addProperty("id", isolateId);
+    JsonObject event = new JsonObject();
+    event.addProperty("kind", "ServiceExtensionAdded");
+    event.addProperty("extensionRPC", extensionRpc);
+    event.add("isolate", isolate);
+    JsonObject params = new JsonObject();
+    params.addProperty("streamId", "Isolate");
+    params.add("event", event);
+    return params;
+  }
+
+  private static JsonRpcRequest newEvent(String extensionRpc, String isolateId) {
+    return new JsonRpcRequest.Builder("streamNotify")
+        .setParams(newEventParams(extensionRpc, isolateId))
+        .build();
+  }
+
+  /** Answers the requests sent by {@code DartVmService} as the Dart VM service would. */
+  private static final class FakeVmService implements FakeWebSocketClient.RequestHandler {
+    private final boolean isStreamListenSupported;
+    private final int listedFromGetIsolateCount;
+    @Nullable private final String eventIsolateId;
+    private final AtomicInteger getIsolateCount = new AtomicInteger();
+
+    /**
+     * @param isStreamListenSupported whether subscribing to the Isolate stream succeeds.
+     * @param listedFromGetIsolateCount the number of the first getIsolate request whose response
+     *     lists the testing API.
+     * @param eventIsolateId the isolate of the ServiceExtensionAdded event sent after responding to
+     *     a getIsolate request that does not list the testing API, or null to send no event.
+     */
+    FakeVmService(
+        boolean isStreamListenSupported,
+        int listedFromGetIsolateCount,
+        @Nullable String eventIsolateId) {
+      this.isStreamListenSupported = isStreamListenSupported;
+      this.listedFromGetIsolateCount = listedFromGetIsolateCount;
+      this.eventIsolateId = eventIsolateId;
+    }
+
+    @Override
+    public void onRequest(FakeWebSocket webSocket, JsonRpcRequest request) {
+      if ("streamListen".equals(request.getMethod())) {
+        if (isStreamListenSupported) {
+          JsonObject result = new JsonObject();
+          result.addProperty("type", "Success");
+          webSocket.respond(request.getId(), result);
+        } else {
+          webSocket.respondWithError(request.getId(), -32601, "Method not found");
+        }
+      } else if ("getIsolate".equals(request.getMethod())) {
+        boolean isListed = getIsolateCount.incrementAndGet() >= listedFromGetIsolateCount;
+        JsonArray extensionRpcs = new JsonArray();
+        if (isListed) {
+          extensionRpcs.add(TESTING_EXTENSION_METHOD);
+        }
+        JsonObject result = new JsonObject();
+        result.add("extensionRPCs", extensionRpcs);
+        webSocket.respond(request.getId(), result);
+        if (!isListed && eventIsolateId != null) {
+          webSocket.sendNotification(
+              "streamNotify", newEventParams(TESTING_EXTENSION_METHOD, eventIsolateId));
+        }
+      }
+    }
+  }
+}
@@ -54,6 +54,7 @@ public class FileSelectorAndroidPlugin implements FlutterPlugin, ActivityAware {
   public void onDetachedFromActivity() {
     if (fileSelectorApi != null) {
       fileSelectorApi.setActivityPluginBinding(null);
+      fileSelectorApi.closeAllReaders();
     }
   }
 }
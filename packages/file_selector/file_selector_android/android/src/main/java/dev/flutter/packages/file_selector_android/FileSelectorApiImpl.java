@@ -23,14 +23,22 @@ import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
 import io.flutter.plugin.common.PluginRegistry;
-import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelectorApi {
   private static final String TAG = "FileSelectorApiImpl";
@@ -41,14 +49,46 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
   // Request code for selecting a directory.
   private static final int OPEN_DIR = 223;
 
+  // Upper bound for the number of selected files that are copied to the cache at the same time.
+  // Copies are bound by the storage and the document providers, so more threads do not help.
+  private static final int MAX_CONCURRENT_COPIES = 4;
+
+  // Shared by all instances, so that Dart never reaches a reader of another instance with the
+  // identifier of a reader that was closed.
+  private static final AtomicLong nextReaderId = new AtomicLong();
+
+  // The only columns read from the metadata of a selected file.
+  private static final String[] METADATA_PROJECTION = {
+    OpenableColumns.DISPLAY_NAME, OpenableColumns.SIZE
+  };
+
   private final @NonNull NativeObjectFactory objectFactory;
   private final @NonNull AndroidSdkChecker sdkChecker;
+  // Converts selected files to responses, off the main thread.
+  private final @NonNull Executor executor;
+  // Copies the files of a multi-selection to the cache concurrently.
+  private final @NonNull Executor copyExecutor;
   @Nullable ActivityPluginBinding activityPluginBinding;
+  // The files opened with openReader, by the identifier of their reader.
+  private final Map<Long, InputStream> readers = new HashMap<>();
 
   private abstract static class OnResultListener {
     public abstract void onResult(int resultCode, @Nullable Intent data);
   }
 
+  // The metadata of a selected file, as reported by its document provider.
+  private static class FileMetadata {
+    final @Nullable String name;
+    final @Nullable Long size;
+    final @Nullable String mimeType;
+
+    FileMetadata(@Nullable String name, @Nullable Long size, @Nullable String mimeType) {
+      this.name = name;
+      this.size = size;
+      this.mimeType = mimeType;
+    }
+  }
+
   // Handles instantiating class objects that are needed by this class. This is provided to be
   // overridden for tests.
   @VisibleForTesting
@@ -57,11 +97,6 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
     Intent newIntent(@NonNull String action) {
       return new Intent(action);
     }
-
-    @NonNull
-    DataInputStream newDataInputStream(InputStream inputStream) {
-      return new DataInputStream(inputStream);
-    }
   }
 
   // Interface for an injectable SDK version checker.
@@ -75,23 +110,41 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
     this(
         activityPluginBinding,
         new NativeObjectFactory(),
-        (int version) -> Build.VERSION.SDK_INT >= version);
+        (int version) -> Build.VERSION.SDK_INT >= version,
+        createExecutor(1),
+        createExecutor(MAX_CONCURRENT_COPIES));
   }
 
   @VisibleForTesting
   FileSelectorApiImpl(
       @NonNull ActivityPluginBinding activityPluginBinding,
       @NonNull NativeObjectFactory objectFactory,
-      @NonNull AndroidSdkChecker sdkChecker) {
+      @NonNull AndroidSdkChecker sdkChecker,
+      @NonNull Executor executor,
+      @NonNull Executor copyExecutor) {
     this.activityPluginBinding = activityPluginBinding;
     this.objectFactory = objectFactory;
     this.sdkChecker = sdkChecker;
+    this.executor = executor;
+    this.copyExecutor = copyExecutor;
+  }
+
+  // Creates a pool whose threads are only kept alive while files are being processed, since an
+  // instance is created each time the plugin is attached to an activity.
+  @NonNull
+  private static Executor createExecutor(int threadCount) {
+    final ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threadCount, threadCount, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   @Override
   public void openFile(
       @Nullable String initialDirectory,
       @NonNull GeneratedFileSelectorApi.FileTypes allowedTypes,
+      @NonNull Boolean copyToCache,
       @NonNull
           GeneratedFileSelectorApi.NullableResult<GeneratedFileSelectorApi.FileResponse> result) {
     final Intent intent = objectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT);
@@ -115,12 +168,17 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
                   return;
                 }
 
-                final GeneratedFileSelectorApi.FileResponse file = toFileResponse(uri);
-                if (file != null) {
-                  result.success(file);
-                } else {
-                  result.error(new Exception("Failed to read file: " + uri));
-                }
+                executor.execute(
+                    () -> {
+                      final GeneratedFileSelectorApi.FileResponse file;
+                      try {
+                        file = toFileResponse(uri, copyToCache);
+                      } catch (Exception exception) {
+                        result.error(exception);
+                        return;
+                      }
+                      result.success(file);
+                    });
               } else {
                 result.success(null);
               }
@@ -135,6 +193,7 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
   public void openFiles(
       @Nullable String initialDirectory,
       @NonNull GeneratedFileSelectorApi.FileTypes allowedTypes,
+      @NonNull Boolean copyToCache,
       @NonNull
           GeneratedFileSelectorApi.Result<List<GeneratedFileSelectorApi.FileResponse>> result) {
     final Intent intent = objectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT);
@@ -152,35 +211,33 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
             @Override
             public void onResult(int resultCode, @Nullable Intent data) {
               if (resultCode == Activity.RESULT_OK && data != null) {
-                // Only one file was returned.
-                final Uri uri = data.getData();
-                if (uri != null) {
-                  final GeneratedFileSelectorApi.FileResponse file = toFileResponse(uri);
-                  if (file != null) {
-                    result.success(Collections.singletonList(file));
-                  } else {
-                    result.error(new Exception("Failed to read file: " + uri));
-                  }
-                }
-
-                // Multiple files were returned.
+                final List<Uri> uris = new ArrayList<>();
                 final ClipData clipData = data.getClipData();
                 if (clipData != null) {
-                  final List<GeneratedFileSelectorApi.FileResponse> files =
-                      new ArrayList<>(clipData.getItemCount());
+                  // Multiple files were returned.
                   for (int i = 0; i < clipData.getItemCount(); i++) {
-                    final ClipData.Item clipItem = clipData.getItemAt(i);
-                    final GeneratedFileSelectorApi.FileResponse file =
-                        toFileResponse(clipItem.getUri());
-                    if (file != null) {
-                      files.add(file);
-                    } else {
-                      result.error(new Exception("Failed to read file: " + uri));
-                      return;
-                    }
+                    uris.add(clipData.getItemAt(i).getUri());
                   }
-                  result.success(files);
+                } else if (data.getData() != null) {
+                  // Only one file was returned.
+                  uris.add(data.getData());
                 }
+                if (uris.isEmpty()) {
+                  result.success(new ArrayList<>());
+                  return;
+                }
+
+                executor.execute(
+                    () -> {
+                      final List<GeneratedFileSelectorApi.FileResponse> files;
+                      try {
+                        files = toFileResponses(uris, copyToCache);
+                      } catch (Exception exception) {
+                        result.error(exception);
+                        return;
+                      }
+                      result.success(files);
+                    });
               } else {
                 result.success(new ArrayList<>());
               }
@@ -233,6 +290,107 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
     }
   }
 
+  @NonNull
+  @Override
+  public byte[] readFile(@NonNull String uri, @NonNull Long offset, @NonNull Long length) {
+    final ActivityPluginBinding binding = activityPluginBinding;
+    if (binding == null) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "no_activity", "No activity is available.", null);
+    }
+    if (offset < 0 || length < 0) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "invalid_range", "offset and length must not be negative.", null);
+    }
+
+    try {
+      return FileUtils.readFromUri(
+          binding.getActivity(), Uri.parse(uri), offset, (int) Math.min(length, Integer.MAX_VALUE));
+    } catch (IOException exception) {
+      throw new GeneratedFileSelectorApi.FlutterError("read_error", exception.getMessage(), null);
+    }
+  }
+
+  @NonNull
+  @Override
+  public Long openReader(@NonNull String uri, @NonNull Long offset) {
+    final ActivityPluginBinding binding = activityPluginBinding;
+    if (binding == null) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "no_activity", "No activity is available.", null);
+    }
+    if (offset < 0) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "invalid_range", "offset must not be negative.", null);
+    }
+
+    final InputStream inputStream;
+    try {
+      inputStream = FileUtils.openInputStream(binding.getActivity(), Uri.parse(uri), offset);
+    } catch (IOException exception) {
+      throw new GeneratedFileSelectorApi.FlutterError("read_error", exception.getMessage(), null);
+    }
+    final long readerId = nextReaderId.getAndIncrement();
+    synchronized (readers) {
+      readers.put(readerId, inputStream);
+    }
+    return readerId;
+  }
+
+  @NonNull
+  @Override
+  public byte[] readFromReader(@NonNull Long readerId, @NonNull Long length) {
+    if (length < 0) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "invalid_range", "length must not be negative.", null);
+    }
+    final InputStream inputStream;
+    synchronized (readers) {
+      inputStream = readers.get(readerId);
+    }
+    if (inputStream == null) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "invalid_reader", "No reader with the identifier " + readerId + " is open.", null);
+    }
+
+    try {
+      return FileUtils.readFromStream(inputStream, (int) Math.min(length, Integer.MAX_VALUE));
+    } catch (IOException exception) {
+      throw new GeneratedFileSelectorApi.FlutterError("read_error", exception.getMessage(), null);
+    }
+  }
+
+  @Override
+  public void closeReader(@NonNull Long readerId) {
+    final InputStream inputStream;
+    synchronized (readers) {
+      inputStream = readers.remove(readerId);
+    }
+    if (inputStream != null) {
+      closeQuietly(inputStream);
+    }
+  }
+
+  /** Closes the readers that Dart did not close, since they are not used once detached. */
+  public void closeAllReaders() {
+    final List<InputStream> inputStreams;
+    synchronized (readers) {
+      inputStreams = new ArrayList<>(readers.values());
+      readers.clear();
+    }
+    for (InputStream inputStream : inputStreams) {
+      closeQuietly(inputStream);
+    }
+  }
+
+  private static void closeQuietly(@NonNull InputStream inputStream) {
+    try {
+      inputStream.close();
+    } catch (IOException exception) {
+      Log.w(TAG, "Failed to close a reader: " + exception.getMessage());
+    }
+  }
+
   public void setActivityPluginBinding(@Nullable ActivityPluginBinding activityPluginBinding) {
     this.activityPluginBinding = activityPluginBinding;
   }
@@ -306,19 +464,87 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
     activityPluginBinding.getActivity().startActivityForResult(intent, attemptRequestCode);
   }
 
-  @Nullable
-  GeneratedFileSelectorApi.FileResponse toFileResponse(@NonNull Uri uri) {
-    if (activityPluginBinding == null) {
-      Log.d(TAG, "Activity is not available.");
-      return null;
+  @NonNull
+  GeneratedFileSelectorApi.FileResponse toFileResponse(@NonNull Uri uri, boolean copyToCache)
+      throws IOException {
+    return toFileResponses(Collections.singletonList(uri), copyToCache).get(0);
+  }
+
+  // Converts each of uris to a response, in the same order. Throws if any of them could not be
+  // read.
+  //
+  // The metadata of all files is queried up front, with only the needed columns, so the queries
+  // are not interleaved with the copies to the cache, which then run concurrently on
+  // copyExecutor.
+  @NonNull
+  List<GeneratedFileSelectorApi.FileResponse> toFileResponses(
+      @NonNull List<Uri> uris, boolean copyToCache) throws IOException {
+    final ActivityPluginBinding binding = activityPluginBinding;
+    if (binding == null) {
+      throw new GeneratedFileSelectorApi.FlutterError(
+          "no_activity", "No activity is available.", null);
     }
+    final Activity activity = binding.getActivity();
 
-    final ContentResolver contentResolver =
-        activityPluginBinding.getActivity().getContentResolver();
+    final ContentResolver contentResolver = activity.getContentResolver();
+    final List<FileMetadata> metadata = new ArrayList<>(uris.size());
+    for (Uri uri : uris) {
+      metadata.add(queryMetadata(contentResolver, uri));
+    }
+
+    final List<GeneratedFileSelectorApi.FileResponse> files = new ArrayList<>(uris.size());
+    if (!copyToCache || uris.size() == 1) {
+      for (int i = 0; i < uris.size(); i++) {
+        files.add(toFileResponse(activity, uris.get(i), metadata.get(i), copyToCache));
+      }
+      return files;
+    }
+
+    final List<FutureTask<GeneratedFileSelectorApi.FileResponse>> tasks =
+        new ArrayList<>(uris.size());
+    for (int i = 0; i < uris.size(); i++) {
+      final Uri uri = uris.get(i);
+      final FileMetadata fileMetadata = metadata.get(i);
+      final FutureTask<GeneratedFileSelectorApi.FileResponse> task =
+          new FutureTask<>(() -> toFileResponse(activity, uri, fileMetadata, true));
+      tasks.add(task);
+      copyExecutor.execute(task);
+    }
+
+    try {
+      for (FutureTask<GeneratedFileSelectorApi.FileResponse> task : tasks) {
+        files.add(task.get());
+      }
+    } catch (ExecutionException e) {
+      cancelAll(tasks);
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new RuntimeException(cause);
+    } catch (InterruptedException e) {
+      cancelAll(tasks);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    return files;
+  }
+
+  private static <R> void cancelAll(@NonNull List<FutureTask<R>> tasks) {
+    for (FutureTask<R> task : tasks) {
+      task.cancel(true);
+    }
+  }
 
+  @NonNull
+  private static FileMetadata queryMetadata(
+      @NonNull ContentResolver contentResolver, @NonNull Uri uri) {
     String name = null;
-    Integer size = null;
-    try (Cursor cursor = contentResolver.query(uri, null, null, null, null, null)) {
+    Long size = null;
+    try (Cursor cursor = contentResolver.query(uri, METADATA_PROJECTION, null, null, null, null)) {
       if (cursor != null && cursor.moveToFirst()) {
         // Note it's called "Display Name". This is
         // provider-specific, and might not necessarily be the file name.
@@ -331,42 +557,41 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
         // If the size is unknown, the value stored is null. This will
         // happen often: The storage API allows for remote files, whose
         // size might not be locally known.
-        if (!cursor.isNull(sizeIndex)) {
-          size = cursor.getInt(sizeIndex);
+        if (sizeIndex >= 0 && !cursor.isNull(sizeIndex)) {
+          size = cursor.getLong(sizeIndex);
         }
       }
     }
+    return new FileMetadata(name, size, contentResolver.getType(uri));
+  }
 
-    if (size == null) {
-      return null;
-    }
-
-    final byte[] bytes = new byte[size];
-    try (InputStream inputStream = contentResolver.openInputStream(uri)) {
-      final DataInputStream dataInputStream = objectFactory.newDataInputStream(inputStream);
-      dataInputStream.readFully(bytes);
-    } catch (IOException exception) {
-      Log.w(TAG, exception.getMessage());
-      return null;
-    }
+  @NonNull
+  private static GeneratedFileSelectorApi.FileResponse toFileResponse(
+      @NonNull Activity activity,
+      @NonNull Uri uri,
+      @NonNull FileMetadata metadata,
+      boolean copyToCache)
+      throws IOException {
+    // The content is not read here; Dart reads it in chunks with readFile, or from the copy.
 
     String uriPath;
     GeneratedFileSelectorApi.FileSelectorNativeException nativeError = null;
 
     try {
-      uriPath = FileUtils.getPathFromCopyOfFileFromUri(activityPluginBinding.getActivity(), uri);
+      uriPath =
+          copyToCache ? FileUtils.getPathFromCopyOfFileFromUri(activity, uri) : uri.toString();
     } catch (IOException e) {
       // If closing the output stream fails, we cannot be sure that the
       // target file was written in full. Flushing the stream merely moves
       // the bytes into the OS, not necessarily to the file.
-      uriPath = null;
+      throw new IOException("Failed to read file: " + uri, e);
     } catch (SecurityException e) {
       // Calling `ContentResolver#openInputStream()` has been reported to throw a
       // `SecurityException` on some devices in certain circumstances. Instead of crashing, we
-      // return `null`.
+      // report an error.
       //
       // See https://github.com/flutter/flutter/issues/100025 for more details.
-      uriPath = null;
+      throw new IOException("Failed to read file: " + uri, e);
     } catch (IllegalArgumentException e) {
       uriPath = FILE_SELECTOR_EXCEPTION_PLACEHOLDER_PATH;
       nativeError =
@@ -376,14 +601,17 @@ public class FileSelectorApiImpl implements GeneratedFileSelectorApi.FileSelecto
                   GeneratedFileSelectorApi.FileSelectorExceptionCode.ILLEGAL_ARGUMENT_EXCEPTION)
               .build();
     }
+    if (uriPath == null) {
+      throw new IOException("Failed to read file: " + uri);
+    }
 
     return new GeneratedFileSelectorApi.FileResponse.Builder()
-        .setName(name)
-        .setBytes(bytes)
+        .setName(metadata.name)
         .setPath(uriPath)
-        .setMimeType(contentResolver.getType(uri))
-        .setSize(size.longValue())
+        .setMimeType(metadata.mimeType)
+        .setSize(metadata.size)
         .setFileSelectorNativeException(nativeError)
+        .setUri(uri.toString())
         .build();
   }
 }
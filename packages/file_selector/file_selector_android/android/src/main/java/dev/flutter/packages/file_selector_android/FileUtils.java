@@ -28,16 +28,23 @@ import android.content.Context;
 import android.database.Cursor;
 import android.net.Uri;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
 import android.provider.DocumentsContract;
 import android.provider.MediaStore;
 import android.webkit.MimeTypeMap;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.UUID;
 
 public class FileUtils {
@@ -47,6 +54,8 @@ public class FileUtils {
 
   public static final String FILE_SELECTOR_EXCEPTION_PLACEHOLDER_PATH = "FILE_SELECTOR_EXCEPTION";
 
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
   /**
    * Retrieves path of directory represented by the specified {@code Uri}.
    *
@@ -149,6 +158,124 @@ public class FileUtils {
     }
   }
 
+  /**
+   * Reads up to {@code length} bytes starting at {@code offset} from the file represented by the
+   * specified {@code Uri}.
+   *
+   * <p>Files backed by a file descriptor are read with a positional read, so the bytes before
+   * {@code offset} are never read. Other files, such as pipes from remote document providers, can
+   * only be read from offset 0; use {@link #openInputStream} to read them in chunks. Fewer bytes
+   * than requested are only returned at the end of the file.
+   *
+   * @throws IOException if the file can not seek and {@code offset} is not 0.
+   */
+  @NonNull
+  public static byte[] readFromUri(
+      @NonNull Context context, @NonNull Uri uri, long offset, int length) throws IOException {
+    final ParcelFileDescriptor descriptor =
+        context.getContentResolver().openFileDescriptor(uri, "r");
+    if (descriptor == null) {
+      throw new FileNotFoundException("Unable to open " + uri);
+    }
+    try (FileInputStream inputStream = new ParcelFileDescriptor.AutoCloseInputStream(descriptor)) {
+      final long size = descriptor.getStatSize();
+      // Pipes and sockets have no size.
+      if (size < 0) {
+        // Skipping to the offset would read the file from the start for each range.
+        if (offset > 0) {
+          throw new IOException(
+              "Unable to read " + uri + " from an offset, since it can not seek.");
+        }
+        return readFully(inputStream, length);
+      }
+      // Only the bytes left in the file are allocated, since callers may ask for a large range.
+      final byte[] bytes = new byte[(int) Math.max(0, Math.min(length, size - offset))];
+      final int bytesRead = readFully(inputStream.getChannel(), offset, bytes);
+      return bytesRead == bytes.length ? bytes : Arrays.copyOf(bytes, bytesRead);
+    }
+  }
+
+  /**
+   * Opens the file represented by the specified {@code Uri} to be read from {@code offset}.
+   *
+   * <p>Files backed by a file descriptor are positioned at {@code offset}. The bytes before {@code
+   * offset} are read and dropped for other files, such as pipes, so the returned stream should be
+   * kept open to read the file in chunks.
+   */
+  @NonNull
+  public static InputStream openInputStream(
+      @NonNull Context context, @NonNull Uri uri, long offset) throws IOException {
+    final ParcelFileDescriptor descriptor =
+        context.getContentResolver().openFileDescriptor(uri, "r");
+    if (descriptor == null) {
+      throw new FileNotFoundException("Unable to open " + uri);
+    }
+    final FileInputStream inputStream = new ParcelFileDescriptor.AutoCloseInputStream(descriptor);
+    try {
+      if (descriptor.getStatSize() < 0) {
+        skipFully(inputStream, offset);
+      } else {
+        inputStream.getChannel().position(offset);
+      }
+      return inputStream;
+    } catch (IOException e) {
+      inputStream.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Reads up to {@code length} bytes from {@code in}. Fewer bytes than requested are only returned
+   * at the end of the stream.
+   */
+  @NonNull
+  public static byte[] readFromStream(@NonNull InputStream in, int length) throws IOException {
+    return readFully(in, length);
+  }
+
+  private static int readFully(
+      @NonNull FileChannel channel, long position, @NonNull byte[] destination)
+      throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(destination);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) == -1) {
+        break;
+      }
+    }
+    return buffer.position();
+  }
+
+  // The size of a pipe is not known, so the buffer grows as bytes are read instead of being
+  // allocated for the whole length up front.
+  @NonNull
+  private static byte[] readFully(@NonNull InputStream in, int length) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(length, COPY_BUFFER_SIZE));
+    final byte[] buffer = new byte[Math.min(length, COPY_BUFFER_SIZE)];
+    int remaining = length;
+    while (remaining > 0) {
+      final int bytesRead = in.read(buffer, 0, Math.min(remaining, buffer.length));
+      if (bytesRead == -1) {
+        break;
+      }
+      out.write(buffer, 0, bytesRead);
+      remaining -= bytesRead;
+    }
+    return out.toByteArray();
+  }
+
+  // InputStream#skip seeks, which is not supported by pipes, so the bytes are read and dropped.
+  private static void skipFully(@NonNull InputStream in, long count) throws IOException {
+    final byte[] buffer = new byte[(int) Math.min(count, COPY_BUFFER_SIZE)];
+    long remaining = count;
+    while (remaining > 0) {
+      final int bytesRead = in.read(buffer, 0, (int) Math.min(remaining, buffer.length));
+      if (bytesRead == -1) {
+        return;
+      }
+      remaining -= bytesRead;
+    }
+  }
+
   /** Returns the extension of file with dot, or null if it's empty. */
   private static String getFileExtension(Context context, Uri uriFile) {
     String extension;
@@ -191,7 +318,27 @@ public class FileUtils {
   }
 
   private static void copy(InputStream in, OutputStream out) throws IOException {
-    final byte[] buffer = new byte[4 * 1024];
+    // A stream of a whole file is copied by the kernel, without passing the bytes through the
+    // heap. Streams of part of a file, from an AssetFileDescriptor, have a different class, and
+    // pipes cannot be positioned, so both are copied through the buffer below.
+    if (in.getClass() == ParcelFileDescriptor.AutoCloseInputStream.class
+        && out instanceof FileOutputStream
+        && hasStatSize((FileInputStream) in)) {
+      final FileChannel inChannel = ((FileInputStream) in).getChannel();
+      final FileChannel outChannel = ((FileOutputStream) out).getChannel();
+      final long size = inChannel.size();
+      long position = inChannel.position();
+      while (position < size) {
+        final long transferred = inChannel.transferTo(position, size - position, outChannel);
+        if (transferred <= 0) {
+          break;
+        }
+        position += transferred;
+      }
+      inChannel.position(position);
+    }
+
+    final byte[] buffer = new byte[COPY_BUFFER_SIZE];
     int bytesRead;
     while ((bytesRead = in.read(buffer)) != -1) {
       out.write(buffer, 0, bytesRead);
@@ -199,6 +346,16 @@ public class FileUtils {
     out.flush();
   }
 
+  // Whether the stream reads a regular file, rather than a pipe or socket, which have no size.
+  // Streams whose descriptor cannot be inspected are treated as pipes.
+  private static boolean hasStatSize(@NonNull FileInputStream in) {
+    try (ParcelFileDescriptor descriptor = ParcelFileDescriptor.dup(in.getFD())) {
+      return descriptor.getStatSize() >= 0;
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
   private static String getBaseName(String fileName) {
     int lastDotIndex = fileName.lastIndexOf('.');
     if (lastDotIndex < 0) {
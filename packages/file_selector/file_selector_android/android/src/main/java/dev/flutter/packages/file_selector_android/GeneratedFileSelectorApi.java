@@ -21,7 +21,6 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -210,32 +209,17 @@ public class GeneratedFileSelectorApi {
       this.name = setterArg;
     }
 
-    private @NonNull Long size;
+    /** The size of the file in bytes, or null if the document provider does not know it. */
+    private @Nullable Long size;
 
-    public @NonNull Long getSize() {
+    public @Nullable Long getSize() {
       return size;
     }
 
-    public void setSize(@NonNull Long setterArg) {
-      if (setterArg == null) {
-        throw new IllegalStateException("Nonnull field \"size\" is null.");
-      }
+    public void setSize(@Nullable Long setterArg) {
       this.size = setterArg;
     }
 
-    private @NonNull byte[] bytes;
-
-    public @NonNull byte[] getBytes() {
-      return bytes;
-    }
-
-    public void setBytes(@NonNull byte[] setterArg) {
-      if (setterArg == null) {
-        throw new IllegalStateException("Nonnull field \"bytes\" is null.");
-      }
-      this.bytes = setterArg;
-    }
-
     private @Nullable FileSelectorNativeException fileSelectorNativeException;
 
     public @Nullable FileSelectorNativeException getFileSelectorNativeException() {
@@ -246,6 +230,20 @@ public class GeneratedFileSelectorApi {
       this.fileSelectorNativeException = setterArg;
     }
 
+    /** The content URI of the file, which can be read with [FileSelectorApi.readFile]. */
+    private @NonNull String uri;
+
+    public @NonNull String getUri() {
+      return uri;
+    }
+
+    public void setUri(@NonNull String setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"uri\" is null.");
+      }
+      this.uri = setterArg;
+    }
+
     /** Constructor is non-public to enforce null safety; use Builder. */
     FileResponse() {}
 
@@ -261,16 +259,14 @@ public class GeneratedFileSelectorApi {
       return path.equals(that.path)
           && Objects.equals(mimeType, that.mimeType)
           && Objects.equals(name, that.name)
-          && size.equals(that.size)
-          && Arrays.equals(bytes, that.bytes)
-          && Objects.equals(fileSelectorNativeException, that.fileSelectorNativeException);
+          && Objects.equals(size, that.size)
+          && Objects.equals(fileSelectorNativeException, that.fileSelectorNativeException)
+          && uri.equals(that.uri);
     }
 
     @Override
     public int hashCode() {
-      int pigeonVar_result = Objects.hash(path, mimeType, name, size, fileSelectorNativeException);
-      pigeonVar_result = 31 * pigeonVar_result + Arrays.hashCode(bytes);
-      return pigeonVar_result;
+      return Objects.hash(path, mimeType, name, size, fileSelectorNativeException, uri);
     }
 
     public static final class Builder {
@@ -302,25 +298,25 @@ public class GeneratedFileSelectorApi {
       private @Nullable Long size;
 
       @CanIgnoreReturnValue
-      public @NonNull Builder setSize(@NonNull Long setterArg) {
+      public @NonNull Builder setSize(@Nullable Long setterArg) {
         this.size = setterArg;
         return this;
       }
 
-      private @Nullable byte[] bytes;
+      private @Nullable FileSelectorNativeException fileSelectorNativeException;
 
       @CanIgnoreReturnValue
-      public @NonNull Builder setBytes(@NonNull byte[] setterArg) {
-        this.bytes = setterArg;
+      public @NonNull Builder setFileSelectorNativeException(
+          @Nullable FileSelectorNativeException setterArg) {
+        this.fileSelectorNativeException = setterArg;
         return this;
       }
 
-      private @Nullable FileSelectorNativeException fileSelectorNativeException;
+      private @Nullable String uri;
 
       @CanIgnoreReturnValue
-      public @NonNull Builder setFileSelectorNativeException(
-          @Nullable FileSelectorNativeException setterArg) {
-        this.fileSelectorNativeException = setterArg;
+      public @NonNull Builder setUri(@NonNull String setterArg) {
+        this.uri = setterArg;
         return this;
       }
 
@@ -330,8 +326,8 @@ public class GeneratedFileSelectorApi {
         pigeonReturn.setMimeType(mimeType);
         pigeonReturn.setName(name);
         pigeonReturn.setSize(size);
-        pigeonReturn.setBytes(bytes);
         pigeonReturn.setFileSelectorNativeException(fileSelectorNativeException);
+        pigeonReturn.setUri(uri);
         return pigeonReturn;
       }
     }
@@ -343,8 +339,8 @@ public class GeneratedFileSelectorApi {
       toListResult.add(mimeType);
       toListResult.add(name);
       toListResult.add(size);
-      toListResult.add(bytes);
       toListResult.add(fileSelectorNativeException);
+      toListResult.add(uri);
       return toListResult;
     }
 
@@ -358,11 +354,11 @@ public class GeneratedFileSelectorApi {
       pigeonResult.setName((String) name);
       Object size = pigeonVar_list.get(3);
       pigeonResult.setSize((Long) size);
-      Object bytes = pigeonVar_list.get(4);
-      pigeonResult.setBytes((byte[]) bytes);
-      Object fileSelectorNativeException = pigeonVar_list.get(5);
+      Object fileSelectorNativeException = pigeonVar_list.get(4);
       pigeonResult.setFileSelectorNativeException(
           (FileSelectorNativeException) fileSelectorNativeException);
+      Object uri = pigeonVar_list.get(5);
+      pigeonResult.setUri((String) uri);
       return pigeonResult;
     }
   }
@@ -538,19 +534,27 @@ public class GeneratedFileSelectorApi {
     /**
      * Opens a file dialog for loading files and returns a file path.
      *
+     * <p>If [copyToCache] is false, the path is the content URI of the file instead of the path of
+     * a copy in the cache directory.
+     *
      * <p>Returns `null` if user cancels the operation.
      */
     void openFile(
         @Nullable String initialDirectory,
         @NonNull FileTypes allowedTypes,
+        @NonNull Boolean copyToCache,
         @NonNull NullableResult<FileResponse> result);
     /**
      * Opens a file dialog for loading files and returns a list of file responses chosen by the
      * user.
+     *
+     * <p>If [copyToCache] is false, the paths are the content URIs of the files instead of the
+     * paths of copies in the cache directory.
      */
     void openFiles(
         @Nullable String initialDirectory,
         @NonNull FileTypes allowedTypes,
+        @NonNull Boolean copyToCache,
         @NonNull Result<List<FileResponse>> result);
     /**
      * Opens a file dialog for loading directories and returns a directory path.
@@ -559,6 +563,33 @@ public class GeneratedFileSelectorApi {
      */
     void getDirectoryPath(
         @Nullable String initialDirectory, @NonNull NullableResult<String> result);
+    /**
+     * Reads up to [length] bytes starting at [offset] from the file with the content URI [uri].
+     *
+     * <p>Returns fewer bytes than requested only at the end of the file. Files that can not seek,
+     * such as pipes from remote document providers, can only be read from offset 0.
+     */
+    @NonNull
+    byte[] readFile(@NonNull String uri, @NonNull Long offset, @NonNull Long length);
+    /**
+     * Opens the file with the content URI [uri] to be read from [offset] with [readFromReader], and
+     * returns the identifier of the reader.
+     *
+     * <p>The reader keeps the file open until it is closed with [closeReader], so that reading a
+     * file that can not seek in chunks does not read it from the start for each chunk.
+     */
+    @NonNull
+    Long openReader(@NonNull String uri, @NonNull Long offset);
+    /**
+     * Reads up to [length] bytes from the reader with the identifier [readerId], continuing where
+     * the previous read stopped.
+     *
+     * <p>Returns fewer bytes than requested only at the end of the file.
+     */
+    @NonNull
+    byte[] readFromReader(@NonNull Long readerId, @NonNull Long length);
+    /** Closes the reader with the identifier [readerId]. */
+    void closeReader(@NonNull Long readerId);
 
     /** The codec used by FileSelectorApi. */
     static @NonNull MessageCodec<Object> getCodec() {
@@ -576,6 +607,7 @@ public class GeneratedFileSelectorApi {
         @NonNull String messageChannelSuffix,
         @Nullable FileSelectorApi api) {
       messageChannelSuffix = messageChannelSuffix.isEmpty() ? "" : "." + messageChannelSuffix;
+      BinaryMessenger.TaskQueue taskQueue = binaryMessenger.makeBackgroundTaskQueue();
       {
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
@@ -590,6 +622,7 @@ public class GeneratedFileSelectorApi {
                 ArrayList<Object> args = (ArrayList<Object>) message;
                 String initialDirectoryArg = (String) args.get(0);
                 FileTypes allowedTypesArg = (FileTypes) args.get(1);
+                Boolean copyToCacheArg = (Boolean) args.get(2);
                 NullableResult<FileResponse> resultCallback =
                     new NullableResult<FileResponse>() {
                       public void success(FileResponse result) {
@@ -603,7 +636,7 @@ public class GeneratedFileSelectorApi {
                       }
                     };
 
-                api.openFile(initialDirectoryArg, allowedTypesArg, resultCallback);
+                api.openFile(initialDirectoryArg, allowedTypesArg, copyToCacheArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -623,6 +656,7 @@ public class GeneratedFileSelectorApi {
                 ArrayList<Object> args = (ArrayList<Object>) message;
                 String initialDirectoryArg = (String) args.get(0);
                 FileTypes allowedTypesArg = (FileTypes) args.get(1);
+                Boolean copyToCacheArg = (Boolean) args.get(2);
                 Result<List<FileResponse>> resultCallback =
                     new Result<List<FileResponse>>() {
                       public void success(List<FileResponse> result) {
@@ -636,7 +670,7 @@ public class GeneratedFileSelectorApi {
                       }
                     };
 
-                api.openFiles(initialDirectoryArg, allowedTypesArg, resultCallback);
+                api.openFiles(initialDirectoryArg, allowedTypesArg, copyToCacheArg, resultCallback);
               });
         } else {
           channel.setMessageHandler(null);
@@ -674,6 +708,114 @@ public class GeneratedFileSelectorApi {
           channel.setMessageHandler(null);
         }
       }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.file_selector_android.FileSelectorApi.readFile"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                String uriArg = (String) args.get(0);
+                Long offsetArg = (Long) args.get(1);
+                Long lengthArg = (Long) args.get(2);
+                try {
+                  byte[] output = api.readFile(uriArg, offsetArg, lengthArg);
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.file_selector_android.FileSelectorApi.openReader"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                String uriArg = (String) args.get(0);
+                Long offsetArg = (Long) args.get(1);
+                try {
+                  Long output = api.openReader(uriArg, offsetArg);
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.file_selector_android.FileSelectorApi.readFromReader"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long readerIdArg = (Long) args.get(0);
+                Long lengthArg = (Long) args.get(1);
+                try {
+                  byte[] output = api.readFromReader(readerIdArg, lengthArg);
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.file_selector_android.FileSelectorApi.closeReader"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long readerIdArg = (Long) args.get(0);
+                try {
+                  api.closeReader(readerIdArg);
+                  wrapped.add(0, null);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
     }
   }
 }
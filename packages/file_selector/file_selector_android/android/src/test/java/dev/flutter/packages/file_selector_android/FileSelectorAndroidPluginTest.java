@@ -6,11 +6,14 @@ package dev.flutter.packages.file_selector_android;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,13 +28,15 @@ import android.os.Build;
 import android.provider.DocumentsContract;
 import android.provider.OpenableColumns;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
 import io.flutter.plugin.common.PluginRegistry;
-import java.io.DataInputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Rule;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -56,9 +61,8 @@ public class FileSelectorAndroidPluginTest {
       @NonNull ContentResolver mockResolver,
       @NonNull Uri uri,
       @NonNull String displayName,
-      int size,
-      @NonNull String mimeType)
-      throws FileNotFoundException {
+      @Nullable Long size,
+      @NonNull String mimeType) {
     final Cursor mockCursor = mock(Cursor.class);
     when(mockCursor.moveToFirst()).thenReturn(true);
 
@@ -66,12 +70,16 @@ public class FileSelectorAndroidPluginTest {
     when(mockCursor.getString(0)).thenReturn(displayName);
 
     when(mockCursor.getColumnIndex(OpenableColumns.SIZE)).thenReturn(1);
-    when(mockCursor.isNull(1)).thenReturn(false);
-    when(mockCursor.getInt(1)).thenReturn(size);
+    if (size == null) {
+      when(mockCursor.isNull(1)).thenReturn(true);
+    } else {
+      when(mockCursor.isNull(1)).thenReturn(false);
+      when(mockCursor.getLong(1)).thenReturn(size);
+    }
 
-    when(mockResolver.query(uri, null, null, null, null, null)).thenReturn(mockCursor);
+    when(mockResolver.query(eq(uri), any(String[].class), isNull(), isNull(), isNull(), isNull()))
+        .thenReturn(mockCursor);
     when(mockResolver.getType(uri)).thenReturn(mimeType);
-    when(mockResolver.openInputStream(uri)).thenReturn(mock(InputStream.class));
   }
 
   @SuppressWarnings({"rawtypes", "unchecked"})
@@ -85,17 +93,18 @@ public class FileSelectorAndroidPluginTest {
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
           .thenAnswer((Answer<String>) invocation -> mockUriPath);
-      mockContentResolver(mockContentResolver, mockUri, "filename", 30, "text/plain");
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
 
       when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
-      when(mockObjectFactory.newDataInputStream(any())).thenReturn(mock(DataInputStream.class));
       when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
       when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
       final FileSelectorApiImpl fileSelectorApi =
           new FileSelectorApiImpl(
               mockActivityBinding,
               mockObjectFactory,
-              (version) -> Build.VERSION.SDK_INT >= version);
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
 
       final GeneratedFileSelectorApi.NullableResult mockResult =
           mock(GeneratedFileSelectorApi.NullableResult.class);
@@ -105,6 +114,7 @@ public class FileSelectorAndroidPluginTest {
               .setMimeTypes(Collections.emptyList())
               .setExtensions(Collections.emptyList())
               .build(),
+          true,
           mockResult);
       verify(mockIntent).addCategory(Intent.CATEGORY_OPENABLE);
 
@@ -123,7 +133,6 @@ public class FileSelectorAndroidPluginTest {
       verify(mockResult).success(fileCaptor.capture());
 
       final GeneratedFileSelectorApi.FileResponse file = fileCaptor.getValue();
-      assertEquals(file.getBytes().length, 30);
       assertEquals(file.getMimeType(), "text/plain");
       assertEquals(file.getName(), "filename");
       assertEquals(file.getSize(), (Long) 30L);
@@ -131,6 +140,113 @@ public class FileSelectorAndroidPluginTest {
     }
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Test
+  public void openFileWithoutCopyToCacheReturnsContentUri() throws FileNotFoundException {
+    try (MockedStatic<FileUtils> mockedFileUtils = mockStatic(FileUtils.class)) {
+      final ContentResolver mockContentResolver = mock(ContentResolver.class);
+
+      final Uri mockUri = mock(Uri.class);
+      final String uriString = "content://provider/document/1";
+      when(mockUri.toString()).thenReturn(uriString);
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
+
+      when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
+      when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
+      when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
+      final FileSelectorApiImpl fileSelectorApi =
+          new FileSelectorApiImpl(
+              mockActivityBinding,
+              mockObjectFactory,
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
+
+      final GeneratedFileSelectorApi.NullableResult mockResult =
+          mock(GeneratedFileSelectorApi.NullableResult.class);
+      fileSelectorApi.openFile(
+          null,
+          new GeneratedFileSelectorApi.FileTypes.Builder()
+              .setMimeTypes(Collections.emptyList())
+              .setExtensions(Collections.emptyList())
+              .build(),
+          false,
+          mockResult);
+
+      final ArgumentCaptor<PluginRegistry.ActivityResultListener> listenerArgumentCaptor =
+          ArgumentCaptor.forClass(PluginRegistry.ActivityResultListener.class);
+      verify(mockActivityBinding).addActivityResultListener(listenerArgumentCaptor.capture());
+
+      final Intent resultMockIntent = mock(Intent.class);
+      when(resultMockIntent.getData()).thenReturn(mockUri);
+      listenerArgumentCaptor.getValue().onActivityResult(221, Activity.RESULT_OK, resultMockIntent);
+
+      final ArgumentCaptor<GeneratedFileSelectorApi.FileResponse> fileCaptor =
+          ArgumentCaptor.forClass(GeneratedFileSelectorApi.FileResponse.class);
+      verify(mockResult).success(fileCaptor.capture());
+
+      final GeneratedFileSelectorApi.FileResponse file = fileCaptor.getValue();
+      assertEquals(file.getPath(), uriString);
+      assertEquals(file.getUri(), uriString);
+      mockedFileUtils.verify(
+          () -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), any(Uri.class)),
+          never());
+    }
+  }
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Test
+  public void openFileReturnsNullSizeWhenSizeIsUnknown() throws FileNotFoundException {
+    try (MockedStatic<FileUtils> mockedFileUtils = mockStatic(FileUtils.class)) {
+      final ContentResolver mockContentResolver = mock(ContentResolver.class);
+
+      final Uri mockUri = mock(Uri.class);
+      final String mockUriPath = "/some/path";
+      mockedFileUtils
+          .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
+          .thenAnswer((Answer<String>) invocation -> mockUriPath);
+      mockContentResolver(mockContentResolver, mockUri, "filename", null, "text/plain");
+
+      when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
+      when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
+      when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
+      final FileSelectorApiImpl fileSelectorApi =
+          new FileSelectorApiImpl(
+              mockActivityBinding,
+              mockObjectFactory,
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
+
+      final GeneratedFileSelectorApi.NullableResult mockResult =
+          mock(GeneratedFileSelectorApi.NullableResult.class);
+      fileSelectorApi.openFile(
+          null,
+          new GeneratedFileSelectorApi.FileTypes.Builder()
+              .setMimeTypes(Collections.emptyList())
+              .setExtensions(Collections.emptyList())
+              .build(),
+          true,
+          mockResult);
+
+      final ArgumentCaptor<PluginRegistry.ActivityResultListener> listenerArgumentCaptor =
+          ArgumentCaptor.forClass(PluginRegistry.ActivityResultListener.class);
+      verify(mockActivityBinding).addActivityResultListener(listenerArgumentCaptor.capture());
+
+      final Intent resultMockIntent = mock(Intent.class);
+      when(resultMockIntent.getData()).thenReturn(mockUri);
+      listenerArgumentCaptor.getValue().onActivityResult(221, Activity.RESULT_OK, resultMockIntent);
+
+      final ArgumentCaptor<GeneratedFileSelectorApi.FileResponse> fileCaptor =
+          ArgumentCaptor.forClass(GeneratedFileSelectorApi.FileResponse.class);
+      verify(mockResult).success(fileCaptor.capture());
+
+      final GeneratedFileSelectorApi.FileResponse file = fileCaptor.getValue();
+      assertNull(file.getSize());
+      assertEquals(file.getPath(), mockUriPath);
+    }
+  }
+
   @SuppressWarnings({"rawtypes", "unchecked"})
   @Test
   public void openFilesReturnsSuccessfully() throws FileNotFoundException {
@@ -143,24 +259,25 @@ public class FileSelectorAndroidPluginTest {
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
           .thenAnswer((Answer<String>) invocation -> mockUriPath);
-      mockContentResolver(mockContentResolver, mockUri, "filename", 30, "text/plain");
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
 
       final Uri mockUri2 = mock(Uri.class);
       final String mockUri2Path = "some/other/path/";
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri2)))
           .thenAnswer((Answer<String>) invocation -> mockUri2Path);
-      mockContentResolver(mockContentResolver, mockUri2, "filename2", 40, "image/jpg");
+      mockContentResolver(mockContentResolver, mockUri2, "filename2", 40L, "image/jpg");
 
       when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
-      when(mockObjectFactory.newDataInputStream(any())).thenReturn(mock(DataInputStream.class));
       when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
       when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
       final FileSelectorApiImpl fileSelectorApi =
           new FileSelectorApiImpl(
               mockActivityBinding,
               mockObjectFactory,
-              (version) -> Build.VERSION.SDK_INT >= version);
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
 
       final GeneratedFileSelectorApi.Result mockResult =
           mock(GeneratedFileSelectorApi.Result.class);
@@ -170,6 +287,7 @@ public class FileSelectorAndroidPluginTest {
               .setMimeTypes(Collections.emptyList())
               .setExtensions(Collections.emptyList())
               .build(),
+          true,
           mockResult);
       verify(mockIntent).addCategory(Intent.CATEGORY_OPENABLE);
       verify(mockIntent).putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
@@ -200,13 +318,11 @@ public class FileSelectorAndroidPluginTest {
       verify(mockResult).success(fileListCaptor.capture());
 
       final List<GeneratedFileSelectorApi.FileResponse> fileList = fileListCaptor.getValue();
-      assertEquals(fileList.get(0).getBytes().length, 30);
       assertEquals(fileList.get(0).getMimeType(), "text/plain");
       assertEquals(fileList.get(0).getName(), "filename");
       assertEquals(fileList.get(0).getSize(), (Long) 30L);
       assertEquals(fileList.get(0).getPath(), mockUriPath);
 
-      assertEquals(fileList.get(1).getBytes().length, 40);
       assertEquals(fileList.get(1).getMimeType(), "image/jpg");
       assertEquals(fileList.get(1).getName(), "filename2");
       assertEquals(fileList.get(1).getSize(), (Long) 40L);
@@ -214,6 +330,82 @@ public class FileSelectorAndroidPluginTest {
     }
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Test
+  public void openFilesCopiesFilesConcurrentlyOffTheResultThread() throws FileNotFoundException {
+    try (MockedStatic<FileUtils> mockedFileUtils = mockStatic(FileUtils.class)) {
+      final ContentResolver mockContentResolver = mock(ContentResolver.class);
+
+      final Uri mockUri = mock(Uri.class);
+      mockedFileUtils
+          .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
+          .thenAnswer((Answer<String>) invocation -> "some/path/");
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
+
+      final Uri mockUri2 = mock(Uri.class);
+      mockedFileUtils
+          .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri2)))
+          .thenAnswer((Answer<String>) invocation -> "some/other/path/");
+      mockContentResolver(mockContentResolver, mockUri2, "filename2", 40L, "image/jpg");
+
+      when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
+      when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
+      when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
+      final List<Runnable> pendingTasks = new ArrayList<>();
+      final AtomicInteger copyCount = new AtomicInteger();
+      final FileSelectorApiImpl fileSelectorApi =
+          new FileSelectorApiImpl(
+              mockActivityBinding,
+              mockObjectFactory,
+              (version) -> Build.VERSION.SDK_INT >= version,
+              pendingTasks::add,
+              (Runnable task) -> {
+                copyCount.incrementAndGet();
+                task.run();
+              });
+
+      final GeneratedFileSelectorApi.Result mockResult =
+          mock(GeneratedFileSelectorApi.Result.class);
+      fileSelectorApi.openFiles(
+          null,
+          new GeneratedFileSelectorApi.FileTypes.Builder()
+              .setMimeTypes(Collections.emptyList())
+              .setExtensions(Collections.emptyList())
+              .build(),
+          true,
+          mockResult);
+
+      final ArgumentCaptor<PluginRegistry.ActivityResultListener> listenerArgumentCaptor =
+          ArgumentCaptor.forClass(PluginRegistry.ActivityResultListener.class);
+      verify(mockActivityBinding).addActivityResultListener(listenerArgumentCaptor.capture());
+
+      final Intent resultMockIntent = mock(Intent.class);
+      final ClipData mockClipData = mock(ClipData.class);
+      when(mockClipData.getItemCount()).thenReturn(2);
+      final ClipData.Item mockClipDataItem = mock(ClipData.Item.class);
+      when(mockClipDataItem.getUri()).thenReturn(mockUri);
+      when(mockClipData.getItemAt(0)).thenReturn(mockClipDataItem);
+      final ClipData.Item mockClipDataItem2 = mock(ClipData.Item.class);
+      when(mockClipDataItem2.getUri()).thenReturn(mockUri2);
+      when(mockClipData.getItemAt(1)).thenReturn(mockClipDataItem2);
+      when(resultMockIntent.getClipData()).thenReturn(mockClipData);
+
+      listenerArgumentCaptor.getValue().onActivityResult(222, Activity.RESULT_OK, resultMockIntent);
+
+      verify(mockResult, never()).success(any());
+      assertEquals(1, pendingTasks.size());
+
+      pendingTasks.get(0).run();
+
+      assertEquals(2, copyCount.get());
+      final ArgumentCaptor<List> fileListCaptor = ArgumentCaptor.forClass(List.class);
+      verify(mockResult).success(fileListCaptor.capture());
+      final List<GeneratedFileSelectorApi.FileResponse> fileList = fileListCaptor.getValue();
+      assertEquals(fileList.get(0).getPath(), "some/path/");
+      assertEquals(fileList.get(1).getPath(), "some/other/path/");
+    }
+  }
+
   // This test was created when error handling was moved from FileUtils.java to FileSelectorApiImpl.java
   // in https://github.com/flutter/packages/pull/8184, so as to maintain the existing test.
   // The behavior is actually an error case and should be fixed,
@@ -234,24 +426,25 @@ public class FileSelectorAndroidPluginTest {
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
           .thenThrow(SecurityException.class);
-      mockContentResolver(mockContentResolver, mockUri, "filename", 30, "text/plain");
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
 
       final Uri mockUri2 = mock(Uri.class);
       final String mockUri2Path = "some/other/path/";
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri2)))
           .thenAnswer((Answer<String>) invocation -> mockUri2Path);
-      mockContentResolver(mockContentResolver, mockUri2, "filename2", 40, "image/jpg");
+      mockContentResolver(mockContentResolver, mockUri2, "filename2", 40L, "image/jpg");
 
       when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
-      when(mockObjectFactory.newDataInputStream(any())).thenReturn(mock(DataInputStream.class));
       when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
       when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
       final FileSelectorApiImpl fileSelectorApi =
           new FileSelectorApiImpl(
               mockActivityBinding,
               mockObjectFactory,
-              (version) -> Build.VERSION.SDK_INT >= version);
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
 
       final GeneratedFileSelectorApi.Result mockResult =
           mock(GeneratedFileSelectorApi.Result.class);
@@ -261,6 +454,7 @@ public class FileSelectorAndroidPluginTest {
               .setMimeTypes(Collections.emptyList())
               .setExtensions(Collections.emptyList())
               .build(),
+          true,
           mockResult);
       verify(mockIntent).addCategory(Intent.CATEGORY_OPENABLE);
       verify(mockIntent).putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
@@ -306,17 +500,18 @@ public class FileSelectorAndroidPluginTest {
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
           .thenThrow(IllegalArgumentException.class);
-      mockContentResolver(mockContentResolver, mockUri, "filename", 30, "text/plain");
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
 
       when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
-      when(mockObjectFactory.newDataInputStream(any())).thenReturn(mock(DataInputStream.class));
       when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
       when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
       final FileSelectorApiImpl fileSelectorApi =
           new FileSelectorApiImpl(
               mockActivityBinding,
               mockObjectFactory,
-              (version) -> Build.VERSION.SDK_INT >= version);
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
 
       final GeneratedFileSelectorApi.NullableResult mockResult =
           mock(GeneratedFileSelectorApi.NullableResult.class);
@@ -326,6 +521,7 @@ public class FileSelectorAndroidPluginTest {
               .setMimeTypes(Collections.emptyList())
               .setExtensions(Collections.emptyList())
               .build(),
+          true,
           mockResult);
       verify(mockIntent).addCategory(Intent.CATEGORY_OPENABLE);
 
@@ -349,6 +545,55 @@ public class FileSelectorAndroidPluginTest {
     }
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  @Test
+  public void openFileReturnsError_whenCopyFails() throws IOException {
+    try (MockedStatic<FileUtils> mockedFileUtils = mockStatic(FileUtils.class)) {
+      final ContentResolver mockContentResolver = mock(ContentResolver.class);
+
+      final Uri mockUri = mock(Uri.class);
+      mockedFileUtils
+          .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
+          .thenThrow(new IOException("copy failed"));
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
+
+      when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
+      when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
+      when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
+      final FileSelectorApiImpl fileSelectorApi =
+          new FileSelectorApiImpl(
+              mockActivityBinding,
+              mockObjectFactory,
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
+
+      final GeneratedFileSelectorApi.NullableResult mockResult =
+          mock(GeneratedFileSelectorApi.NullableResult.class);
+      fileSelectorApi.openFile(
+          null,
+          new GeneratedFileSelectorApi.FileTypes.Builder()
+              .setMimeTypes(Collections.emptyList())
+              .setExtensions(Collections.emptyList())
+              .build(),
+          true,
+          mockResult);
+
+      final ArgumentCaptor<PluginRegistry.ActivityResultListener> listenerArgumentCaptor =
+          ArgumentCaptor.forClass(PluginRegistry.ActivityResultListener.class);
+      verify(mockActivityBinding).addActivityResultListener(listenerArgumentCaptor.capture());
+
+      final Intent resultMockIntent = mock(Intent.class);
+      when(resultMockIntent.getData()).thenReturn(mockUri);
+      listenerArgumentCaptor.getValue().onActivityResult(221, Activity.RESULT_OK, resultMockIntent);
+
+      final ArgumentCaptor<Throwable> errorCaptor = ArgumentCaptor.forClass(Throwable.class);
+      verify(mockResult).error(errorCaptor.capture());
+      assertEquals("copy failed", errorCaptor.getValue().getCause().getMessage());
+      verify(mockResult, never()).success(any());
+    }
+  }
+
   @SuppressWarnings({"rawtypes", "unchecked"})
   @Test
   public void
@@ -363,17 +608,18 @@ public class FileSelectorAndroidPluginTest {
       mockedFileUtils
           .when(() -> FileUtils.getPathFromCopyOfFileFromUri(any(Context.class), eq(mockUri)))
           .thenThrow(IllegalArgumentException.class);
-      mockContentResolver(mockContentResolver, mockUri, "filename", 30, "text/plain");
+      mockContentResolver(mockContentResolver, mockUri, "filename", 30L, "text/plain");
 
       when(mockObjectFactory.newIntent(Intent.ACTION_OPEN_DOCUMENT)).thenReturn(mockIntent);
-      when(mockObjectFactory.newDataInputStream(any())).thenReturn(mock(DataInputStream.class));
       when(mockActivity.getContentResolver()).thenReturn(mockContentResolver);
       when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
       final FileSelectorApiImpl fileSelectorApi =
           new FileSelectorApiImpl(
               mockActivityBinding,
               mockObjectFactory,
-              (version) -> Build.VERSION.SDK_INT >= version);
+              (version) -> Build.VERSION.SDK_INT >= version,
+              Runnable::run,
+              Runnable::run);
 
       final GeneratedFileSelectorApi.Result mockResult =
           mock(GeneratedFileSelectorApi.Result.class);
@@ -383,6 +629,7 @@ public class FileSelectorAndroidPluginTest {
               .setMimeTypes(Collections.emptyList())
               .setExtensions(Collections.emptyList())
               .build(),
+          true,
           mockResult);
       verify(mockIntent).addCategory(Intent.CATEGORY_OPENABLE);
       verify(mockIntent).putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
@@ -443,7 +690,9 @@ public class FileSelectorAndroidPluginTest {
             new FileSelectorApiImpl(
                 mockActivityBinding,
                 mockObjectFactory,
-                (version) -> Build.VERSION.SDK_INT >= version);
+                (version) -> Build.VERSION.SDK_INT >= version,
+                Runnable::run,
+                Runnable::run);
 
         final GeneratedFileSelectorApi.NullableResult mockResult =
             mock(GeneratedFileSelectorApi.NullableResult.class);
@@ -465,4 +714,40 @@ public class FileSelectorAndroidPluginTest {
       }
     }
   }
+
+  @Test
+  public void readFileReturnsInvalidRangeError_whenOffsetIsNegative() {
+    when(mockActivityBinding.getActivity()).thenReturn(mockActivity);
+    final FileSelectorApiImpl fileSelectorApi =
+        new FileSelectorApiImpl(
+            mockActivityBinding,
+            mockObjectFactory,
+            (version) -> Build.VERSION.SDK_INT >= version,
+            Runnable::run,
+            Runnable::run);
+
+    final GeneratedFileSelectorApi.FlutterError error =
+        assertThrows(
+            GeneratedFileSelectorApi.FlutterError.class,
+            () -> fileSelectorApi.readFile("content://provider/document/1", -1L, 10L));
+    assertEquals("invalid_range", error.code);
+  }
+
+  @Test
+  public void readFromReaderReturnsInvalidReaderError_whenReaderIsNotOpen() {
+    final FileSelectorApiImpl fileSelectorApi =
+        new FileSelectorApiImpl(
+            mockActivityBinding,
+            mockObjectFactory,
+            (version) -> Build.VERSION.SDK_INT >= version,
+            Runnable::run,
+            Runnable::run);
+    fileSelectorApi.closeReader(-1L);
+
+    final GeneratedFileSelectorApi.FlutterError error =
+        assertThrows(
+            GeneratedFileSelectorApi.FlutterError.class,
+            () -> fileSelectorApi.readFromReader(-1L, 10L));
+    assertEquals("invalid_reader", error.code);
+  }
 }
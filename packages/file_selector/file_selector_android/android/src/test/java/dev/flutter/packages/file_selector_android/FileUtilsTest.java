@@ -5,6 +5,7 @@
 package dev.flutter.packages.file_selector_android;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -23,6 +24,7 @@ import android.database.MatrixCursor;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Environment;
+import android.os.ParcelFileDescriptor;
 import android.provider.DocumentsContract;
 import android.provider.MediaStore;
 import android.webkit.MimeTypeMap;
@@ -33,7 +35,12 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -196,6 +203,122 @@ public class FileUtilsTest {
     assertFalse(path.contains(".."));
   }
 
+  @Test
+  public void readFromUri_readsRequestedRangeAndStopsAtEndOfFile() throws IOException {
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(context.getCacheDir(), MockFileContentProvider.FILE_NAME))) {
+      outputStream.write("0123456789".getBytes(UTF_8));
+    }
+    Robolectric.buildContentProvider(MockFileContentProvider.class).create("files");
+
+    assertArrayEquals(
+        "3456".getBytes(UTF_8), FileUtils.readFromUri(context, MockFileContentProvider.URI, 3, 4));
+    assertArrayEquals(
+        "89".getBytes(UTF_8), FileUtils.readFromUri(context, MockFileContentProvider.URI, 8, 10));
+  }
+
+  @Test
+  public void readFromUri_whenLengthExceedsFile_returnsRemainingBytes() throws IOException {
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(context.getCacheDir(), MockFileContentProvider.FILE_NAME))) {
+      outputStream.write("0123456789".getBytes(UTF_8));
+    }
+    Robolectric.buildContentProvider(MockFileContentProvider.class).create("files");
+
+    assertArrayEquals(
+        "89".getBytes(UTF_8),
+        FileUtils.readFromUri(context, MockFileContentProvider.URI, 8, Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void openInputStream_readsConsecutiveChunksFromOffset() throws IOException {
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(context.getCacheDir(), MockFileContentProvider.FILE_NAME))) {
+      outputStream.write("0123456789".getBytes(UTF_8));
+    }
+    Robolectric.buildContentProvider(MockFileContentProvider.class).create("files");
+
+    try (InputStream inputStream =
+        FileUtils.openInputStream(context, MockFileContentProvider.URI, 3)) {
+      assertArrayEquals("345".getBytes(UTF_8), FileUtils.readFromStream(inputStream, 3));
+      assertArrayEquals("6789".getBytes(UTF_8), FileUtils.readFromStream(inputStream, 10));
+      assertArrayEquals(new byte[0], FileUtils.readFromStream(inputStream, 10));
+    }
+  }
+
+  @Test
+  public void getPathFromCopyOfFileFromUri_copiesPipe() throws IOException {
+    Uri uri = MockContentProvider.PNG_URI;
+    Robolectric.buildContentProvider(MockContentProvider.class).create("dummy");
+    ParcelFileDescriptor[] pipe = ParcelFileDescriptor.createPipe();
+    try (OutputStream outputStream = new ParcelFileDescriptor.AutoCloseOutputStream(pipe[1])) {
+      outputStream.write("fileStream".getBytes(UTF_8));
+    }
+    shadowContentResolver.registerInputStream(
+        uri, new ParcelFileDescriptor.AutoCloseInputStream(pipe[0]));
+
+    String path = FileUtils.getPathFromCopyOfFileFromUri(context, uri);
+
+    assertArrayEquals("fileStream".getBytes(UTF_8), Files.readAllBytes(new File(path).toPath()));
+  }
+
+  // Serves a file in the cache directory through openFile, like a file-backed document provider.
+  private static class MockFileContentProvider extends ContentProvider {
+    public static final String FILE_NAME = "content.txt";
+    public static final Uri URI = Uri.parse("content://files/" + FILE_NAME);
+
+    @Override
+    public boolean onCreate() {
+      return true;
+    }
+
+    @Nullable
+    @Override
+    public ParcelFileDescriptor openFile(@NonNull Uri uri, @NonNull String mode)
+        throws FileNotFoundException {
+      return ParcelFileDescriptor.open(
+          new File(getContext().getCacheDir(), FILE_NAME), ParcelFileDescriptor.MODE_READ_ONLY);
+    }
+
+    @Nullable
+    @Override
+    public Cursor query(
+        @NonNull Uri uri,
+        @Nullable String[] projection,
+        @Nullable String selection,
+        @Nullable String[] selectionArgs,
+        @Nullable String sortOrder) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public String getType(@NonNull Uri uri) {
+      return "text/plain";
+    }
+
+    @Nullable
+    @Override
+    public Uri insert(@NonNull Uri uri, @Nullable ContentValues values) {
+      return null;
+    }
+
+    @Override
+    public int delete(
+        @NonNull Uri uri, @Nullable String selection, @Nullable String[] selectionArgs) {
+      return 0;
+    }
+
+    @Override
+    public int update(
+        @NonNull Uri uri,
+        @Nullable ContentValues values,
+        @Nullable String selection,
+        @Nullable String[] selectionArgs) {
+      return 0;
+    }
+  }
+
   private static class MockContentProvider extends ContentProvider {
     public static final Uri TXT_URI = Uri.parse("content://dummy/dummydocument");
     public static final Uri PNG_URI = Uri.parse("content://dummy/a.b.png");
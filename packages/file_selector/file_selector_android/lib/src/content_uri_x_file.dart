@@ -0,0 +1,114 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:convert';
+import 'dart:io';
+import 'dart:math' as math;
+import 'dart:typed_data';
+
+import 'package:file_selector_platform_interface/file_selector_platform_interface.dart';
+
+import 'file_selector_api.g.dart';
+
+/// The number of bytes requested from the platform per read.
+///
+/// Each read is a separate platform channel message, so chunks trade the
+/// number of round trips against the memory used by each of them.
+const int _chunkSize = 1024 * 1024;
+
+/// An [XFile] for a file that was opened without a copy in the cache
+/// directory.
+///
+/// Its [path] is the content URI of the file, which `dart:io` cannot open, so
+/// its content is read from the platform in chunks. Each [openRead] keeps a
+/// reader opened with [FileSelectorApi.openReader] until it is done, so files
+/// that can not seek are only read from the start once.
+class ContentUriXFile extends XFile {
+  /// Creates an [XFile] that reads the file with the content URI [uri] through
+  /// [api].
+  ContentUriXFile(
+    String uri, {
+    required FileSelectorApi api,
+    super.mimeType,
+    String? name,
+    int? length,
+  }) : _api = api,
+       _name = name,
+       _length = length,
+       super(uri);
+
+  final FileSelectorApi _api;
+  final String? _name;
+  int? _length;
+
+  @override
+  String get name => _name ?? super.name;
+
+  @override
+  Future<int> length() async {
+    if (_length == null) {
+      // The document provider does not know the size, so it can only be
+      // found by reading the whole file.
+      var length = 0;
+      await for (final Uint8List chunk in openRead()) {
+        length += chunk.length;
+      }
+      _length = length;
+    }
+    return _length!;
+  }
+
+  @override
+  Future<Uint8List> readAsBytes() async {
+    final builder = BytesBuilder(copy: false);
+    await for (final Uint8List chunk in openRead()) {
+      builder.add(chunk);
+    }
+    return builder.takeBytes();
+  }
+
+  @override
+  Future<String> readAsString({Encoding encoding = utf8}) async {
+    return encoding.decode(await readAsBytes());
+  }
+
+  @override
+  Stream<Uint8List> openRead([int? start, int? end]) async* {
+    var offset = start ?? 0;
+    if (end != null && offset >= end) {
+      return;
+    }
+
+    final int readerId = await _api.openReader(path, offset);
+    try {
+      while (end == null || offset < end) {
+        final int requested = end == null
+            ? _chunkSize
+            : math.min(_chunkSize, end - offset);
+        final Uint8List chunk = await _api.readFromReader(readerId, requested);
+        if (chunk.isNotEmpty) {
+          yield chunk;
+        }
+        if (chunk.length < requested) {
+          // Only the end of the file returns fewer bytes than requested.
+          return;
+        }
+        offset += chunk.length;
+      }
+    } finally {
+      // Also runs when the subscription is cancelled before the end.
+      await _api.closeReader(readerId);
+    }
+  }
+
+  @override
+  Future<void> saveTo(String path) async {
+    final IOSink sink = File(path).openWrite();
+    try {
+      await sink.addStream(openRead());
+    } finally {
+      await sink.close();
+    }
+  }
+}
@@ -4,9 +4,12 @@
 
 // ignore_for_file: public_member_api_docs
 
+import 'dart:typed_data';
+
 import 'package:file_selector_platform_interface/file_selector_platform_interface.dart';
 import 'package:flutter/cupertino.dart';
 
+import 'content_uri_x_file.dart';
 import 'file_selector_api.g.dart';
 import 'types/native_illegal_argument_exception.dart';
 
@@ -17,6 +20,14 @@ class FileSelectorAndroid extends FileSelectorPlatform {
 
   final FileSelectorApi _api;
 
+  /// Whether opened files are copied to the app's cache directory.
+  ///
+  /// If false, the path of each opened file is its `content://` URI instead,
+  /// which avoids writing a copy of every opened file. The returned [XFile]s
+  /// still read their content in chunks from the platform, and it can also be
+  /// read with [readFile], but not through `dart:io`.
+  bool copyFilesToCache = true;
+
   /// Registers this class as the implementation of the file_selector platform interface.
   static void registerWith() {
     FileSelectorPlatform.instance = FileSelectorAndroid();
@@ -28,11 +39,13 @@ class FileSelectorAndroid extends FileSelectorPlatform {
     String? initialDirectory,
     String? confirmButtonText,
   }) async {
+    final bool copyToCache = copyFilesToCache;
     final FileResponse? file = await _api.openFile(
       initialDirectory,
       _fileTypesFromTypeGroups(acceptedTypeGroups),
+      copyToCache,
     );
-    return file == null ? null : _xFileFromFileResponse(file);
+    return file == null ? null : _xFileFromFileResponse(file, copyToCache);
   }
 
   @override
@@ -41,11 +54,17 @@ class FileSelectorAndroid extends FileSelectorPlatform {
     String? initialDirectory,
     String? confirmButtonText,
   }) async {
+    final bool copyToCache = copyFilesToCache;
     final List<FileResponse> files = await _api.openFiles(
       initialDirectory,
       _fileTypesFromTypeGroups(acceptedTypeGroups),
+      copyToCache,
     );
-    return files.map<XFile>(_xFileFromFileResponse).toList();
+    return files
+        .map<XFile>(
+          (FileResponse file) => _xFileFromFileResponse(file, copyToCache),
+        )
+        .toList();
   }
 
   @override
@@ -56,18 +75,43 @@ class FileSelectorAndroid extends FileSelectorPlatform {
     return _api.getDirectoryPath(initialDirectory);
   }
 
-  XFile _xFileFromFileResponse(FileResponse file) {
+  /// Reads up to [length] bytes starting at [offset] from the opened file with
+  /// the content URI [uri].
+  ///
+  /// The bytes are read on a background thread, and fewer bytes than requested
+  /// are only returned at the end of the file. Files that can not seek, such as
+  /// pipes from remote document providers, can only be read from offset 0; use
+  /// [XFile.openRead] on the opened file to read them in chunks.
+  Future<Uint8List> readFile(
+    String uri, {
+    int offset = 0,
+    required int length,
+  }) {
+    return _api.readFile(uri, offset, length);
+  }
+
+  XFile _xFileFromFileResponse(FileResponse file, bool copyToCache) {
     if (file.fileSelectorNativeException != null) {
       _resolveErrorCodeAndMaybeThrow(file.fileSelectorNativeException!);
     }
-    return XFile.fromData(
-      file.bytes,
-      // Note: The name parameter is not used by XFile. The XFile.name returns
-      // the extracted file name from XFile.path.
+    // The content is not sent with the response. A copied file is read lazily
+    // from its path, and any other file in chunks through its content URI.
+    if (copyToCache) {
+      return XFile(
+        file.path,
+        // Note: The name parameter is not used by XFile. The XFile.name returns
+        // the extracted file name from XFile.path.
+        name: file.name,
+        length: file.size,
+        mimeType: file.mimeType,
+      );
+    }
+    return ContentUriXFile(
+      file.uri,
+      api: _api,
       name: file.name,
       length: file.size,
       mimeType: file.mimeType,
-      path: file.path,
     );
   }
 
@@ -92,9 +92,9 @@ class FileResponse {
     required this.path,
     this.mimeType,
     this.name,
-    required this.size,
-    required this.bytes,
+    this.size,
     this.fileSelectorNativeException,
+    required this.uri,
   });
 
   String path;
@@ -103,20 +103,24 @@ class FileResponse {
 
   String? name;
 
-  int size;
-
-  Uint8List bytes;
+  /// The size of the file in bytes, or null if the document provider does not
+  /// know it.
+  int? size;
 
   FileSelectorNativeException? fileSelectorNativeException;
 
+  /// The content URI of the file, which can be read with
+  /// [FileSelectorApi.readFile].
+  String uri;
+
   List<Object?> _toList() {
     return <Object?>[
       path,
       mimeType,
       name,
       size,
-      bytes,
       fileSelectorNativeException,
+      uri,
     ];
   }
 
@@ -130,9 +134,9 @@ class FileResponse {
       path: result[0]! as String,
       mimeType: result[1] as String?,
       name: result[2] as String?,
-      size: result[3]! as int,
-      bytes: result[4]! as Uint8List,
-      fileSelectorNativeException: result[5] as FileSelectorNativeException?,
+      size: result[3] as int?,
+      fileSelectorNativeException: result[4] as FileSelectorNativeException?,
+      uri: result[5]! as String,
     );
   }
 
@@ -255,10 +259,14 @@ class FileSelectorApi {
 
   /// Opens a file dialog for loading files and returns a file path.
   ///
+  /// If [copyToCache] is false, the path is the content URI of the file instead
+  /// of the path of a copy in the cache directory.
+  ///
   /// Returns `null` if user cancels the operation.
   Future<FileResponse?> openFile(
     String? initialDirectory,
     FileTypes allowedTypes,
+    bool copyToCache,
   ) async {
     final String pigeonVar_channelName =
         'dev.flutter.pigeon.file_selector_android.FileSelectorApi.openFile$pigeonVar_messageChannelSuffix';
@@ -269,7 +277,7 @@ class FileSelectorApi {
           binaryMessenger: pigeonVar_binaryMessenger,
         );
     final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
-      <Object?>[initialDirectory, allowedTypes],
+      <Object?>[initialDirectory, allowedTypes, copyToCache],
     );
     final List<Object?>? pigeonVar_replyList =
         await pigeonVar_sendFuture as List<Object?>?;
@@ -288,9 +296,13 @@ class FileSelectorApi {
 
   /// Opens a file dialog for loading files and returns a list of file responses
   /// chosen by the user.
+  ///
+  /// If [copyToCache] is false, the paths are the content URIs of the files
+  /// instead of the paths of copies in the cache directory.
   Future<List<FileResponse>> openFiles(
     String? initialDirectory,
     FileTypes allowedTypes,
+    bool copyToCache,
   ) async {
     final String pigeonVar_channelName =
         'dev.flutter.pigeon.file_selector_android.FileSelectorApi.openFiles$pigeonVar_messageChannelSuffix';
@@ -301,7 +313,7 @@ class FileSelectorApi {
           binaryMessenger: pigeonVar_binaryMessenger,
         );
     final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
-      <Object?>[initialDirectory, allowedTypes],
+      <Object?>[initialDirectory, allowedTypes, copyToCache],
     );
     final List<Object?>? pigeonVar_replyList =
         await pigeonVar_sendFuture as List<Object?>?;
@@ -352,4 +364,144 @@ class FileSelectorApi {
       return (pigeonVar_replyList[0] as String?);
     }
   }
+
+  /// Reads up to [length] bytes starting at [offset] from the file with the
+  /// content URI [uri].
+  ///
+  /// Returns fewer bytes than requested only at the end of the file. Files that
+  /// can not seek, such as pipes from remote document providers, can only be
+  /// read from offset 0.
+  Future<Uint8List> readFile(String uri, int offset, int length) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.file_selector_android.FileSelectorApi.readFile$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[uri, offset, length],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
+
+  /// Opens the file with the content URI [uri] to be read from [offset] with
+  /// [readFromReader], and returns the identifier of the reader.
+  ///
+  /// The reader keeps the file open until it is closed with [closeReader], so
+  /// that reading a file that can not seek in chunks does not read it from the
+  /// start for each chunk.
+  Future<int> openReader(String uri, int offset) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.file_selector_android.FileSelectorApi.openReader$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[uri, offset],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as int?)!;
+    }
+  }
+
+  /// Reads up to [length] bytes from the reader with the identifier
+  /// [readerId], continuing where the previous read stopped.
+  ///
+  /// Returns fewer bytes than requested only at the end of the file.
+  Future<Uint8List> readFromReader(int readerId, int length) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.file_selector_android.FileSelectorApi.readFromReader$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[readerId, length],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
+
+  /// Closes the reader with the identifier [readerId].
+  Future<void> closeReader(int readerId) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.file_selector_android.FileSelectorApi.closeReader$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[readerId],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
 }
@@ -32,9 +32,16 @@ class FileResponse {
   late final String path;
   late final String? mimeType;
   late final String? name;
-  late final int size;
-  late final Uint8List bytes;
+
+  /// The size of the file in bytes, or null if the document provider does not
+  /// know it.
+  late final int? size;
+
   late final FileSelectorNativeException? fileSelectorNativeException;
+
+  /// The content URI of the file, which can be read with
+  /// [FileSelectorApi.readFile].
+  late final String uri;
 }
 
 class FileTypes {
@@ -47,16 +54,27 @@ class FileTypes {
 abstract class FileSelectorApi {
   /// Opens a file dialog for loading files and returns a file path.
   ///
+  /// If [copyToCache] is false, the path is the content URI of the file instead
+  /// of the path of a copy in the cache directory.
+  ///
   /// Returns `null` if user cancels the operation.
   @async
-  FileResponse? openFile(String? initialDirectory, FileTypes allowedTypes);
+  FileResponse? openFile(
+    String? initialDirectory,
+    FileTypes allowedTypes,
+    bool copyToCache,
+  );
 
   /// Opens a file dialog for loading files and returns a list of file responses
   /// chosen by the user.
+  ///
+  /// If [copyToCache] is false, the paths are the content URIs of the files
+  /// instead of the paths of copies in the cache directory.
   @async
   List<FileResponse> openFiles(
     String? initialDirectory,
     FileTypes allowedTypes,
+    bool copyToCache,
   );
 
   /// Opens a file dialog for loading directories and returns a directory path.
@@ -64,4 +82,33 @@ abstract class FileSelectorApi {
   /// Returns `null` if user cancels the operation.
   @async
   String? getDirectoryPath(String? initialDirectory);
+
+  /// Reads up to [length] bytes starting at [offset] from the file with the
+  /// content URI [uri].
+  ///
+  /// Returns fewer bytes than requested only at the end of the file. Files that
+  /// can not seek, such as pipes from remote document providers, can only be
+  /// read from offset 0.
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  Uint8List readFile(String uri, int offset, int length);
+
+  /// Opens the file with the content URI [uri] to be read from [offset] with
+  /// [readFromReader], and returns the identifier of the reader.
+  ///
+  /// The reader keeps the file open until it is closed with [closeReader], so
+  /// that reading a file that can not seek in chunks does not read it from the
+  /// start for each chunk.
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  int openReader(String uri, int offset);
+
+  /// Reads up to [length] bytes from the reader with the identifier
+  /// [readerId], continuing where the previous read stopped.
+  ///
+  /// Returns fewer bytes than requested only at the end of the file.
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  Uint8List readFromReader(int readerId, int length);
+
+  /// Closes the reader with the identifier [readerId].
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  void closeReader(int readerId);
 }
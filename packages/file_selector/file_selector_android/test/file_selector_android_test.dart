@@ -48,15 +48,16 @@ void main() {
                   <String>['txt', 'jpg'],
                 ),
           ),
+          true,
         ),
       ).thenAnswer(
         (_) => Future<FileResponse?>.value(
           FileResponse(
             path: 'some/path.txt',
             size: 30,
-            bytes: Uint8List(0),
             name: 'name',
             mimeType: 'text/plain',
+            uri: 'content://provider/document/1',
           ),
         ),
       );
@@ -78,8 +79,6 @@ void main() {
 
       expect(file?.path, 'some/path.txt');
       expect(file?.mimeType, 'text/plain');
-      expect(await file?.length(), 30);
-      expect(await file?.readAsBytes(), Uint8List(0));
     });
   });
 
@@ -101,21 +100,22 @@ void main() {
                   <String>['txt', 'jpg'],
                 ),
           ),
+          true,
         ),
       ).thenAnswer(
         (_) => Future<List<FileResponse>>.value(<FileResponse>[
           FileResponse(
             path: 'some/path.txt',
             size: 30,
-            bytes: Uint8List(0),
             name: 'name',
             mimeType: 'text/plain',
+            uri: 'content://provider/document/1',
           ),
           FileResponse(
             path: 'other/dir.jpg',
             size: 40,
-            bytes: Uint8List(0),
             mimeType: 'image/jpg',
+            uri: 'content://provider/document/2',
           ),
         ]),
       );
@@ -137,16 +137,119 @@ void main() {
 
       expect(files[0].path, 'some/path.txt');
       expect(files[0].mimeType, 'text/plain');
-      expect(await files[0].length(), 30);
-      expect(await files[0].readAsBytes(), Uint8List(0));
 
       expect(files[1].path, 'other/dir.jpg');
       expect(files[1].mimeType, 'image/jpg');
-      expect(await files[1].length(), 40);
-      expect(await files[1].readAsBytes(), Uint8List(0));
     });
   });
 
+  group('without copyFilesToCache', () {
+    const uri = 'content://provider/document/1';
+
+    setUp(() {
+      plugin.copyFilesToCache = false;
+    });
+
+    Future<XFile> openFile({int? size}) async {
+      when(mockApi.openFile(null, any, false)).thenAnswer(
+        (_) => Future<FileResponse?>.value(
+          FileResponse(path: uri, size: size, name: 'name.txt', uri: uri),
+        ),
+      );
+      return (await plugin.openFile())!;
+    }
+
+    test('returns the content URI as path', () async {
+      final XFile file = await openFile(size: 30);
+
+      expect(file.path, uri);
+      expect(file.name, 'name.txt');
+      expect(await file.length(), 30);
+    });
+
+    test('reads the content in chunks from one reader', () async {
+      when(mockApi.openReader(uri, 0)).thenAnswer((_) async => 4);
+      when(mockApi.readFromReader(4, 1024 * 1024)).thenAnswer(
+        (_) async => Uint8List.fromList(<int>[1, 2, 3]),
+      );
+      final XFile file = await openFile(size: 3);
+
+      expect(await file.readAsBytes(), <int>[1, 2, 3]);
+      verify(mockApi.openReader(uri, 0)).called(1);
+      verify(mockApi.closeReader(4)).called(1);
+    });
+
+    test('reads consecutive chunks without reopening the file', () async {
+      when(mockApi.openReader(uri, 0)).thenAnswer((_) async => 4);
+      final chunks = <Uint8List>[
+        Uint8List(1024 * 1024),
+        Uint8List.fromList(<int>[1, 2]),
+      ];
+      when(
+        mockApi.readFromReader(4, 1024 * 1024),
+      ).thenAnswer((_) async => chunks.removeAt(0));
+      final XFile file = await openFile();
+
+      expect((await file.readAsBytes()).length, 1024 * 1024 + 2);
+      verify(mockApi.openReader(uri, any)).called(1);
+      verify(mockApi.readFromReader(4, any)).called(2);
+      verify(mockApi.closeReader(4)).called(1);
+    });
+
+    test('reads the requested range', () async {
+      when(mockApi.openReader(uri, 10)).thenAnswer((_) async => 4);
+      when(
+        mockApi.readFromReader(4, 5),
+      ).thenAnswer((_) async => Uint8List.fromList(<int>[1, 2, 3, 4, 5]));
+      final XFile file = await openFile(size: 30);
+
+      final List<Uint8List> chunks = await file.openRead(10, 15).toList();
+
+      expect(chunks, <List<int>>[
+        <int>[1, 2, 3, 4, 5],
+      ]);
+      verify(mockApi.closeReader(4)).called(1);
+    });
+
+    test('closes the reader when the stream is cancelled', () async {
+      when(mockApi.openReader(uri, 0)).thenAnswer((_) async => 4);
+      when(
+        mockApi.readFromReader(4, 1024 * 1024),
+      ).thenAnswer((_) async => Uint8List(1024 * 1024));
+      final XFile file = await openFile();
+
+      await file.openRead().first;
+
+      verify(mockApi.closeReader(4)).called(1);
+    });
+
+    test('reads the content to find an unknown length', () async {
+      when(mockApi.openReader(uri, 0)).thenAnswer((_) async => 4);
+      when(
+        mockApi.readFromReader(4, 1024 * 1024),
+      ).thenAnswer((_) async => Uint8List(7));
+      final XFile file = await openFile();
+
+      expect(await file.length(), 7);
+      expect(await file.length(), 7);
+      verify(mockApi.openReader(uri, 0)).called(1);
+    });
+  });
+
+  test('readFile', () async {
+    when(
+      mockApi.readFile('content://provider/document/1', 10, 3),
+    ).thenAnswer((_) async => Uint8List.fromList(<int>[1, 2, 3]));
+
+    final Uint8List bytes = await plugin.readFile(
+      'content://provider/document/1',
+      offset: 10,
+      length: 3,
+    );
+
+    expect(bytes, <int>[1, 2, 3]);
+  });
+
   test('getDirectoryPath', () async {
     when(
       mockApi.getDirectoryPath('some/path'),
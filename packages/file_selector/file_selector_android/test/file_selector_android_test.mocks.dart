@@ -4,6 +4,7 @@
 
 // ignore_for_file: no_leading_underscores_for_library_prefixes
 import 'dart:async' as _i4;
+import 'dart:typed_data' as _i5;
 
 import 'package:file_selector_android/src/file_selector_api.g.dart' as _i2;
 import 'package:mockito/mockito.dart' as _i1;
@@ -45,9 +46,14 @@ class MockFileSelectorApi extends _i1.Mock implements _i2.FileSelectorApi {
   _i4.Future<_i2.FileResponse?> openFile(
     String? initialDirectory,
     _i2.FileTypes? allowedTypes,
+    bool? copyToCache,
   ) =>
       (super.noSuchMethod(
-            Invocation.method(#openFile, [initialDirectory, allowedTypes]),
+            Invocation.method(#openFile, [
+              initialDirectory,
+              allowedTypes,
+              copyToCache,
+            ]),
             returnValue: _i4.Future<_i2.FileResponse?>.value(),
           )
           as _i4.Future<_i2.FileResponse?>);
@@ -56,9 +62,14 @@ class MockFileSelectorApi extends _i1.Mock implements _i2.FileSelectorApi {
   _i4.Future<List<_i2.FileResponse>> openFiles(
     String? initialDirectory,
     _i2.FileTypes? allowedTypes,
+    bool? copyToCache,
   ) =>
       (super.noSuchMethod(
-            Invocation.method(#openFiles, [initialDirectory, allowedTypes]),
+            Invocation.method(#openFiles, [
+              initialDirectory,
+              allowedTypes,
+              copyToCache,
+            ]),
             returnValue: _i4.Future<List<_i2.FileResponse>>.value(
               <_i2.FileResponse>[],
             ),
@@ -72,4 +83,37 @@ class MockFileSelectorApi extends _i1.Mock implements _i2.FileSelectorApi {
             returnValue: _i4.Future<String?>.value(),
           )
           as _i4.Future<String?>);
+
+  @override
+  _i4.Future<_i5.Uint8List> readFile(String? uri, int? offset, int? length) =>
+      (super.noSuchMethod(
+            Invocation.method(#readFile, [uri, offset, length]),
+            returnValue: _i4.Future<_i5.Uint8List>.value(_i5.Uint8List(0)),
+          )
+          as _i4.Future<_i5.Uint8List>);
+
+  @override
+  _i4.Future<int> openReader(String? uri, int? offset) =>
+      (super.noSuchMethod(
+            Invocation.method(#openReader, [uri, offset]),
+            returnValue: _i4.Future<int>.value(0),
+          )
+          as _i4.Future<int>);
+
+  @override
+  _i4.Future<_i5.Uint8List> readFromReader(int? readerId, int? length) =>
+      (super.noSuchMethod(
+            Invocation.method(#readFromReader, [readerId, length]),
+            returnValue: _i4.Future<_i5.Uint8List>.value(_i5.Uint8List(0)),
+          )
+          as _i4.Future<_i5.Uint8List>);
+
+  @override
+  _i4.Future<void> closeReader(int? readerId) =>
+      (super.noSuchMethod(
+            Invocation.method(#closeReader, [readerId]),
+            returnValue: _i4.Future<void>.value(),
+            returnValueForMissingStub: _i4.Future<void>.value(),
+          )
+          as _i4.Future<void>);
 }
@@ -27,19 +27,29 @@ import android.content.ContentResolver;
 import android.content.Context;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.ParcelFileDescriptor;
 import android.provider.MediaStore;
+import android.provider.OpenableColumns;
 import android.webkit.MimeTypeMap;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.flutter.Log;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import java.util.UUID;
 
 class FileUtils {
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
   /**
    * Copies the file from the given content URI to a temporary directory, retaining the original
    * file name if possible.
@@ -102,6 +112,100 @@ class FileUtils {
     }
   }
 
+  /** Returns the display name, size and MIME type of the content at the given URI. */
+  @NonNull
+  Messages.ContentUriMetadata getContentUriMetadata(
+      @NonNull final Context context, @NonNull final Uri uri) {
+    final ContentResolver contentResolver = context.getContentResolver();
+    final Messages.ContentUriMetadata.Builder builder =
+        new Messages.ContentUriMetadata.Builder().setMimeType(contentResolver.getType(uri));
+    try (Cursor cursor =
+        contentResolver.query(
+            uri,
+            new String[] {OpenableColumns.DISPLAY_NAME, OpenableColumns.SIZE},
+            null,
+            null,
+            null)) {
+      if (cursor != null && cursor.moveToFirst()) {
+        final int nameIndex = cursor.getColumnIndex(OpenableColumns.DISPLAY_NAME);
+        if (nameIndex >= 0 && !cursor.isNull(nameIndex)) {
+          builder.setName(sanitizeFilename(cursor.getString(nameIndex)));
+        }
+        final int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+        if (sizeIndex >= 0 && !cursor.isNull(sizeIndex)) {
+          builder.setSize(cursor.getLong(sizeIndex));
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads up to length bytes starting at offset from the content at the given URI.
+   *
+   * <p>Content backed by a file is read with a positional read, so the bytes before offset are
+   * never read. Other content, such as a pipe from a remote provider, can only be read from offset
+   * 0, since skipping to the offset would read it from the start for each range. Fewer bytes than
+   * requested are only returned at the end of the content.
+   *
+   * @throws IOException if the content can not seek and offset is not 0.
+   */
+  @NonNull
+  byte[] readFromUri(
+      @NonNull final Context context, @NonNull final Uri uri, final long offset, final int length)
+      throws IOException {
+    final ParcelFileDescriptor descriptor =
+        context.getContentResolver().openFileDescriptor(uri, "r");
+    if (descriptor == null) {
+      throw new FileNotFoundException("Unable to open " + uri);
+    }
+    try (FileInputStream inputStream = new ParcelFileDescriptor.AutoCloseInputStream(descriptor)) {
+      final long size = descriptor.getStatSize();
+      // Pipes and sockets have no size.
+      if (size < 0) {
+        if (offset > 0) {
+          throw new IOException(
+              "Unable to read " + uri + " from an offset, since it can not seek.");
+        }
+        return readFully(inputStream, length);
+      }
+      // Only the bytes left in the file are allocated, since callers may ask for a large range.
+      final byte[] bytes = new byte[(int) Math.max(0, Math.min(length, size - offset))];
+      final int bytesRead = readFully(inputStream.getChannel(), offset, bytes);
+      return bytesRead == bytes.length ? bytes : Arrays.copyOf(bytes, bytesRead);
+    }
+  }
+
+  private static int readFully(
+      @NonNull FileChannel channel, long position, @NonNull byte[] destination)
+      throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(destination);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) == -1) {
+        break;
+      }
+    }
+    return buffer.position();
+  }
+
+  // The size of a pipe is not known, so the buffer grows as bytes are read instead of being
+  // allocated for the whole length up front.
+  @NonNull
+  private static byte[] readFully(@NonNull InputStream in, int length) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(length, COPY_BUFFER_SIZE));
+    final byte[] buffer = new byte[Math.min(length, COPY_BUFFER_SIZE)];
+    int remaining = length;
+    while (remaining > 0) {
+      final int bytesRead = in.read(buffer, 0, Math.min(remaining, buffer.length));
+      if (bytesRead == -1) {
+        break;
+      }
+      out.write(buffer, 0, bytesRead);
+      remaining -= bytesRead;
+    }
+    return out.toByteArray();
+  }
+
   /** @return extension of image with dot, or null if it's empty. */
   private static String getImageExtension(Context context, Uri uriImage) {
     String extension;
@@ -176,7 +280,27 @@ class FileUtils {
   }
 
   private static void copy(InputStream in, OutputStream out) throws IOException {
-    final byte[] buffer = new byte[4 * 1024];
+    // A stream of a whole file is copied by the kernel, without passing the bytes through the
+    // heap. Streams of part of a file, from an AssetFileDescriptor, have a different class, and
+    // pipes cannot be positioned, so both are copied through the buffer below.
+    if (in.getClass() == ParcelFileDescriptor.AutoCloseInputStream.class
+        && out instanceof FileOutputStream
+        && hasStatSize((FileInputStream) in)) {
+      final FileChannel inChannel = ((FileInputStream) in).getChannel();
+      final FileChannel outChannel = ((FileOutputStream) out).getChannel();
+      final long size = inChannel.size();
+      long position = inChannel.position();
+      while (position < size) {
+        final long transferred = inChannel.transferTo(position, size - position, outChannel);
+        if (transferred <= 0) {
+          break;
+        }
+        position += transferred;
+      }
+      inChannel.position(position);
+    }
+
+    final byte[] buffer = new byte[COPY_BUFFER_SIZE];
     int bytesRead;
     while ((bytesRead = in.read(buffer)) != -1) {
       out.write(buffer, 0, bytesRead);
@@ -184,6 +308,16 @@ class FileUtils {
     out.flush();
   }
 
+  // Whether the stream reads a regular file, rather than a pipe or socket, which have no size.
+  // Streams whose descriptor cannot be inspected are treated as pipes.
+  private static boolean hasStatSize(@NonNull FileInputStream in) {
+    try (ParcelFileDescriptor descriptor = ParcelFileDescriptor.dup(in.getFD())) {
+      return descriptor.getStatSize() >= 0;
+    } catch (IOException | RuntimeException e) {
+      return false;
+    }
+  }
+
   private static String getBaseName(String fileName) {
     int lastDotIndex = fileName.lastIndexOf('.');
     if (lastDotIndex < 0) {
@@ -26,6 +26,7 @@ class ImagePickerCache {
   static final String MAP_KEY_MAX_WIDTH = "maxWidth";
   static final String MAP_KEY_MAX_HEIGHT = "maxHeight";
   static final String MAP_KEY_IMAGE_QUALITY = "imageQuality";
+  static final String MAP_KEY_OUTPUT_FORMAT = "outputFormat";
   static final String MAP_KEY_TYPE = "type";
   static final String MAP_KEY_ERROR = "error";
 
@@ -45,6 +46,9 @@ class ImagePickerCache {
   private static final String SHARED_PREFERENCE_IMAGE_QUALITY_KEY =
       "flutter_image_picker_image_quality";
 
+  private static final String SHARED_PREFERENCE_OUTPUT_FORMAT_KEY =
+      "flutter_image_picker_output_format";
+
   private static final String SHARED_PREFERENCE_TYPE_KEY = "flutter_image_picker_type";
   private static final String SHARED_PREFERENCE_PENDING_IMAGE_URI_PATH_KEY =
       "flutter_image_picker_pending_image_uri";
@@ -88,6 +92,9 @@ class ImagePickerCache {
           SHARED_PREFERENCE_MAX_HEIGHT_KEY, Double.doubleToRawLongBits(options.getMaxHeight()));
     }
     editor.putInt(SHARED_PREFERENCE_IMAGE_QUALITY_KEY, options.getQuality().intValue());
+    if (options.getOutputFormat() != null) {
+      editor.putInt(SHARED_PREFERENCE_OUTPUT_FORMAT_KEY, options.getOutputFormat().index);
+    }
     editor.apply();
   }
 
@@ -174,6 +181,11 @@ class ImagePickerCache {
       }
       final int imageQuality = prefs.getInt(SHARED_PREFERENCE_IMAGE_QUALITY_KEY, 100);
       resultMap.put(MAP_KEY_IMAGE_QUALITY, imageQuality);
+      if (prefs.contains(SHARED_PREFERENCE_OUTPUT_FORMAT_KEY)) {
+        final int outputFormatIndex = prefs.getInt(SHARED_PREFERENCE_OUTPUT_FORMAT_KEY, 0);
+        resultMap.put(
+            MAP_KEY_OUTPUT_FORMAT, Messages.ImageOutputFormat.values()[outputFormatIndex]);
+      }
     }
     return resultMap;
   }
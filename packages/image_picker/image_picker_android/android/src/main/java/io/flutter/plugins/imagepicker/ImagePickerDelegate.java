@@ -8,6 +8,7 @@ import android.Manifest;
 import android.app.Activity;
 import android.content.ActivityNotFoundException;
 import android.content.ClipData;
+import android.content.ContentResolver;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
@@ -25,7 +26,9 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.FileProvider;
 import io.flutter.plugin.common.PluginRegistry;
 import io.flutter.plugins.imagepicker.Messages.FlutterError;
+import io.flutter.plugins.imagepicker.Messages.GeneralOptions;
 import io.flutter.plugins.imagepicker.Messages.ImageSelectionOptions;
+import io.flutter.plugins.imagepicker.Messages.PickResult;
 import io.flutter.plugins.imagepicker.Messages.VideoSelectionOptions;
 import java.io.File;
 import java.io.IOException;
@@ -33,8 +36,14 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A delegate class doing the heavy lifting for the plugin.
@@ -87,6 +96,11 @@ public class ImagePickerDelegate
   @VisibleForTesting static final int REQUEST_CODE_TAKE_VIDEO_WITH_CAMERA = 2353;
   @VisibleForTesting static final int REQUEST_CAMERA_VIDEO_PERMISSION = 2355;
 
+  // Upper bound for the number of picked items that are copied or resized at the same time. Each
+  // resize can hold a decoded bitmap in memory, so this is capped below the core count of larger
+  // devices.
+  private static final int MAX_PROCESSING_THREADS = 4;
+
   public enum CameraDevice {
     REAR,
     FRONT
@@ -96,18 +110,37 @@ public class ImagePickerDelegate
   private static class PendingCallState {
     public final @Nullable ImageSelectionOptions imageOptions;
     public final @Nullable VideoSelectionOptions videoOptions;
-    public final @NonNull Messages.Result<List<String>> result;
+    public final @Nullable Long thumbnailSize;
+    public final boolean copyToCache;
+    public final @NonNull Messages.Result<PickResult> result;
 
     PendingCallState(
         @Nullable ImageSelectionOptions imageOptions,
         @Nullable VideoSelectionOptions videoOptions,
-        @NonNull Messages.Result<List<String>> result) {
+        @Nullable GeneralOptions generalOptions,
+        @NonNull Messages.Result<PickResult> result) {
       this.imageOptions = imageOptions;
       this.videoOptions = videoOptions;
+      this.thumbnailSize = generalOptions != null ? generalOptions.getThumbnailSize() : null;
+      this.copyToCache =
+          generalOptions == null
+              || generalOptions.getCopyToCache() == null
+              || generalOptions.getCopyToCache();
       this.result = result;
     }
   }
 
+  /** A selected item, and its thumbnail if one was created. */
+  private static class PickedItem {
+    final @NonNull String path;
+    final @Nullable String thumbnailPath;
+
+    PickedItem(@NonNull String path, @Nullable String thumbnailPath) {
+      this.path = path;
+      this.thumbnailPath = thumbnailPath;
+    }
+  }
+
   @VisibleForTesting final String fileProviderName;
 
   private final @NonNull Activity activity;
@@ -117,6 +150,8 @@ public class ImagePickerDelegate
   private final FileUriResolver fileUriResolver;
   private final FileUtils fileUtils;
   private final ExecutorService executor;
+  private final Executor processingExecutor;
+  private final VideoCompressor videoCompressor;
   private CameraDevice cameraDevice;
 
   interface PermissionManager {
@@ -137,6 +172,11 @@ public class ImagePickerDelegate
     void onPathReady(String path);
   }
 
+  private interface ItemProcessor<T, R> {
+    @Nullable
+    R process(@NonNull T item);
+  }
+
   private Uri pendingCameraMediaUri;
   private @Nullable PendingCallState pendingCallState;
   private final Object pendingCallStateLock = new Object();
@@ -185,7 +225,9 @@ public class ImagePickerDelegate
           }
         },
         new FileUtils(),
-        Executors.newSingleThreadExecutor());
+        Executors.newSingleThreadExecutor(),
+        createProcessingExecutor(),
+        new VideoCompressor(activity.getApplicationContext()));
   }
 
   /**
@@ -198,30 +240,60 @@ public class ImagePickerDelegate
       final @NonNull ImageResizer imageResizer,
       final @Nullable ImageSelectionOptions pendingImageOptions,
       final @Nullable VideoSelectionOptions pendingVideoOptions,
-      final @Nullable Messages.Result<List<String>> result,
+      final @Nullable GeneralOptions pendingGeneralOptions,
+      final @Nullable Messages.Result<PickResult> result,
       final @NonNull ImagePickerCache cache,
       final PermissionManager permissionManager,
       final FileUriResolver fileUriResolver,
       final FileUtils fileUtils,
-      final ExecutorService executor) {
+      final ExecutorService executor,
+      final Executor processingExecutor,
+      final VideoCompressor videoCompressor) {
     this.activity = activity;
     this.imageResizer = imageResizer;
     this.fileProviderName = activity.getPackageName() + ".flutter.image_provider";
     if (result != null) {
       this.pendingCallState =
-          new PendingCallState(pendingImageOptions, pendingVideoOptions, result);
+          new PendingCallState(
+              pendingImageOptions, pendingVideoOptions, pendingGeneralOptions, result);
     }
     this.permissionManager = permissionManager;
     this.fileUriResolver = fileUriResolver;
     this.fileUtils = fileUtils;
     this.cache = cache;
     this.executor = executor;
+    this.processingExecutor = processingExecutor;
+    this.videoCompressor = videoCompressor;
+  }
+
+  // Creates the pool used to process the items of a multi-selection concurrently. Threads are
+  // only kept alive while a selection is being processed.
+  private static Executor createProcessingExecutor() {
+    final int threadCount =
+        Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PROCESSING_THREADS));
+    final ThreadPoolExecutor processingExecutor =
+        new ThreadPoolExecutor(
+            threadCount, threadCount, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    processingExecutor.allowCoreThreadTimeOut(true);
+    return processingExecutor;
   }
 
   void setCameraDevice(CameraDevice device) {
     cameraDevice = device;
   }
 
+  /** Returns the metadata of a content URI returned by a selection. */
+  @NonNull
+  Messages.ContentUriMetadata getContentUriMetadata(@NonNull Uri uri) {
+    return fileUtils.getContentUriMetadata(activity, uri);
+  }
+
+  /** Reads up to length bytes starting at offset from a content URI returned by a selection. */
+  @NonNull
+  byte[] readContentUri(@NonNull Uri uri, long offset, int length) throws IOException {
+    return fileUtils.readFromUri(activity, uri, offset, length);
+  }
+
   // Save the state of the image picker so it can be retrieved with `retrieveLostImage`.
   void saveStateBeforeResult() {
     ImageSelectionOptions localImageOptions;
@@ -271,9 +343,14 @@ public class ImagePickerDelegate
         Double maxHeight = (Double) cacheMap.get(ImagePickerCache.MAP_KEY_MAX_HEIGHT);
         Integer boxedImageQuality = (Integer) cacheMap.get(ImagePickerCache.MAP_KEY_IMAGE_QUALITY);
         int imageQuality = boxedImageQuality == null ? 100 : boxedImageQuality;
+        Messages.ImageOutputFormat outputFormat =
+            (Messages.ImageOutputFormat) cacheMap.get(ImagePickerCache.MAP_KEY_OUTPUT_FORMAT);
 
-        newPathList.add(imageResizer.resizeImageIfNeeded(path, maxWidth, maxHeight, imageQuality));
+        newPathList.add(
+            imageResizer.resizeImageIfNeeded(
+                path, maxWidth, maxHeight, imageQuality, outputFormat));
       }
+      imageResizer.releaseReusableBitmaps();
       result.setPaths(newPathList);
     }
 
@@ -284,9 +361,10 @@ public class ImagePickerDelegate
 
   public void chooseMediaFromGallery(
       @NonNull Messages.MediaSelectionOptions options,
-      @NonNull Messages.GeneralOptions generalOptions,
-      @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(options.getImageSelectionOptions(), null, result)) {
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(
+        options.getImageSelectionOptions(), null, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
@@ -294,7 +372,7 @@ public class ImagePickerDelegate
     launchPickMediaFromGalleryIntent(generalOptions);
   }
 
-  private void launchPickMediaFromGalleryIntent(Messages.GeneralOptions generalOptions) {
+  private void launchPickMediaFromGalleryIntent(GeneralOptions generalOptions) {
     Intent pickMediaIntent;
     if (generalOptions.getUsePhotoPicker()) {
       if (generalOptions.getAllowMultiple()) {
@@ -330,14 +408,14 @@ public class ImagePickerDelegate
 
   public void chooseVideoFromGallery(
       @NonNull VideoSelectionOptions options,
-      boolean usePhotoPicker,
-      @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(null, options, result)) {
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(null, options, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
 
-    launchPickVideoFromGalleryIntent(usePhotoPicker);
+    launchPickVideoFromGalleryIntent(generalOptions.getUsePhotoPicker());
   }
 
   private void launchPickVideoFromGalleryIntent(Boolean usePhotoPicker) {
@@ -359,8 +437,10 @@ public class ImagePickerDelegate
   }
 
   public void takeVideoWithCamera(
-      @NonNull VideoSelectionOptions options, @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(null, options, result)) {
+      @NonNull VideoSelectionOptions options,
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(null, options, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
@@ -416,27 +496,27 @@ public class ImagePickerDelegate
 
   public void chooseImageFromGallery(
       @NonNull ImageSelectionOptions options,
-      boolean usePhotoPicker,
-      @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(options, null, result)) {
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(options, null, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
 
-    launchPickImageFromGalleryIntent(usePhotoPicker);
+    launchPickImageFromGalleryIntent(generalOptions.getUsePhotoPicker());
   }
 
   public void chooseMultiImageFromGallery(
       @NonNull ImageSelectionOptions options,
-      boolean usePhotoPicker,
-      int limit,
-      @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(options, null, result)) {
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(options, null, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
 
-    launchMultiPickImageFromGalleryIntent(usePhotoPicker, limit);
+    launchMultiPickImageFromGalleryIntent(
+        generalOptions.getUsePhotoPicker(), ImagePickerUtils.getLimitFromOption(generalOptions));
   }
 
   private void launchPickImageFromGalleryIntent(Boolean usePhotoPicker) {
@@ -477,15 +557,15 @@ public class ImagePickerDelegate
 
   public void chooseMultiVideoFromGallery(
       @NonNull VideoSelectionOptions options,
-      boolean usePhotoPicker,
-      int limit,
-      @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(null, options, result)) {
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(null, options, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
 
-    launchMultiPickVideoFromGalleryIntent(usePhotoPicker, limit);
+    launchMultiPickVideoFromGalleryIntent(
+        generalOptions.getUsePhotoPicker(), ImagePickerUtils.getLimitFromOption(generalOptions));
   }
 
   private void launchMultiPickVideoFromGalleryIntent(Boolean usePhotoPicker, int limit) {
@@ -508,8 +588,10 @@ public class ImagePickerDelegate
   }
 
   public void takeImageWithCamera(
-      @NonNull ImageSelectionOptions options, @NonNull Messages.Result<List<String>> result) {
-    if (!setPendingOptionsAndResult(options, null, result)) {
+      @NonNull ImageSelectionOptions options,
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
+    if (!setPendingOptionsAndResult(options, null, generalOptions, result)) {
       finishWithAlreadyActiveError(result);
       return;
     }
@@ -677,6 +759,7 @@ public class ImagePickerDelegate
   @Nullable
   private ArrayList<MediaPath> getPathsFromIntent(@NonNull Intent data, boolean includeMimeType) {
     ArrayList<MediaPath> paths = new ArrayList<>();
+    final boolean localCopyToCache = shouldCopyToCache();
 
     Uri uri = data.getData();
     // On several pre-Android 13 devices using Android Photo Picker, the Uri from getData() could
@@ -691,22 +774,34 @@ public class ImagePickerDelegate
         return null;
       }
 
+      ArrayList<Uri> uris = new ArrayList<>();
       for (int i = 0; i < data.getClipData().getItemCount(); i++) {
         uri = data.getClipData().getItemAt(i).getUri();
         // Same error state as above.
         if (uri == null) {
           return null;
         }
-        String path = fileUtils.getPathFromUri(activity, uri);
-        // Again, same error state as above.
-        if (path == null) {
-          return null;
-        }
-        String mimeType = includeMimeType ? activity.getContentResolver().getType(uri) : null;
-        paths.add(new MediaPath(path, mimeType));
+        uris.add(uri);
+      }
+
+      paths =
+          processConcurrently(
+              uris,
+              itemUri -> {
+                String path = getPathFromUri(itemUri, localCopyToCache);
+                if (path == null) {
+                  return null;
+                }
+                String mimeType =
+                    includeMimeType ? activity.getContentResolver().getType(itemUri) : null;
+                return new MediaPath(path, mimeType);
+              });
+      // Again, same error state as above.
+      if (paths.contains(null)) {
+        return null;
       }
     } else {
-      String path = fileUtils.getPathFromUri(activity, uri);
+      String path = getPathFromUri(uri, localCopyToCache);
       if (path == null) {
         return null;
       }
@@ -715,6 +810,28 @@ public class ImagePickerDelegate
     return paths;
   }
 
+  // Whether the items of the pending selection are copied to the cache directory. Results that
+  // arrive without a pending call, after the app was restarted, are always copied.
+  private boolean shouldCopyToCache() {
+    synchronized (pendingCallStateLock) {
+      return pendingCallState == null || pendingCallState.copyToCache;
+    }
+  }
+
+  // The size of the thumbnails to create for the pending selection, or null if there is none.
+  @Nullable
+  private Long getPendingThumbnailSize() {
+    synchronized (pendingCallStateLock) {
+      return pendingCallState != null ? pendingCallState.thumbnailSize : null;
+    }
+  }
+
+  // Returns the path of a copy of the content at uri, or the URI itself if copyToCache is false.
+  @Nullable
+  private String getPathFromUri(@NonNull Uri uri, boolean copyToCache) {
+    return copyToCache ? fileUtils.getPathFromUri(activity, uri) : uri.toString();
+  }
+
   private void handleChooseImageResult(int resultCode, Intent data) {
     if (resultCode == Activity.RESULT_OK && data != null) {
       ArrayList<MediaPath> paths = getPathsFromIntent(data, false);
@@ -742,7 +859,7 @@ public class ImagePickerDelegate
         return;
       }
 
-      handleMediaResult(paths);
+      handleMediaResult(shouldCopyToCache() ? compressVideosIfNeeded(paths) : paths);
       return;
     }
 
@@ -812,7 +929,9 @@ public class ImagePickerDelegate
         return;
       }
 
-      finishWithSuccess(paths.get(0).path);
+      String sourcePath = paths.get(0).path;
+      finishWithSuccess(
+          (shouldCopyToCache() ? compressVideosIfNeeded(paths) : paths).get(0).path, sourcePath);
       return;
     }
 
@@ -843,7 +962,7 @@ public class ImagePickerDelegate
           localPendingCameraMediaUrl != null
               ? localPendingCameraMediaUrl
               : Uri.parse(cache.retrievePendingCameraMediaUriPath()),
-          this::finishWithSuccess);
+          this::handleVideoResult);
       return;
     }
 
@@ -851,6 +970,67 @@ public class ImagePickerDelegate
     finishWithSuccess(null);
   }
 
+  private void handleVideoResult(@Nullable String path) {
+    if (path == null) {
+      finishWithSuccess(null);
+      return;
+    }
+    ArrayList<MediaPath> paths = new ArrayList<>();
+    paths.add(new MediaPath(path, null));
+    // Transcoding can take a while, so it should not block the thread that delivered the path.
+    executor.execute(() -> finishWithSuccess(compressVideosIfNeeded(paths).get(0).path, path));
+  }
+
+  // Transcodes the selected videos if the pending video options request it. Other selected items
+  // are returned as they are.
+  @NonNull
+  private ArrayList<MediaPath> compressVideosIfNeeded(@NonNull ArrayList<MediaPath> paths) {
+    VideoSelectionOptions localVideoOptions = null;
+    synchronized (pendingCallStateLock) {
+      if (pendingCallState != null) {
+        localVideoOptions = pendingCallState.videoOptions;
+      }
+    }
+    if (localVideoOptions == null || !videoCompressor.shouldCompress(localVideoOptions)) {
+      return paths;
+    }
+
+    ArrayList<String> inputPaths = new ArrayList<>(paths.size());
+    for (MediaPath path : paths) {
+      if (isVideo(path)) {
+        inputPaths.add(path.path);
+      }
+    }
+    if (inputPaths.isEmpty()) {
+      return paths;
+    }
+    List<String> outputPaths = videoCompressor.compressVideos(inputPaths, localVideoOptions);
+    ArrayList<MediaPath> results = new ArrayList<>(paths.size());
+    int outputIndex = 0;
+    for (MediaPath path : paths) {
+      results.add(
+          isVideo(path) ? new MediaPath(outputPaths.get(outputIndex++), path.mimeType) : path);
+    }
+    return results;
+  }
+
+  // Video pickers can also return images, so the type of each item is checked before it is
+  // transcoded. Items without a known type are only treated as videos if their extension is one.
+  private static boolean isVideo(@NonNull MediaPath path) {
+    String mimeType =
+        path.mimeType != null ? path.mimeType : ImageResizer.getMimeTypeFromPath(path.path);
+    return mimeType != null && mimeType.startsWith("video/");
+  }
+
+  /**
+   * The progress of the video transcode in progress, from 0 to 1, or null if no video is being
+   * transcoded.
+   */
+  @Nullable
+  Double getVideoCompressionProgress() {
+    return videoCompressor.getProgress();
+  }
+
   void handleImageResult(String path, boolean shouldDeleteOriginalIfScaled) {
     ImageSelectionOptions localImageOptions = null;
     synchronized (pendingCallStateLock) {
@@ -861,11 +1041,12 @@ public class ImagePickerDelegate
 
     if (localImageOptions != null) {
       String finalImagePath = getResizedImagePath(path, localImageOptions);
-      // Delete original file if scaled.
+      imageResizer.releaseReusableBitmaps();
+      finishWithSuccess(finalImagePath, path);
+      // Delete original file if scaled, once its thumbnail has been created.
       if (finalImagePath != null && !finalImagePath.equals(path) && shouldDeleteOriginalIfScaled) {
         new File(path).delete();
       }
-      finishWithSuccess(finalImagePath);
     } else {
       finishWithSuccess(path);
     }
@@ -876,45 +1057,122 @@ public class ImagePickerDelegate
         path,
         outputOptions.getMaxWidth(),
         outputOptions.getMaxHeight(),
-        outputOptions.getQuality().intValue());
+        outputOptions.getQuality().intValue(),
+        outputOptions.getOutputFormat());
   }
 
   private void handleMediaResult(@NonNull ArrayList<MediaPath> paths) {
     ImageSelectionOptions localImageOptions = null;
+    Long localThumbnailSize = null;
+    boolean localCopyToCache = true;
     synchronized (pendingCallStateLock) {
       if (pendingCallState != null) {
         localImageOptions = pendingCallState.imageOptions;
+        localThumbnailSize = pendingCallState.thumbnailSize;
+        localCopyToCache = pendingCallState.copyToCache;
       }
     }
 
     ArrayList<String> finalPaths = new ArrayList<>();
-    if (localImageOptions != null) {
-      for (int i = 0; i < paths.size(); i++) {
-        MediaPath path = paths.get(i);
-        String finalPath = path.path;
-        if (path.mimeType == null || !path.mimeType.startsWith("video/")) {
-          finalPath = getResizedImagePath(path.path, localImageOptions);
+    ArrayList<String> thumbnailPaths = new ArrayList<>();
+    // Content URIs are returned as they are; only copies in the cache directory are processed.
+    if (localCopyToCache && (localImageOptions != null || localThumbnailSize != null)) {
+      final ImageSelectionOptions imageOptions = localImageOptions;
+      final Long thumbnailSize = localThumbnailSize;
+      ArrayList<PickedItem> items =
+          processConcurrently(
+              paths,
+              path -> {
+                String finalPath = path.path;
+                if (imageOptions != null
+                    && (path.mimeType == null || !path.mimeType.startsWith("video/"))) {
+                  finalPath = getResizedImagePath(path.path, imageOptions);
+                }
+                // The source is decoded, since the resized image may have lost quality.
+                String thumbnailPath =
+                    thumbnailSize != null
+                        ? createThumbnail(path.path, path.mimeType, thumbnailSize)
+                        : null;
+                return new PickedItem(finalPath, thumbnailPath);
+              });
+      imageResizer.releaseReusableBitmaps();
+      for (PickedItem item : items) {
+        finalPaths.add(item.path);
+        if (thumbnailSize != null) {
+          thumbnailPaths.add(item.thumbnailPath);
         }
-        finalPaths.add(finalPath);
       }
-      finishWithListSuccess(finalPaths);
     } else {
       for (int i = 0; i < paths.size(); i++) {
         finalPaths.add(paths.get(i).path);
       }
-      finishWithListSuccess(finalPaths);
+    }
+    finishWithListSuccess(finalPaths, thumbnailPaths);
+  }
+
+  // Creates a thumbnail of the file at sourcePath, and returns its path, or null if none could be
+  // created.
+  @Nullable
+  private String createThumbnail(@NonNull String sourcePath, @Nullable String mimeType, long size) {
+    // Selections that were not copied to the cache directory are returned unprocessed.
+    if (sourcePath.startsWith(ContentResolver.SCHEME_CONTENT + ":")) {
+      return null;
+    }
+    return imageResizer.createThumbnail(sourcePath, mimeType, (int) size);
+  }
+
+  // Runs `processor` for each of `items` on `processingExecutor` and returns the results in the
+  // order of `items`. A single item is processed on the calling thread.
+  private <T, R> ArrayList<R> processConcurrently(
+      @NonNull List<T> items, @NonNull ItemProcessor<T, R> processor) {
+    final ArrayList<R> results = new ArrayList<>(items.size());
+    if (items.size() == 1) {
+      results.add(processor.process(items.get(0)));
+      return results;
+    }
+
+    final List<FutureTask<R>> tasks = new ArrayList<>(items.size());
+    for (T item : items) {
+      final FutureTask<R> task = new FutureTask<>(() -> processor.process(item));
+      tasks.add(task);
+      processingExecutor.execute(task);
+    }
+
+    try {
+      for (FutureTask<R> task : tasks) {
+        results.add(task.get());
+      }
+    } catch (ExecutionException e) {
+      cancelAll(tasks);
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new RuntimeException(cause);
+    } catch (InterruptedException e) {
+      cancelAll(tasks);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+    return results;
+  }
+
+  private static <R> void cancelAll(@NonNull List<FutureTask<R>> tasks) {
+    for (FutureTask<R> task : tasks) {
+      task.cancel(true);
     }
   }
 
   private boolean setPendingOptionsAndResult(
       @Nullable ImageSelectionOptions imageOptions,
       @Nullable VideoSelectionOptions videoOptions,
-      @NonNull Messages.Result<List<String>> result) {
+      @NonNull GeneralOptions generalOptions,
+      @NonNull Messages.Result<PickResult> result) {
     synchronized (pendingCallStateLock) {
       if (pendingCallState != null) {
         return false;
       }
-      pendingCallState = new PendingCallState(imageOptions, videoOptions, result);
+      pendingCallState = new PendingCallState(imageOptions, videoOptions, generalOptions, result);
     }
 
     // Clean up cache if a new image picker is launched.
@@ -928,12 +1186,24 @@ public class ImagePickerDelegate
   // A null imagePath indicates that the image picker was cancelled without
   // selection.
   private void finishWithSuccess(@Nullable String imagePath) {
+    finishWithSuccess(imagePath, imagePath);
+  }
+
+  // Like finishWithSuccess(imagePath), but creates the thumbnail from sourcePath, which imagePath
+  // was created from.
+  private void finishWithSuccess(@Nullable String imagePath, @Nullable String sourcePath) {
     ArrayList<String> pathList = new ArrayList<>();
     if (imagePath != null) {
       pathList.add(imagePath);
     }
 
-    Messages.Result<List<String>> localResult = null;
+    ArrayList<String> thumbnailPathList = new ArrayList<>();
+    final Long localThumbnailSize = getPendingThumbnailSize();
+    if (imagePath != null && sourcePath != null && localThumbnailSize != null) {
+      thumbnailPathList.add(createThumbnail(sourcePath, null, localThumbnailSize));
+    }
+
+    Messages.Result<PickResult> localResult = null;
     synchronized (pendingCallStateLock) {
       if (pendingCallState != null) {
         localResult = pendingCallState.result;
@@ -947,12 +1217,17 @@ public class ImagePickerDelegate
         cache.saveResult(pathList, null, null);
       }
     } else {
-      localResult.success(pathList);
+      localResult.success(
+          new PickResult.Builder()
+              .setPaths(pathList)
+              .setThumbnailPaths(thumbnailPathList)
+              .build());
     }
   }
 
-  private void finishWithListSuccess(ArrayList<String> imagePaths) {
-    Messages.Result<List<String>> localResult = null;
+  private void finishWithListSuccess(
+      ArrayList<String> imagePaths, ArrayList<String> thumbnailPaths) {
+    Messages.Result<PickResult> localResult = null;
     synchronized (pendingCallStateLock) {
       if (pendingCallState != null) {
         localResult = pendingCallState.result;
@@ -963,16 +1238,17 @@ public class ImagePickerDelegate
     if (localResult == null) {
       cache.saveResult(imagePaths, null, null);
     } else {
-      localResult.success(imagePaths);
+      localResult.success(
+          new PickResult.Builder().setPaths(imagePaths).setThumbnailPaths(thumbnailPaths).build());
     }
   }
 
-  private void finishWithAlreadyActiveError(Messages.Result<List<String>> result) {
+  private void finishWithAlreadyActiveError(Messages.Result<PickResult> result) {
     result.error(new FlutterError("already_active", "Image picker is already active", null));
   }
 
   private void finishWithError(String errorCode, String errorMessage) {
-    Messages.Result<List<String>> localResult = null;
+    Messages.Result<PickResult> localResult = null;
     synchronized (pendingCallStateLock) {
       if (pendingCallState != null) {
         localResult = pendingCallState.result;
@@ -6,6 +6,7 @@ package io.flutter.plugins.imagepicker;
 
 import android.app.Activity;
 import android.app.Application;
+import android.net.Uri;
 import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -19,16 +20,18 @@ import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
 import io.flutter.embedding.engine.plugins.lifecycle.FlutterLifecycleAdapter;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugins.imagepicker.Messages.CacheRetrievalResult;
+import io.flutter.plugins.imagepicker.Messages.ContentUriMetadata;
 import io.flutter.plugins.imagepicker.Messages.FlutterError;
 import io.flutter.plugins.imagepicker.Messages.GeneralOptions;
 import io.flutter.plugins.imagepicker.Messages.ImagePickerApi;
 import io.flutter.plugins.imagepicker.Messages.ImageSelectionOptions;
 import io.flutter.plugins.imagepicker.Messages.MediaSelectionOptions;
+import io.flutter.plugins.imagepicker.Messages.PickResult;
 import io.flutter.plugins.imagepicker.Messages.Result;
 import io.flutter.plugins.imagepicker.Messages.SourceCamera;
 import io.flutter.plugins.imagepicker.Messages.SourceSpecification;
 import io.flutter.plugins.imagepicker.Messages.VideoSelectionOptions;
-import java.util.List;
+import java.io.IOException;
 
 @SuppressWarnings("deprecation")
 public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePickerApi {
@@ -281,7 +284,7 @@ public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePic
       @NonNull SourceSpecification source,
       @NonNull ImageSelectionOptions options,
       @NonNull GeneralOptions generalOptions,
-      @NonNull Result<List<String>> result) {
+      @NonNull Result<PickResult> result) {
     ImagePickerDelegate delegate = getImagePickerDelegate();
     if (delegate == null) {
       result.error(
@@ -292,17 +295,14 @@ public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePic
 
     setCameraDevice(delegate, source);
     if (generalOptions.getAllowMultiple()) {
-      int limit = ImagePickerUtils.getLimitFromOption(generalOptions);
-
-      delegate.chooseMultiImageFromGallery(
-          options, generalOptions.getUsePhotoPicker(), limit, result);
+      delegate.chooseMultiImageFromGallery(options, generalOptions, result);
     } else {
       switch (source.getType()) {
         case GALLERY:
-          delegate.chooseImageFromGallery(options, generalOptions.getUsePhotoPicker(), result);
+          delegate.chooseImageFromGallery(options, generalOptions, result);
           break;
         case CAMERA:
-          delegate.takeImageWithCamera(options, result);
+          delegate.takeImageWithCamera(options, generalOptions, result);
           break;
       }
     }
@@ -312,7 +312,7 @@ public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePic
   public void pickMedia(
       @NonNull MediaSelectionOptions mediaSelectionOptions,
       @NonNull GeneralOptions generalOptions,
-      @NonNull Result<List<String>> result) {
+      @NonNull Result<PickResult> result) {
     ImagePickerDelegate delegate = getImagePickerDelegate();
     if (delegate == null) {
       result.error(
@@ -328,7 +328,7 @@ public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePic
       @NonNull SourceSpecification source,
       @NonNull VideoSelectionOptions options,
       @NonNull GeneralOptions generalOptions,
-      @NonNull Result<List<String>> result) {
+      @NonNull Result<PickResult> result) {
     ImagePickerDelegate delegate = getImagePickerDelegate();
     if (delegate == null) {
       result.error(
@@ -339,16 +339,14 @@ public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePic
 
     setCameraDevice(delegate, source);
     if (generalOptions.getAllowMultiple()) {
-      int limit = ImagePickerUtils.getLimitFromOption(generalOptions);
-      delegate.chooseMultiVideoFromGallery(
-          options, generalOptions.getUsePhotoPicker(), limit, result);
+      delegate.chooseMultiVideoFromGallery(options, generalOptions, result);
     } else {
       switch (source.getType()) {
         case GALLERY:
-          delegate.chooseVideoFromGallery(options, generalOptions.getUsePhotoPicker(), result);
+          delegate.chooseVideoFromGallery(options, generalOptions, result);
           break;
         case CAMERA:
-          delegate.takeVideoWithCamera(options, result);
+          delegate.takeVideoWithCamera(options, generalOptions, result);
           break;
       }
     }
@@ -364,4 +362,41 @@ public class ImagePickerPlugin implements FlutterPlugin, ActivityAware, ImagePic
     }
     return delegate.retrieveLostImage();
   }
+
+  @Nullable
+  @Override
+  public Double getVideoCompressionProgress() {
+    ImagePickerDelegate delegate = getImagePickerDelegate();
+    return delegate != null ? delegate.getVideoCompressionProgress() : null;
+  }
+
+  @NonNull
+  @Override
+  public ContentUriMetadata getContentUriMetadata(@NonNull String uri) {
+    ImagePickerDelegate delegate = getImagePickerDelegate();
+    if (delegate == null) {
+      throw new FlutterError(
+          "no_activity", "image_picker plugin requires a foreground activity.", null);
+    }
+    return delegate.getContentUriMetadata(Uri.parse(uri));
+  }
+
+  @NonNull
+  @Override
+  public byte[] readContentUri(@NonNull String uri, @NonNull Long offset, @NonNull Long length) {
+    ImagePickerDelegate delegate = getImagePickerDelegate();
+    if (delegate == null) {
+      throw new FlutterError(
+          "no_activity", "image_picker plugin requires a foreground activity.", null);
+    }
+    if (offset < 0 || length < 0) {
+      throw new FlutterError("invalid_range", "offset and length must not be negative.", null);
+    }
+    try {
+      return delegate.readContentUri(
+          Uri.parse(uri), offset, (int) Math.min(length, Integer.MAX_VALUE));
+    } catch (IOException e) {
+      throw new FlutterError("read_error", e.getMessage(), null);
+    }
+  }
 }
@@ -7,20 +7,35 @@ package io.flutter.plugins.imagepicker;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.media.ThumbnailUtils;
+import android.os.Build;
+import android.provider.MediaStore;
 import android.util.Log;
+import android.util.Size;
+import android.webkit.MimeTypeMap;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import androidx.core.util.SizeFCompat;
 import androidx.exifinterface.media.ExifInterface;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.UUID;
 
 class ImageResizer {
+  // The number of decoded bitmaps kept to be reused by the next resizes of a multi-selection.
+  private static final int MAX_REUSABLE_BITMAPS = 2;
+  private static final int THUMBNAIL_QUALITY = 80;
+
   private final Context context;
   private final ExifDataCopier exifDataCopier;
+  private final Deque<Bitmap> reusableBitmaps = new ArrayDeque<>();
 
   ImageResizer(final @NonNull Context context, final @NonNull ExifDataCopier exifDataCopier) {
     this.context = context;
@@ -35,11 +50,32 @@ class ImageResizer {
    */
   String resizeImageIfNeeded(
       String imagePath, @Nullable Double maxWidth, @Nullable Double maxHeight, int imageQuality) {
+    return resizeImageIfNeeded(imagePath, maxWidth, maxHeight, imageQuality, null);
+  }
+
+  /**
+   * If necessary, resizes the image located in imagePath, encodes it with outputFormat, and then
+   * returns the path for the new image.
+   *
+   * <p>The image is subsampled and scaled while it is decoded, so a bitmap of the original size is
+   * never allocated, and it is compressed directly into the output file.
+   *
+   * <p>If no resizing or re-encoding is needed, returns the path for the original image.
+   */
+  String resizeImageIfNeeded(
+      String imagePath,
+      @Nullable Double maxWidth,
+      @Nullable Double maxHeight,
+      int imageQuality,
+      @Nullable Messages.ImageOutputFormat outputFormat) {
     SizeFCompat originalSize = readFileDimensions(imagePath);
     if (originalSize.getWidth() == -1 || originalSize.getHeight() == -1) {
       return imagePath;
     }
-    boolean shouldScale = maxWidth != null || maxHeight != null || imageQuality < 100;
+    boolean shouldReencode =
+        outputFormat != null && outputFormat != Messages.ImageOutputFormat.AUTOMATIC;
+    boolean shouldScale =
+        maxWidth != null || maxHeight != null || imageQuality < 100 || shouldReencode;
     if (!shouldScale) {
       return imagePath;
     }
@@ -52,20 +88,20 @@ class ImageResizer {
               (double) originalSize.getHeight(),
               maxWidth,
               maxHeight);
-      BitmapFactory.Options options = new BitmapFactory.Options();
-      options.inSampleSize =
-          calculateSampleSize(options, (int) targetSize.getWidth(), (int) targetSize.getHeight());
-      Bitmap bmp = decodeFile(imagePath, options);
+      int targetWidth = (int) targetSize.getWidth();
+      int targetHeight = (int) targetSize.getHeight();
+      Bitmap bmp =
+          decodeScaledBitmap(
+              imagePath,
+              (int) originalSize.getWidth(),
+              (int) originalSize.getHeight(),
+              targetWidth,
+              targetHeight);
       if (bmp == null) {
         return imagePath;
       }
       File file =
-          resizedImage(
-              bmp,
-              (double) targetSize.getWidth(),
-              (double) targetSize.getHeight(),
-              imageQuality,
-              imageName);
+          resizedImage(bmp, targetWidth, targetHeight, imageQuality, imageName, outputFormat);
       copyExif(imagePath, file.getPath());
       return file.getPath();
     } catch (IOException e) {
@@ -73,13 +109,145 @@ class ImageResizer {
     }
   }
 
+  /**
+   * Creates a JPEG thumbnail that fits in a square of size pixels for the image or video located in
+   * path and returns the path for the thumbnail.
+   *
+   * <p>Returns null if no thumbnail could be created.
+   */
+  @Nullable
+  String createThumbnail(@NonNull String path, @Nullable String mimeType, int size) {
+    if (mimeType == null) {
+      mimeType = getMimeTypeFromPath(path);
+    }
+    boolean isVideo = mimeType != null && mimeType.startsWith("video/");
+    Bitmap thumbnail = null;
+    try {
+      thumbnail = isVideo ? createVideoThumbnail(path, size) : createImageThumbnail(path, size);
+      if (thumbnail == null) {
+        return null;
+      }
+      File thumbnailFile =
+          createFile(context.getCacheDir(), "/thumbnails/thumb_" + UUID.randomUUID() + ".jpg");
+      try (OutputStream fileOutput = new BufferedOutputStream(createOutputStream(thumbnailFile))) {
+        thumbnail.compress(Bitmap.CompressFormat.JPEG, THUMBNAIL_QUALITY, fileOutput);
+      }
+      return thumbnailFile.getPath();
+    } catch (IOException | RuntimeException e) {
+      Log.e("ImageResizer", "Error creating a thumbnail for " + path + ": " + e);
+      return null;
+    } finally {
+      if (thumbnail != null) {
+        thumbnail.recycle();
+      }
+    }
+  }
+
+  // Uses the thumbnail embedded in the image's Exif data where possible, and otherwise decodes the
+  // image directly to the thumbnail size.
+  @Nullable
+  private Bitmap createImageThumbnail(@NonNull String path, int size) throws IOException {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      return scaleToFit(
+          ThumbnailUtils.createImageThumbnail(new File(path), new Size(size, size), null), size);
+    }
+    SizeFCompat originalSize = readFileDimensions(path);
+    if (originalSize.getWidth() <= 0 || originalSize.getHeight() <= 0) {
+      return null;
+    }
+    SizeFCompat targetSize =
+        calculateTargetSize(
+            (double) originalSize.getWidth(),
+            (double) originalSize.getHeight(),
+            (double) size,
+            (double) size);
+    Bitmap bitmap =
+        decodeScaledBitmap(
+            path,
+            (int) originalSize.getWidth(),
+            (int) originalSize.getHeight(),
+            (int) targetSize.getWidth(),
+            (int) targetSize.getHeight());
+    return bitmap == null ? null : scaleToFit(bitmap, size);
+  }
+
+  @SuppressWarnings("deprecation")
+  @Nullable
+  private Bitmap createVideoThumbnail(@NonNull String path, int size) throws IOException {
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+      return scaleToFit(
+          ThumbnailUtils.createVideoThumbnail(new File(path), new Size(size, size), null), size);
+    }
+    Bitmap bitmap =
+        ThumbnailUtils.createVideoThumbnail(path, MediaStore.Images.Thumbnails.MINI_KIND);
+    return bitmap == null ? null : scaleToFit(bitmap, size);
+  }
+
+  // Scales bitmap down so that it fits in a square of size pixels, recycling the original bitmap if
+  // a new one is created.
+  @NonNull
+  private Bitmap scaleToFit(@NonNull Bitmap bitmap, int size) {
+    if (bitmap.getWidth() <= size && bitmap.getHeight() <= size) {
+      return bitmap;
+    }
+    SizeFCompat targetSize =
+        calculateTargetSize(bitmap.getWidth(), bitmap.getHeight(), (double) size, (double) size);
+    Bitmap scaledBitmap =
+        createScaledBitmap(
+            bitmap,
+            Math.max(1, (int) targetSize.getWidth()),
+            Math.max(1, (int) targetSize.getHeight()),
+            true);
+    if (scaledBitmap != bitmap) {
+      bitmap.recycle();
+    }
+    return scaledBitmap;
+  }
+
+  @Nullable
+  static String getMimeTypeFromPath(@NonNull String path) {
+    int extensionIndex = path.lastIndexOf('.');
+    if (extensionIndex == -1) {
+      return null;
+    }
+    return MimeTypeMap.getSingleton()
+        .getMimeTypeFromExtension(path.substring(extensionIndex + 1).toLowerCase());
+  }
+
+  /** Recycles the bitmaps kept for reuse by later resizes. */
+  synchronized void releaseReusableBitmaps() {
+    for (Bitmap bitmap : reusableBitmaps) {
+      bitmap.recycle();
+    }
+    reusableBitmaps.clear();
+  }
+
   private File resizedImage(
-      Bitmap bmp, Double width, Double height, int imageQuality, String outputImageName)
+      Bitmap bmp,
+      int width,
+      int height,
+      int imageQuality,
+      String outputImageName,
+      @Nullable Messages.ImageOutputFormat outputFormat)
       throws IOException {
-    Bitmap scaledBmp = createScaledBitmap(bmp, width.intValue(), height.intValue(), false);
-    File file =
-        createImageOnExternalDirectory("/scaled_" + outputImageName, scaledBmp, imageQuality);
-    return file;
+    Bitmap scaledBmp = bmp;
+    if (bmp.getWidth() != width || bmp.getHeight() != height) {
+      scaledBmp = createScaledBitmap(bmp, width, height, false);
+      if (scaledBmp != bmp) {
+        recycleBitmap(bmp);
+      }
+    }
+    try {
+      // Each image is written to its own directory, since the images of a multi-selection can have
+      // the same name and are resized concurrently.
+      return createImageOnExternalDirectory(
+          "/" + UUID.randomUUID() + "/scaled_" + outputImageName,
+          scaledBmp,
+          imageQuality,
+          outputFormat);
+    } finally {
+      recycleBitmap(scaledBmp);
+    }
   }
 
   private SizeFCompat calculateTargetSize(
@@ -141,11 +309,71 @@ class ImageResizer {
     return new SizeFCompat(options.outWidth, options.outHeight);
   }
 
-  private Bitmap decodeFile(String path, @Nullable BitmapFactory.Options opts) {
+  /**
+   * Decodes the image at path to approximately targetWidth by targetHeight.
+   *
+   * <p>The decoder first subsamples the image by a power of two and then scales the subsampled
+   * image to the target density, reusing a previously decoded bitmap if one is large enough.
+   */
+  @Nullable
+  private Bitmap decodeScaledBitmap(
+      String path, int originalWidth, int originalHeight, int targetWidth, int targetHeight) {
+    BitmapFactory.Options options = new BitmapFactory.Options();
+    options.inSampleSize =
+        calculateSampleSize(originalWidth, originalHeight, targetWidth, targetHeight);
+    int sampledWidth = originalWidth / options.inSampleSize;
+    if (targetWidth > 0 && sampledWidth > targetWidth) {
+      options.inScaled = true;
+      options.inDensity = sampledWidth;
+      options.inTargetDensity = targetWidth;
+    }
+    options.inMutable = true;
+    // Allows for the scaled size being rounded up by the decoder.
+    options.inBitmap = takeReusableBitmap(targetWidth + 1, targetHeight + 1);
+    try {
+      return decodeFile(path, options);
+    } catch (IllegalArgumentException e) {
+      // The reused bitmap is not compatible with the decoded image.
+      options.inBitmap = null;
+      return decodeFile(path, options);
+    }
+  }
+
+  @Nullable
+  private synchronized Bitmap takeReusableBitmap(int width, int height) {
+    final long byteCount = (long) width * height * 4;
+    Iterator<Bitmap> iterator = reusableBitmaps.iterator();
+    while (iterator.hasNext()) {
+      Bitmap bitmap = iterator.next();
+      if (bitmap.getAllocationByteCount() >= byteCount) {
+        iterator.remove();
+        return bitmap;
+      }
+    }
+    return null;
+  }
+
+  private synchronized void recycleBitmap(Bitmap bitmap) {
+    if (bitmap.isRecycled() || reusableBitmaps.contains(bitmap)) {
+      return;
+    }
+    if (!bitmap.isMutable()) {
+      bitmap.recycle();
+      return;
+    }
+    if (reusableBitmaps.size() >= MAX_REUSABLE_BITMAPS) {
+      reusableBitmaps.removeFirst().recycle();
+    }
+    reusableBitmaps.addLast(bitmap);
+  }
+
+  @VisibleForTesting
+  Bitmap decodeFile(String path, @Nullable BitmapFactory.Options opts) {
     return BitmapFactory.decodeFile(path, opts);
   }
 
-  private Bitmap createScaledBitmap(Bitmap bmp, int width, int height, boolean filter) {
+  @VisibleForTesting
+  Bitmap createScaledBitmap(Bitmap bmp, int width, int height, boolean filter) {
     return Bitmap.createScaledBitmap(bmp, width, height, filter);
   }
 
@@ -160,10 +388,7 @@ class ImageResizer {
    *     href="https://developer.android.com/topic/performance/graphics/load-bitmap#load-bitmap">
    *     Loading Large Bitmaps Efficiently</a>
    */
-  private int calculateSampleSize(
-      BitmapFactory.Options options, int targetWidth, int targetHeight) {
-    final int height = options.outHeight;
-    final int width = options.outWidth;
+  private int calculateSampleSize(int width, int height, int targetWidth, int targetHeight) {
     int sampleSize = 1;
     if (height > targetHeight || width > targetWidth) {
       final int halfHeight = height / 2;
@@ -175,25 +400,69 @@ class ImageResizer {
     return sampleSize;
   }
 
-  private File createImageOnExternalDirectory(String name, Bitmap bitmap, int imageQuality)
+  private File createImageOnExternalDirectory(
+      String name,
+      Bitmap bitmap,
+      int imageQuality,
+      @Nullable Messages.ImageOutputFormat outputFormat)
       throws IOException {
-    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    boolean saveAsPNG = bitmap.hasAlpha();
-    if (saveAsPNG) {
+    Bitmap.CompressFormat compressFormat = getCompressFormat(bitmap, outputFormat);
+    if (compressFormat == Bitmap.CompressFormat.PNG && imageQuality < 100) {
       Log.d(
           "ImageResizer",
           "image_picker: compressing is not supported for type PNG. Returning the image with original quality");
     }
-    bitmap.compress(
-        saveAsPNG ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG,
-        imageQuality,
-        outputStream);
+    String extension = getFileExtension(outputFormat);
+    if (extension != null) {
+      int extensionIndex = name.lastIndexOf('.');
+      name = (extensionIndex > 0 ? name.substring(0, extensionIndex) : name) + extension;
+    }
 
     File cacheDirectory = context.getCacheDir();
     File imageFile = createFile(cacheDirectory, name);
-    FileOutputStream fileOutput = createOutputStream(imageFile);
-    fileOutput.write(outputStream.toByteArray());
-    fileOutput.close();
+    try (OutputStream fileOutput = new BufferedOutputStream(createOutputStream(imageFile))) {
+      bitmap.compress(compressFormat, imageQuality, fileOutput);
+    }
     return imageFile;
   }
+
+  @SuppressWarnings("deprecation")
+  private static Bitmap.CompressFormat getCompressFormat(
+      Bitmap bitmap, @Nullable Messages.ImageOutputFormat outputFormat) {
+    if (outputFormat == null) {
+      outputFormat = Messages.ImageOutputFormat.AUTOMATIC;
+    }
+    switch (outputFormat) {
+      case JPEG:
+        return Bitmap.CompressFormat.JPEG;
+      case PNG:
+        return Bitmap.CompressFormat.PNG;
+      case WEBP:
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+            ? Bitmap.CompressFormat.WEBP_LOSSY
+            : Bitmap.CompressFormat.WEBP;
+      case AUTOMATIC:
+      default:
+        return bitmap.hasAlpha() ? Bitmap.CompressFormat.PNG : Bitmap.CompressFormat.JPEG;
+    }
+  }
+
+  /** The extension of files written with outputFormat, or null to keep the original extension. */
+  @Nullable
+  private static String getFileExtension(@Nullable Messages.ImageOutputFormat outputFormat) {
+    if (outputFormat == null) {
+      return null;
+    }
+    switch (outputFormat) {
+      case JPEG:
+        return ".jpg";
+      case PNG:
+        return ".png";
+      case WEBP:
+        return ".webp";
+      case AUTOMATIC:
+      default:
+        return null;
+    }
+  }
 }
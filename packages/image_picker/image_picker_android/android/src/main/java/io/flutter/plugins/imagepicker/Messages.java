@@ -98,6 +98,21 @@ public class Messages {
     }
   }
 
+  /** The encoding of images that are resized or recompressed. */
+  public enum ImageOutputFormat {
+    /** PNG for images with transparency, JPEG otherwise. */
+    AUTOMATIC(0),
+    JPEG(1),
+    PNG(2),
+    WEBP(3);
+
+    final int index;
+
+    ImageOutputFormat(final int index) {
+      this.index = index;
+    }
+  }
+
   /** Generated class from Pigeon that represents data sent in messages. */
   public static final class GeneralOptions {
     private @NonNull Boolean allowMultiple;
@@ -136,6 +151,36 @@ public class Messages {
       this.limit = setterArg;
     }
 
+    /**
+     * If set, the size in pixels of the square that thumbnails of the selected items are created
+     * to fit in.
+     */
+    private @Nullable Long thumbnailSize;
+
+    public @Nullable Long getThumbnailSize() {
+      return thumbnailSize;
+    }
+
+    public void setThumbnailSize(@Nullable Long setterArg) {
+      this.thumbnailSize = setterArg;
+    }
+
+    /**
+     * Whether items selected from the gallery are copied to the app's cache directory.
+     *
+     * <p>If false, content URIs are returned instead of file paths, and image resizing, thumbnails
+     * and video transcoding are skipped. Defaults to true.
+     */
+    private @Nullable Boolean copyToCache;
+
+    public @Nullable Boolean getCopyToCache() {
+      return copyToCache;
+    }
+
+    public void setCopyToCache(@Nullable Boolean setterArg) {
+      this.copyToCache = setterArg;
+    }
+
     /** Constructor is non-public to enforce null safety; use Builder. */
     GeneralOptions() {}
 
@@ -150,12 +195,14 @@ public class Messages {
       GeneralOptions that = (GeneralOptions) o;
       return allowMultiple.equals(that.allowMultiple)
           && usePhotoPicker.equals(that.usePhotoPicker)
-          && Objects.equals(limit, that.limit);
+          && Objects.equals(limit, that.limit)
+          && Objects.equals(thumbnailSize, that.thumbnailSize)
+          && Objects.equals(copyToCache, that.copyToCache);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(allowMultiple, usePhotoPicker, limit);
+      return Objects.hash(allowMultiple, usePhotoPicker, limit, thumbnailSize, copyToCache);
     }
 
     public static final class Builder {
@@ -184,21 +231,41 @@ public class Messages {
         return this;
       }
 
+      private @Nullable Long thumbnailSize;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setThumbnailSize(@Nullable Long setterArg) {
+        this.thumbnailSize = setterArg;
+        return this;
+      }
+
+      private @Nullable Boolean copyToCache;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setCopyToCache(@Nullable Boolean setterArg) {
+        this.copyToCache = setterArg;
+        return this;
+      }
+
       public @NonNull GeneralOptions build() {
         GeneralOptions pigeonReturn = new GeneralOptions();
         pigeonReturn.setAllowMultiple(allowMultiple);
         pigeonReturn.setUsePhotoPicker(usePhotoPicker);
         pigeonReturn.setLimit(limit);
+        pigeonReturn.setThumbnailSize(thumbnailSize);
+        pigeonReturn.setCopyToCache(copyToCache);
         return pigeonReturn;
       }
     }
 
     @NonNull
     ArrayList<Object> toList() {
-      ArrayList<Object> toListResult = new ArrayList<>(3);
+      ArrayList<Object> toListResult = new ArrayList<>(5);
       toListResult.add(allowMultiple);
       toListResult.add(usePhotoPicker);
       toListResult.add(limit);
+      toListResult.add(thumbnailSize);
+      toListResult.add(copyToCache);
       return toListResult;
     }
 
@@ -210,6 +277,10 @@ public class Messages {
       pigeonResult.setUsePhotoPicker((Boolean) usePhotoPicker);
       Object limit = pigeonVar_list.get(2);
       pigeonResult.setLimit((Long) limit);
+      Object thumbnailSize = pigeonVar_list.get(3);
+      pigeonResult.setThumbnailSize((Long) thumbnailSize);
+      Object copyToCache = pigeonVar_list.get(4);
+      pigeonResult.setCopyToCache((Boolean) copyToCache);
       return pigeonResult;
     }
   }
@@ -260,6 +331,21 @@ public class Messages {
       this.quality = setterArg;
     }
 
+    /**
+     * The encoding of the output image, if it is resized or recompressed.
+     *
+     * <p>Defaults to [ImageOutputFormat.automatic].
+     */
+    private @Nullable ImageOutputFormat outputFormat;
+
+    public @Nullable ImageOutputFormat getOutputFormat() {
+      return outputFormat;
+    }
+
+    public void setOutputFormat(@Nullable ImageOutputFormat setterArg) {
+      this.outputFormat = setterArg;
+    }
+
     /** Constructor is non-public to enforce null safety; use Builder. */
     ImageSelectionOptions() {}
 
@@ -274,12 +360,13 @@ public class Messages {
       ImageSelectionOptions that = (ImageSelectionOptions) o;
       return Objects.equals(maxWidth, that.maxWidth)
           && Objects.equals(maxHeight, that.maxHeight)
-          && quality.equals(that.quality);
+          && quality.equals(that.quality)
+          && Objects.equals(outputFormat, that.outputFormat);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(maxWidth, maxHeight, quality);
+      return Objects.hash(maxWidth, maxHeight, quality, outputFormat);
     }
 
     public static final class Builder {
@@ -308,21 +395,31 @@ public class Messages {
         return this;
       }
 
+      private @Nullable ImageOutputFormat outputFormat;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setOutputFormat(@Nullable ImageOutputFormat setterArg) {
+        this.outputFormat = setterArg;
+        return this;
+      }
+
       public @NonNull ImageSelectionOptions build() {
         ImageSelectionOptions pigeonReturn = new ImageSelectionOptions();
         pigeonReturn.setMaxWidth(maxWidth);
         pigeonReturn.setMaxHeight(maxHeight);
         pigeonReturn.setQuality(quality);
+        pigeonReturn.setOutputFormat(outputFormat);
         return pigeonReturn;
       }
     }
 
     @NonNull
     ArrayList<Object> toList() {
-      ArrayList<Object> toListResult = new ArrayList<>(3);
+      ArrayList<Object> toListResult = new ArrayList<>(4);
       toListResult.add(maxWidth);
       toListResult.add(maxHeight);
       toListResult.add(quality);
+      toListResult.add(outputFormat);
       return toListResult;
     }
 
@@ -334,6 +431,8 @@ public class Messages {
       pigeonResult.setMaxHeight((Double) maxHeight);
       Object quality = pigeonVar_list.get(2);
       pigeonResult.setQuality((Long) quality);
+      Object outputFormat = pigeonVar_list.get(3);
+      pigeonResult.setOutputFormat((ImageOutputFormat) outputFormat);
       return pigeonResult;
     }
   }
@@ -422,6 +521,36 @@ public class Messages {
       this.maxDurationSeconds = setterArg;
     }
 
+    /**
+     * If set, the max length in pixels of the shorter side of the video.
+     *
+     * <p>Setting this or [targetBitrate] causes selected videos to be transcoded.
+     */
+    private @Nullable Long maxResolution;
+
+    public @Nullable Long getMaxResolution() {
+      return maxResolution;
+    }
+
+    public void setMaxResolution(@Nullable Long setterArg) {
+      this.maxResolution = setterArg;
+    }
+
+    /**
+     * If set, the bitrate in bits per second to transcode the video at.
+     *
+     * <p>Setting this or [maxResolution] causes selected videos to be transcoded.
+     */
+    private @Nullable Long targetBitrate;
+
+    public @Nullable Long getTargetBitrate() {
+      return targetBitrate;
+    }
+
+    public void setTargetBitrate(@Nullable Long setterArg) {
+      this.targetBitrate = setterArg;
+    }
+
     @Override
     public boolean equals(Object o) {
       if (this == o) {
@@ -431,12 +560,14 @@ public class Messages {
         return false;
       }
       VideoSelectionOptions that = (VideoSelectionOptions) o;
-      return Objects.equals(maxDurationSeconds, that.maxDurationSeconds);
+      return Objects.equals(maxDurationSeconds, that.maxDurationSeconds)
+          && Objects.equals(maxResolution, that.maxResolution)
+          && Objects.equals(targetBitrate, that.targetBitrate);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(maxDurationSeconds);
+      return Objects.hash(maxDurationSeconds, maxResolution, targetBitrate);
     }
 
     public static final class Builder {
@@ -449,17 +580,37 @@ public class Messages {
         return this;
       }
 
+      private @Nullable Long maxResolution;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setMaxResolution(@Nullable Long setterArg) {
+        this.maxResolution = setterArg;
+        return this;
+      }
+
+      private @Nullable Long targetBitrate;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setTargetBitrate(@Nullable Long setterArg) {
+        this.targetBitrate = setterArg;
+        return this;
+      }
+
       public @NonNull VideoSelectionOptions build() {
         VideoSelectionOptions pigeonReturn = new VideoSelectionOptions();
         pigeonReturn.setMaxDurationSeconds(maxDurationSeconds);
+        pigeonReturn.setMaxResolution(maxResolution);
+        pigeonReturn.setTargetBitrate(targetBitrate);
         return pigeonReturn;
       }
     }
 
     @NonNull
     ArrayList<Object> toList() {
-      ArrayList<Object> toListResult = new ArrayList<>(1);
+      ArrayList<Object> toListResult = new ArrayList<>(3);
       toListResult.add(maxDurationSeconds);
+      toListResult.add(maxResolution);
+      toListResult.add(targetBitrate);
       return toListResult;
     }
 
@@ -467,6 +618,10 @@ public class Messages {
       VideoSelectionOptions pigeonResult = new VideoSelectionOptions();
       Object maxDurationSeconds = pigeonVar_list.get(0);
       pigeonResult.setMaxDurationSeconds((Long) maxDurationSeconds);
+      Object maxResolution = pigeonVar_list.get(1);
+      pigeonResult.setMaxResolution((Long) maxResolution);
+      Object targetBitrate = pigeonVar_list.get(2);
+      pigeonResult.setTargetBitrate((Long) targetBitrate);
       return pigeonResult;
     }
   }
@@ -782,6 +937,224 @@ public class Messages {
     }
   }
 
+  /**
+   * Metadata of a content URI returned by a selection.
+   *
+   * <p>Generated class from Pigeon that represents data sent in messages.
+   */
+  public static final class ContentUriMetadata {
+    /** The display name of the content, if known. */
+    private @Nullable String name;
+
+    public @Nullable String getName() {
+      return name;
+    }
+
+    public void setName(@Nullable String setterArg) {
+      this.name = setterArg;
+    }
+
+    /** The size of the content in bytes, if known. */
+    private @Nullable Long size;
+
+    public @Nullable Long getSize() {
+      return size;
+    }
+
+    public void setSize(@Nullable Long setterArg) {
+      this.size = setterArg;
+    }
+
+    /** The MIME type of the content, if known. */
+    private @Nullable String mimeType;
+
+    public @Nullable String getMimeType() {
+      return mimeType;
+    }
+
+    public void setMimeType(@Nullable String setterArg) {
+      this.mimeType = setterArg;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ContentUriMetadata that = (ContentUriMetadata) o;
+      return Objects.equals(name, that.name)
+          && Objects.equals(size, that.size)
+          && Objects.equals(mimeType, that.mimeType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, size, mimeType);
+    }
+
+    public static final class Builder {
+
+      private @Nullable String name;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setName(@Nullable String setterArg) {
+        this.name = setterArg;
+        return this;
+      }
+
+      private @Nullable Long size;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setSize(@Nullable Long setterArg) {
+        this.size = setterArg;
+        return this;
+      }
+
+      private @Nullable String mimeType;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setMimeType(@Nullable String setterArg) {
+        this.mimeType = setterArg;
+        return this;
+      }
+
+      public @NonNull ContentUriMetadata build() {
+        ContentUriMetadata pigeonReturn = new ContentUriMetadata();
+        pigeonReturn.setName(name);
+        pigeonReturn.setSize(size);
+        pigeonReturn.setMimeType(mimeType);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(3);
+      toListResult.add(name);
+      toListResult.add(size);
+      toListResult.add(mimeType);
+      return toListResult;
+    }
+
+    static @NonNull ContentUriMetadata fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      ContentUriMetadata pigeonResult = new ContentUriMetadata();
+      Object name = pigeonVar_list.get(0);
+      pigeonResult.setName((String) name);
+      Object size = pigeonVar_list.get(1);
+      pigeonResult.setSize((Long) size);
+      Object mimeType = pigeonVar_list.get(2);
+      pigeonResult.setMimeType((String) mimeType);
+      return pigeonResult;
+    }
+  }
+
+  /**
+   * The items returned by a selection.
+   *
+   * <p>Generated class from Pigeon that represents data sent in messages.
+   */
+  public static final class PickResult {
+    /** The paths of the selected items. */
+    private @NonNull List<String> paths;
+
+    public @NonNull List<String> getPaths() {
+      return paths;
+    }
+
+    public void setPaths(@NonNull List<String> setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"paths\" is null.");
+      }
+      this.paths = setterArg;
+    }
+
+    /**
+     * The paths of the thumbnails created for the items at the same index in [paths], with null
+     * for items that have no thumbnail.
+     *
+     * <p>Empty if [GeneralOptions.thumbnailSize] is not set, or if the items were not copied to
+     * the cache directory.
+     */
+    private @NonNull List<String> thumbnailPaths;
+
+    public @NonNull List<String> getThumbnailPaths() {
+      return thumbnailPaths;
+    }
+
+    public void setThumbnailPaths(@NonNull List<String> setterArg) {
+      if (setterArg == null) {
+        throw new IllegalStateException("Nonnull field \"thumbnailPaths\" is null.");
+      }
+      this.thumbnailPaths = setterArg;
+    }
+
+    /** Constructor is non-public to enforce null safety; use Builder. */
+    PickResult() {}
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      PickResult that = (PickResult) o;
+      return paths.equals(that.paths) && thumbnailPaths.equals(that.thumbnailPaths);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(paths, thumbnailPaths);
+    }
+
+    public static final class Builder {
+
+      private @Nullable List<String> paths;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setPaths(@NonNull List<String> setterArg) {
+        this.paths = setterArg;
+        return this;
+      }
+
+      private @Nullable List<String> thumbnailPaths;
+
+      @CanIgnoreReturnValue
+      public @NonNull Builder setThumbnailPaths(@NonNull List<String> setterArg) {
+        this.thumbnailPaths = setterArg;
+        return this;
+      }
+
+      public @NonNull PickResult build() {
+        PickResult pigeonReturn = new PickResult();
+        pigeonReturn.setPaths(paths);
+        pigeonReturn.setThumbnailPaths(thumbnailPaths);
+        return pigeonReturn;
+      }
+    }
+
+    @NonNull
+    ArrayList<Object> toList() {
+      ArrayList<Object> toListResult = new ArrayList<>(2);
+      toListResult.add(paths);
+      toListResult.add(thumbnailPaths);
+      return toListResult;
+    }
+
+    static @NonNull PickResult fromList(@NonNull ArrayList<Object> pigeonVar_list) {
+      PickResult pigeonResult = new PickResult();
+      Object paths = pigeonVar_list.get(0);
+      pigeonResult.setPaths((List<String>) paths);
+      Object thumbnailPaths = pigeonVar_list.get(1);
+      pigeonResult.setThumbnailPaths((List<String>) thumbnailPaths);
+      return pigeonResult;
+    }
+  }
+
   private static class PigeonCodec extends StandardMessageCodec {
     public static final PigeonCodec INSTANCE = new PigeonCodec();
 
@@ -806,19 +1179,28 @@ public class Messages {
             return value == null ? null : CacheRetrievalType.values()[((Long) value).intValue()];
           }
         case (byte) 132:
-          return GeneralOptions.fromList((ArrayList<Object>) readValue(buffer));
+          {
+            Object value = readValue(buffer);
+            return value == null ? null : ImageOutputFormat.values()[((Long) value).intValue()];
+          }
         case (byte) 133:
-          return ImageSelectionOptions.fromList((ArrayList<Object>) readValue(buffer));
+          return GeneralOptions.fromList((ArrayList<Object>) readValue(buffer));
         case (byte) 134:
-          return MediaSelectionOptions.fromList((ArrayList<Object>) readValue(buffer));
+          return ImageSelectionOptions.fromList((ArrayList<Object>) readValue(buffer));
         case (byte) 135:
-          return VideoSelectionOptions.fromList((ArrayList<Object>) readValue(buffer));
+          return MediaSelectionOptions.fromList((ArrayList<Object>) readValue(buffer));
         case (byte) 136:
-          return SourceSpecification.fromList((ArrayList<Object>) readValue(buffer));
+          return VideoSelectionOptions.fromList((ArrayList<Object>) readValue(buffer));
         case (byte) 137:
-          return CacheRetrievalError.fromList((ArrayList<Object>) readValue(buffer));
+          return SourceSpecification.fromList((ArrayList<Object>) readValue(buffer));
         case (byte) 138:
+          return CacheRetrievalError.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 139:
           return CacheRetrievalResult.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 140:
+          return ContentUriMetadata.fromList((ArrayList<Object>) readValue(buffer));
+        case (byte) 141:
+          return PickResult.fromList((ArrayList<Object>) readValue(buffer));
         default:
           return super.readValueOfType(type, buffer);
       }
@@ -835,27 +1217,36 @@ public class Messages {
       } else if (value instanceof CacheRetrievalType) {
         stream.write(131);
         writeValue(stream, value == null ? null : ((CacheRetrievalType) value).index);
-      } else if (value instanceof GeneralOptions) {
+      } else if (value instanceof ImageOutputFormat) {
         stream.write(132);
+        writeValue(stream, value == null ? null : ((ImageOutputFormat) value).index);
+      } else if (value instanceof GeneralOptions) {
+        stream.write(133);
         writeValue(stream, ((GeneralOptions) value).toList());
       } else if (value instanceof ImageSelectionOptions) {
-        stream.write(133);
+        stream.write(134);
         writeValue(stream, ((ImageSelectionOptions) value).toList());
       } else if (value instanceof MediaSelectionOptions) {
-        stream.write(134);
+        stream.write(135);
         writeValue(stream, ((MediaSelectionOptions) value).toList());
       } else if (value instanceof VideoSelectionOptions) {
-        stream.write(135);
+        stream.write(136);
         writeValue(stream, ((VideoSelectionOptions) value).toList());
       } else if (value instanceof SourceSpecification) {
-        stream.write(136);
+        stream.write(137);
         writeValue(stream, ((SourceSpecification) value).toList());
       } else if (value instanceof CacheRetrievalError) {
-        stream.write(137);
+        stream.write(138);
         writeValue(stream, ((CacheRetrievalError) value).toList());
       } else if (value instanceof CacheRetrievalResult) {
-        stream.write(138);
+        stream.write(139);
         writeValue(stream, ((CacheRetrievalResult) value).toList());
+      } else if (value instanceof ContentUriMetadata) {
+        stream.write(140);
+        writeValue(stream, ((ContentUriMetadata) value).toList());
+      } else if (value instanceof PickResult) {
+        stream.write(141);
+        writeValue(stream, ((PickResult) value).toList());
       } else {
         super.writeValue(stream, value);
       }
@@ -893,21 +1284,38 @@ public class Messages {
         @NonNull SourceSpecification source,
         @NonNull ImageSelectionOptions options,
         @NonNull GeneralOptions generalOptions,
-        @NonNull Result<List<String>> result);
+        @NonNull Result<PickResult> result);
     /** Selects video and returns their paths. */
     void pickVideos(
         @NonNull SourceSpecification source,
         @NonNull VideoSelectionOptions options,
         @NonNull GeneralOptions generalOptions,
-        @NonNull Result<List<String>> result);
+        @NonNull Result<PickResult> result);
     /** Selects images and videos and returns their paths. */
     void pickMedia(
         @NonNull MediaSelectionOptions mediaSelectionOptions,
         @NonNull GeneralOptions generalOptions,
-        @NonNull Result<List<String>> result);
+        @NonNull Result<PickResult> result);
     /** Returns results from a previous app session, if any. */
     @Nullable
     CacheRetrievalResult retrieveLostResults();
+    /**
+     * Returns the progress of the video transcode in progress, from 0 to 1, or null if no video is
+     * being transcoded.
+     */
+    @Nullable
+    Double getVideoCompressionProgress();
+    /** Returns the metadata of a content URI returned by a selection. */
+    @NonNull
+    ContentUriMetadata getContentUriMetadata(@NonNull String uri);
+    /**
+     * Reads up to [length] bytes starting at [offset] from a content URI returned by a selection.
+     *
+     * <p>Returns fewer bytes than requested only at the end of the content. Content that can not
+     * seek, such as a pipe from a remote provider, can only be read from offset 0.
+     */
+    @NonNull
+    byte[] readContentUri(@NonNull String uri, @NonNull Long offset, @NonNull Long length);
 
     /** The codec used by ImagePickerApi. */
     static @NonNull MessageCodec<Object> getCodec() {
@@ -940,9 +1348,9 @@ public class Messages {
                 SourceSpecification sourceArg = (SourceSpecification) args.get(0);
                 ImageSelectionOptions optionsArg = (ImageSelectionOptions) args.get(1);
                 GeneralOptions generalOptionsArg = (GeneralOptions) args.get(2);
-                Result<List<String>> resultCallback =
-                    new Result<List<String>>() {
-                      public void success(List<String> result) {
+                Result<PickResult> resultCallback =
+                    new Result<PickResult>() {
+                      public void success(PickResult result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -975,9 +1383,9 @@ public class Messages {
                 SourceSpecification sourceArg = (SourceSpecification) args.get(0);
                 VideoSelectionOptions optionsArg = (VideoSelectionOptions) args.get(1);
                 GeneralOptions generalOptionsArg = (GeneralOptions) args.get(2);
-                Result<List<String>> resultCallback =
-                    new Result<List<String>>() {
-                      public void success(List<String> result) {
+                Result<PickResult> resultCallback =
+                    new Result<PickResult>() {
+                      public void success(PickResult result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -1009,9 +1417,9 @@ public class Messages {
                 MediaSelectionOptions mediaSelectionOptionsArg =
                     (MediaSelectionOptions) args.get(0);
                 GeneralOptions generalOptionsArg = (GeneralOptions) args.get(1);
-                Result<List<String>> resultCallback =
-                    new Result<List<String>>() {
-                      public void success(List<String> result) {
+                Result<PickResult> resultCallback =
+                    new Result<PickResult>() {
+                      public void success(PickResult result) {
                         wrapped.add(0, result);
                         reply.reply(wrapped);
                       }
@@ -1052,6 +1460,83 @@ public class Messages {
           channel.setMessageHandler(null);
         }
       }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.image_picker_android.ImagePickerApi.getVideoCompressionProgress"
+                    + messageChannelSuffix,
+                getCodec());
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                try {
+                  Double output = api.getVideoCompressionProgress();
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.image_picker_android.ImagePickerApi.getContentUriMetadata"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                String uriArg = (String) args.get(0);
+                try {
+                  ContentUriMetadata output = api.getContentUriMetadata(uriArg);
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.image_picker_android.ImagePickerApi.readContentUri"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                String uriArg = (String) args.get(0);
+                Long offsetArg = (Long) args.get(1);
+                Long lengthArg = (Long) args.get(2);
+                try {
+                  byte[] output = api.readContentUri(uriArg, offsetArg, lengthArg);
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
     }
   }
 }
@@ -0,0 +1,342 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import android.content.Context;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.OptIn;
+import androidx.annotation.VisibleForTesting;
+import androidx.media3.common.Effect;
+import androidx.media3.common.MediaItem;
+import androidx.media3.common.MimeTypes;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.effect.Presentation;
+import androidx.media3.transformer.Composition;
+import androidx.media3.transformer.DefaultEncoderFactory;
+import androidx.media3.transformer.EditedMediaItem;
+import androidx.media3.transformer.Effects;
+import androidx.media3.transformer.ExportException;
+import androidx.media3.transformer.ExportResult;
+import androidx.media3.transformer.ProgressHolder;
+import androidx.media3.transformer.Transformer;
+import androidx.media3.transformer.VideoEncoderSettings;
+import io.flutter.plugins.imagepicker.Messages.VideoSelectionOptions;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Transcodes selected videos to a lower resolution and bitrate with Media3 {@link Transformer}.
+ *
+ * <p>The videos of a selection are transcoded one at a time by a single {@link Transformer}, so
+ * only one set of hardware codecs is in use while a batch is processed.
+ *
+ * <p>The plugin only compiles against Media3, so videos are only transcoded if the app depends on
+ * {@code androidx.media3:media3-transformer}. Otherwise they are returned unchanged.
+ */
+@OptIn(markerClass = UnstableApi.class)
+class VideoCompressor {
+  private static final String TAG = "VideoCompressor";
+  private static final long PROGRESS_POLL_INTERVAL_MS = 100;
+  private static final String TRANSFORMER_CLASS_NAME = "androidx.media3.transformer.Transformer";
+
+  private final Context context;
+  private final boolean isTransformerAvailable;
+
+  private volatile boolean isCompressing;
+  private volatile int completedCount;
+  private volatile int totalCount;
+  private volatile double currentProgress;
+
+  VideoCompressor(final @NonNull Context context) {
+    this(context, isClassAvailable(TRANSFORMER_CLASS_NAME));
+  }
+
+  @VisibleForTesting
+  VideoCompressor(final @NonNull Context context, boolean isTransformerAvailable) {
+    this.context = context;
+    this.isTransformerAvailable = isTransformerAvailable;
+  }
+
+  /**
+   * Whether options request selected videos to be transcoded, and Media3 Transformer is available
+   * to transcode them.
+   */
+  boolean shouldCompress(@Nullable VideoSelectionOptions options) {
+    if (options == null
+        || (options.getMaxResolution() == null && options.getTargetBitrate() == null)) {
+      return false;
+    }
+    if (!isTransformerAvailable) {
+      Log.w(
+          TAG,
+          "Selected videos are not transcoded, because the app does not depend on"
+              + " androidx.media3:media3-transformer.");
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Transcodes the videos located in paths as requested by options and returns the paths for the
+   * transcoded videos, in the same order.
+   *
+   * <p>The path for the original video is returned if it already satisfies options or if it could
+   * not be transcoded. This blocks until all videos are transcoded, so it must not be called on the
+   * main thread.
+   */
+  @NonNull
+  List<String> compressVideos(@NonNull List<String> paths, @NonNull VideoSelectionOptions options) {
+    final ArrayList<String> results = new ArrayList<>(paths.size());
+    final HandlerThread thread = new HandlerThread("image_picker_video_compression");
+    thread.start();
+    try {
+      final Handler handler = new Handler(thread.getLooper());
+      final ExportListener listener = new ExportListener();
+      final Transformer transformer = createTransformer(options, thread.getLooper(), listener);
+
+      totalCount = paths.size();
+      isCompressing = true;
+      for (int i = 0; i < paths.size(); i++) {
+        completedCount = i;
+        currentProgress = 0;
+        results.add(compressVideo(paths.get(i), options, transformer, handler, listener));
+      }
+    } finally {
+      isCompressing = false;
+      thread.quitSafely();
+    }
+    return results;
+  }
+
+  /**
+   * The progress of the current call to {@link #compressVideos}, from 0 to 1, or null if no videos
+   * are being transcoded.
+   */
+  @Nullable
+  Double getProgress() {
+    if (!isCompressing || totalCount == 0) {
+      return null;
+    }
+    return (completedCount + currentProgress) / totalCount;
+  }
+
+  @NonNull
+  private String compressVideo(
+      @NonNull String path,
+      @NonNull VideoSelectionOptions options,
+      @NonNull Transformer transformer,
+      @NonNull Handler handler,
+      @NonNull ExportListener listener) {
+    final EditedMediaItem editedMediaItem = createEditedMediaItem(path, options);
+    if (editedMediaItem == null) {
+      return path;
+    }
+
+    final File outputFile = getOutputFile(path);
+    final CountDownLatch exportLatch = listener.prepare();
+    handler.post(
+        () -> {
+          transformer.start(editedMediaItem, outputFile.getPath());
+          pollProgress(transformer, handler, exportLatch, new ProgressHolder());
+        });
+    try {
+      exportLatch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      handler.post(transformer::cancel);
+      deleteFile(outputFile);
+      return path;
+    }
+
+    final ExportException exception = listener.getException();
+    if (exception != null) {
+      Log.e(TAG, "Error transcoding the selected video: " + exception);
+      deleteFile(outputFile);
+      return path;
+    }
+    return outputFile.getPath();
+  }
+
+  // Must be called on the transformer's looper.
+  private void pollProgress(
+      @NonNull Transformer transformer,
+      @NonNull Handler handler,
+      @NonNull CountDownLatch exportLatch,
+      @NonNull ProgressHolder progressHolder) {
+    if (exportLatch.getCount() == 0) {
+      return;
+    }
+    if (transformer.getProgress(progressHolder) == Transformer.PROGRESS_STATE_AVAILABLE) {
+      currentProgress = progressHolder.progress / 100.0;
+    }
+    handler.postDelayed(
+        () -> pollProgress(transformer, handler, exportLatch, progressHolder),
+        PROGRESS_POLL_INTERVAL_MS);
+  }
+
+  @VisibleForTesting
+  @NonNull
+  Transformer createTransformer(
+      @NonNull VideoSelectionOptions options,
+      @NonNull Looper looper,
+      @NonNull Transformer.Listener listener) {
+    final Transformer.Builder builder =
+        new Transformer.Builder(context)
+            .setLooper(looper)
+            .setVideoMimeType(MimeTypes.VIDEO_H264)
+            .addListener(listener);
+    final Long targetBitrate = options.getTargetBitrate();
+    if (targetBitrate != null) {
+      builder.setEncoderFactory(
+          new DefaultEncoderFactory.Builder(context)
+              .setRequestedVideoEncoderSettings(
+                  new VideoEncoderSettings.Builder().setBitrate(targetBitrate.intValue()).build())
+              .build());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Creates the item to export for the video located in path, or returns null if the video already
+   * satisfies options.
+   */
+  @Nullable
+  private EditedMediaItem createEditedMediaItem(
+      @NonNull String path, @NonNull VideoSelectionOptions options) {
+    final int width;
+    final int height;
+    final long bitrate;
+    final long durationMs;
+    final MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+    try {
+      retriever.setDataSource(path);
+      width = parseMetadata(retriever, MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH);
+      height = parseMetadata(retriever, MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT);
+      bitrate = parseMetadata(retriever, MediaMetadataRetriever.METADATA_KEY_BITRATE);
+      durationMs = parseMetadata(retriever, MediaMetadataRetriever.METADATA_KEY_DURATION);
+    } catch (RuntimeException e) {
+      Log.e(TAG, "Error reading the selected video: " + e);
+      return null;
+    } finally {
+      try {
+        retriever.release();
+      } catch (IOException e) {
+        Log.w(TAG, "Error releasing MediaMetadataRetriever: " + e);
+      }
+    }
+
+    final Long maxResolution = options.getMaxResolution();
+    final Long targetBitrate = options.getTargetBitrate();
+    final Long maxDurationSeconds = options.getMaxDurationSeconds();
+    final boolean shouldScale = maxResolution != null && Math.min(width, height) > maxResolution;
+    final boolean shouldReduceBitrate =
+        targetBitrate != null && (bitrate <= 0 || bitrate > targetBitrate);
+    final boolean shouldTrim =
+        maxDurationSeconds != null && durationMs > maxDurationSeconds * 1000;
+    if (!shouldScale && !shouldReduceBitrate && !shouldTrim) {
+      return null;
+    }
+
+    final MediaItem.Builder mediaItemBuilder =
+        new MediaItem.Builder().setUri(Uri.fromFile(new File(path)));
+    if (shouldTrim) {
+      mediaItemBuilder.setClippingConfiguration(
+          new MediaItem.ClippingConfiguration.Builder()
+              .setEndPositionMs(maxDurationSeconds * 1000)
+              .build());
+    }
+    final EditedMediaItem.Builder editedMediaItemBuilder =
+        new EditedMediaItem.Builder(mediaItemBuilder.build());
+    if (shouldScale) {
+      editedMediaItemBuilder.setEffects(
+          new Effects(
+              Collections.emptyList(),
+              Collections.<Effect>singletonList(
+                  Presentation.createForShortSide(maxResolution.intValue()))));
+    }
+    return editedMediaItemBuilder.build();
+  }
+
+  private static boolean isClassAvailable(@NonNull String className) {
+    try {
+      Class.forName(className, false, VideoCompressor.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static int parseMetadata(@NonNull MediaMetadataRetriever retriever, int key) {
+    final String value = retriever.extractMetadata(key);
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  @NonNull
+  private static File getOutputFile(@NonNull String path) {
+    final File inputFile = new File(path);
+    String name = inputFile.getName();
+    final int extensionIndex = name.lastIndexOf('.');
+    if (extensionIndex > 0) {
+      name = name.substring(0, extensionIndex);
+    }
+    return new File(inputFile.getParentFile(), "compressed_" + name + ".mp4");
+  }
+
+  private static void deleteFile(@NonNull File file) {
+    if (file.exists() && !file.delete()) {
+      Log.w(TAG, "Unable to delete " + file.getPath());
+    }
+  }
+
+  // Receives the result of each export on the transformer's looper.
+  private static class ExportListener implements Transformer.Listener {
+    private volatile @NonNull CountDownLatch latch = new CountDownLatch(0);
+    private volatile @Nullable ExportException exception;
+
+    @NonNull
+    CountDownLatch prepare() {
+      exception = null;
+      latch = new CountDownLatch(1);
+      return latch;
+    }
+
+    @Nullable
+    ExportException getException() {
+      return exception;
+    }
+
+    @Override
+    public void onCompleted(@NonNull Composition composition, @NonNull ExportResult exportResult) {
+      latch.countDown();
+    }
+
+    @Override
+    public void onError(
+        @NonNull Composition composition,
+        @NonNull ExportResult exportResult,
+        @NonNull ExportException exportException) {
+      exception = exportException;
+      latch.countDown();
+    }
+  }
+}
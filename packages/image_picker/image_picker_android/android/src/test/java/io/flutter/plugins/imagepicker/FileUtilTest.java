@@ -5,6 +5,7 @@
 package io.flutter.plugins.imagepicker;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -23,6 +24,7 @@ import android.database.Cursor;
 import android.database.MatrixCursor;
 import android.net.Uri;
 import android.os.Build;
+import android.os.ParcelFileDescriptor;
 import android.provider.MediaStore;
 import android.webkit.MimeTypeMap;
 import androidx.annotation.NonNull;
@@ -32,7 +34,11 @@ import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -160,6 +166,121 @@ public class FileUtilTest {
     assertTrue(path.endsWith("e.f.g"));
   }
 
+  @Test
+  public void getContentUriMetadata_returnsNameAndMimeType() {
+    Robolectric.buildContentProvider(MockContentProvider.class).create("dummy");
+    Messages.ContentUriMetadata metadata =
+        fileUtils.getContentUriMetadata(context, MockContentProvider.PNG_URI);
+    assertEquals("a.b.png", metadata.getName());
+    assertEquals("image/png", metadata.getMimeType());
+    assertNull(metadata.getSize());
+  }
+
+  @Test
+  public void readFromUri_readsRequestedRange() throws IOException {
+    writeFileContent("0123456789");
+    Robolectric.buildContentProvider(MockFileContentProvider.class).create("files");
+    byte[] bytes = fileUtils.readFromUri(context, MockFileContentProvider.URI, 3, 4);
+    assertArrayEquals("3456".getBytes(UTF_8), bytes);
+  }
+
+  @Test
+  public void readFromUri_returnsFewerBytesAtEnd() throws IOException {
+    writeFileContent("0123456789");
+    Robolectric.buildContentProvider(MockFileContentProvider.class).create("files");
+    byte[] bytes = fileUtils.readFromUri(context, MockFileContentProvider.URI, 8, 10);
+    assertArrayEquals("89".getBytes(UTF_8), bytes);
+  }
+
+  @Test
+  public void readFromUri_whenLengthExceedsFile_returnsRemainingBytes() throws IOException {
+    writeFileContent("0123456789");
+    Robolectric.buildContentProvider(MockFileContentProvider.class).create("files");
+    byte[] bytes =
+        fileUtils.readFromUri(context, MockFileContentProvider.URI, 8, Integer.MAX_VALUE);
+    assertArrayEquals("89".getBytes(UTF_8), bytes);
+  }
+
+  @Test
+  public void FileUtil_GetPathFromUri_copiesPipe() throws IOException {
+    Uri uri = Uri.parse("content://dummy/dummy.png");
+    ParcelFileDescriptor[] pipe = ParcelFileDescriptor.createPipe();
+    try (OutputStream outputStream = new ParcelFileDescriptor.AutoCloseOutputStream(pipe[1])) {
+      outputStream.write("pipeStream".getBytes(UTF_8));
+    }
+    shadowContentResolver.registerInputStream(
+        uri, new ParcelFileDescriptor.AutoCloseInputStream(pipe[0]));
+
+    String path = fileUtils.getPathFromUri(context, uri);
+
+    assertNotNull(path);
+    assertArrayEquals("pipeStream".getBytes(UTF_8), Files.readAllBytes(new File(path).toPath()));
+  }
+
+  private void writeFileContent(String content) throws IOException {
+    try (FileOutputStream outputStream =
+        new FileOutputStream(new File(context.getCacheDir(), MockFileContentProvider.FILE_NAME))) {
+      outputStream.write(content.getBytes(UTF_8));
+    }
+  }
+
+  // Serves a file in the cache directory through openFile, like a file-backed provider.
+  private static class MockFileContentProvider extends ContentProvider {
+    public static final String FILE_NAME = "content.txt";
+    public static final Uri URI = Uri.parse("content://files/" + FILE_NAME);
+
+    @Override
+    public boolean onCreate() {
+      return true;
+    }
+
+    @Nullable
+    @Override
+    public ParcelFileDescriptor openFile(@NonNull Uri uri, @NonNull String mode)
+        throws FileNotFoundException {
+      return ParcelFileDescriptor.open(
+          new File(getContext().getCacheDir(), FILE_NAME), ParcelFileDescriptor.MODE_READ_ONLY);
+    }
+
+    @Nullable
+    @Override
+    public Cursor query(
+        @NonNull Uri uri,
+        @Nullable String[] projection,
+        @Nullable String selection,
+        @Nullable String[] selectionArgs,
+        @Nullable String sortOrder) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public String getType(@NonNull Uri uri) {
+      return "text/plain";
+    }
+
+    @Nullable
+    @Override
+    public Uri insert(@NonNull Uri uri, @Nullable ContentValues values) {
+      return null;
+    }
+
+    @Override
+    public int delete(
+        @NonNull Uri uri, @Nullable String selection, @Nullable String[] selectionArgs) {
+      return 0;
+    }
+
+    @Override
+    public int update(
+        @NonNull Uri uri,
+        @Nullable ContentValues values,
+        @Nullable String selection,
+        @Nullable String[] selectionArgs) {
+      return 0;
+    }
+  }
+
   private static class MockContentProvider extends ContentProvider {
     public static final Uri PNG_URI = Uri.parse("content://dummy/a.b.png");
     public static final Uri WEBP_URI = Uri.parse("content://dummy/c.d.png");
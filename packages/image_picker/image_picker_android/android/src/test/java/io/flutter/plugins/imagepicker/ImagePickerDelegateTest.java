@@ -11,6 +11,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -28,17 +29,22 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.net.Uri;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.flutter.plugins.imagepicker.Messages.FlutterError;
 import io.flutter.plugins.imagepicker.Messages.GeneralOptions;
 import io.flutter.plugins.imagepicker.Messages.ImageSelectionOptions;
 import io.flutter.plugins.imagepicker.Messages.MediaSelectionOptions;
+import io.flutter.plugins.imagepicker.Messages.PickResult;
 import io.flutter.plugins.imagepicker.Messages.VideoSelectionOptions;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -66,15 +72,20 @@ public class ImagePickerDelegateTest {
       new VideoSelectionOptions.Builder().build();
   private static final MediaSelectionOptions DEFAULT_MEDIA_OPTIONS =
       new MediaSelectionOptions.Builder().setImageSelectionOptions(DEFAULT_IMAGE_OPTIONS).build();
+  private static final GeneralOptions DEFAULT_GENERAL_OPTIONS =
+      new GeneralOptions.Builder().setAllowMultiple(false).setUsePhotoPicker(false).build();
+  private static final GeneralOptions PHOTO_PICKER_GENERAL_OPTIONS =
+      new GeneralOptions.Builder().setAllowMultiple(false).setUsePhotoPicker(true).build();
 
   @Mock Activity mockActivity;
   @Mock ImageResizer mockImageResizer;
-  @Mock Messages.Result<List<String>> mockResult;
+  @Mock Messages.Result<PickResult> mockResult;
   @Mock ImagePickerDelegate.PermissionManager mockPermissionManager;
   @Mock FileUtils mockFileUtils;
   @Mock Intent mockIntent;
   @Mock ImagePickerCache cache;
   @Mock ExecutorService mockExecutor;
+  @Mock VideoCompressor mockVideoCompressor;
 
   ImagePickerDelegate.FileUriResolver mockFileUriResolver;
   MockedStatic<File> mockStaticFile;
@@ -115,15 +126,15 @@ public class ImagePickerDelegateTest {
     when(mockFileUtils.getPathFromUri(any(Context.class), any(Uri.class)))
         .thenReturn("pathFromUri");
 
-    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, null, 100))
+    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, null, 100, null))
         .thenReturn("originalPath");
-    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, null, IMAGE_QUALITY))
+    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, null, IMAGE_QUALITY, null))
         .thenReturn("originalPath");
-    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", WIDTH, HEIGHT, 100))
+    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", WIDTH, HEIGHT, 100, null))
         .thenReturn("scaledPath");
-    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", WIDTH, null, 100))
+    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", WIDTH, null, 100, null))
         .thenReturn("scaledPath");
-    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, HEIGHT, 100))
+    when(mockImageResizer.resizeImageIfNeeded("pathFromUri", null, HEIGHT, 100, null))
         .thenReturn("scaledPath");
 
     mockFileUriResolver = new MockFileUriResolver();
@@ -149,7 +160,7 @@ public class ImagePickerDelegateTest {
     ImagePickerDelegate delegate =
         createDelegateWithPendingResultAndOptions(DEFAULT_IMAGE_OPTIONS, null);
 
-    delegate.chooseImageFromGallery(DEFAULT_IMAGE_OPTIONS, false, mockResult);
+    delegate.chooseImageFromGallery(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verifyFinishedWithAlreadyActiveError();
     verifyNoMoreInteractions(mockResult);
@@ -161,7 +172,7 @@ public class ImagePickerDelegateTest {
         createDelegateWithPendingResultAndOptions(DEFAULT_IMAGE_OPTIONS, null);
 
     delegate.chooseMultiImageFromGallery(
-        DEFAULT_IMAGE_OPTIONS, false, Integer.MAX_VALUE, mockResult);
+        DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verifyFinishedWithAlreadyActiveError();
     verifyNoMoreInteractions(mockResult);
@@ -183,7 +194,7 @@ public class ImagePickerDelegateTest {
   @Config(sdk = 30)
   public void chooseImageFromGallery_launchesChooseFromGalleryIntent() {
     ImagePickerDelegate delegate = createDelegate();
-    delegate.chooseImageFromGallery(DEFAULT_IMAGE_OPTIONS, false, mockResult);
+    delegate.chooseImageFromGallery(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -194,7 +205,8 @@ public class ImagePickerDelegateTest {
   @Config(minSdk = 33)
   public void chooseImageFromGallery_withPhotoPicker_launchesChooseFromGalleryIntent() {
     ImagePickerDelegate delegate = createDelegate();
-    delegate.chooseImageFromGallery(DEFAULT_IMAGE_OPTIONS, true, mockResult);
+    delegate.chooseImageFromGallery(
+        DEFAULT_IMAGE_OPTIONS, PHOTO_PICKER_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -206,7 +218,7 @@ public class ImagePickerDelegateTest {
   public void chooseMultiImageFromGallery_launchesChooseFromGalleryIntent() {
     ImagePickerDelegate delegate = createDelegate();
     delegate.chooseMultiImageFromGallery(
-        DEFAULT_IMAGE_OPTIONS, true, Integer.MAX_VALUE, mockResult);
+        DEFAULT_IMAGE_OPTIONS, PHOTO_PICKER_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -219,7 +231,7 @@ public class ImagePickerDelegateTest {
   public void chooseMultiImageFromGallery_withPhotoPicker_launchesChooseFromGalleryIntent() {
     ImagePickerDelegate delegate = createDelegate();
     delegate.chooseMultiImageFromGallery(
-        DEFAULT_IMAGE_OPTIONS, false, Integer.MAX_VALUE, mockResult);
+        DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -231,7 +243,8 @@ public class ImagePickerDelegateTest {
   @Config(sdk = 30)
   public void chooseVideoFromGallery_launchesChooseFromGalleryIntent() {
     ImagePickerDelegate delegate = createDelegate();
-    delegate.chooseVideoFromGallery(DEFAULT_VIDEO_OPTIONS, true, mockResult);
+    delegate.chooseVideoFromGallery(
+        DEFAULT_VIDEO_OPTIONS, PHOTO_PICKER_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -242,7 +255,8 @@ public class ImagePickerDelegateTest {
   @Config(minSdk = 33)
   public void chooseVideoFromGallery_withPhotoPicker_launchesChooseFromGalleryIntent() {
     ImagePickerDelegate delegate = createDelegate();
-    delegate.chooseVideoFromGallery(DEFAULT_VIDEO_OPTIONS, true, mockResult);
+    delegate.chooseVideoFromGallery(
+        DEFAULT_VIDEO_OPTIONS, PHOTO_PICKER_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -254,7 +268,7 @@ public class ImagePickerDelegateTest {
     ImagePickerDelegate delegate =
         createDelegateWithPendingResultAndOptions(DEFAULT_IMAGE_OPTIONS, null);
 
-    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, mockResult);
+    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verifyFinishedWithAlreadyActiveError();
     verifyNoMoreInteractions(mockResult);
@@ -266,7 +280,7 @@ public class ImagePickerDelegateTest {
     when(mockPermissionManager.needRequestCameraPermission()).thenReturn(true);
 
     ImagePickerDelegate delegate = createDelegate();
-    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, mockResult);
+    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verify(mockPermissionManager)
         .askForPermission(
@@ -278,7 +292,7 @@ public class ImagePickerDelegateTest {
     when(mockPermissionManager.needRequestCameraPermission()).thenReturn(false);
 
     ImagePickerDelegate delegate = createDelegate();
-    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, mockResult);
+    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -291,7 +305,7 @@ public class ImagePickerDelegateTest {
     when(mockPermissionManager.isPermissionGranted(Manifest.permission.CAMERA)).thenReturn(true);
 
     ImagePickerDelegate delegate = createDelegate();
-    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, mockResult);
+    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     verify(mockActivity)
         .startActivityForResult(
@@ -306,7 +320,7 @@ public class ImagePickerDelegateTest {
         .when(mockActivity)
         .startActivityForResult(any(Intent.class), anyInt());
     ImagePickerDelegate delegate = createDelegate();
-    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, mockResult);
+    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     ArgumentCaptor<FlutterError> errorCaptor = ArgumentCaptor.forClass(FlutterError.class);
     verify(mockResult).error(errorCaptor.capture());
@@ -320,7 +334,7 @@ public class ImagePickerDelegateTest {
     when(mockPermissionManager.isPermissionGranted(Manifest.permission.CAMERA)).thenReturn(true);
 
     ImagePickerDelegate delegate = createDelegate();
-    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, mockResult);
+    delegate.takeImageWithCamera(DEFAULT_IMAGE_OPTIONS, DEFAULT_GENERAL_OPTIONS, mockResult);
 
     mockStaticFile.verify(
         () -> File.createTempFile(any(), eq(".jpg"), eq(externalDirectory)), times(1));
@@ -388,10 +402,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_CANCELED, null);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals(0, pathListCapture.getValue().size());
+    assertEquals(0, pathListCapture.getValue().getPaths().size());
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -428,10 +441,81 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("originalPath", pathListCapture.getValue().get(0));
+    assertEquals("originalPath", pathListCapture.getValue().getPaths().get(0));
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void onActivityResult_whenMultipleImagesPicked_processesConcurrentlyAndKeepsOrder() {
+    Uri firstUri = mock(Uri.class);
+    Uri secondUri = mock(Uri.class);
+    ClipData mockClipData = mock(ClipData.class);
+    ClipData.Item firstItem = mock(ClipData.Item.class);
+    ClipData.Item secondItem = mock(ClipData.Item.class);
+    when(firstItem.getUri()).thenReturn(firstUri);
+    when(secondItem.getUri()).thenReturn(secondUri);
+    when(mockClipData.getItemCount()).thenReturn(2);
+    when(mockClipData.getItemAt(0)).thenReturn(firstItem);
+    when(mockClipData.getItemAt(1)).thenReturn(secondItem);
+    when(mockIntent.getClipData()).thenReturn(mockClipData);
+    when(mockIntent.getData()).thenReturn(null);
+
+    // The first item finishes last, so the result order must not depend on completion order.
+    CountDownLatch secondItemCopied = new CountDownLatch(1);
+    when(mockFileUtils.getPathFromUri(any(Context.class), eq(firstUri)))
+        .thenAnswer(
+            invocation -> {
+              secondItemCopied.await(5, TimeUnit.SECONDS);
+              return "firstPath";
+            });
+    when(mockFileUtils.getPathFromUri(any(Context.class), eq(secondUri)))
+        .thenAnswer(
+            invocation -> {
+              secondItemCopied.countDown();
+              return "secondPath";
+            });
+    when(mockImageResizer.resizeImageIfNeeded("firstPath", WIDTH, null, 100, null))
+        .thenReturn("firstScaledPath");
+    when(mockImageResizer.resizeImageIfNeeded("secondPath", WIDTH, null, 100, null))
+        .thenReturn("secondScaledPath");
+
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    ExecutorService processingExecutor = Executors.newFixedThreadPool(2);
+    ImagePickerDelegate delegate =
+        new ImagePickerDelegate(
+            mockActivity,
+            mockImageResizer,
+            RESIZE_TRIGGERING_IMAGE_OPTIONS,
+            null,
+            null,
+            mockResult,
+            cache,
+            mockPermissionManager,
+            mockFileUriResolver,
+            mockFileUtils,
+            mockExecutor,
+            processingExecutor,
+            mockVideoCompressor);
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_MULTI_IMAGE_FROM_GALLERY,
+        Activity.RESULT_OK,
+        mockIntent);
+    processingExecutor.shutdown();
+
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
+    verify(mockResult).success(pathListCapture.capture());
+    assertEquals(2, pathListCapture.getValue().getPaths().size());
+    assertEquals("firstScaledPath", pathListCapture.getValue().getPaths().get(0));
+    assertEquals("secondScaledPath", pathListCapture.getValue().getPaths().get(1));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -455,10 +539,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("originalPath", pathListCapture.getValue().get(0));
+    assertEquals("originalPath", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -482,10 +565,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_CHOOSE_VIDEO_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("pathFromUri", pathListCapture.getValue().get(0));
+    assertEquals("pathFromUri", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -579,13 +661,157 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("scaledPath", pathListCapture.getValue().get(0));
+    assertEquals("scaledPath", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
+  @Test
+  public void onActivityResult_whenCopyToCacheIsFalse_finishesWithUnprocessedContentUri() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    Uri contentUri = Uri.parse("content://dummy/image.png");
+    when(mockIntent.getData()).thenReturn(contentUri);
+    ImagePickerDelegate delegate =
+        createDelegateWithPendingResultAndOptions(
+            RESIZE_TRIGGERING_IMAGE_OPTIONS,
+            null,
+            new GeneralOptions.Builder()
+                .setAllowMultiple(false)
+                .setUsePhotoPicker(false)
+                .setCopyToCache(false)
+                .setThumbnailSize(64L)
+                .build());
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
+    verify(mockResult).success(pathListCapture.capture());
+    assertEquals("content://dummy/image.png", pathListCapture.getValue().getPaths().get(0));
+    assertEquals(0, pathListCapture.getValue().getThumbnailPaths().size());
+    verify(mockFileUtils, never()).getPathFromUri(any(Context.class), any(Uri.class));
+    verify(mockImageResizer, never())
+        .resizeImageIfNeeded(anyString(), any(), any(), anyInt(), any());
+    verify(mockImageResizer, never()).createThumbnail(anyString(), any(), anyInt());
+  }
+
+  @Test
+  public void onActivityResult_whenThumbnailSizeIsSet_finishesWithThumbnailOfSource() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    when(mockImageResizer.createThumbnail("pathFromUri", null, 64)).thenReturn("thumbnailPath");
+    ImagePickerDelegate delegate =
+        createDelegateWithPendingResultAndOptions(
+            RESIZE_TRIGGERING_IMAGE_OPTIONS,
+            null,
+            new GeneralOptions.Builder()
+                .setAllowMultiple(false)
+                .setUsePhotoPicker(false)
+                .setThumbnailSize(64L)
+                .build());
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
+    verify(mockResult).success(pathListCapture.capture());
+    assertEquals(Collections.singletonList("scaledPath"), pathListCapture.getValue().getPaths());
+    assertEquals(
+        Collections.singletonList("thumbnailPath"),
+        pathListCapture.getValue().getThumbnailPaths());
+  }
+
+  @Test
+  public void onActivityResult_usesTheOptionsOfThePendingCall() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    when(mockImageResizer.createThumbnail("pathFromUri", null, 64)).thenReturn("thumbnailPath");
+    ImagePickerDelegate delegate = createDelegate();
+    delegate.chooseImageFromGallery(
+        DEFAULT_IMAGE_OPTIONS,
+        new GeneralOptions.Builder()
+            .setAllowMultiple(false)
+            .setUsePhotoPicker(false)
+            .setThumbnailSize(64L)
+            .build(),
+        mockResult);
+    // A call that is rejected while the first one is pending must not change its options.
+    @SuppressWarnings("unchecked")
+    Messages.Result<PickResult> rejectedResult = mock(Messages.Result.class);
+    delegate.chooseImageFromGallery(
+        DEFAULT_IMAGE_OPTIONS,
+        new GeneralOptions.Builder()
+            .setAllowMultiple(false)
+            .setUsePhotoPicker(false)
+            .setCopyToCache(false)
+            .build(),
+        rejectedResult);
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(rejectedResult).error(any());
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
+    verify(mockResult).success(pathListCapture.capture());
+    assertEquals(Collections.singletonList("originalPath"), pathListCapture.getValue().getPaths());
+    assertEquals(
+        Collections.singletonList("thumbnailPath"),
+        pathListCapture.getValue().getThumbnailPaths());
+  }
+
+  @Test
+  public void onActivityResult_whenNoResultIsPending_doesNotCreateThumbnail() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    ImagePickerDelegate delegate = createDelegate();
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(cache).saveResult(Collections.singletonList("pathFromUri"), null, null);
+    verify(mockImageResizer, never()).createThumbnail(any(), any(), anyInt());
+  }
+
+  @Test
+  public void onActivityResult_whenThumbnailSizeIsNotSet_doesNotCreateThumbnail() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    ImagePickerDelegate delegate =
+        createDelegateWithPendingResultAndOptions(RESIZE_TRIGGERING_IMAGE_OPTIONS, null);
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_IMAGE_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(mockImageResizer, never()).createThumbnail(any(), any(), anyInt());
+  }
+
   @Test
   public void
       onActivityResult_whenVideoPickedFromGallery_andResizeParametersSupplied_finishesWithFilePath() {
@@ -602,13 +828,90 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_CHOOSE_VIDEO_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("pathFromUri", pathListCapture.getValue().get(0));
+    assertEquals("pathFromUri", pathListCapture.getValue().getPaths().get(0));
+    verifyNoMoreInteractions(mockResult);
+  }
+
+  @Test
+  public void
+      onActivityResult_whenVideoPickedFromGallery_andCompressionRequested_finishesWithCompressedPath() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    when(mockFileUtils.getPathFromUri(any(Context.class), any(Uri.class)))
+        .thenReturn("video.mp4");
+    VideoSelectionOptions compressionOptions =
+        new VideoSelectionOptions.Builder().setMaxResolution(720L).build();
+    when(mockVideoCompressor.shouldCompress(compressionOptions)).thenReturn(true);
+    when(mockVideoCompressor.compressVideos(
+            Collections.singletonList("video.mp4"), compressionOptions))
+        .thenReturn(Collections.singletonList("compressedPath"));
+    ImagePickerDelegate delegate =
+        createDelegateWithPendingResultAndOptions(null, compressionOptions);
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_VIDEO_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
+    verify(mockResult).success(pathListCapture.capture());
+    assertEquals("compressedPath", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
+  @Test
+  public void
+      onActivityResult_whenImagePickedFromVideoGallery_andCompressionRequested_doesNotCompress() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    when(mockFileUtils.getPathFromUri(any(Context.class), any(Uri.class)))
+        .thenReturn("image.jpg");
+    VideoSelectionOptions compressionOptions =
+        new VideoSelectionOptions.Builder().setMaxResolution(720L).build();
+    when(mockVideoCompressor.shouldCompress(compressionOptions)).thenReturn(true);
+    ImagePickerDelegate delegate =
+        createDelegateWithPendingResultAndOptions(null, compressionOptions);
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_MULTI_VIDEO_FROM_GALLERY,
+        Activity.RESULT_OK,
+        mockIntent);
+
+    verify(mockVideoCompressor, never()).compressVideos(any(), any());
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
+    verify(mockResult).success(pathListCapture.capture());
+    assertEquals(Collections.singletonList("image.jpg"), pathListCapture.getValue().getPaths());
+  }
+
+  @Test
+  public void
+      onActivityResult_whenVideoPickedFromGallery_andNoCompressionRequested_doesNotCompress() {
+    Mockito.doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(mockExecutor)
+        .execute(any(Runnable.class));
+    ImagePickerDelegate delegate =
+        createDelegateWithPendingResultAndOptions(null, DEFAULT_VIDEO_OPTIONS);
+
+    delegate.onActivityResult(
+        ImagePickerDelegate.REQUEST_CODE_CHOOSE_VIDEO_FROM_GALLERY, Activity.RESULT_OK, mockIntent);
+
+    verify(mockVideoCompressor, never()).compressVideos(any(), any());
+  }
+
   @Test
   public void onActivityResult_whenTakeImageWithCameraCanceled_finishesWithEmptyList() {
     Mockito.doAnswer(
@@ -624,10 +927,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_TAKE_IMAGE_WITH_CAMERA, Activity.RESULT_CANCELED, null);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals(0, pathListCapture.getValue().size());
+    assertEquals(0, pathListCapture.getValue().getPaths().size());
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -647,10 +949,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_TAKE_IMAGE_WITH_CAMERA, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("originalPath", pathListCapture.getValue().get(0));
+    assertEquals("originalPath", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -671,10 +972,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_TAKE_IMAGE_WITH_CAMERA, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("scaledPath", pathListCapture.getValue().get(0));
+    assertEquals("scaledPath", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -695,10 +995,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_TAKE_VIDEO_WITH_CAMERA, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("pathFromUri", pathListCapture.getValue().get(0));
+    assertEquals("pathFromUri", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -720,10 +1019,9 @@ public class ImagePickerDelegateTest {
     delegate.onActivityResult(
         ImagePickerDelegate.REQUEST_CODE_TAKE_VIDEO_WITH_CAMERA, Activity.RESULT_OK, mockIntent);
 
-    @SuppressWarnings("unchecked")
-    ArgumentCaptor<List<String>> pathListCapture = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<PickResult> pathListCapture = ArgumentCaptor.forClass(PickResult.class);
     verify(mockResult).success(pathListCapture.capture());
-    assertEquals("pathFromUri", pathListCapture.getValue().get(0));
+    assertEquals("pathFromUri", pathListCapture.getValue().getPaths().get(0));
     verifyNoMoreInteractions(mockResult);
   }
 
@@ -870,26 +1168,40 @@ public class ImagePickerDelegateTest {
         null,
         null,
         null,
+        null,
         cache,
         mockPermissionManager,
         mockFileUriResolver,
         mockFileUtils,
-        mockExecutor);
+        mockExecutor,
+        Runnable::run,
+        mockVideoCompressor);
   }
 
   private ImagePickerDelegate createDelegateWithPendingResultAndOptions(
       @Nullable ImageSelectionOptions imageOptions, @Nullable VideoSelectionOptions videoOptions) {
+    return createDelegateWithPendingResultAndOptions(
+        imageOptions, videoOptions, DEFAULT_GENERAL_OPTIONS);
+  }
+
+  private ImagePickerDelegate createDelegateWithPendingResultAndOptions(
+      @Nullable ImageSelectionOptions imageOptions,
+      @Nullable VideoSelectionOptions videoOptions,
+      @NonNull GeneralOptions generalOptions) {
     return new ImagePickerDelegate(
         mockActivity,
         mockImageResizer,
         imageOptions,
         videoOptions,
+        generalOptions,
         mockResult,
         cache,
         mockPermissionManager,
         mockFileUriResolver,
         mockFileUtils,
-        mockExecutor);
+        mockExecutor,
+        Runnable::run,
+        mockVideoCompressor);
   }
 
   private void verifyFinishedWithAlreadyActiveError() {
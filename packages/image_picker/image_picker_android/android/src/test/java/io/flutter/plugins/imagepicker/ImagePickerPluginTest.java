@@ -27,9 +27,9 @@ import io.flutter.plugins.imagepicker.Messages.FlutterError;
 import io.flutter.plugins.imagepicker.Messages.GeneralOptions;
 import io.flutter.plugins.imagepicker.Messages.ImageSelectionOptions;
 import io.flutter.plugins.imagepicker.Messages.MediaSelectionOptions;
+import io.flutter.plugins.imagepicker.Messages.PickResult;
 import io.flutter.plugins.imagepicker.Messages.SourceSpecification;
 import io.flutter.plugins.imagepicker.Messages.VideoSelectionOptions;
-import java.util.List;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -84,7 +84,7 @@ public class ImagePickerPluginTest {
   @Mock Activity mockActivity;
   @Mock Application mockApplication;
   @Mock ImagePickerDelegate mockImagePickerDelegate;
-  @Mock Messages.Result<List<String>> mockResult;
+  @Mock Messages.Result<PickResult> mockResult;
 
   ImagePickerPlugin plugin;
 
@@ -157,7 +157,9 @@ public class ImagePickerPluginTest {
         DEFAULT_IMAGE_OPTIONS,
         GENERAL_OPTIONS_DONT_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER,
         mockResult);
-    verify(mockImagePickerDelegate).chooseImageFromGallery(any(), eq(false), any());
+    verify(mockImagePickerDelegate)
+        .chooseImageFromGallery(
+            any(), eq(GENERAL_OPTIONS_DONT_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -168,7 +170,9 @@ public class ImagePickerPluginTest {
         DEFAULT_IMAGE_OPTIONS,
         GENERAL_OPTIONS_DONT_ALLOW_MULTIPLE_USE_PHOTO_PICKER,
         mockResult);
-    verify(mockImagePickerDelegate).chooseImageFromGallery(any(), eq(true), any());
+    verify(mockImagePickerDelegate)
+        .chooseImageFromGallery(
+            any(), eq(GENERAL_OPTIONS_DONT_ALLOW_MULTIPLE_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -180,7 +184,8 @@ public class ImagePickerPluginTest {
         GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER,
         mockResult);
     verify(mockImagePickerDelegate)
-        .chooseMultiImageFromGallery(any(), eq(false), eq(Integer.MAX_VALUE), any());
+        .chooseMultiImageFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -192,7 +197,8 @@ public class ImagePickerPluginTest {
         GENERAL_OPTIONS_ALLOW_MULTIPLE_USE_PHOTO_PICKER,
         mockResult);
     verify(mockImagePickerDelegate)
-        .chooseMultiImageFromGallery(any(), eq(true), eq(Integer.MAX_VALUE), any());
+        .chooseMultiImageFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -203,7 +209,9 @@ public class ImagePickerPluginTest {
         DEFAULT_IMAGE_OPTIONS,
         GENERAL_OPTIONS_ALLOW_MULTIPLE_USE_PHOTO_PICKER_WITH_LIMIT,
         mockResult);
-    verify(mockImagePickerDelegate).chooseMultiImageFromGallery(any(), eq(true), eq(5), any());
+    verify(mockImagePickerDelegate)
+        .chooseMultiImageFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_USE_PHOTO_PICKER_WITH_LIMIT), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -214,7 +222,9 @@ public class ImagePickerPluginTest {
         DEFAULT_IMAGE_OPTIONS,
         GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER_WITH_LIMIT,
         mockResult);
-    verify(mockImagePickerDelegate).chooseMultiImageFromGallery(any(), eq(false), eq(5), any());
+    verify(mockImagePickerDelegate)
+        .chooseMultiImageFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER_WITH_LIMIT), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -255,7 +265,9 @@ public class ImagePickerPluginTest {
         DEFAULT_IMAGE_OPTIONS,
         GENERAL_OPTIONS_DONT_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER,
         mockResult);
-    verify(mockImagePickerDelegate).takeImageWithCamera(any(), any());
+    verify(mockImagePickerDelegate)
+        .takeImageWithCamera(
+            any(), eq(GENERAL_OPTIONS_DONT_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -307,7 +319,8 @@ public class ImagePickerPluginTest {
         GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER,
         mockResult);
     verify(mockImagePickerDelegate)
-        .chooseMultiVideoFromGallery(any(), eq(false), eq(Integer.MAX_VALUE), any());
+        .chooseMultiVideoFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -319,7 +332,8 @@ public class ImagePickerPluginTest {
         GENERAL_OPTIONS_ALLOW_MULTIPLE_USE_PHOTO_PICKER,
         mockResult);
     verify(mockImagePickerDelegate)
-        .chooseMultiVideoFromGallery(any(), eq(true), eq(Integer.MAX_VALUE), any());
+        .chooseMultiVideoFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_USE_PHOTO_PICKER), any());
     verifyNoInteractions(mockResult);
   }
 
@@ -330,7 +344,9 @@ public class ImagePickerPluginTest {
         DEFAULT_VIDEO_OPTIONS,
         GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER_WITH_LIMIT,
         mockResult);
-    verify(mockImagePickerDelegate).chooseMultiVideoFromGallery(any(), eq(false), eq(5), any());
+    verify(mockImagePickerDelegate)
+        .chooseMultiVideoFromGallery(
+            any(), eq(GENERAL_OPTIONS_ALLOW_MULTIPLE_DONT_USE_PHOTO_PICKER_WITH_LIMIT), any());
     verifyNoInteractions(mockResult);
   }
 
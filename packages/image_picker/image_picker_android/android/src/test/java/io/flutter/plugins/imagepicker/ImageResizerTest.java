@@ -6,6 +6,7 @@ package io.flutter.plugins.imagepicker;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsNot.not;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -80,19 +81,30 @@ public class ImageResizerTest {
   @Test
   public void onResizeImageIfNeeded_whenQualityIsNotMax_shouldResize_returnResizedFile() {
     String outputFile = resizer.resizeImageIfNeeded(imageFile.getPath(), null, null, 50);
-    assertThat(outputFile, equalTo(externalDirectory.getPath() + "/scaled_pngImage.png"));
+    assertScaledFile(outputFile, "scaled_pngImage.png");
   }
 
   @Test
   public void onResizeImageIfNeeded_whenWidthIsNotNull_shouldResize_returnResizedFile() {
     String outputFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, 100);
-    assertThat(outputFile, equalTo(externalDirectory.getPath() + "/scaled_pngImage.png"));
+    assertScaledFile(outputFile, "scaled_pngImage.png");
   }
 
   @Test
   public void onResizeImageIfNeeded_whenHeightIsNotNull_shouldResize_returnResizedFile() {
     String outputFile = resizer.resizeImageIfNeeded(imageFile.getPath(), null, 50.0, 100);
-    assertThat(outputFile, equalTo(externalDirectory.getPath() + "/scaled_pngImage.png"));
+    assertScaledFile(outputFile, "scaled_pngImage.png");
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_whenImagesHaveTheSameName_shouldReturnDifferentFiles() {
+    String firstOutputFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 50.0, null, 100);
+    String secondOutputFile = resizer.resizeImageIfNeeded(imageFile.getPath(), 40.0, null, 100);
+
+    assertScaledFile(firstOutputFile, "scaled_pngImage.png");
+    assertScaledFile(secondOutputFile, "scaled_pngImage.png");
+    assertThat(firstOutputFile, not(equalTo(secondOutputFile)));
+    assertTrue(new File(firstOutputFile).exists());
   }
 
   @Test
@@ -142,12 +154,48 @@ public class ImageResizerTest {
     }
   }
 
+  @Test
+  public void onResizeImageIfNeeded_whenDownscalingByHalf_shouldSubsampleWhileDecoding() {
+    try (MockedStatic<BitmapFactory> mockBitmapFactory =
+        mockStatic(BitmapFactory.class, Mockito.CALLS_REAL_METHODS)) {
+      resizer.resizeImageIfNeeded(wideJPG.getPath(), 3.0, null, 100);
+      ArgumentCaptor<BitmapFactory.Options> argument =
+          ArgumentCaptor.forClass(BitmapFactory.Options.class);
+      mockBitmapFactory.verify(
+          () -> BitmapFactory.decodeFile(anyString(), argument.capture()), times(2));
+      assertThat(argument.getAllValues().get(1).inSampleSize, equalTo(2));
+    }
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_whenOutputFormatIsWebp_shouldReturnWebpFile() {
+    String outputFile =
+        resizer.resizeImageIfNeeded(
+            imageFile.getPath(), null, null, 100, Messages.ImageOutputFormat.WEBP);
+    assertScaledFile(outputFile, "scaled_pngImage.webp");
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_whenOutputFormatIsJpeg_shouldReturnJpegFile() {
+    String outputFile =
+        resizer.resizeImageIfNeeded(
+            imageFile.getPath(), 50.0, null, 80, Messages.ImageOutputFormat.JPEG);
+    assertScaledFile(outputFile, "scaled_pngImage.jpg");
+  }
+
+  @Test
+  public void onResizeImageIfNeeded_whenOutputFormatIsAutomatic_shouldNotResize() {
+    String outputFile =
+        resizer.resizeImageIfNeeded(
+            imageFile.getPath(), null, null, 100, Messages.ImageOutputFormat.AUTOMATIC);
+    assertThat(outputFile, equalTo(imageFile.getPath()));
+  }
+
   @Test
   public void
       onResizeImageIfNeeded_whenImageIsVertical_WidthIsGreaterThanOriginal_shouldResizeCorrectly() {
     String outputFile = resizer.resizeImageIfNeeded(tallJPG.getPath(), 5.0, 5.0, 100);
-    SizeFCompat originalSize =
-        resizer.readFileDimensions(externalDirectory.getPath() + "/scaled_jpgImageTall.jpg");
+    SizeFCompat originalSize = resizer.readFileDimensions(outputFile);
 
     float width = originalSize.getWidth();
     float height = originalSize.getHeight();
@@ -159,8 +207,7 @@ public class ImageResizerTest {
   public void
       onResizeImageIfNeeded_whenImageIsVertical_HeightIsGreaterThanOriginal_shouldResizeCorrectly() {
     String outputFile = resizer.resizeImageIfNeeded(tallJPG.getPath(), 3.0, 10.0, 100);
-    SizeFCompat originalSize =
-        resizer.readFileDimensions(externalDirectory.getPath() + "/scaled_jpgImageTall.jpg");
+    SizeFCompat originalSize = resizer.readFileDimensions(outputFile);
 
     float width = originalSize.getWidth();
     float height = originalSize.getHeight();
@@ -172,8 +219,7 @@ public class ImageResizerTest {
   public void
       onResizeImageIfNeeded_whenImageIsVertical_HeightAndWidthIsGreaterThanOriginal_shouldNotResize() {
     String outputFile = resizer.resizeImageIfNeeded(tallJPG.getPath(), 10.0, 10.0, 100);
-    SizeFCompat originalSize =
-        resizer.readFileDimensions(externalDirectory.getPath() + "/scaled_jpgImageTall.jpg");
+    SizeFCompat originalSize = resizer.readFileDimensions(outputFile);
 
     float width = originalSize.getWidth();
     float height = originalSize.getHeight();
@@ -185,8 +231,7 @@ public class ImageResizerTest {
   public void
       onResizeImageIfNeeded_whenImageIsHorizontal_WidthIsGreaterThanOriginal_shouldResizeCorrectly() {
     String outputFile = resizer.resizeImageIfNeeded(wideJPG.getPath(), 10.0, 20.0, 100);
-    SizeFCompat originalSize =
-        resizer.readFileDimensions(externalDirectory.getPath() + "/scaled_jpgImageWide.jpg");
+    SizeFCompat originalSize = resizer.readFileDimensions(outputFile);
 
     float width = originalSize.getWidth();
     float height = originalSize.getHeight();
@@ -198,8 +243,7 @@ public class ImageResizerTest {
   public void
       onResizeImageIfNeeded_whenImageIsHorizontal_HeightIsGreaterThanOriginal_shouldResizeCorrectly() {
     String outputFile = resizer.resizeImageIfNeeded(wideJPG.getPath(), 10.0, 10.0, 100);
-    SizeFCompat originalSize =
-        resizer.readFileDimensions(externalDirectory.getPath() + "/scaled_jpgImageWide.jpg");
+    SizeFCompat originalSize = resizer.readFileDimensions(outputFile);
 
     float width = originalSize.getWidth();
     float height = originalSize.getHeight();
@@ -211,12 +255,18 @@ public class ImageResizerTest {
   public void
       onResizeImageIfNeeded_whenImageIsHorizontal_HeightAndWidthIsGreaterThanOriginal_shouldNotResize() {
     String outputFile = resizer.resizeImageIfNeeded(wideJPG.getPath(), 100.0, 100.0, 100);
-    SizeFCompat originalSize =
-        resizer.readFileDimensions(externalDirectory.getPath() + "/scaled_jpgImageWide.jpg");
+    SizeFCompat originalSize = resizer.readFileDimensions(outputFile);
 
     float width = originalSize.getWidth();
     float height = originalSize.getHeight();
     assertThat(width, equalTo(12.0F));
     assertThat(height, equalTo(7.0F));
   }
+
+  // Asserts that path is a file named name in its own directory in the cache directory.
+  private void assertScaledFile(String path, String name) {
+    File file = new File(path);
+    assertThat(file.getName(), equalTo(name));
+    assertThat(file.getParentFile().getParentFile(), equalTo(externalDirectory));
+  }
 }
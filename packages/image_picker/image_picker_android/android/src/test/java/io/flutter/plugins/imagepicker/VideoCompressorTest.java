@@ -0,0 +1,141 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import android.content.Context;
+import android.media.MediaMetadataRetriever;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
+import androidx.media3.common.util.UnstableApi;
+import androidx.media3.transformer.Composition;
+import androidx.media3.transformer.EditedMediaItem;
+import androidx.media3.transformer.ExportException;
+import androidx.media3.transformer.ExportResult;
+import androidx.media3.transformer.Transformer;
+import androidx.test.core.app.ApplicationProvider;
+import io.flutter.plugins.imagepicker.Messages.VideoSelectionOptions;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowMediaMetadataRetriever;
+import org.robolectric.shadows.util.DataSource;
+
+@RunWith(RobolectricTestRunner.class)
+@OptIn(markerClass = UnstableApi.class)
+public class VideoCompressorTest {
+  private static final VideoSelectionOptions COMPRESSION_OPTIONS =
+      new VideoSelectionOptions.Builder().setMaxResolution(720L).build();
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final Transformer mockTransformer = mock(Transformer.class);
+  private Context context;
+  private Transformer.Listener transformerListener;
+  private VideoCompressor videoCompressor;
+  private String videoPath;
+
+  @Before
+  public void setUp() throws IOException {
+    context = ApplicationProvider.getApplicationContext();
+    videoCompressor =
+        new VideoCompressor(context, true) {
+          @NonNull
+          @Override
+          Transformer createTransformer(
+              @NonNull VideoSelectionOptions options,
+              @NonNull Looper looper,
+              @NonNull Transformer.Listener listener) {
+            transformerListener = listener;
+            return mockTransformer;
+          }
+        };
+    videoPath = temporaryFolder.newFile("video.mp4").getPath();
+  }
+
+  @Test
+  public void shouldCompress_whenTransformerIsNotAvailable_returnsFalse() {
+    assertFalse(new VideoCompressor(context, false).shouldCompress(COMPRESSION_OPTIONS));
+    assertTrue(new VideoCompressor(context, true).shouldCompress(COMPRESSION_OPTIONS));
+  }
+
+  @Test
+  public void compressVideos_whenVideoSatisfiesOptions_returnsOriginalPath() {
+    setVideoSize(1280, 720);
+
+    List<String> paths =
+        videoCompressor.compressVideos(Collections.singletonList(videoPath), COMPRESSION_OPTIONS);
+
+    assertEquals(Collections.singletonList(videoPath), paths);
+    verify(mockTransformer, never()).start(any(EditedMediaItem.class), anyString());
+  }
+
+  @Test
+  public void compressVideos_whenExportSucceeds_returnsTranscodedPath() {
+    setVideoSize(1920, 1080);
+    doAnswer(
+            invocation -> {
+              transformerListener.onCompleted(mock(Composition.class), mock(ExportResult.class));
+              return null;
+            })
+        .when(mockTransformer)
+        .start(any(EditedMediaItem.class), anyString());
+
+    List<String> paths =
+        videoCompressor.compressVideos(Collections.singletonList(videoPath), COMPRESSION_OPTIONS);
+
+    assertEquals(
+        Collections.singletonList(
+            new File(temporaryFolder.getRoot(), "compressed_video.mp4").getPath()),
+        paths);
+  }
+
+  @Test
+  public void compressVideos_whenExportFails_returnsOriginalPathAndDeletesOutput() {
+    setVideoSize(1920, 1080);
+    File outputFile = new File(temporaryFolder.getRoot(), "compressed_video.mp4");
+    doAnswer(
+            invocation -> {
+              // Leaves a partial output behind, as a failed export can.
+              new File(invocation.<String>getArgument(1)).createNewFile();
+              transformerListener.onError(
+                  mock(Composition.class), mock(ExportResult.class), mock(ExportException.class));
+              return null;
+            })
+        .when(mockTransformer)
+        .start(any(EditedMediaItem.class), anyString());
+
+    List<String> paths =
+        videoCompressor.compressVideos(Collections.singletonList(videoPath), COMPRESSION_OPTIONS);
+
+    assertEquals(Collections.singletonList(videoPath), paths);
+    assertFalse(outputFile.exists());
+  }
+
+  private void setVideoSize(int width, int height) {
+    DataSource dataSource = DataSource.toDataSource(videoPath);
+    ShadowMediaMetadataRetriever.addMetadata(
+        dataSource, MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH, String.valueOf(width));
+    ShadowMediaMetadataRetriever.addMetadata(
+        dataSource, MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT, String.valueOf(height));
+  }
+}
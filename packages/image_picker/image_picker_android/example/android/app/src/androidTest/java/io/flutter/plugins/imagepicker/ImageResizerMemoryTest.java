@@ -0,0 +1,93 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.imagepicker;
+
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+import androidx.annotation.Nullable;
+import androidx.test.core.app.ApplicationProvider;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.junit.Test;
+
+// Runs on a device, since the bitmaps decoded by Robolectric are not scaled.
+public class ImageResizerMemoryTest {
+  private static final String TAG = "ImageResizerMemoryTest";
+  private static final int ORIGINAL_WIDTH = 4000;
+  private static final int ORIGINAL_HEIGHT = 3000;
+  private static final int MAX_WIDTH = 400;
+
+  @Test
+  public void resizeImageIfNeeded_neverAllocatesBitmapOfOriginalSize() throws IOException {
+    final Context context = ApplicationProvider.getApplicationContext();
+    final File image = createJpeg(new File(context.getCacheDir(), "large_image.jpg"));
+    final AllocationRecordingImageResizer resizer = new AllocationRecordingImageResizer(context);
+
+    final String resizedPath =
+        resizer.resizeImageIfNeeded(image.getPath(), (double) MAX_WIDTH, null, 100);
+
+    final long originalByteCount = (long) ORIGINAL_WIDTH * ORIGINAL_HEIGHT * 4;
+    final long targetByteCount =
+        (long) MAX_WIDTH * (MAX_WIDTH * ORIGINAL_HEIGHT / ORIGINAL_WIDTH) * 4;
+    Log.i(
+        TAG,
+        "Largest bitmap: "
+            + resizer.largestByteCount
+            + " bytes, target: "
+            + targetByteCount
+            + " bytes, original: "
+            + originalByteCount
+            + " bytes.");
+    assertNotEquals(image.getPath(), resizedPath);
+    assertTrue(resizer.largestByteCount > 0);
+    // Allows for the decoder rounding the scaled size up.
+    assertTrue(resizer.largestByteCount <= 2 * targetByteCount);
+  }
+
+  private static File createJpeg(File file) throws IOException {
+    final Bitmap bitmap =
+        Bitmap.createBitmap(ORIGINAL_WIDTH, ORIGINAL_HEIGHT, Bitmap.Config.ARGB_8888);
+    try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file))) {
+      bitmap.compress(Bitmap.CompressFormat.JPEG, 90, output);
+    } finally {
+      bitmap.recycle();
+    }
+    return file;
+  }
+
+  /** Records the largest bitmap decoded or scaled by the resizer. */
+  private static class AllocationRecordingImageResizer extends ImageResizer {
+    long largestByteCount;
+
+    AllocationRecordingImageResizer(Context context) {
+      super(context, new ExifDataCopier());
+    }
+
+    @Override
+    Bitmap decodeFile(String path, @Nullable BitmapFactory.Options opts) {
+      return record(super.decodeFile(path, opts));
+    }
+
+    @Override
+    Bitmap createScaledBitmap(Bitmap bmp, int width, int height, boolean filter) {
+      return record(super.createScaledBitmap(bmp, width, height, filter));
+    }
+
+    private Bitmap record(@Nullable Bitmap bitmap) {
+      if (bitmap != null) {
+        largestByteCount = Math.max(largestByteCount, bitmap.getAllocationByteCount());
+      }
+      return bitmap;
+    }
+  }
+}
@@ -2,6 +2,8 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:io';
+
 import 'package:flutter/foundation.dart';
 import 'package:flutter/services.dart';
 
@@ -9,6 +11,58 @@ import 'package:image_picker_platform_interface/image_picker_platform_interface.
 
 import 'src/messages.g.dart';
 
+/// The formats that [ImagePickerAndroid] can encode picked images in.
+enum AndroidImageOutputFormat {
+  /// PNG for images with transparency and JPEG otherwise.
+  ///
+  /// Images are only re-encoded when they are resized or their quality is
+  /// reduced.
+  automatic,
+
+  /// JPEG.
+  jpeg,
+
+  /// PNG, which ignores the requested image quality.
+  png,
+
+  /// Lossy WebP, which is usually smaller than JPEG at the same quality.
+  webp,
+}
+
+/// Options for transcoding picked videos to reduce their size.
+@immutable
+class AndroidVideoCompressionOptions {
+  /// Creates options for transcoding picked videos.
+  const AndroidVideoCompressionOptions({
+    this.maxResolution,
+    this.targetBitrate,
+  });
+
+  /// If set, the max length in pixels of the shorter side of the video, such
+  /// as 720 for 720p.
+  final int? maxResolution;
+
+  /// If set, the bitrate in bits per second to encode the video at.
+  final int? targetBitrate;
+}
+
+/// Metadata of a content URI returned when
+/// [ImagePickerAndroid.copyPickedFilesToCache] is false.
+@immutable
+class AndroidContentUriMetadata {
+  /// Creates metadata of a content URI.
+  const AndroidContentUriMetadata({this.name, this.size, this.mimeType});
+
+  /// The display name of the content, if known.
+  final String? name;
+
+  /// The size of the content in bytes, if known.
+  final int? size;
+
+  /// The MIME type of the content, if known.
+  final String? mimeType;
+}
+
 /// An Android implementation of [ImagePickerPlatform].
 class ImagePickerAndroid extends ImagePickerPlatform {
   /// Creates a new plugin implementation instance.
@@ -17,11 +71,123 @@ class ImagePickerAndroid extends ImagePickerPlatform {
 
   final ImagePickerApi _hostApi;
 
+  // The thumbnails of the last selection that have not been taken, by the path
+  // of the picked file they were created for.
+  final Map<String, String> _thumbnailPaths = <String, String>{};
+
   /// Sets [ImagePickerAndroid] to use Android 13 Photo Picker.
   ///
   /// Currently defaults to false, but the default is subject to change.
   bool useAndroidPhotoPicker = false;
 
+  /// The format that picked images are encoded in.
+  ///
+  /// Any format other than [AndroidImageOutputFormat.automatic] causes every
+  /// picked image to be re-encoded, even if it is not resized. Videos are not
+  /// affected.
+  AndroidImageOutputFormat imageOutputFormat =
+      AndroidImageOutputFormat.automatic;
+
+  /// If set, the size in pixels of the square that thumbnails of picked images
+  /// and videos are created to fit in.
+  ///
+  /// Thumbnails are created natively while the picked files are processed, and
+  /// are returned with them. They can be retrieved with [takeThumbnailPaths].
+  int? thumbnailSize;
+
+  /// If set, picked videos are transcoded to H.264 with these options.
+  ///
+  /// Videos that are longer than the requested max duration are also trimmed
+  /// when they are transcoded. Videos that already satisfy the options are
+  /// returned unchanged, as are videos that cannot be transcoded.
+  ///
+  /// Videos are only transcoded if the app depends on
+  /// `androidx.media3:media3-transformer`, as described in the README.
+  /// Otherwise they are returned unchanged.
+  AndroidVideoCompressionOptions? videoCompressionOptions;
+
+  /// Whether files picked from the gallery are copied to the app's cache
+  /// directory.
+  ///
+  /// If false, the returned paths are `content://` URIs instead, which avoids
+  /// copying every picked file before it is used. Their content can be read
+  /// with [readContentUri], but not through `dart:io`. Picked images are not
+  /// resized or re-encoded in this mode, and no thumbnails are created or
+  /// videos transcoded. Access to the URIs is only granted while the app's
+  /// activity is alive. Files from the camera are always copied.
+  bool copyPickedFilesToCache = true;
+
+  /// Returns the display name, size and MIME type of a content URI returned
+  /// while [copyPickedFilesToCache] is false.
+  Future<AndroidContentUriMetadata> getContentUriMetadata(String uri) async {
+    final ContentUriMetadata metadata = await _hostApi.getContentUriMetadata(
+      uri,
+    );
+    return AndroidContentUriMetadata(
+      name: metadata.name,
+      size: metadata.size,
+      mimeType: metadata.mimeType,
+    );
+  }
+
+  /// Reads up to [length] bytes starting at [offset] from a content URI
+  /// returned while [copyPickedFilesToCache] is false.
+  ///
+  /// The bytes are read on a background thread, and fewer bytes than requested
+  /// are only returned at the end of the content. Content that can not seek,
+  /// such as a pipe from a remote provider, can only be read from offset 0, so
+  /// it has to be read with a single call.
+  Future<Uint8List> readContentUri(
+    String uri, {
+    int offset = 0,
+    required int length,
+  }) {
+    return _hostApi.readContentUri(uri, offset, length);
+  }
+
+  /// Returns the progress of the current video transcode, from 0 to 1, or null
+  /// if no video is being transcoded.
+  ///
+  /// For a multiple selection this is the progress of the whole selection.
+  Future<double?> getVideoCompressionProgress() {
+    return _hostApi.getVideoCompressionProgress();
+  }
+
+  /// Returns the paths of the JPEG thumbnails created for the picked files at
+  /// [paths], with null for files that have no thumbnail.
+  ///
+  /// Thumbnails are only created while [thumbnailSize] is set, and each
+  /// thumbnail path is only returned once. Thumbnails that have not been taken
+  /// are deleted when the next selection returns, and are not kept for results
+  /// returned by [getLostData].
+  Future<List<String?>> takeThumbnailPaths(List<String> paths) async {
+    return paths.map(_thumbnailPaths.remove).toList();
+  }
+
+  // Returns the paths of the files picked by [pick], and keeps their thumbnails
+  // for [takeThumbnailPaths] in place of those of the previous selection.
+  Future<List<String>> _pickPaths(Future<PickResult> pick) async {
+    final PickResult result = await pick;
+    final List<String> untakenThumbnailPaths = _thumbnailPaths.values.toList();
+    _thumbnailPaths.clear();
+    for (int i = 0; i < result.thumbnailPaths.length; i++) {
+      final String? thumbnailPath = result.thumbnailPaths[i];
+      if (thumbnailPath != null) {
+        _thumbnailPaths[result.paths[i]] = thumbnailPath;
+      }
+    }
+    await Future.wait(untakenThumbnailPaths.map(_deleteThumbnail));
+    return result.paths;
+  }
+
+  Future<void> _deleteThumbnail(String path) async {
+    try {
+      await File(path).delete();
+    } on FileSystemException {
+      // The app deleted it, or the cache directory was cleared.
+    }
+  }
+
   /// Registers this class as the default platform implementation.
   static void registerWith() {
     ImagePickerPlatform.instance = ImagePickerAndroid();
@@ -89,17 +255,22 @@ class ImagePickerAndroid extends ImagePickerPlatform {
       throw ArgumentError.value(limit, 'limit', 'cannot be lower than 2');
     }
 
-    return _hostApi.pickImages(
-      SourceSpecification(type: SourceType.gallery),
-      ImageSelectionOptions(
-        maxWidth: maxWidth,
-        maxHeight: maxHeight,
-        quality: imageQuality ?? 100,
-      ),
-      GeneralOptions(
-        allowMultiple: true,
-        usePhotoPicker: useAndroidPhotoPicker,
-        limit: limit,
+    return _pickPaths(
+      _hostApi.pickImages(
+        SourceSpecification(type: SourceType.gallery),
+        ImageSelectionOptions(
+          maxWidth: maxWidth,
+          maxHeight: maxHeight,
+          quality: imageQuality ?? 100,
+          outputFormat: _imageOutputFormat,
+        ),
+        GeneralOptions(
+          allowMultiple: true,
+          usePhotoPicker: useAndroidPhotoPicker,
+          thumbnailSize: thumbnailSize,
+          copyToCache: copyPickedFilesToCache,
+          limit: limit,
+        ),
       ),
     );
   }
@@ -128,16 +299,21 @@ class ImagePickerAndroid extends ImagePickerPlatform {
       throw ArgumentError.value(maxHeight, 'maxHeight', 'cannot be negative');
     }
 
-    final List<String> paths = await _hostApi.pickImages(
-      _buildSourceSpec(source, preferredCameraDevice),
-      ImageSelectionOptions(
-        maxWidth: maxWidth,
-        maxHeight: maxHeight,
-        quality: imageQuality ?? 100,
-      ),
-      GeneralOptions(
-        allowMultiple: false,
-        usePhotoPicker: useAndroidPhotoPicker,
+    final List<String> paths = await _pickPaths(
+      _hostApi.pickImages(
+        _buildSourceSpec(source, preferredCameraDevice),
+        ImageSelectionOptions(
+          maxWidth: maxWidth,
+          maxHeight: maxHeight,
+          quality: imageQuality ?? 100,
+          outputFormat: _imageOutputFormat,
+        ),
+        GeneralOptions(
+          allowMultiple: false,
+          usePhotoPicker: useAndroidPhotoPicker,
+          thumbnailSize: thumbnailSize,
+          copyToCache: copyPickedFilesToCache,
+        ),
       ),
     );
     return paths.isEmpty ? null : paths.first;
@@ -162,12 +338,16 @@ class ImagePickerAndroid extends ImagePickerPlatform {
     CameraDevice preferredCameraDevice = CameraDevice.rear,
     Duration? maxDuration,
   }) async {
-    final List<String> paths = await _hostApi.pickVideos(
-      _buildSourceSpec(source, preferredCameraDevice),
-      VideoSelectionOptions(maxDurationSeconds: maxDuration?.inSeconds),
-      GeneralOptions(
-        allowMultiple: false,
-        usePhotoPicker: useAndroidPhotoPicker,
+    final List<String> paths = await _pickPaths(
+      _hostApi.pickVideos(
+        _buildSourceSpec(source, preferredCameraDevice),
+        _buildVideoOptions(maxDuration),
+        GeneralOptions(
+          allowMultiple: false,
+          usePhotoPicker: useAndroidPhotoPicker,
+          thumbnailSize: thumbnailSize,
+          copyToCache: copyPickedFilesToCache,
+        ),
       ),
     );
     return paths.isEmpty ? null : paths.first;
@@ -245,10 +425,12 @@ class ImagePickerAndroid extends ImagePickerPlatform {
 
   @override
   Future<List<XFile>> getMedia({required MediaOptions options}) async {
-    return (await _hostApi.pickMedia(
-      _mediaOptionsToMediaSelectionOptions(options),
-      _mediaOptionsToGeneralOptions(options),
-    )).map((String? path) => XFile(path!)).toList();
+    return (await _pickPaths(
+      _hostApi.pickMedia(
+        _mediaOptionsToMediaSelectionOptions(options),
+        _mediaOptionsToGeneralOptions(options),
+      ),
+    )).map((String path) => XFile(path)).toList();
   }
 
   @override
@@ -269,13 +451,17 @@ class ImagePickerAndroid extends ImagePickerPlatform {
   Future<List<XFile>> getMultiVideoWithOptions({
     MultiVideoPickerOptions options = const MultiVideoPickerOptions(),
   }) async {
-    final List<String> paths = await _hostApi.pickVideos(
-      SourceSpecification(type: SourceType.gallery),
-      VideoSelectionOptions(maxDurationSeconds: options.maxDuration?.inSeconds),
-      GeneralOptions(
-        allowMultiple: true,
-        usePhotoPicker: useAndroidPhotoPicker,
-        limit: options.limit,
+    final List<String> paths = await _pickPaths(
+      _hostApi.pickVideos(
+        SourceSpecification(type: SourceType.gallery),
+        _buildVideoOptions(options.maxDuration),
+        GeneralOptions(
+          allowMultiple: true,
+          usePhotoPicker: useAndroidPhotoPicker,
+          thumbnailSize: thumbnailSize,
+          copyToCache: copyPickedFilesToCache,
+          limit: options.limit,
+        ),
       ),
     );
 
@@ -323,9 +509,25 @@ class ImagePickerAndroid extends ImagePickerPlatform {
       quality: imageQuality ?? 100,
       maxHeight: maxHeight,
       maxWidth: maxWidth,
+      outputFormat: _imageOutputFormat,
+    );
+  }
+
+  VideoSelectionOptions _buildVideoOptions(Duration? maxDuration) {
+    return VideoSelectionOptions(
+      maxDurationSeconds: maxDuration?.inSeconds,
+      maxResolution: videoCompressionOptions?.maxResolution,
+      targetBitrate: videoCompressionOptions?.targetBitrate,
     );
   }
 
+  ImageOutputFormat get _imageOutputFormat => switch (imageOutputFormat) {
+    AndroidImageOutputFormat.automatic => ImageOutputFormat.automatic,
+    AndroidImageOutputFormat.jpeg => ImageOutputFormat.jpeg,
+    AndroidImageOutputFormat.png => ImageOutputFormat.png,
+    AndroidImageOutputFormat.webp => ImageOutputFormat.webp,
+  };
+
   GeneralOptions _mediaOptionsToGeneralOptions(MediaOptions options) {
     final bool allowMultiple = options.allowMultiple;
     final int? limit = options.limit;
@@ -345,6 +547,8 @@ class ImagePickerAndroid extends ImagePickerPlatform {
     return GeneralOptions(
       allowMultiple: allowMultiple,
       usePhotoPicker: useAndroidPhotoPicker,
+      thumbnailSize: thumbnailSize,
+      copyToCache: copyPickedFilesToCache,
       limit: limit,
     );
   }
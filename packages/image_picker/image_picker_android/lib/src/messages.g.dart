@@ -42,11 +42,22 @@ enum SourceType { camera, gallery }
 
 enum CacheRetrievalType { image, video }
 
+/// The encoding of images that are resized or recompressed.
+enum ImageOutputFormat {
+  /// PNG for images with transparency, JPEG otherwise.
+  automatic,
+  jpeg,
+  png,
+  webp,
+}
+
 class GeneralOptions {
   GeneralOptions({
     required this.allowMultiple,
     required this.usePhotoPicker,
     this.limit,
+    this.thumbnailSize,
+    this.copyToCache,
   });
 
   bool allowMultiple;
@@ -55,8 +66,25 @@ class GeneralOptions {
 
   int? limit;
 
+  /// If set, the size in pixels of the square that thumbnails of the selected
+  /// items are created to fit in.
+  int? thumbnailSize;
+
+  /// Whether items selected from the gallery are copied to the app's cache
+  /// directory.
+  ///
+  /// If false, content URIs are returned instead of file paths, and image
+  /// resizing, thumbnails and video transcoding are skipped. Defaults to true.
+  bool? copyToCache;
+
   List<Object?> _toList() {
-    return <Object?>[allowMultiple, usePhotoPicker, limit];
+    return <Object?>[
+      allowMultiple,
+      usePhotoPicker,
+      limit,
+      thumbnailSize,
+      copyToCache,
+    ];
   }
 
   Object encode() {
@@ -69,6 +97,8 @@ class GeneralOptions {
       allowMultiple: result[0]! as bool,
       usePhotoPicker: result[1]! as bool,
       limit: result[2] as int?,
+      thumbnailSize: result[3] as int?,
+      copyToCache: result[4] as bool?,
     );
   }
 
@@ -91,7 +121,12 @@ class GeneralOptions {
 
 /// Options for image selection and output.
 class ImageSelectionOptions {
-  ImageSelectionOptions({this.maxWidth, this.maxHeight, required this.quality});
+  ImageSelectionOptions({
+    this.maxWidth,
+    this.maxHeight,
+    required this.quality,
+    this.outputFormat,
+  });
 
   /// If set, the max width that the image should be resized to fit in.
   double? maxWidth;
@@ -104,8 +139,13 @@ class ImageSelectionOptions {
   /// 100 indicates original quality.
   int quality;
 
+  /// The encoding of the output image, if it is resized or recompressed.
+  ///
+  /// Defaults to [ImageOutputFormat.automatic].
+  ImageOutputFormat? outputFormat;
+
   List<Object?> _toList() {
-    return <Object?>[maxWidth, maxHeight, quality];
+    return <Object?>[maxWidth, maxHeight, quality, outputFormat];
   }
 
   Object encode() {
@@ -118,6 +158,7 @@ class ImageSelectionOptions {
       maxWidth: result[0] as double?,
       maxHeight: result[1] as double?,
       quality: result[2]! as int,
+      outputFormat: result[3] as ImageOutputFormat?,
     );
   }
 
@@ -177,13 +218,27 @@ class MediaSelectionOptions {
 
 /// Options for image selection and output.
 class VideoSelectionOptions {
-  VideoSelectionOptions({this.maxDurationSeconds});
+  VideoSelectionOptions({
+    this.maxDurationSeconds,
+    this.maxResolution,
+    this.targetBitrate,
+  });
 
   /// The maximum desired length for the video, in seconds.
   int? maxDurationSeconds;
 
+  /// If set, the max length in pixels of the shorter side of the video.
+  ///
+  /// Setting this or [targetBitrate] causes selected videos to be transcoded.
+  int? maxResolution;
+
+  /// If set, the bitrate in bits per second to transcode the video at.
+  ///
+  /// Setting this or [maxResolution] causes selected videos to be transcoded.
+  int? targetBitrate;
+
   List<Object?> _toList() {
-    return <Object?>[maxDurationSeconds];
+    return <Object?>[maxDurationSeconds, maxResolution, targetBitrate];
   }
 
   Object encode() {
@@ -192,7 +247,11 @@ class VideoSelectionOptions {
 
   static VideoSelectionOptions decode(Object result) {
     result as List<Object?>;
-    return VideoSelectionOptions(maxDurationSeconds: result[0] as int?);
+    return VideoSelectionOptions(
+      maxDurationSeconds: result[0] as int?,
+      maxResolution: result[1] as int?,
+      targetBitrate: result[2] as int?,
+    );
   }
 
   @override
@@ -347,6 +406,100 @@ class CacheRetrievalResult {
   int get hashCode => Object.hashAll(_toList());
 }
 
+/// Metadata of a content URI returned by a selection.
+class ContentUriMetadata {
+  ContentUriMetadata({this.name, this.size, this.mimeType});
+
+  /// The display name of the content, if known.
+  String? name;
+
+  /// The size of the content in bytes, if known.
+  int? size;
+
+  /// The MIME type of the content, if known.
+  String? mimeType;
+
+  List<Object?> _toList() {
+    return <Object?>[name, size, mimeType];
+  }
+
+  Object encode() {
+    return _toList();
+  }
+
+  static ContentUriMetadata decode(Object result) {
+    result as List<Object?>;
+    return ContentUriMetadata(
+      name: result[0] as String?,
+      size: result[1] as int?,
+      mimeType: result[2] as String?,
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! ContentUriMetadata || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList());
+}
+
+/// The items returned by a selection.
+class PickResult {
+  PickResult({required this.paths, required this.thumbnailPaths});
+
+  /// The paths of the selected items.
+  List<String> paths;
+
+  /// The paths of the thumbnails created for the items at the same index in
+  /// [paths], with null for items that have no thumbnail.
+  ///
+  /// Empty if [GeneralOptions.thumbnailSize] is not set, or if the items were
+  /// not copied to the cache directory.
+  List<String?> thumbnailPaths;
+
+  List<Object?> _toList() {
+    return <Object?>[paths, thumbnailPaths];
+  }
+
+  Object encode() {
+    return _toList();
+  }
+
+  static PickResult decode(Object result) {
+    result as List<Object?>;
+    return PickResult(
+      paths: (result[0] as List<Object?>?)!.cast<String>(),
+      thumbnailPaths: (result[1] as List<Object?>?)!.cast<String?>(),
+    );
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  bool operator ==(Object other) {
+    if (other is! PickResult || other.runtimeType != runtimeType) {
+      return false;
+    }
+    if (identical(this, other)) {
+      return true;
+    }
+    return _deepEquals(encode(), other.encode());
+  }
+
+  @override
+  // ignore: avoid_equals_and_hash_code_on_mutable_classes
+  int get hashCode => Object.hashAll(_toList());
+}
+
 class _PigeonCodec extends StandardMessageCodec {
   const _PigeonCodec();
   @override
@@ -363,26 +516,35 @@ class _PigeonCodec extends StandardMessageCodec {
     } else if (value is CacheRetrievalType) {
       buffer.putUint8(131);
       writeValue(buffer, value.index);
-    } else if (value is GeneralOptions) {
+    } else if (value is ImageOutputFormat) {
       buffer.putUint8(132);
+      writeValue(buffer, value.index);
+    } else if (value is GeneralOptions) {
+      buffer.putUint8(133);
       writeValue(buffer, value.encode());
     } else if (value is ImageSelectionOptions) {
-      buffer.putUint8(133);
+      buffer.putUint8(134);
       writeValue(buffer, value.encode());
     } else if (value is MediaSelectionOptions) {
-      buffer.putUint8(134);
+      buffer.putUint8(135);
       writeValue(buffer, value.encode());
     } else if (value is VideoSelectionOptions) {
-      buffer.putUint8(135);
+      buffer.putUint8(136);
       writeValue(buffer, value.encode());
     } else if (value is SourceSpecification) {
-      buffer.putUint8(136);
+      buffer.putUint8(137);
       writeValue(buffer, value.encode());
     } else if (value is CacheRetrievalError) {
-      buffer.putUint8(137);
+      buffer.putUint8(138);
       writeValue(buffer, value.encode());
     } else if (value is CacheRetrievalResult) {
-      buffer.putUint8(138);
+      buffer.putUint8(139);
+      writeValue(buffer, value.encode());
+    } else if (value is ContentUriMetadata) {
+      buffer.putUint8(140);
+      writeValue(buffer, value.encode());
+    } else if (value is PickResult) {
+      buffer.putUint8(141);
       writeValue(buffer, value.encode());
     } else {
       super.writeValue(buffer, value);
@@ -402,19 +564,26 @@ class _PigeonCodec extends StandardMessageCodec {
         final int? value = readValue(buffer) as int?;
         return value == null ? null : CacheRetrievalType.values[value];
       case 132:
-        return GeneralOptions.decode(readValue(buffer)!);
+        final int? value = readValue(buffer) as int?;
+        return value == null ? null : ImageOutputFormat.values[value];
       case 133:
-        return ImageSelectionOptions.decode(readValue(buffer)!);
+        return GeneralOptions.decode(readValue(buffer)!);
       case 134:
-        return MediaSelectionOptions.decode(readValue(buffer)!);
+        return ImageSelectionOptions.decode(readValue(buffer)!);
       case 135:
-        return VideoSelectionOptions.decode(readValue(buffer)!);
+        return MediaSelectionOptions.decode(readValue(buffer)!);
       case 136:
-        return SourceSpecification.decode(readValue(buffer)!);
+        return VideoSelectionOptions.decode(readValue(buffer)!);
       case 137:
-        return CacheRetrievalError.decode(readValue(buffer)!);
+        return SourceSpecification.decode(readValue(buffer)!);
       case 138:
+        return CacheRetrievalError.decode(readValue(buffer)!);
+      case 139:
         return CacheRetrievalResult.decode(readValue(buffer)!);
+      case 140:
+        return ContentUriMetadata.decode(readValue(buffer)!);
+      case 141:
+        return PickResult.decode(readValue(buffer)!);
       default:
         return super.readValueOfType(type, buffer);
     }
@@ -439,7 +608,7 @@ class ImagePickerApi {
   final String pigeonVar_messageChannelSuffix;
 
   /// Selects images and returns their paths.
-  Future<List<String>> pickImages(
+  Future<PickResult> pickImages(
     SourceSpecification source,
     ImageSelectionOptions options,
     GeneralOptions generalOptions,
@@ -471,12 +640,12 @@ class ImagePickerApi {
         message: 'Host platform returned null value for non-null return value.',
       );
     } else {
-      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<String>();
+      return (pigeonVar_replyList[0] as PickResult?)!;
     }
   }
 
   /// Selects video and returns their paths.
-  Future<List<String>> pickVideos(
+  Future<PickResult> pickVideos(
     SourceSpecification source,
     VideoSelectionOptions options,
     GeneralOptions generalOptions,
@@ -508,12 +677,12 @@ class ImagePickerApi {
         message: 'Host platform returned null value for non-null return value.',
       );
     } else {
-      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<String>();
+      return (pigeonVar_replyList[0] as PickResult?)!;
     }
   }
 
   /// Selects images and videos and returns their paths.
-  Future<List<String>> pickMedia(
+  Future<PickResult> pickMedia(
     MediaSelectionOptions mediaSelectionOptions,
     GeneralOptions generalOptions,
   ) async {
@@ -544,7 +713,7 @@ class ImagePickerApi {
         message: 'Host platform returned null value for non-null return value.',
       );
     } else {
-      return (pigeonVar_replyList[0] as List<Object?>?)!.cast<String>();
+      return (pigeonVar_replyList[0] as PickResult?)!;
     }
   }
 
@@ -573,4 +742,102 @@ class ImagePickerApi {
       return (pigeonVar_replyList[0] as CacheRetrievalResult?);
     }
   }
+
+  /// Returns the progress of the video transcode in progress, from 0 to 1, or
+  /// null if no video is being transcoded.
+  Future<double?> getVideoCompressionProgress() async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.image_picker_android.ImagePickerApi.getVideoCompressionProgress$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(null);
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return (pigeonVar_replyList[0] as double?);
+    }
+  }
+
+  /// Returns the metadata of a content URI returned by a selection.
+  Future<ContentUriMetadata> getContentUriMetadata(String uri) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.image_picker_android.ImagePickerApi.getContentUriMetadata$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[uri],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as ContentUriMetadata?)!;
+    }
+  }
+
+  /// Reads up to [length] bytes starting at [offset] from a content URI
+  /// returned by a selection.
+  ///
+  /// Returns fewer bytes than requested only at the end of the content.
+  /// Content that can not seek, such as a pipe from a remote provider, can only
+  /// be read from offset 0.
+  Future<Uint8List> readContentUri(String uri, int offset, int length) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.image_picker_android.ImagePickerApi.readContentUri$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[uri, offset, length],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as Uint8List?)!;
+    }
+  }
 }
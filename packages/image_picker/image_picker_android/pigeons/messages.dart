@@ -14,15 +14,37 @@ import 'package:pigeon/pigeon.dart';
   ),
 )
 class GeneralOptions {
-  GeneralOptions(this.allowMultiple, this.usePhotoPicker, this.limit);
+  GeneralOptions(
+    this.allowMultiple,
+    this.usePhotoPicker,
+    this.limit,
+    this.thumbnailSize,
+    this.copyToCache,
+  );
   bool allowMultiple;
   bool usePhotoPicker;
   int? limit;
+
+  /// If set, the size in pixels of the square that thumbnails of the selected
+  /// items are created to fit in.
+  int? thumbnailSize;
+
+  /// Whether items selected from the gallery are copied to the app's cache
+  /// directory.
+  ///
+  /// If false, content URIs are returned instead of file paths, and image
+  /// resizing, thumbnails and video transcoding are skipped. Defaults to true.
+  bool? copyToCache;
 }
 
 /// Options for image selection and output.
 class ImageSelectionOptions {
-  ImageSelectionOptions({this.maxWidth, this.maxHeight, required this.quality});
+  ImageSelectionOptions({
+    this.maxWidth,
+    this.maxHeight,
+    required this.quality,
+    this.outputFormat,
+  });
 
   /// If set, the max width that the image should be resized to fit in.
   double? maxWidth;
@@ -34,6 +56,11 @@ class ImageSelectionOptions {
   ///
   /// 100 indicates original quality.
   int quality;
+
+  /// The encoding of the output image, if it is resized or recompressed.
+  ///
+  /// Defaults to [ImageOutputFormat.automatic].
+  ImageOutputFormat? outputFormat;
 }
 
 class MediaSelectionOptions {
@@ -44,10 +71,24 @@ class MediaSelectionOptions {
 
 /// Options for image selection and output.
 class VideoSelectionOptions {
-  VideoSelectionOptions({this.maxDurationSeconds});
+  VideoSelectionOptions({
+    this.maxDurationSeconds,
+    this.maxResolution,
+    this.targetBitrate,
+  });
 
   /// The maximum desired length for the video, in seconds.
   int? maxDurationSeconds;
+
+  /// If set, the max length in pixels of the shorter side of the video.
+  ///
+  /// Setting this or [targetBitrate] causes selected videos to be transcoded.
+  int? maxResolution;
+
+  /// If set, the bitrate in bits per second to transcode the video at.
+  ///
+  /// Setting this or [maxResolution] causes selected videos to be transcoded.
+  int? targetBitrate;
 }
 
 // Corresponds to `CameraDevice` from the platform interface package.
@@ -75,6 +116,15 @@ class CacheRetrievalError {
 // Corresponds to `RetrieveType` from the platform interface package.
 enum CacheRetrievalType { image, video }
 
+/// The encoding of images that are resized or recompressed.
+enum ImageOutputFormat {
+  /// PNG for images with transparency, JPEG otherwise.
+  automatic,
+  jpeg,
+  png,
+  webp,
+}
+
 /// The result of retrieving cached results from a previous run.
 class CacheRetrievalResult {
   CacheRetrievalResult({
@@ -93,12 +143,41 @@ class CacheRetrievalResult {
   final List<String> paths;
 }
 
+/// Metadata of a content URI returned by a selection.
+class ContentUriMetadata {
+  ContentUriMetadata({this.name, this.size, this.mimeType});
+
+  /// The display name of the content, if known.
+  String? name;
+
+  /// The size of the content in bytes, if known.
+  int? size;
+
+  /// The MIME type of the content, if known.
+  String? mimeType;
+}
+
+/// The items returned by a selection.
+class PickResult {
+  PickResult({required this.paths, required this.thumbnailPaths});
+
+  /// The paths of the selected items.
+  List<String> paths;
+
+  /// The paths of the thumbnails created for the items at the same index in
+  /// [paths], with null for items that have no thumbnail.
+  ///
+  /// Empty if [GeneralOptions.thumbnailSize] is not set, or if the items were
+  /// not copied to the cache directory.
+  List<String?> thumbnailPaths;
+}
+
 @HostApi()
 abstract class ImagePickerApi {
   /// Selects images and returns their paths.
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   @async
-  List<String> pickImages(
+  PickResult pickImages(
     SourceSpecification source,
     ImageSelectionOptions options,
     GeneralOptions generalOptions,
@@ -107,7 +186,7 @@ abstract class ImagePickerApi {
   /// Selects video and returns their paths.
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   @async
-  List<String> pickVideos(
+  PickResult pickVideos(
     SourceSpecification source,
     VideoSelectionOptions options,
     GeneralOptions generalOptions,
@@ -115,7 +194,7 @@ abstract class ImagePickerApi {
 
   /// Selects images and videos and returns their paths.
   @async
-  List<String> pickMedia(
+  PickResult pickMedia(
     MediaSelectionOptions mediaSelectionOptions,
     GeneralOptions generalOptions,
   );
@@ -123,4 +202,21 @@ abstract class ImagePickerApi {
   /// Returns results from a previous app session, if any.
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   CacheRetrievalResult? retrieveLostResults();
+
+  /// Returns the progress of the video transcode in progress, from 0 to 1, or
+  /// null if no video is being transcoded.
+  double? getVideoCompressionProgress();
+
+  /// Returns the metadata of a content URI returned by a selection.
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  ContentUriMetadata getContentUriMetadata(String uri);
+
+  /// Reads up to [length] bytes starting at [offset] from a content URI
+  /// returned by a selection.
+  ///
+  /// Returns fewer bytes than requested only at the end of the content.
+  /// Content that can not seek, such as a pipe from a remote provider, can only
+  /// be read from offset 0.
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  Uint8List readContentUri(String uri, int offset, int length);
 }
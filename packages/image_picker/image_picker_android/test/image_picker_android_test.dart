@@ -2,6 +2,9 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:io';
+import 'dart:typed_data';
+
 import 'package:flutter/src/services/binary_messenger.dart';
 import 'package:flutter_test/flutter_test.dart';
 
@@ -137,6 +140,48 @@ void main() {
 
       expect(api.passedPhotoPickerFlag, true);
     });
+
+    test('defaults to the automatic image output format', () async {
+      await picker.pickImage(source: ImageSource.gallery);
+
+      expect(
+        api.passedImageOptions?.outputFormat,
+        ImageOutputFormat.automatic,
+      );
+    });
+
+    test('does not request thumbnails by default', () async {
+      await picker.pickImage(source: ImageSource.gallery);
+
+      expect(api.passedThumbnailSize, null);
+    });
+
+    test('passes the thumbnail size', () async {
+      picker.thumbnailSize = 128;
+      await picker.pickImage(source: ImageSource.gallery);
+
+      expect(api.passedThumbnailSize, 128);
+    });
+
+    test('copies picked files to the cache by default', () async {
+      await picker.pickImage(source: ImageSource.gallery);
+
+      expect(api.passedCopyToCache, true);
+    });
+
+    test('passes the copy to cache flag', () async {
+      picker.copyPickedFilesToCache = false;
+      await picker.pickImage(source: ImageSource.gallery);
+
+      expect(api.passedCopyToCache, false);
+    });
+
+    test('passes the image output format', () async {
+      picker.imageOutputFormat = AndroidImageOutputFormat.webp;
+      await picker.pickImage(source: ImageSource.gallery);
+
+      expect(api.passedImageOptions?.outputFormat, ImageOutputFormat.webp);
+    });
   });
 
   group('#pickMultiImage', () {
@@ -244,6 +289,24 @@ void main() {
       expect(api.passedVideoOptions?.maxDurationSeconds, null);
     });
 
+    test('does not request video compression by default', () async {
+      await picker.pickVideo(source: ImageSource.gallery);
+
+      expect(api.passedVideoOptions?.maxResolution, null);
+      expect(api.passedVideoOptions?.targetBitrate, null);
+    });
+
+    test('passes video compression options', () async {
+      picker.videoCompressionOptions = const AndroidVideoCompressionOptions(
+        maxResolution: 720,
+        targetBitrate: 2000000,
+      );
+      await picker.pickVideo(source: ImageSource.gallery);
+
+      expect(api.passedVideoOptions?.maxResolution, 720);
+      expect(api.passedVideoOptions?.targetBitrate, 2000000);
+    });
+
     test('passes the duration argument correctly', () async {
       await picker.pickVideo(
         source: ImageSource.camera,
@@ -983,6 +1046,96 @@ void main() {
       expect(api.passedPhotoPickerFlag, true);
     });
   });
+
+  group('#getVideoCompressionProgress', () {
+    test('returns the progress', () async {
+      api.returnValue = 0.5;
+
+      expect(await picker.getVideoCompressionProgress(), 0.5);
+    });
+  });
+
+  group('#takeThumbnailPaths', () {
+    test('returns the thumbnails of the last selection once', () async {
+      api.returnValue = <String>['/foo.jpg', '/bar.mp4'];
+      api.returnThumbnailPaths = <String?>['/thumb_foo.jpg', null];
+      picker.thumbnailSize = 64;
+      await picker.getMultiImageWithOptions();
+
+      expect(
+        await picker.takeThumbnailPaths(<String>['/foo.jpg', '/bar.mp4']),
+        <String?>['/thumb_foo.jpg', null],
+      );
+      expect(
+        await picker.takeThumbnailPaths(<String>['/foo.jpg']),
+        <String?>[null],
+      );
+    });
+
+    test('deletes the thumbnails that were not taken', () async {
+      final Directory directory = Directory.systemTemp.createTempSync();
+      addTearDown(() => directory.deleteSync(recursive: true));
+      final File thumbnail = File('${directory.path}/thumb_foo.jpg')
+        ..createSync();
+      api.returnValue = <String>['/foo.jpg'];
+      api.returnThumbnailPaths = <String?>[thumbnail.path];
+      picker.thumbnailSize = 64;
+      await picker.getImageFromSource(source: ImageSource.gallery);
+
+      api.returnValue = <String>[];
+      api.returnThumbnailPaths = <String?>[];
+      await picker.getImageFromSource(source: ImageSource.gallery);
+
+      expect(thumbnail.existsSync(), false);
+      expect(
+        await picker.takeThumbnailPaths(<String>['/foo.jpg']),
+        <String?>[null],
+      );
+    });
+  });
+
+  group('#getContentUriMetadata', () {
+    test('passes the URI and returns the metadata', () async {
+      api.returnValue = ContentUriMetadata(
+        name: 'foo.jpg',
+        size: 42,
+        mimeType: 'image/jpeg',
+      );
+
+      final AndroidContentUriMetadata metadata = await picker
+          .getContentUriMetadata('content://media/1');
+
+      expect(api.passedContentUri, 'content://media/1');
+      expect(metadata.name, 'foo.jpg');
+      expect(metadata.size, 42);
+      expect(metadata.mimeType, 'image/jpeg');
+    });
+  });
+
+  group('#readContentUri', () {
+    test('passes the URI and range and returns the bytes', () async {
+      api.returnValue = Uint8List.fromList(<int>[1, 2, 3]);
+
+      final Uint8List bytes = await picker.readContentUri(
+        'content://media/1',
+        offset: 10,
+        length: 3,
+      );
+
+      expect(api.passedContentUri, 'content://media/1');
+      expect(api.passedReadOffset, 10);
+      expect(api.passedReadLength, 3);
+      expect(bytes, <int>[1, 2, 3]);
+    });
+
+    test('reads from the start by default', () async {
+      api.returnValue = Uint8List(0);
+
+      await picker.readContentUri('content://media/1', length: 3);
+
+      expect(api.passedReadOffset, 0);
+    });
+  });
 }
 
 enum _LastPickType { image, video }
@@ -990,6 +1143,8 @@ enum _LastPickType { image, video }
 class _FakeImagePickerApi implements ImagePickerApi {
   // The value to return.
   Object? returnValue;
+  // The thumbnail paths to return with the picked paths.
+  List<String?> returnThumbnailPaths = <String?>[];
 
   // Passed arguments.
   SourceSpecification? passedSource;
@@ -998,10 +1153,15 @@ class _FakeImagePickerApi implements ImagePickerApi {
   bool? passedAllowMultiple;
   bool? passedPhotoPickerFlag;
   int? limit;
+  int? passedThumbnailSize;
+  bool? passedCopyToCache;
+  String? passedContentUri;
+  int? passedReadOffset;
+  int? passedReadLength;
   _LastPickType? lastCall;
 
   @override
-  Future<List<String>> pickImages(
+  Future<PickResult> pickImages(
     SourceSpecification source,
     ImageSelectionOptions options,
     GeneralOptions generalOptions,
@@ -1012,11 +1172,13 @@ class _FakeImagePickerApi implements ImagePickerApi {
     passedAllowMultiple = generalOptions.allowMultiple;
     passedPhotoPickerFlag = generalOptions.usePhotoPicker;
     limit = generalOptions.limit;
-    return returnValue as List<String>? ?? <String>[];
+    passedThumbnailSize = generalOptions.thumbnailSize;
+    passedCopyToCache = generalOptions.copyToCache;
+    return _pickResult();
   }
 
   @override
-  Future<List<String>> pickMedia(
+  Future<PickResult> pickMedia(
     MediaSelectionOptions options,
     GeneralOptions generalOptions,
   ) async {
@@ -1025,11 +1187,13 @@ class _FakeImagePickerApi implements ImagePickerApi {
     passedPhotoPickerFlag = generalOptions.usePhotoPicker;
     passedAllowMultiple = generalOptions.allowMultiple;
     limit = generalOptions.limit;
-    return returnValue as List<String>? ?? <String>[];
+    passedThumbnailSize = generalOptions.thumbnailSize;
+    passedCopyToCache = generalOptions.copyToCache;
+    return _pickResult();
   }
 
   @override
-  Future<List<String>> pickVideos(
+  Future<PickResult> pickVideos(
     SourceSpecification source,
     VideoSelectionOptions options,
     GeneralOptions generalOptions,
@@ -1040,7 +1204,9 @@ class _FakeImagePickerApi implements ImagePickerApi {
     passedAllowMultiple = generalOptions.allowMultiple;
     passedPhotoPickerFlag = generalOptions.usePhotoPicker;
     limit = generalOptions.limit;
-    return returnValue as List<String>? ?? <String>[];
+    passedThumbnailSize = generalOptions.thumbnailSize;
+    passedCopyToCache = generalOptions.copyToCache;
+    return _pickResult();
   }
 
   @override
@@ -1048,6 +1214,32 @@ class _FakeImagePickerApi implements ImagePickerApi {
     return returnValue as CacheRetrievalResult?;
   }
 
+  @override
+  Future<double?> getVideoCompressionProgress() async {
+    return returnValue as double?;
+  }
+
+  @override
+  Future<ContentUriMetadata> getContentUriMetadata(String uri) async {
+    passedContentUri = uri;
+    return returnValue! as ContentUriMetadata;
+  }
+
+  @override
+  Future<Uint8List> readContentUri(String uri, int offset, int length) async {
+    passedContentUri = uri;
+    passedReadOffset = offset;
+    passedReadLength = length;
+    return returnValue! as Uint8List;
+  }
+
+  PickResult _pickResult() {
+    return PickResult(
+      paths: returnValue as List<String>? ?? <String>[],
+      thumbnailPaths: returnThumbnailPaths,
+    );
+  }
+
   @override
   // ignore: non_constant_identifier_names
   BinaryMessenger? get pigeonVar_binaryMessenger => null;
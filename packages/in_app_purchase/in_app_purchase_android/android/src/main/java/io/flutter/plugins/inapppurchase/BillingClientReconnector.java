@@ -0,0 +1,269 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.inapppurchase;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.android.billingclient.api.BillingClient.BillingResponseCode;
+import io.flutter.plugins.inapppurchase.Messages.FlutterError;
+import io.flutter.plugins.inapppurchase.Messages.Result;
+import java.util.ArrayDeque;
+
+/**
+ * Schedules reconnection attempts with exponential backoff after the connection to the billing
+ * service is lost, and queues calls that are made until it is restored.
+ *
+ * <p>Queued calls are run in order once the connection is restored, or fail with a {@link
+ * FlutterError} if it is not restored within the queued call timeout. Reconnecting stops, and the
+ * queued calls fail, after the maximum number of attempts or when an attempt fails in a way that
+ * retrying cannot fix. Must be used on the main thread.
+ */
+class BillingClientReconnector {
+  private static final String TAG = "InAppPurchasePlugin";
+
+  static final long DEFAULT_INITIAL_RECONNECT_DELAY_MILLIS = 1000;
+  static final long DEFAULT_MAX_RECONNECT_DELAY_MILLIS = 60 * 1000;
+  static final long DEFAULT_QUEUED_CALL_TIMEOUT_MILLIS = 30 * 1000;
+  static final int DEFAULT_MAX_RECONNECT_ATTEMPTS = 10;
+  @VisibleForTesting static final String RECONNECT_TIMEOUT = "RECONNECT_TIMEOUT";
+  static final String RECONNECT_FAILED = "RECONNECT_FAILED";
+
+  private final Handler handler;
+  private final long initialReconnectDelayMillis;
+  private final long maxReconnectDelayMillis;
+  private final long queuedCallTimeoutMillis;
+  private final int maxReconnectAttempts;
+
+  private final ArrayDeque<QueuedCall> queuedCalls = new ArrayDeque<>();
+  @Nullable private Runnable scheduledReconnect;
+  private boolean isReconnecting;
+  private int failedAttemptCount;
+  private long disconnectedAtMillis;
+
+  private long reconnectCount;
+  private long reconnectAttemptCount;
+  private long lastReconnectLatencyMillis;
+  private long totalReconnectLatencyMillis;
+
+  BillingClientReconnector() {
+    this(
+        new Handler(Looper.getMainLooper()),
+        DEFAULT_INITIAL_RECONNECT_DELAY_MILLIS,
+        DEFAULT_MAX_RECONNECT_DELAY_MILLIS,
+        DEFAULT_QUEUED_CALL_TIMEOUT_MILLIS,
+        DEFAULT_MAX_RECONNECT_ATTEMPTS);
+  }
+
+  /**
+   * Creates a reconnector.
+   *
+   * @param handler The handler that reconnection attempts and timeouts are posted to.
+   * @param initialReconnectDelayMillis The delay before the first reconnection attempt, which is
+   *     doubled after each failed attempt.
+   * @param maxReconnectDelayMillis The maximum delay between reconnection attempts.
+   * @param queuedCallTimeoutMillis How long a call waits for the connection to be restored before it
+   *     fails.
+   * @param maxReconnectAttempts The number of failed attempts after which reconnecting stops.
+   */
+  BillingClientReconnector(
+      @NonNull Handler handler,
+      long initialReconnectDelayMillis,
+      long maxReconnectDelayMillis,
+      long queuedCallTimeoutMillis,
+      int maxReconnectAttempts) {
+    this.handler = handler;
+    this.initialReconnectDelayMillis = initialReconnectDelayMillis;
+    this.maxReconnectDelayMillis = maxReconnectDelayMillis;
+    this.queuedCallTimeoutMillis = queuedCallTimeoutMillis;
+    this.maxReconnectAttempts = maxReconnectAttempts;
+  }
+
+  /** Whether the connection was lost and has not been restored or stopped since. */
+  boolean isReconnecting() {
+    return isReconnecting;
+  }
+
+  /**
+   * Whether an attempt to restore the connection that failed with {@code responseCode} should be
+   * retried. The billing service is not available on the device, or the app cannot use it, for the
+   * codes that are not retried.
+   */
+  static boolean isRetryable(int responseCode) {
+    switch (responseCode) {
+      case BillingResponseCode.BILLING_UNAVAILABLE:
+      case BillingResponseCode.DEVELOPER_ERROR:
+      case BillingResponseCode.FEATURE_NOT_SUPPORTED:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Schedules {@code reconnect} to run after the backoff delay. Called when the connection is lost,
+   * and when an attempt to restore it fails.
+   *
+   * <p>Stops reconnecting instead if the maximum number of attempts have failed.
+   */
+  void scheduleReconnect(@NonNull Runnable reconnect) {
+    if (!isReconnecting) {
+      isReconnecting = true;
+      failedAttemptCount = 0;
+      disconnectedAtMillis = elapsedRealtime();
+    }
+    cancelScheduledReconnect();
+    if (failedAttemptCount >= maxReconnectAttempts) {
+      Log.w(
+          TAG,
+          "Stopped reconnecting to the billing service after "
+              + failedAttemptCount
+              + " failed attempts.");
+      stop(
+          new FlutterError(
+              RECONNECT_FAILED,
+              "The billing service did not reconnect after "
+                  + failedAttemptCount
+                  + " attempts.",
+              null));
+      return;
+    }
+
+    final long delayMillis =
+        Math.min(
+            maxReconnectDelayMillis,
+            initialReconnectDelayMillis << Math.min(failedAttemptCount, 30));
+    failedAttemptCount++;
+    scheduledReconnect =
+        () -> {
+          scheduledReconnect = null;
+          reconnectAttemptCount++;
+          reconnect.run();
+        };
+    handler.postDelayed(scheduledReconnect, delayMillis);
+  }
+
+  /** Cancels the next scheduled reconnection attempt, if any. */
+  void cancelScheduledReconnect() {
+    if (scheduledReconnect != null) {
+      handler.removeCallbacks(scheduledReconnect);
+      scheduledReconnect = null;
+    }
+  }
+
+  /** Called when a connection is established. Runs the queued calls if it was restored. */
+  void onConnected() {
+    cancelScheduledReconnect();
+    if (!isReconnecting) {
+      return;
+    }
+
+    isReconnecting = false;
+    reconnectCount++;
+    lastReconnectLatencyMillis = elapsedRealtime() - disconnectedAtMillis;
+    totalReconnectLatencyMillis += lastReconnectLatencyMillis;
+    Log.d(
+        TAG,
+        "Reconnected to the billing service after "
+            + lastReconnectLatencyMillis
+            + " ms, running "
+            + queuedCalls.size()
+            + " queued calls.");
+
+    // Calls that are run may lose the connection again and be queued, so only the calls that were
+    // queued before are run.
+    final int queuedCallCount = queuedCalls.size();
+    for (int i = 0; i < queuedCallCount; i++) {
+      final QueuedCall queuedCall = queuedCalls.poll();
+      handler.removeCallbacks(queuedCall.timeout);
+      queuedCall.call.run();
+    }
+  }
+
+  /**
+   * Queues {@code call} to run once the connection is restored, if it is being restored.
+   *
+   * @return Whether the call was queued. If not, the caller should run it.
+   */
+  boolean enqueueIfReconnecting(@NonNull Result<?> result, @NonNull Runnable call) {
+    if (!isReconnecting) {
+      return false;
+    }
+
+    final QueuedCall queuedCall = new QueuedCall(result, call);
+    queuedCall.timeout =
+        () -> {
+          queuedCalls.remove(queuedCall);
+          queuedCall.fail(
+              new FlutterError(
+                  RECONNECT_TIMEOUT,
+                  "The billing service did not reconnect within "
+                      + queuedCallTimeoutMillis
+                      + " ms.",
+                  null));
+        };
+    queuedCalls.add(queuedCall);
+    handler.postDelayed(queuedCall.timeout, queuedCallTimeoutMillis);
+    return true;
+  }
+
+  /**
+   * Stops reconnecting, and fails every queued call with {@code error}. Called when the connection
+   * is ended, or when it cannot be restored.
+   */
+  void stop(@NonNull FlutterError error) {
+    cancelScheduledReconnect();
+    isReconnecting = false;
+    QueuedCall queuedCall;
+    while ((queuedCall = queuedCalls.poll()) != null) {
+      handler.removeCallbacks(queuedCall.timeout);
+      queuedCall.fail(error);
+    }
+  }
+
+  /** The number of times the connection was restored after it was lost. */
+  long getReconnectCount() {
+    return reconnectCount;
+  }
+
+  /** The number of scheduled reconnection attempts that were made. */
+  long getReconnectAttemptCount() {
+    return reconnectAttemptCount;
+  }
+
+  /** How long it took to restore the connection the last time it was lost. */
+  long getLastReconnectLatencyMillis() {
+    return lastReconnectLatencyMillis;
+  }
+
+  /** The average time it took to restore the connection after it was lost. */
+  long getAverageReconnectLatencyMillis() {
+    return reconnectCount == 0 ? 0 : totalReconnectLatencyMillis / reconnectCount;
+  }
+
+  @VisibleForTesting
+  long elapsedRealtime() {
+    return SystemClock.elapsedRealtime();
+  }
+
+  private static class QueuedCall {
+    final Result<?> result;
+    final Runnable call;
+    Runnable timeout;
+
+    QueuedCall(Result<?> result, Runnable call) {
+      this.result = result;
+      this.call = call;
+    }
+
+    void fail(FlutterError error) {
+      result.error(error);
+    }
+  }
+}
@@ -3367,6 +3367,11 @@ public class Messages {
     void queryProductDetailsAsync(
         @NonNull List<PlatformQueryProduct> products,
         @NonNull Result<PlatformProductDetailsResponse> result);
+    /**
+     * Sets how long the product details returned by queryProductDetailsAsync are reused without
+     * querying Google Play. They are not reused if this is 0.
+     */
+    void setProductDetailsCacheDuration(@NonNull Long durationMillis);
     /** Wraps BillingClient#isFeatureSupported(String). */
     @NonNull
     Boolean isFeatureSupported(@NonNull PlatformBillingClientFeature feature);
@@ -3694,6 +3699,31 @@ public class Messages {
           channel.setMessageHandler(null);
         }
       }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.in_app_purchase_android.InAppPurchaseApi.setProductDetailsCacheDuration"
+                    + messageChannelSuffix,
+                getCodec());
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Long durationMillisArg = (Long) args.get(0);
+                try {
+                  api.setProductDetailsCacheDuration(durationMillisArg);
+                  wrapped.add(0, null);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
       {
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
@@ -11,7 +11,6 @@ import static io.flutter.plugins.inapppurchase.Translator.fromProductDetailsList
 import static io.flutter.plugins.inapppurchase.Translator.fromPurchaseHistoryRecordList;
 import static io.flutter.plugins.inapppurchase.Translator.fromPurchasesList;
 import static io.flutter.plugins.inapppurchase.Translator.toBillingClientFeature;
-import static io.flutter.plugins.inapppurchase.Translator.toProductList;
 import static io.flutter.plugins.inapppurchase.Translator.toProductTypeString;
 import static io.flutter.plugins.inapppurchase.Translator.toReplacementMode;
 
@@ -32,7 +31,6 @@ import com.android.billingclient.api.ConsumeParams;
 import com.android.billingclient.api.ConsumeResponseListener;
 import com.android.billingclient.api.GetBillingConfigParams;
 import com.android.billingclient.api.ProductDetails;
-import com.android.billingclient.api.QueryProductDetailsParams;
 import com.android.billingclient.api.QueryPurchaseHistoryParams;
 import com.android.billingclient.api.QueryPurchasesParams;
 import io.flutter.plugins.inapppurchase.Messages.FlutterError;
@@ -50,7 +48,6 @@ import io.flutter.plugins.inapppurchase.Messages.PlatformQueryProduct;
 import io.flutter.plugins.inapppurchase.Messages.PlatformReplacementMode;
 import io.flutter.plugins.inapppurchase.Messages.Result;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 /** Handles method channel for the plugin. */
@@ -72,7 +69,9 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
   private final Context applicationContext;
   final InAppPurchaseCallbackApi callbackApi;
 
-  private final HashMap<String, ProductDetails> cachedProducts = new HashMap<>();
+  private final ProductDetailsCache productDetailsCache;
+  private final BillingClientReconnector billingClientReconnector;
+  @Nullable private ConnectionListener pendingConnection;
 
   /** Constructs the MethodCallHandlerImpl */
   MethodCallHandlerImpl(
@@ -80,10 +79,29 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       @NonNull Context applicationContext,
       @NonNull InAppPurchaseCallbackApi callbackApi,
       @NonNull BillingClientFactory billingClientFactory) {
+    this(
+        activity,
+        applicationContext,
+        callbackApi,
+        billingClientFactory,
+        new ProductDetailsCache(),
+        new BillingClientReconnector());
+  }
+
+  @VisibleForTesting
+  MethodCallHandlerImpl(
+      @Nullable Activity activity,
+      @NonNull Context applicationContext,
+      @NonNull InAppPurchaseCallbackApi callbackApi,
+      @NonNull BillingClientFactory billingClientFactory,
+      @NonNull ProductDetailsCache productDetailsCache,
+      @NonNull BillingClientReconnector billingClientReconnector) {
     this.billingClientFactory = billingClientFactory;
     this.applicationContext = applicationContext;
     this.activity = activity;
     this.callbackApi = callbackApi;
+    this.productDetailsCache = productDetailsCache;
+    this.billingClientReconnector = billingClientReconnector;
   }
 
   /**
@@ -131,6 +149,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> showAlternativeBillingOnlyInformationDialog(result))) {
+      return;
+    }
     if (activity == null) {
       result.error(new FlutterError(ACTIVITY_UNAVAILABLE, "Not attempting to show dialog", null));
       return;
@@ -150,6 +172,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> createAlternativeBillingOnlyReportingDetailsAsync(result))) {
+      return;
+    }
     try {
       billingClient.createAlternativeBillingOnlyReportingDetailsAsync(
           ((billingResult, alternativeBillingOnlyReportingDetails) ->
@@ -168,6 +194,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> isAlternativeBillingOnlyAvailableAsync(result))) {
+      return;
+    }
     try {
       billingClient.isAlternativeBillingOnlyAvailableAsync(
           billingResult -> result.success(fromBillingResult(billingResult)));
@@ -183,6 +213,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> getBillingConfigAsync(result))) {
+      return;
+    }
     try {
       billingClient.getBillingConfigAsync(
           GetBillingConfigParams.newBuilder().build(),
@@ -203,6 +237,9 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       billingClient.endConnection();
       billingClient = null;
     }
+    pendingConnection = null;
+    billingClientReconnector.stop(getNullBillingClientError());
+    productDetailsCache.clear();
   }
 
   @Override
@@ -222,14 +259,16 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> queryProductDetailsAsync(products, result))) {
+      return;
+    }
 
     try {
-      QueryProductDetailsParams params =
-          QueryProductDetailsParams.newBuilder().setProductList(toProductList(products)).build();
-      billingClient.queryProductDetailsAsync(
-          params,
+      productDetailsCache.queryProductDetails(
+          billingClient,
+          products,
           (billingResult, productDetailsList) -> {
-            updateCachedProducts(productDetailsList);
             final PlatformProductDetailsResponse.Builder responseBuilder =
                 new PlatformProductDetailsResponse.Builder()
                     .setBillingResult(fromBillingResult(billingResult))
@@ -241,6 +280,11 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
     }
   }
 
+  @Override
+  public void setProductDetailsCacheDuration(@NonNull Long durationMillis) {
+    productDetailsCache.setCacheDurationMillis(durationMillis);
+  }
+
   @Override
   public @NonNull PlatformBillingResult launchBillingFlow(
       @NonNull PlatformBillingFlowParams params) {
@@ -249,7 +293,7 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
     }
 
     com.android.billingclient.api.ProductDetails productDetails =
-        cachedProducts.get(params.getProduct());
+        productDetailsCache.getProductDetails(params.getProduct());
     if (productDetails == null) {
       throw new FlutterError(
           "NOT_FOUND",
@@ -293,7 +337,7 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
           "launchBillingFlow failed because oldProduct is null. You must provide a valid oldProduct in order to use a replacement mode.",
           null);
     } else if (params.getOldProduct() != null
-        && !cachedProducts.containsKey(params.getOldProduct())) {
+        && productDetailsCache.getProductDetails(params.getOldProduct()) == null) {
       throw new FlutterError(
           "IN_APP_PURCHASE_INVALID_OLD_PRODUCT",
           "Details for product "
@@ -353,6 +397,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> consumeAsync(purchaseToken, result))) {
+      return;
+    }
 
     try {
       ConsumeResponseListener listener =
@@ -375,6 +423,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> queryPurchasesAsync(productType, result))) {
+      return;
+    }
 
     try {
       // Like in our connect call, consider the billing client responding a "success" here
@@ -405,6 +457,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> queryPurchaseHistoryAsync(productType, result))) {
+      return;
+    }
 
     try {
       billingClient.queryPurchaseHistoryAsync(
@@ -433,44 +489,45 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       billingClient =
           billingClientFactory.createBillingClient(
               applicationContext, callbackApi, billingMode, pendingPurchasesParams);
+      productDetailsCache.clear();
     }
 
-    try {
-      billingClient.startConnection(
-          new BillingClientStateListener() {
-            private boolean alreadyFinished = false;
+    if (billingClientReconnector.isReconnecting()) {
+      if (pendingConnection != null) {
+        // Reports the result of the attempt to restore the connection that is already running.
+        pendingConnection.results.add(result);
+        return;
+      }
+      billingClientReconnector.cancelScheduledReconnect();
+    }
+    connect(billingClient, handle, result);
+  }
 
-            @Override
-            public void onBillingSetupFinished(@NonNull BillingResult billingResult) {
-              if (alreadyFinished) {
-                Log.d(TAG, "Tried to call onBillingSetupFinished multiple times.");
-                return;
-              }
-              alreadyFinished = true;
-              // Consider the fact that we've finished a success, leave it to the Dart side to
-              // validate the responseCode.
-              result.success(fromBillingResult(billingResult));
-            }
+  private void reconnect(@NonNull BillingClient client, long handle) {
+    if (billingClient == client && pendingConnection == null) {
+      connect(client, handle, null);
+    }
+  }
 
-            @Override
-            public void onBillingServiceDisconnected() {
-              callbackApi.onBillingServiceDisconnected(
-                  handle,
-                  new Messages.VoidResult() {
-                    @Override
-                    public void success() {}
-
-                    @Override
-                    public void error(@NonNull Throwable error) {
-                      io.flutter.Log.e(
-                          "IN_APP_PURCHASE",
-                          "onBillingServiceDisconnected handler error: " + error);
-                    }
-                  });
-            }
-          });
+  private void connect(
+      @NonNull BillingClient client, long handle, @Nullable Result<PlatformBillingResult> result) {
+    final ConnectionListener listener = new ConnectionListener(client, handle);
+    if (result != null) {
+      listener.results.add(result);
+    }
+    pendingConnection = listener;
+    try {
+      client.startConnection(listener);
     } catch (RuntimeException e) {
-      result.error(new FlutterError("error", e.getMessage(), Log.getStackTraceString(e)));
+      if (pendingConnection == listener) {
+        pendingConnection = null;
+      }
+      if (billingClientReconnector.isReconnecting()) {
+        billingClientReconnector.scheduleReconnect(() -> reconnect(client, handle));
+      }
+      for (Result<PlatformBillingResult> waitingResult : listener.results) {
+        waitingResult.error(new FlutterError("error", e.getMessage(), Log.getStackTraceString(e)));
+      }
     }
   }
 
@@ -481,6 +538,10 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
       result.error(getNullBillingClientError());
       return;
     }
+    if (billingClientReconnector.enqueueIfReconnecting(
+        result, () -> acknowledgePurchase(purchaseToken, result))) {
+      return;
+    }
     try {
       AcknowledgePurchaseParams params =
           AcknowledgePurchaseParams.newBuilder().setPurchaseToken(purchaseToken).build();
@@ -491,16 +552,6 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
     }
   }
 
-  protected void updateCachedProducts(@Nullable List<ProductDetails> productDetailsList) {
-    if (productDetailsList == null) {
-      return;
-    }
-
-    for (ProductDetails productDetails : productDetailsList) {
-      cachedProducts.put(productDetails.getProductId(), productDetails);
-    }
-  }
-
   private @NonNull FlutterError getNullBillingClientError() {
     return new FlutterError("UNAVAILABLE", "BillingClient is unset. Try reconnecting.", null);
   }
@@ -513,4 +564,78 @@ class MethodCallHandlerImpl implements Application.ActivityLifecycleCallbacks, I
     BillingResult billingResult = billingClient.isFeatureSupported(toBillingClientFeature(feature));
     return billingResult.getResponseCode() == BillingClient.BillingResponseCode.OK;
   }
+
+  /**
+   * Reports the result of a connection attempt to the calls waiting for it, and restores the
+   * connection when it is lost.
+   */
+  private class ConnectionListener implements BillingClientStateListener {
+    private final BillingClient client;
+    private final long handle;
+    final List<Result<PlatformBillingResult>> results = new ArrayList<>();
+    private boolean alreadyFinished = false;
+
+    ConnectionListener(@NonNull BillingClient client, long handle) {
+      this.client = client;
+      this.handle = handle;
+    }
+
+    @Override
+    public void onBillingSetupFinished(@NonNull BillingResult billingResult) {
+      if (alreadyFinished) {
+        Log.d(TAG, "Tried to call onBillingSetupFinished multiple times.");
+        return;
+      }
+      alreadyFinished = true;
+      if (pendingConnection == this) {
+        pendingConnection = null;
+      }
+      // Consider the fact that we've finished a success, leave it to the Dart side to
+      // validate the responseCode.
+      for (Result<PlatformBillingResult> result : results) {
+        result.success(fromBillingResult(billingResult));
+      }
+
+      if (billingClient != client) {
+        return;
+      }
+      if (billingResult.getResponseCode() == BillingClient.BillingResponseCode.OK) {
+        billingClientReconnector.onConnected();
+      } else if (billingClientReconnector.isReconnecting()) {
+        if (BillingClientReconnector.isRetryable(billingResult.getResponseCode())) {
+          billingClientReconnector.scheduleReconnect(() -> reconnect(client, handle));
+        } else {
+          billingClientReconnector.stop(
+              new FlutterError(
+                  BillingClientReconnector.RECONNECT_FAILED,
+                  "The billing service cannot be reconnected: " + billingResult.getDebugMessage(),
+                  billingResult.getResponseCode()));
+        }
+      }
+    }
+
+    @Override
+    public void onBillingServiceDisconnected() {
+      callbackApi.onBillingServiceDisconnected(
+          handle,
+          new Messages.VoidResult() {
+            @Override
+            public void success() {}
+
+            @Override
+            public void error(@NonNull Throwable error) {
+              io.flutter.Log.e(
+                  "IN_APP_PURCHASE", "onBillingServiceDisconnected handler error: " + error);
+            }
+          });
+
+      // Connections that were ended are not restored.
+      if (billingClient == client) {
+        if (pendingConnection == this) {
+          pendingConnection = null;
+        }
+        billingClientReconnector.scheduleReconnect(() -> reconnect(client, handle));
+      }
+    }
+  }
 }
@@ -0,0 +1,379 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.inapppurchase;
+
+import static io.flutter.plugins.inapppurchase.Translator.toProductList;
+import static io.flutter.plugins.inapppurchase.Translator.toProductTypeString;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.android.billingclient.api.BillingClient;
+import com.android.billingclient.api.BillingClient.BillingResponseCode;
+import com.android.billingclient.api.BillingResult;
+import com.android.billingclient.api.ProductDetails;
+import com.android.billingclient.api.ProductDetailsResponseListener;
+import com.android.billingclient.api.QueryProductDetailsParams;
+import io.flutter.plugins.inapppurchase.Messages.PlatformQueryProduct;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Caches the {@link ProductDetails} returned by {@link BillingClient#queryProductDetailsAsync}.
+ *
+ * <p>The cache duration is 0 unless it is set, and then each call queries all of its products from
+ * Google Play with a single query, as if there were no cache. Once a cache duration is set:
+ *
+ * <ul>
+ *   <li>Products whose details were fetched less than the cache duration ago are returned without
+ *       querying Google Play.
+ *   <li>Products that are already being queried for an earlier call are not queried again; the call
+ *       waits for the earlier query instead.
+ *   <li>The remaining products are queried in chunks of at most the maximum number of products per
+ *       query, which run in parallel. The call gets the details from all of them, and the first
+ *       result that is not {@link BillingResponseCode#OK}.
+ * </ul>
+ *
+ * <p>Details are kept after they expire, so that the billing flow can be launched for any product
+ * that has been fetched.
+ */
+class ProductDetailsCache {
+  static final long DEFAULT_CACHE_DURATION_MILLIS = 0;
+  // Queries for more products than this are split into chunks that are sent in parallel.
+  static final int DEFAULT_MAX_PRODUCTS_PER_QUERY = 20;
+
+  private long cacheDurationMillis;
+  private final int maxProductsPerQuery;
+
+  private final HashMap<String, Entry> entries = new HashMap<>();
+  private final HashMap<String, BillingQuery> pendingQueries = new HashMap<>();
+
+  // Incremented by clear, so that queries started before it do not add their results.
+  private long generation;
+
+  private long hitCount;
+  private long missCount;
+  private long coalescedCount;
+  private long queryCount;
+
+  ProductDetailsCache() {
+    this(DEFAULT_CACHE_DURATION_MILLIS, DEFAULT_MAX_PRODUCTS_PER_QUERY);
+  }
+
+  /**
+   * Creates a cache.
+   *
+   * @param cacheDurationMillis How long fetched details are returned without querying Google Play.
+   *     Details are always queried, without sharing or splitting queries, if this is 0.
+   * @param maxProductsPerQuery The maximum number of products to query with one call to {@link
+   *     BillingClient#queryProductDetailsAsync} once a cache duration is set.
+   */
+  ProductDetailsCache(long cacheDurationMillis, int maxProductsPerQuery) {
+    if (maxProductsPerQuery < 1) {
+      throw new IllegalArgumentException("maxProductsPerQuery must be at least 1.");
+    }
+    this.cacheDurationMillis = cacheDurationMillis;
+    this.maxProductsPerQuery = maxProductsPerQuery;
+  }
+
+  /**
+   * Gets the details of the given products, and passes them to {@code listener} once all of them
+   * are available.
+   *
+   * <p>If every product is cached, {@code listener} is called before this method returns with a
+   * {@link BillingResponseCode#OK} result. Otherwise, it is called with the first result from
+   * Google Play that is not {@link BillingResponseCode#OK}, or the first result if all of them are.
+   *
+   * @throws RuntimeException if {@code billingClient} throws when it is queried.
+   */
+  void queryProductDetails(
+      @NonNull BillingClient billingClient,
+      @NonNull List<PlatformQueryProduct> products,
+      @NonNull ProductDetailsResponseListener listener) {
+    final Request request = new Request(listener);
+    final List<BillingQuery> billingQueries = new ArrayList<>();
+    final boolean isCached;
+    synchronized (this) {
+      final long now = elapsedRealtime();
+      final boolean isCacheEnabled = cacheDurationMillis > 0;
+      final List<PlatformQueryProduct> productsToQuery = new ArrayList<>();
+      for (PlatformQueryProduct product : products) {
+        final String productType = toProductTypeString(product.getProductType());
+        final Entry entry = entries.get(product.getProductId());
+        if (entry != null && entry.isFresh(productType, now)) {
+          hitCount++;
+          request.cachedDetails.add(entry.productDetails);
+          continue;
+        }
+
+        final BillingQuery pendingQuery =
+            pendingQueries.get(getPendingQueryKey(product.getProductId(), productType));
+        if (isCacheEnabled && pendingQuery != null && pendingQuery.billingClient == billingClient) {
+          coalescedCount++;
+          request.sharedProductIds.add(product.getProductId());
+          if (!pendingQuery.requests.contains(request)) {
+            pendingQuery.requests.add(request);
+            request.remainingQueries++;
+          }
+          continue;
+        }
+
+        missCount++;
+        productsToQuery.add(product);
+      }
+
+      final int chunkSize = isCacheEnabled ? maxProductsPerQuery : productsToQuery.size();
+      for (int start = 0; start < productsToQuery.size(); start += chunkSize) {
+        final BillingQuery billingQuery =
+            new BillingQuery(
+                billingClient,
+                productsToQuery.subList(start, Math.min(start + chunkSize, productsToQuery.size())),
+                request,
+                generation);
+        for (String key : billingQuery.pendingQueryKeys) {
+          pendingQueries.put(key, billingQuery);
+        }
+        billingQueries.add(billingQuery);
+      }
+      queryCount += billingQueries.size();
+      isCached = request.remainingQueries == 0;
+    }
+
+    if (isCached) {
+      request.complete();
+      return;
+    }
+
+    for (int i = 0; i < billingQueries.size(); i++) {
+      final BillingQuery billingQuery = billingQueries.get(i);
+      try {
+        billingClient.queryProductDetailsAsync(
+            QueryProductDetailsParams.newBuilder().setProductList(billingQuery.products).build(),
+            (billingResult, productDetailsList) ->
+                onQueryFinished(billingQuery, billingResult, productDetailsList));
+      } catch (RuntimeException e) {
+        // The caller reports the exception, so only other calls waiting for the queries that were
+        // not started are completed.
+        request.failed = true;
+        final BillingResult errorResult =
+            BillingResult.newBuilder()
+                .setResponseCode(BillingResponseCode.ERROR)
+                .setDebugMessage(e.getMessage() != null ? e.getMessage() : "")
+                .build();
+        for (int j = i; j < billingQueries.size(); j++) {
+          onQueryFinished(billingQueries.get(j), errorResult, null);
+        }
+        throw e;
+      }
+    }
+  }
+
+  /** Returns the details of a product that has been fetched, even if they have expired. */
+  @Nullable
+  synchronized ProductDetails getProductDetails(@NonNull String productId) {
+    final Entry entry = entries.get(productId);
+    return entry != null ? entry.productDetails : null;
+  }
+
+  /** Adds fetched product details to the cache. */
+  synchronized void put(@Nullable List<ProductDetails> productDetailsList) {
+    if (productDetailsList == null) {
+      return;
+    }
+
+    final long now = elapsedRealtime();
+    for (ProductDetails productDetails : productDetailsList) {
+      entries.put(productDetails.getProductId(), new Entry(productDetails, now));
+    }
+  }
+
+  /**
+   * Sets how long fetched details are returned without querying Google Play. Details are always
+   * queried, without sharing or splitting queries, if this is 0.
+   */
+  synchronized void setCacheDurationMillis(long cacheDurationMillis) {
+    if (cacheDurationMillis < 0) {
+      throw new IllegalArgumentException("cacheDurationMillis must not be negative.");
+    }
+    this.cacheDurationMillis = cacheDurationMillis;
+  }
+
+  /**
+   * Removes all fetched details, and stops sharing the queries that are in progress with later
+   * calls. The calls waiting for those queries still get their results, but the results are not
+   * cached.
+   */
+  synchronized void clear() {
+    entries.clear();
+    pendingQueries.clear();
+    generation++;
+  }
+
+  /** The number of requested products that were returned from the cache. */
+  synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /** The number of requested products that were queried from Google Play. */
+  synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /** The number of requested products that waited for a query made for an earlier call. */
+  synchronized long getCoalescedCount() {
+    return coalescedCount;
+  }
+
+  /** The number of calls made to {@link BillingClient#queryProductDetailsAsync}. */
+  synchronized long getQueryCount() {
+    return queryCount;
+  }
+
+  /**
+   * The fraction of requested products that were returned without a new query to Google Play,
+   * either from the cache or by waiting for an earlier query.
+   */
+  synchronized double getHitRate() {
+    final long requestedCount = hitCount + coalescedCount + missCount;
+    return requestedCount == 0 ? 0 : (double) (hitCount + coalescedCount) / requestedCount;
+  }
+
+  @VisibleForTesting
+  long elapsedRealtime() {
+    return SystemClock.elapsedRealtime();
+  }
+
+  private void onQueryFinished(
+      @NonNull BillingQuery billingQuery,
+      @NonNull BillingResult billingResult,
+      @Nullable List<ProductDetails> productDetailsList) {
+    final List<Request> completedRequests = new ArrayList<>();
+    synchronized (this) {
+      if (billingQuery.generation == generation) {
+        put(productDetailsList);
+      }
+      for (String key : billingQuery.pendingQueryKeys) {
+        if (pendingQueries.get(key) == billingQuery) {
+          pendingQueries.remove(key);
+        }
+      }
+      for (Request request : billingQuery.requests) {
+        request.addResult(billingQuery, billingResult, productDetailsList);
+        if (--request.remainingQueries == 0) {
+          completedRequests.add(request);
+        }
+      }
+    }
+
+    for (Request request : completedRequests) {
+      request.complete();
+    }
+  }
+
+  private static String getPendingQueryKey(String productId, String productType) {
+    return productType + ":" + productId;
+  }
+
+  private class Entry {
+    final ProductDetails productDetails;
+    final long fetchedAtMillis;
+
+    Entry(ProductDetails productDetails, long fetchedAtMillis) {
+      this.productDetails = productDetails;
+      this.fetchedAtMillis = fetchedAtMillis;
+    }
+
+    boolean isFresh(String productType, long now) {
+      return productType.equals(productDetails.getProductType())
+          && now - fetchedAtMillis < cacheDurationMillis;
+    }
+  }
+
+  /** A call to {@link BillingClient#queryProductDetailsAsync} and the requests waiting for it. */
+  private static class BillingQuery {
+    final BillingClient billingClient;
+    final List<QueryProductDetailsParams.Product> products;
+    final List<String> pendingQueryKeys = new ArrayList<>();
+    final Request issuer;
+    final long generation;
+    final List<Request> requests = new ArrayList<>();
+
+    BillingQuery(
+        BillingClient billingClient,
+        List<PlatformQueryProduct> products,
+        Request issuer,
+        long generation) {
+      this.billingClient = billingClient;
+      this.products = toProductList(products);
+      for (PlatformQueryProduct product : products) {
+        pendingQueryKeys.add(
+            getPendingQueryKey(
+                product.getProductId(), toProductTypeString(product.getProductType())));
+      }
+      this.issuer = issuer;
+      this.generation = generation;
+      requests.add(issuer);
+      issuer.remainingQueries++;
+    }
+  }
+
+  /** A call to {@link #queryProductDetails} that is waiting for its products. */
+  private static class Request {
+    final ProductDetailsResponseListener listener;
+    final List<ProductDetails> cachedDetails = new ArrayList<>();
+    final Set<String> sharedProductIds = new HashSet<>();
+    final List<ProductDetails> fetchedDetails = new ArrayList<>();
+    @Nullable BillingResult billingResult;
+    int remainingQueries;
+    boolean failed;
+
+    Request(ProductDetailsResponseListener listener) {
+      this.listener = listener;
+    }
+
+    void addResult(
+        BillingQuery billingQuery,
+        BillingResult billingResult,
+        @Nullable List<ProductDetails> productDetailsList) {
+      if (this.billingResult == null
+          || (this.billingResult.getResponseCode() == BillingResponseCode.OK
+              && billingResult.getResponseCode() != BillingResponseCode.OK)) {
+        this.billingResult = billingResult;
+      }
+      if (productDetailsList == null) {
+        return;
+      }
+
+      if (billingQuery.issuer == this) {
+        fetchedDetails.addAll(productDetailsList);
+      } else {
+        // A query made for another call may include products this call did not request.
+        for (ProductDetails productDetails : productDetailsList) {
+          if (sharedProductIds.contains(productDetails.getProductId())) {
+            fetchedDetails.add(productDetails);
+          }
+        }
+      }
+    }
+
+    void complete() {
+      if (failed) {
+        return;
+      }
+
+      final List<ProductDetails> productDetailsList = new ArrayList<>(cachedDetails);
+      productDetailsList.addAll(fetchedDetails);
+      listener.onProductDetailsResponse(
+          billingResult != null
+              ? billingResult
+              : BillingResult.newBuilder().setResponseCode(BillingResponseCode.OK).build(),
+          productDetailsList);
+    }
+  }
+}
@@ -0,0 +1,318 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.inapppurchase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+import android.os.Handler;
+import com.android.billingclient.api.BillingClient;
+import com.android.billingclient.api.BillingClient.BillingResponseCode;
+import com.android.billingclient.api.BillingClientStateListener;
+import com.android.billingclient.api.BillingResult;
+import com.android.billingclient.api.ConsumeParams;
+import com.android.billingclient.api.ConsumeResponseListener;
+import io.flutter.plugins.inapppurchase.Messages.FlutterError;
+import io.flutter.plugins.inapppurchase.Messages.InAppPurchaseCallbackApi;
+import io.flutter.plugins.inapppurchase.Messages.PlatformBillingChoiceMode;
+import io.flutter.plugins.inapppurchase.Messages.PlatformBillingResponse;
+import io.flutter.plugins.inapppurchase.Messages.PlatformBillingResult;
+import io.flutter.plugins.inapppurchase.Messages.PlatformPendingPurchasesParams;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class BillingClientReconnectorTest {
+  private static final long INITIAL_RECONNECT_DELAY_MILLIS = 1000;
+  private static final long MAX_RECONNECT_DELAY_MILLIS = 4000;
+  private static final long QUEUED_CALL_TIMEOUT_MILLIS = 30000;
+  private static final int MAX_RECONNECT_ATTEMPTS = 5;
+  private static final long HANDLE = 1L;
+
+  private final BillingClient fakeBillingClient = mock(BillingClient.class);
+  private final List<BillingClientStateListener> connectionListeners = new ArrayList<>();
+  private final List<PostedRunnable> postedRunnables = new ArrayList<>();
+  private long now = 0;
+  private BillingClientReconnector billingClientReconnector;
+  private MethodCallHandlerImpl methodCallHandler;
+
+  @Before
+  public void setUp() {
+    doAnswer(
+            invocation -> {
+              connectionListeners.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(fakeBillingClient)
+        .startConnection(any());
+
+    final Handler fakeHandler = mock(Handler.class);
+    when(fakeHandler.postDelayed(any(), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              postedRunnables.add(
+                  new PostedRunnable(invocation.getArgument(0), invocation.getArgument(1)));
+              return true;
+            });
+    doAnswer(
+            invocation -> {
+              postedRunnables.removeIf(posted -> posted.runnable == invocation.getArgument(0));
+              return null;
+            })
+        .when(fakeHandler)
+        .removeCallbacks(any());
+    billingClientReconnector =
+        new BillingClientReconnector(
+            fakeHandler,
+            INITIAL_RECONNECT_DELAY_MILLIS,
+            MAX_RECONNECT_DELAY_MILLIS,
+            QUEUED_CALL_TIMEOUT_MILLIS,
+            MAX_RECONNECT_ATTEMPTS) {
+          @Override
+          long elapsedRealtime() {
+            return now;
+          }
+        };
+
+    final BillingClientFactory fakeBillingClientFactory =
+        (context, callbackApi, billingChoiceMode, pendingPurchasesParams) -> fakeBillingClient;
+    methodCallHandler =
+        new MethodCallHandlerImpl(
+            null,
+            mock(Context.class),
+            mock(InAppPurchaseCallbackApi.class),
+            fakeBillingClientFactory,
+            new ProductDetailsCache(),
+            billingClientReconnector);
+  }
+
+  @Test
+  public void reconnectsWithExponentialBackoff() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    assertTrue(billingClientReconnector.isReconnecting());
+
+    for (int attempt = 1; attempt <= 4; attempt++) {
+      final long expectedDelay =
+          Math.min(INITIAL_RECONNECT_DELAY_MILLIS << (attempt - 1), MAX_RECONNECT_DELAY_MILLIS);
+      now += expectedDelay;
+      runPosted(expectedDelay);
+      assertEquals(attempt + 1, connectionListeners.size());
+      connectionListeners
+          .get(attempt)
+          .onBillingSetupFinished(buildBillingResult(BillingResponseCode.SERVICE_UNAVAILABLE));
+    }
+    now += MAX_RECONNECT_DELAY_MILLIS;
+    runPosted(MAX_RECONNECT_DELAY_MILLIS);
+    connectionListeners.get(5).onBillingSetupFinished(buildBillingResult(BillingResponseCode.OK));
+
+    assertFalse(billingClientReconnector.isReconnecting());
+    assertTrue(postedRunnables.isEmpty());
+    assertEquals(1, billingClientReconnector.getReconnectCount());
+    assertEquals(5, billingClientReconnector.getReconnectAttemptCount());
+    assertEquals(15000, billingClientReconnector.getLastReconnectLatencyMillis());
+    assertEquals(15000, billingClientReconnector.getAverageReconnectLatencyMillis());
+  }
+
+  @Test
+  public void replaysQueuedCallsAfterReconnecting() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    final TestResult<PlatformBillingResult> result = new TestResult<>();
+    methodCallHandler.consumeAsync("token", result);
+    verify(fakeBillingClient, never()).consumeAsync(any(), any());
+
+    runPosted(INITIAL_RECONNECT_DELAY_MILLIS);
+    connectionListeners.get(1).onBillingSetupFinished(buildBillingResult(BillingResponseCode.OK));
+
+    final ArgumentCaptor<ConsumeResponseListener> listenerCaptor =
+        ArgumentCaptor.forClass(ConsumeResponseListener.class);
+    verify(fakeBillingClient).consumeAsync(any(ConsumeParams.class), listenerCaptor.capture());
+    listenerCaptor
+        .getValue()
+        .onConsumeResponse(buildBillingResult(BillingResponseCode.OK), "token");
+    assertEquals(PlatformBillingResponse.OK, result.response.getResponseCode());
+    // The queued call no longer times out.
+    assertTrue(postedRunnables.isEmpty());
+  }
+
+  @Test
+  public void queuedCallsTimeOut() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    final TestResult<PlatformBillingResult> result = new TestResult<>();
+    methodCallHandler.consumeAsync("token", result);
+
+    runPosted(QUEUED_CALL_TIMEOUT_MILLIS);
+    assertEquals(BillingClientReconnector.RECONNECT_TIMEOUT, ((FlutterError) result.error).code);
+
+    runPosted(INITIAL_RECONNECT_DELAY_MILLIS);
+    connectionListeners.get(1).onBillingSetupFinished(buildBillingResult(BillingResponseCode.OK));
+    verify(fakeBillingClient, never()).consumeAsync(any(), any());
+  }
+
+  @Test
+  public void stopsReconnectingAfterMaxAttempts() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    final TestResult<PlatformBillingResult> result = new TestResult<>();
+    methodCallHandler.consumeAsync("token", result);
+
+    for (int attempt = 1; attempt <= MAX_RECONNECT_ATTEMPTS; attempt++) {
+      runPosted(
+          Math.min(INITIAL_RECONNECT_DELAY_MILLIS << (attempt - 1), MAX_RECONNECT_DELAY_MILLIS));
+      connectionListeners
+          .get(attempt)
+          .onBillingSetupFinished(buildBillingResult(BillingResponseCode.SERVICE_UNAVAILABLE));
+    }
+
+    assertFalse(billingClientReconnector.isReconnecting());
+    assertTrue(postedRunnables.isEmpty());
+    assertEquals(MAX_RECONNECT_ATTEMPTS, billingClientReconnector.getReconnectAttemptCount());
+    assertEquals(BillingClientReconnector.RECONNECT_FAILED, ((FlutterError) result.error).code);
+    verify(fakeBillingClient, never()).consumeAsync(any(), any());
+  }
+
+  @Test
+  public void doesNotRetryWhenBillingIsUnavailable() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    final TestResult<PlatformBillingResult> result = new TestResult<>();
+    methodCallHandler.consumeAsync("token", result);
+
+    runPosted(INITIAL_RECONNECT_DELAY_MILLIS);
+    connectionListeners
+        .get(1)
+        .onBillingSetupFinished(buildBillingResult(BillingResponseCode.BILLING_UNAVAILABLE));
+
+    assertFalse(billingClientReconnector.isReconnecting());
+    assertTrue(postedRunnables.isEmpty());
+    assertEquals(BillingClientReconnector.RECONNECT_FAILED, ((FlutterError) result.error).code);
+  }
+
+  @Test
+  public void isRetryableRejectsErrorsThatRetryingCannotFix() {
+    assertFalse(BillingClientReconnector.isRetryable(BillingResponseCode.BILLING_UNAVAILABLE));
+    assertFalse(BillingClientReconnector.isRetryable(BillingResponseCode.DEVELOPER_ERROR));
+    assertFalse(BillingClientReconnector.isRetryable(BillingResponseCode.FEATURE_NOT_SUPPORTED));
+    assertTrue(BillingClientReconnector.isRetryable(BillingResponseCode.SERVICE_UNAVAILABLE));
+    assertTrue(BillingClientReconnector.isRetryable(BillingResponseCode.ERROR));
+  }
+
+  @Test
+  public void endConnectionStopsReconnectingAndFailsQueuedCalls() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    final TestResult<PlatformBillingResult> result = new TestResult<>();
+    methodCallHandler.consumeAsync("token", result);
+
+    methodCallHandler.endConnection();
+
+    assertEquals("UNAVAILABLE", ((FlutterError) result.error).code);
+    assertFalse(billingClientReconnector.isReconnecting());
+    assertTrue(postedRunnables.isEmpty());
+  }
+
+  @Test
+  public void startConnectionWaitsForRunningReconnectionAttempt() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+    runPosted(INITIAL_RECONNECT_DELAY_MILLIS);
+
+    final TestResult<PlatformBillingResult> result = startConnection();
+    verify(fakeBillingClient, times(2)).startConnection(any());
+    assertNull(result.response);
+
+    connectionListeners.get(1).onBillingSetupFinished(buildBillingResult(BillingResponseCode.OK));
+    assertEquals(PlatformBillingResponse.OK, result.response.getResponseCode());
+    assertEquals(1, billingClientReconnector.getReconnectCount());
+  }
+
+  @Test
+  public void startConnectionReplacesScheduledReconnectionAttempt() {
+    connect();
+    connectionListeners.get(0).onBillingServiceDisconnected();
+
+    final TestResult<PlatformBillingResult> result = startConnection();
+    assertTrue(postedRunnables.isEmpty());
+    connectionListeners.get(1).onBillingSetupFinished(buildBillingResult(BillingResponseCode.OK));
+
+    assertEquals(PlatformBillingResponse.OK, result.response.getResponseCode());
+    assertEquals(1, billingClientReconnector.getReconnectCount());
+    assertEquals(0, billingClientReconnector.getReconnectAttemptCount());
+  }
+
+  private void connect() {
+    final TestResult<PlatformBillingResult> result = startConnection();
+    connectionListeners.get(0).onBillingSetupFinished(buildBillingResult(BillingResponseCode.OK));
+    assertEquals(PlatformBillingResponse.OK, result.response.getResponseCode());
+  }
+
+  private TestResult<PlatformBillingResult> startConnection() {
+    final TestResult<PlatformBillingResult> result = new TestResult<>();
+    methodCallHandler.startConnection(
+        HANDLE,
+        PlatformBillingChoiceMode.PLAY_BILLING_ONLY,
+        new PlatformPendingPurchasesParams.Builder().setEnablePrepaidPlans(false).build(),
+        result);
+    return result;
+  }
+
+  private void runPosted(long delayMillis) {
+    for (PostedRunnable posted : postedRunnables) {
+      if (posted.delayMillis == delayMillis) {
+        postedRunnables.remove(posted);
+        posted.runnable.run();
+        return;
+      }
+    }
+    throw new AssertionError("Nothing was posted with a delay of " + delayMillis + " ms.");
+  }
+
+  private static BillingResult buildBillingResult(int responseCode) {
+    return BillingResult.newBuilder()
+        .setResponseCode(responseCode)
+        .setDebugMessage("dummy debug message")
+        .build();
+  }
+
+  private static class PostedRunnable {
+    final Runnable runnable;
+    final long delayMillis;
+
+    PostedRunnable(Runnable runnable, long delayMillis) {
+      this.runnable = runnable;
+      this.delayMillis = delayMillis;
+    }
+  }
+
+  private static class TestResult<T> implements Messages.Result<T> {
+    T response;
+    Throwable error;
+
+    @Override
+    public void success(T result) {
+      response = result;
+    }
+
+    @Override
+    public void error(Throwable error) {
+      this.error = error;
+    }
+  }
+}
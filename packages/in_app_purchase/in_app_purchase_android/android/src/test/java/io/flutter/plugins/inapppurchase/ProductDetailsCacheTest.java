@@ -0,0 +1,376 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.inapppurchase;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import android.content.Context;
+import com.android.billingclient.api.BillingClient;
+import com.android.billingclient.api.BillingClient.BillingResponseCode;
+import com.android.billingclient.api.BillingResult;
+import com.android.billingclient.api.ProductDetails;
+import com.android.billingclient.api.ProductDetailsResponseListener;
+import io.flutter.plugins.inapppurchase.Messages.InAppPurchaseCallbackApi;
+import io.flutter.plugins.inapppurchase.Messages.PlatformBillingChoiceMode;
+import io.flutter.plugins.inapppurchase.Messages.PlatformBillingResponse;
+import io.flutter.plugins.inapppurchase.Messages.PlatformBillingResult;
+import io.flutter.plugins.inapppurchase.Messages.PlatformProductDetails;
+import io.flutter.plugins.inapppurchase.Messages.PlatformProductDetailsResponse;
+import io.flutter.plugins.inapppurchase.Messages.PlatformProductType;
+import io.flutter.plugins.inapppurchase.Messages.PlatformQueryProduct;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProductDetailsCacheTest {
+  private static final long CACHE_DURATION_MILLIS = 1000;
+
+  private final List<ProductDetailsResponseListener> pendingQueries = new ArrayList<>();
+  private final BillingClient fakeBillingClient = mock(BillingClient.class);
+  private long now = 0;
+  private ProductDetailsCache productDetailsCache;
+  private MethodCallHandlerImpl methodCallHandler;
+
+  @Before
+  public void setUp() {
+    doAnswer(
+            invocation -> {
+              pendingQueries.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(fakeBillingClient)
+        .queryProductDetailsAsync(any(), any());
+    productDetailsCache =
+        new ProductDetailsCache(CACHE_DURATION_MILLIS, 2) {
+          @Override
+          long elapsedRealtime() {
+            return now;
+          }
+        };
+    final BillingClientFactory fakeBillingClientFactory =
+        (context, callbackApi, billingChoiceMode, pendingPurchasesParams) -> fakeBillingClient;
+    methodCallHandler =
+        new MethodCallHandlerImpl(
+            null,
+            mock(Context.class),
+            mock(InAppPurchaseCallbackApi.class),
+            fakeBillingClientFactory,
+            productDetailsCache,
+            new BillingClientReconnector());
+    startConnection();
+  }
+
+  @Test
+  public void repeatedQueryIsServedFromCache() {
+    final TestResult<PlatformProductDetailsResponse> first = queryProductDetails("a", "b");
+    respond(0, "a", "b");
+    final TestResult<PlatformProductDetailsResponse> second = queryProductDetails("a", "b");
+
+    assertEquals(1, pendingQueries.size());
+    assertEquals(asList("a", "b"), first.getProductIds());
+    assertEquals(asList("a", "b"), second.getProductIds());
+    assertEquals(PlatformBillingResponse.OK, second.response.getBillingResult().getResponseCode());
+    assertEquals(2, productDetailsCache.getHitCount());
+    assertEquals(2, productDetailsCache.getMissCount());
+    assertEquals(0.5, productDetailsCache.getHitRate(), 0);
+  }
+
+  @Test
+  public void expiredProductsAreQueriedAgain() {
+    queryProductDetails("a");
+    respond(0, "a");
+    now = CACHE_DURATION_MILLIS / 2;
+    queryProductDetails("b");
+    respond(1, "b");
+    now = CACHE_DURATION_MILLIS;
+    final TestResult<PlatformProductDetailsResponse> result = queryProductDetails("a", "b");
+
+    // Only a has expired, since b was fetched later.
+    assertEquals(3, pendingQueries.size());
+    assertEquals(1, productDetailsCache.getHitCount());
+    respond(2, "a");
+    assertEquals(asList("b", "a"), result.getProductIds());
+  }
+
+  @Test
+  public void productsOfAnotherTypeAreNotServedFromCache() {
+    queryProductDetails("a");
+    respond(0, "a");
+    queryProductDetailsOfType(PlatformProductType.SUBS, "a");
+
+    assertEquals(2, pendingQueries.size());
+  }
+
+  @Test
+  public void overlappingQueriesShareBillingQueries() {
+    final TestResult<PlatformProductDetailsResponse> first = queryProductDetails("a", "b");
+    final TestResult<PlatformProductDetailsResponse> second = queryProductDetails("b", "c");
+
+    // Only c is queried for the second call.
+    assertEquals(2, pendingQueries.size());
+    assertEquals(1, productDetailsCache.getCoalescedCount());
+    respond(1, "c");
+    assertNull(second.response);
+    respond(0, "a", "b");
+
+    assertEquals(asList("a", "b"), first.getProductIds());
+    assertEquals(asList("c", "b"), second.getProductIds());
+    assertEquals(2, productDetailsCache.getQueryCount());
+  }
+
+  @Test
+  public void largeQueriesAreSplitIntoParallelQueries() {
+    final TestResult<PlatformProductDetailsResponse> result =
+        queryProductDetails("a", "b", "c", "d", "e");
+
+    assertEquals(3, pendingQueries.size());
+    respond(2, "e");
+    respond(0, "a", "b");
+    assertNull(result.response);
+    respond(1, "c", "d");
+
+    assertEquals(asList("e", "a", "b", "c", "d"), result.getProductIds());
+    assertEquals(3, productDetailsCache.getQueryCount());
+  }
+
+  @Test
+  public void splitQueryReportsFirstError() {
+    final TestResult<PlatformProductDetailsResponse> result = queryProductDetails("a", "b", "c");
+
+    respond(0, "a", "b");
+    pendingQueries
+        .get(1)
+        .onProductDetailsResponse(
+            buildBillingResult(BillingResponseCode.SERVICE_UNAVAILABLE), new ArrayList<>());
+
+    assertEquals(
+        PlatformBillingResponse.SERVICE_UNAVAILABLE,
+        result.response.getBillingResult().getResponseCode());
+    assertEquals(asList("a", "b"), result.getProductIds());
+  }
+
+  @Test
+  public void queryThatThrowsIsNotShared() {
+    doThrow(new IllegalStateException("disconnected"))
+        .when(fakeBillingClient)
+        .queryProductDetailsAsync(any(), any());
+    final List<PlatformQueryProduct> products =
+        singletonList(
+            new PlatformQueryProduct.Builder()
+                .setProductId("a")
+                .setProductType(PlatformProductType.INAPP)
+                .build());
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            productDetailsCache.queryProductDetails(
+                fakeBillingClient,
+                products,
+                (billingResult, productDetailsList) -> fail("Unexpected response.")));
+
+    doAnswer(
+            invocation -> {
+              pendingQueries.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(fakeBillingClient)
+        .queryProductDetailsAsync(any(), any());
+    final TestResult<PlatformProductDetailsResponse> result = queryProductDetails("a");
+    assertEquals(1, pendingQueries.size());
+    respond(0, "a");
+    assertEquals(asList("a"), result.getProductIds());
+  }
+
+  @Test
+  public void getProductDetailsReturnsExpiredProducts() {
+    queryProductDetails("a");
+    respond(0, "a");
+    now = CACHE_DURATION_MILLIS * 10;
+
+    assertNotNull(productDetailsCache.getProductDetails("a"));
+  }
+
+  @Test
+  public void productsAreNotCachedByDefault() {
+    useDefaultCache();
+    queryProductDetails("a");
+    respond(0, "a");
+    queryProductDetails("a");
+
+    assertEquals(2, pendingQueries.size());
+    assertEquals(0, productDetailsCache.getHitCount());
+  }
+
+  @Test
+  public void queriesAreNotSharedOrSplitByDefault() {
+    useDefaultCache();
+    final List<String> productIds = new ArrayList<>();
+    for (int i = 0; i <= ProductDetailsCache.DEFAULT_MAX_PRODUCTS_PER_QUERY; i++) {
+      productIds.add("product" + i);
+    }
+    queryProductDetails(productIds.toArray(new String[0]));
+    final TestResult<PlatformProductDetailsResponse> second = queryProductDetails("product0");
+
+    assertEquals(2, pendingQueries.size());
+    assertEquals(0, productDetailsCache.getCoalescedCount());
+    respond(1, "product0");
+    assertEquals(singletonList("product0"), second.getProductIds());
+  }
+
+  @Test
+  public void setProductDetailsCacheDurationChangesCacheDuration() {
+    methodCallHandler.setProductDetailsCacheDuration(0L);
+    queryProductDetails("a");
+    respond(0, "a");
+    queryProductDetails("a");
+
+    assertEquals(2, pendingQueries.size());
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> methodCallHandler.setProductDetailsCacheDuration(-1L));
+  }
+
+  @Test
+  public void endConnectionClearsCache() {
+    queryProductDetails("a");
+    respond(0, "a");
+    methodCallHandler.endConnection();
+
+    assertNull(productDetailsCache.getProductDetails("a"));
+    startConnection();
+    queryProductDetails("a");
+    assertEquals(2, pendingQueries.size());
+  }
+
+  @Test
+  public void queryFinishedAfterClearIsNotCached() {
+    final TestResult<PlatformProductDetailsResponse> first = queryProductDetails("a");
+    productDetailsCache.clear();
+    final TestResult<PlatformProductDetailsResponse> second = queryProductDetails("a");
+    respond(0, "a");
+
+    // The second call does not wait for the query made before the cache was cleared.
+    assertEquals(2, pendingQueries.size());
+    assertEquals(singletonList("a"), first.getProductIds());
+    assertNull(second.response);
+    assertNull(productDetailsCache.getProductDetails("a"));
+  }
+
+  private void useDefaultCache() {
+    productDetailsCache = new ProductDetailsCache();
+    methodCallHandler =
+        new MethodCallHandlerImpl(
+            null,
+            mock(Context.class),
+            mock(InAppPurchaseCallbackApi.class),
+            (context, callbackApi, billingChoiceMode, pendingPurchasesParams) -> fakeBillingClient,
+            productDetailsCache,
+            new BillingClientReconnector());
+    startConnection();
+  }
+
+  private TestResult<PlatformProductDetailsResponse> queryProductDetails(String... productIds) {
+    return queryProductDetailsOfType(PlatformProductType.INAPP, productIds);
+  }
+
+  private TestResult<PlatformProductDetailsResponse> queryProductDetailsOfType(
+      PlatformProductType productType, String... productIds) {
+    final List<PlatformQueryProduct> products = new ArrayList<>();
+    for (String productId : productIds) {
+      products.add(
+          new PlatformQueryProduct.Builder()
+              .setProductId(productId)
+              .setProductType(productType)
+              .build());
+    }
+    final TestResult<PlatformProductDetailsResponse> result = new TestResult<>();
+    methodCallHandler.queryProductDetailsAsync(products, result);
+    return result;
+  }
+
+  private void startConnection() {
+    methodCallHandler.startConnection(
+        1L,
+        PlatformBillingChoiceMode.PLAY_BILLING_ONLY,
+        new Messages.PlatformPendingPurchasesParams.Builder().setEnablePrepaidPlans(false).build(),
+        new TestResult<PlatformBillingResult>());
+  }
+
+  private void respond(int queryIndex, String... productIds) {
+    final List<ProductDetails> productDetailsList = new ArrayList<>();
+    for (String productId : productIds) {
+      productDetailsList.add(buildProductDetails(productId));
+    }
+    pendingQueries
+        .get(queryIndex)
+        .onProductDetailsResponse(buildBillingResult(BillingResponseCode.OK), productDetailsList);
+  }
+
+  private static BillingResult buildBillingResult(int responseCode) {
+    return BillingResult.newBuilder()
+        .setResponseCode(responseCode)
+        .setDebugMessage("dummy debug message")
+        .build();
+  }
+
+  private static ProductDetails buildProductDetails(String id) {
+    final String json =
+        String.format(
+            "{\"title\":\"Example title\",\"description\":\"Example description\",\"productId\":\"%s\",\"type\":\"inapp\",\"name\":\"Example name\",\"oneTimePurchaseOfferDetails\":{\"priceAmountMicros\":990000,\"priceCurrencyCode\":\"USD\",\"formattedPrice\":\"$0.99\"}}",
+            id);
+    try {
+      final Constructor<ProductDetails> productDetailsConstructor =
+          ProductDetails.class.getDeclaredConstructor(String.class);
+      productDetailsConstructor.setAccessible(true);
+      return productDetailsConstructor.newInstance(json);
+    } catch (ReflectiveOperationException e) {
+      fail("buildProductDetails failed with " + e);
+    }
+    return null;
+  }
+
+  private static class TestResult<T> implements Messages.Result<T> {
+    T response;
+    Throwable error;
+
+    @Override
+    public void success(T result) {
+      if (response != null || error != null) {
+        fail("Replied more than once.");
+      }
+      response = result;
+    }
+
+    @Override
+    public void error(Throwable error) {
+      if (response != null || this.error != null) {
+        fail("Replied more than once.");
+      }
+      this.error = error;
+    }
+
+    List<String> getProductIds() {
+      assertNotNull(response);
+      final List<String> productIds = new ArrayList<>();
+      for (PlatformProductDetails productDetails :
+          ((PlatformProductDetailsResponse) response).getProductDetails()) {
+        productIds.add(productDetails.getProductId());
+      }
+      return productIds;
+    }
+  }
+}
@@ -146,6 +146,15 @@ class BillingClient {
     );
   }
 
+  /// Sets how long the results of [queryProductDetails] are reused without
+  /// querying Google Play.
+  ///
+  /// Product details are not reused by default. The reused details are
+  /// discarded when the connection is ended or a new one is started.
+  Future<void> setProductDetailsCacheDuration(Duration duration) async {
+    return _hostApi.setProductDetailsCacheDuration(duration.inMilliseconds);
+  }
+
   /// Attempt to launch the Play Billing Flow for a given [productDetails].
   ///
   /// The [productDetails] needs to have already been fetched in a [queryProductDetails]
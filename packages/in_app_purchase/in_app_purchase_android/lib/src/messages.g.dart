@@ -1748,6 +1748,35 @@ class InAppPurchaseApi {
     }
   }
 
+  /// Sets how long the product details returned by queryProductDetailsAsync
+  /// are reused without querying Google Play. They are not reused if this is 0.
+  Future<void> setProductDetailsCacheDuration(int durationMillis) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.in_app_purchase_android.InAppPurchaseApi.setProductDetailsCacheDuration$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[durationMillis],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   /// Wraps BillingClient#isFeatureSupported(String).
   Future<bool> isFeatureSupported(PlatformBillingClientFeature feature) async {
     final String pigeonVar_channelName =
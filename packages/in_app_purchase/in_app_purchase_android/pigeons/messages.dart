@@ -428,6 +428,10 @@ abstract class InAppPurchaseApi {
     List<PlatformQueryProduct> products,
   );
 
+  /// Sets how long the product details returned by queryProductDetailsAsync
+  /// are reused without querying Google Play. They are not reused if this is 0.
+  void setProductDetailsCacheDuration(int durationMillis);
+
   /// Wraps BillingClient#isFeatureSupported(String).
   bool isFeatureSupported(PlatformBillingClientFeature feature);
 
@@ -250,6 +250,13 @@ void main() {
     });
   });
 
+  test('setProductDetailsCacheDuration', () async {
+    await billingClient.setProductDetailsCacheDuration(
+      const Duration(minutes: 5),
+    );
+    verify(mockApi.setProductDetailsCacheDuration(300000)).called(1);
+  });
+
   group('launchBillingFlow', () {
     test('serializes and deserializes data', () async {
       const debugMessage = 'dummy message';
@@ -292,6 +292,17 @@ class MockInAppPurchaseApi extends _i1.Mock implements _i2.InAppPurchaseApi {
           )
           as _i4.Future<_i2.PlatformProductDetailsResponse>);
 
+  @override
+  _i4.Future<void> setProductDetailsCacheDuration(int? durationMillis) =>
+      (super.noSuchMethod(
+            Invocation.method(#setProductDetailsCacheDuration, [
+              durationMillis,
+            ]),
+            returnValue: _i4.Future<void>.value(),
+            returnValueForMissingStub: _i4.Future<void>.value(),
+          )
+          as _i4.Future<void>);
+
   @override
   _i4.Future<bool> isFeatureSupported(
     _i2.PlatformBillingClientFeature? feature,
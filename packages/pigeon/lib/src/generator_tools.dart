@@ -15,7 +15,7 @@ import 'generator.dart';
 /// The current version of pigeon.
 ///
 /// This must match the version in pubspec.yaml.
-const String pigeonVersion = '26.1.6';
+const String pigeonVersion = '26.4.1';
 
 /// Read all the content from [stdin] to a String.
 String readStdin() {
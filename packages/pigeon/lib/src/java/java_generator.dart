@@ -40,6 +40,8 @@ class JavaOptions {
     this.package,
     this.copyrightHeader,
     this.useGeneratedAnnotation,
+    this.useStreamingCodec,
+    this.includeChannelObserver,
   });
 
   /// The name of the class that will house all the generated classes.
@@ -56,6 +58,18 @@ class JavaOptions {
   /// default .
   final bool? useGeneratedAnnotation;
 
+  /// Determines if the generated codec writes the fields of data classes
+  /// directly to messages and reads them directly from messages, rather than
+  /// creating an intermediate `ArrayList` for each data class. The message
+  /// format is the same either way. This is false by default.
+  final bool? useStreamingCodec;
+
+  /// Determines if a `ChannelObserver` can be set to receive the size and
+  /// timing of each message handled by host APIs and sent by Flutter APIs.
+  /// When no observer is set, messages are not measured. This is false by
+  /// default.
+  final bool? includeChannelObserver;
+
   /// Creates a [JavaOptions] from a Map representation where:
   /// `x = JavaOptions.fromMap(x.toMap())`.
   static JavaOptions fromMap(Map<String, Object> map) {
@@ -65,6 +79,8 @@ class JavaOptions {
       package: map['package'] as String?,
       copyrightHeader: copyrightHeader?.cast<String>(),
       useGeneratedAnnotation: map['useGeneratedAnnotation'] as bool?,
+      useStreamingCodec: map['useStreamingCodec'] as bool?,
+      includeChannelObserver: map['includeChannelObserver'] as bool?,
     );
   }
 
@@ -77,6 +93,9 @@ class JavaOptions {
       if (copyrightHeader != null) 'copyrightHeader': copyrightHeader!,
       if (useGeneratedAnnotation != null)
         'useGeneratedAnnotation': useGeneratedAnnotation!,
+      if (useStreamingCodec != null) 'useStreamingCodec': useStreamingCodec!,
+      if (includeChannelObserver != null)
+        'includeChannelObserver': includeChannelObserver!,
     };
     return result;
   }
@@ -97,6 +116,8 @@ class InternalJavaOptions extends InternalOptions {
     this.package,
     this.copyrightHeader,
     this.useGeneratedAnnotation,
+    this.useStreamingCodec,
+    this.includeChannelObserver,
   });
 
   /// Creates InternalJavaOptions from JavaOptions.
@@ -107,7 +128,9 @@ class InternalJavaOptions extends InternalOptions {
   }) : className = options.className ?? path.basenameWithoutExtension(javaOut),
        package = options.package,
        copyrightHeader = options.copyrightHeader ?? copyrightHeader,
-       useGeneratedAnnotation = options.useGeneratedAnnotation;
+       useGeneratedAnnotation = options.useGeneratedAnnotation,
+       useStreamingCodec = options.useStreamingCodec,
+       includeChannelObserver = options.includeChannelObserver;
 
   /// Path to the java file that will be generated.
   final String javaOut;
@@ -125,6 +148,18 @@ class InternalJavaOptions extends InternalOptions {
   /// is false by default since that dependency isn't available in plugins by
   /// default .
   final bool? useGeneratedAnnotation;
+
+  /// Determines if the generated codec writes the fields of data classes
+  /// directly to messages and reads them directly from messages, rather than
+  /// creating an intermediate `ArrayList` for each data class. The message
+  /// format is the same either way. This is false by default.
+  final bool? useStreamingCodec;
+
+  /// Determines if a `ChannelObserver` can be set to receive the size and
+  /// timing of each message handled by host APIs and sent by Flutter APIs.
+  /// When no observer is set, messages are not measured. This is false by
+  /// default.
+  final bool? includeChannelObserver;
 }
 
 /// Class that manages all Java code generation.
@@ -543,6 +578,18 @@ class JavaGenerator extends StructuredGenerator<InternalJavaOptions> {
       root,
       excludeSealedClasses: true,
     ).toList();
+    // Classes in the overflow range are always wrapped, and so encoded as
+    // lists.
+    final List<EnumeratedType> streamedTypes =
+        (generatorOptions.useStreamingCodec ?? false)
+        ? enumeratedTypes
+              .where(
+                (EnumeratedType customType) =>
+                    customType.type == CustomTypes.customClass &&
+                    customType.enumeration < maximumCodecFieldKey,
+              )
+              .toList()
+        : <EnumeratedType>[];
 
     void writeEncodeLogic(EnumeratedType customType) {
       final encodeString = customType.type == CustomTypes.customClass
@@ -560,6 +607,13 @@ class JavaGenerator extends StructuredGenerator<InternalJavaOptions> {
 
       indent.add('if (value instanceof ${customType.name}) ');
       indent.addScoped('{', '} else ', () {
+        if (streamedTypes.contains(customType)) {
+          indent.writeln('stream.write($enumeration);');
+          indent.writeln(
+            'pigeonWrite${customType.name}(stream, (${customType.name}) value);',
+          );
+          return;
+        }
         if (customType.enumeration >= maximumCodecFieldKey) {
           indent.writeln(
             '$_overflowClassName wrap = new $_overflowClassName();',
@@ -578,7 +632,12 @@ class JavaGenerator extends StructuredGenerator<InternalJavaOptions> {
 
     void writeDecodeLogic(EnumeratedType customType) {
       indent.write('case (byte) ${customType.enumeration}:');
-      if (customType.type == CustomTypes.customClass) {
+      if (streamedTypes.contains(customType)) {
+        indent.newln();
+        indent.nest(1, () {
+          indent.writeln('return pigeonRead${customType.name}(buffer);');
+        });
+      } else if (customType.type == CustomTypes.customClass) {
         indent.newln();
         indent.nest(1, () {
           indent.writeln(
@@ -654,10 +713,105 @@ class JavaGenerator extends StructuredGenerator<InternalJavaOptions> {
           indent.writeln('super.writeValue(stream, value);');
         });
       });
+      if (streamedTypes.isNotEmpty) {
+        _writeStreamingCodecMethods(
+          indent,
+          streamedTypes
+              .map((EnumeratedType customType) => customType.associatedClass!)
+              .toList(),
+        );
+      }
     });
     indent.newln();
   }
 
+  /// Writes the methods that [writeGeneralCodec] uses to encode and decode
+  /// [classes] field by field.
+  ///
+  /// The fields are written in the same format as the list returned by
+  /// `toList`, so that the messages can be decoded by other generators'
+  /// codecs. The methods are prefixed with `pigeon` so that they can't
+  /// collide with the methods of `StandardMessageCodec`, such as `readValue`
+  /// and `writeSize`, whatever the classes are named.
+  void _writeStreamingCodecMethods(Indent indent, List<Class> classes) {
+    const bufferVar = '${varNamePrefix}buffer';
+    const fieldCountVar = '${varNamePrefix}fieldCount';
+    const result = 'pigeonResult';
+    indent.newln();
+    indent.writeln(
+      '/** The type of a list in {@link StandardMessageCodec}, which data classes are encoded as. */',
+    );
+    indent.writeln('private static final byte LIST = 12;');
+    indent.newln();
+    indent.writeln(
+      '/** Reads the header of an encoded data class, and returns the number of fields. */',
+    );
+    indent.writeScoped(
+      'private static int pigeonReadFieldCount(@NonNull ByteBuffer buffer, int expectedFieldCount) {',
+      '}',
+      () {
+        indent.writeScoped('if (buffer.get() != LIST) {', '}', () {
+          indent.writeln(
+            'throw new IllegalArgumentException("Message corrupted");',
+          );
+        });
+        indent.writeln('int fieldCount = readSize(buffer);');
+        indent.writeScoped('if (fieldCount < expectedFieldCount) {', '}', () {
+          indent.writeln(
+            'throw new IllegalArgumentException("Message corrupted");',
+          );
+        });
+        indent.writeln('return fieldCount;');
+      },
+    );
+    for (final classDefinition in classes) {
+      final List<NamedType> fields = getFieldsInSerializationOrder(
+        classDefinition,
+      ).toList();
+      indent.newln();
+      indent.writeScoped(
+        'private void pigeonWrite${classDefinition.name}(@NonNull ByteArrayOutputStream stream, @NonNull ${classDefinition.name} value) {',
+        '}',
+        () {
+          indent.writeln('stream.write(LIST);');
+          indent.writeln('writeSize(stream, ${fields.length});');
+          for (final field in fields) {
+            indent.writeln(
+              'writeValue(stream, value.${_makeGetter(field)}());',
+            );
+          }
+        },
+      );
+      indent.newln();
+      indent.writeScoped(
+        'private @NonNull ${classDefinition.name} pigeonRead${classDefinition.name}(@NonNull ByteBuffer $bufferVar) {',
+        '}',
+        () {
+          indent.writeln(
+            'int $fieldCountVar = pigeonReadFieldCount($bufferVar, ${fields.length});',
+          );
+          indent.writeln(
+            '${classDefinition.name} $result = new ${classDefinition.name}();',
+          );
+          for (final field in fields) {
+            indent.writeln(
+              '$result.${_makeSetter(field)}(${_castObject(field, 'readValue($bufferVar)')});',
+            );
+          }
+          // Skips any fields added by a newer version of the definition.
+          indent.writeScoped(
+            'for (int i = ${fields.length}; i < $fieldCountVar; i++) {',
+            '}',
+            () {
+              indent.writeln('readValue($bufferVar);');
+            },
+          );
+          indent.writeln('return $result;');
+        },
+      );
+    }
+  }
+
   void _writeCodecOverflowUtilities(
     InternalJavaOptions generatorOptions,
     Root root,
@@ -847,8 +1001,15 @@ if (wrapped == null) {
               indent.writeln('binaryMessenger, channelName, getCodec());');
             });
           });
-          indent.writeln('$channel.send(');
+          final bool observed =
+              generatorOptions.includeChannelObserver ?? false;
+          indent.writeln(observed ? 'sendObserved(' : '$channel.send(');
           indent.nest(2, () {
+            if (observed) {
+              indent.writeln('$channel,');
+              indent.writeln('binaryMessenger,');
+              indent.writeln('channelName,');
+            }
             indent.writeln('$sendArgument,');
             indent.write('channelReply -> ');
             indent.addScoped('{', '});', () {
@@ -1086,8 +1247,18 @@ if (wrapped == null) {
       });
       indent.write('if (api != null) ');
       indent.addScoped('{', '} else {', () {
-        indent.writeln('channel.setMessageHandler(');
+        final bool observed = generatorOptions.includeChannelObserver ?? false;
+        indent.writeln(
+          observed
+              ? 'setObservedMessageHandler('
+              : 'channel.setMessageHandler(',
+        );
         indent.nest(2, () {
+          if (observed) {
+            indent.writeln('binaryMessenger,');
+            indent.writeln('"$channelName" + messageChannelSuffix,');
+            indent.writeln('${serialBackgroundQueue ?? 'null'},');
+          }
           indent.write('(message, reply) -> ');
           indent.addScoped('{', '});', () {
             final String returnType = method.returnType.isVoid
@@ -1279,6 +1450,196 @@ protected static ArrayList<Object> wrapError(@NonNull Throwable exception) {
     );
   }
 
+  /// Writes the `ChannelObserver` interface, and the helpers that host API
+  /// handlers and Flutter API methods use to measure messages when an observer
+  /// is set.
+  void _writeChannelObserver(Indent indent, Root root) {
+    indent.format('''
+/**
+ * Receives the size and timing of each message handled by a host API or sent by a Flutter API.
+ *
+ * <p>Set with {@link #setChannelObserver}. When no observer is set, messages are not measured.
+ */
+public interface ChannelObserver {
+	/**
+	 * Called once a host API has replied to a message, or a reply to a Flutter API message has been
+	 * received.
+	 */
+	void onMessage(@NonNull ChannelEvent event);
+}
+
+/** The size and timing of a message handled by a host API or sent by a Flutter API. */
+public static final class ChannelEvent {
+	/** The name of the channel. */
+	public final @NonNull String channelName;
+
+	/** Whether the message was sent by Flutter to a host API, rather than by a Flutter API. */
+	public final boolean isHostApi;
+
+	/** The size of the encoded message, in bytes. */
+	public final int messageSize;
+
+	/** The size of the encoded reply, in bytes. */
+	public final int replySize;
+
+	/** The time spent decoding the message for host APIs, or the reply for Flutter APIs. */
+	public final long decodeNanos;
+
+	/**
+	 * The time from decoding the message to the reply for host APIs, which includes the time until
+	 * the result is returned for asynchronous methods, or from sending the message to receiving the
+	 * reply for Flutter APIs.
+	 */
+	public final long handlerNanos;
+
+	/** The time spent encoding the reply for host APIs, or the message for Flutter APIs. */
+	public final long encodeNanos;
+
+	/**
+	 * The name of the thread that handled the message for host APIs, or received the reply for
+	 * Flutter APIs.
+	 */
+	public final @NonNull String threadName;
+
+	ChannelEvent(
+			@NonNull String channelName,
+			boolean isHostApi,
+			int messageSize,
+			int replySize,
+			long decodeNanos,
+			long handlerNanos,
+			long encodeNanos,
+			@NonNull String threadName) {
+		this.channelName = channelName;
+		this.isHostApi = isHostApi;
+		this.messageSize = messageSize;
+		this.replySize = replySize;
+		this.decodeNanos = decodeNanos;
+		this.handlerNanos = handlerNanos;
+		this.encodeNanos = encodeNanos;
+		this.threadName = threadName;
+	}
+}
+
+private static volatile @Nullable ChannelObserver channelObserver;
+
+/**
+ * Sets the observer of the messages of the APIs in this file, or removes it if null.
+ *
+ * <p>Applies to the messages handled or sent afterwards, including by host APIs that were set up
+ * before it.
+ */
+public static void setChannelObserver(@Nullable ChannelObserver observer) {
+	channelObserver = observer;
+}''');
+    if (root.apis.any((Api api) => api is AstHostApi)) {
+      indent.newln();
+      indent.format('''
+private static void setObservedMessageHandler(
+		@NonNull BinaryMessenger binaryMessenger,
+		@NonNull String channelName,
+		@Nullable BinaryMessenger.TaskQueue taskQueue,
+		@NonNull BasicMessageChannel.MessageHandler<Object> handler) {
+	// The observer is read for each message, so that it applies to handlers set up before it.
+	BinaryMessenger.BinaryMessageHandler binaryHandler =
+			(message, binaryReply) -> {
+				ChannelObserver observer = channelObserver;
+				if (observer == null) {
+					try {
+						handler.onMessage(
+								$_codecName.INSTANCE.decodeMessage(message),
+								reply -> binaryReply.reply($_codecName.INSTANCE.encodeMessage(reply)));
+					} catch (RuntimeException e) {
+						Log.e("ChannelObserver", "Failed to handle message on " + channelName, e);
+						binaryReply.reply(null);
+					}
+					return;
+				}
+				long startNanos = System.nanoTime();
+				int messageSize = message == null ? 0 : message.remaining();
+				String threadName = Thread.currentThread().getName();
+				try {
+					Object decoded = $_codecName.INSTANCE.decodeMessage(message);
+					long decodedNanos = System.nanoTime();
+					handler.onMessage(
+							decoded,
+							reply -> {
+								long replyNanos = System.nanoTime();
+								ByteBuffer encoded = $_codecName.INSTANCE.encodeMessage(reply);
+								long encodedNanos = System.nanoTime();
+								binaryReply.reply(encoded);
+								observer.onMessage(
+										new ChannelEvent(
+												channelName,
+												true,
+												messageSize,
+												encoded == null ? 0 : encoded.position(),
+												decodedNanos - startNanos,
+												replyNanos - decodedNanos,
+												encodedNanos - replyNanos,
+												threadName));
+							});
+				} catch (RuntimeException e) {
+					Log.e("ChannelObserver", "Failed to handle message on " + channelName, e);
+					binaryReply.reply(null);
+				}
+			};
+	// Uses the two parameter variant when possible, as BasicMessageChannel does.
+	if (taskQueue != null) {
+		binaryMessenger.setMessageHandler(channelName, binaryHandler, taskQueue);
+	} else {
+		binaryMessenger.setMessageHandler(channelName, binaryHandler);
+	}
+}''');
+    }
+    if (root.apis.any((Api api) => api is AstFlutterApi)) {
+      indent.newln();
+      indent.format('''
+private static void sendObserved(
+		@NonNull BasicMessageChannel<Object> channel,
+		@NonNull BinaryMessenger binaryMessenger,
+		@NonNull String channelName,
+		@Nullable Object message,
+		@NonNull BasicMessageChannel.Reply<Object> callback) {
+	ChannelObserver observer = channelObserver;
+	if (observer == null) {
+		channel.send(message, callback);
+		return;
+	}
+	long startNanos = System.nanoTime();
+	ByteBuffer encoded = $_codecName.INSTANCE.encodeMessage(message);
+	long sentNanos = System.nanoTime();
+	int messageSize = encoded == null ? 0 : encoded.position();
+	binaryMessenger.send(
+			channelName,
+			encoded,
+			binaryReply -> {
+				long receivedNanos = System.nanoTime();
+				int replySize = binaryReply == null ? 0 : binaryReply.remaining();
+				Object reply;
+				try {
+					reply = $_codecName.INSTANCE.decodeMessage(binaryReply);
+				} catch (RuntimeException e) {
+					Log.e("ChannelObserver", "Failed to handle message reply on " + channelName, e);
+					return;
+				}
+				long decodedNanos = System.nanoTime();
+				observer.onMessage(
+						new ChannelEvent(
+								channelName,
+								false,
+								messageSize,
+								replySize,
+								decodedNanos - receivedNanos,
+								receivedNanos - sentNanos,
+								sentNanos - startNanos,
+								Thread.currentThread().getName()));
+				callback.reply(reply);
+			});
+}''');
+    }
+  }
+
   // We are emitting our own definition of [@CanIgnoreReturnValue] to support
   // clients who use CheckReturnValue, without having to force Pigeon clients
   // to take a new dependency on error_prone_annotations.
@@ -1310,6 +1671,13 @@ protected static ArrayList<Object> wrapError(@NonNull Throwable exception) {
       indent.newln();
       _writeCreateConnectionError(indent);
     }
+    if ((generatorOptions.includeChannelObserver ?? false) &&
+        root.apis.any(
+          (Api api) => api is AstHostApi || api is AstFlutterApi,
+        )) {
+      indent.newln();
+      _writeChannelObserver(indent, root);
+    }
     if (root.classes.isNotEmpty) {
       _writeCanIgnoreReturnValueAnnotation(generatorOptions, root, indent);
     }
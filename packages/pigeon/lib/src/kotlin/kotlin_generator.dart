@@ -44,6 +44,7 @@ class KotlinOptions {
     this.errorClassName,
     this.includeErrorClass = true,
     this.fileSpecificClassNameComponent,
+    this.includeChannelObserver = false,
   });
 
   /// The package where the generated class will live.
@@ -64,6 +65,12 @@ class KotlinOptions {
   /// A String to augment class names to avoid cross file collisions.
   final String? fileSpecificClassNameComponent;
 
+  /// Whether a `ChannelObserver` can be set to receive the size and timing of
+  /// each message handled by host APIs and sent by Flutter APIs.
+  ///
+  /// When no observer is set, messages are not measured.
+  final bool includeChannelObserver;
+
   /// Creates a [KotlinOptions] from a Map representation where:
   /// `x = KotlinOptions.fromMap(x.toMap())`.
   static KotlinOptions fromMap(Map<String, Object> map) {
@@ -74,6 +81,7 @@ class KotlinOptions {
       includeErrorClass: map['includeErrorClass'] as bool? ?? true,
       fileSpecificClassNameComponent:
           map['fileSpecificClassNameComponent'] as String?,
+      includeChannelObserver: map['includeChannelObserver'] as bool? ?? false,
     );
   }
 
@@ -87,6 +95,7 @@ class KotlinOptions {
       'includeErrorClass': includeErrorClass,
       if (fileSpecificClassNameComponent != null)
         'fileSpecificClassNameComponent': fileSpecificClassNameComponent!,
+      'includeChannelObserver': includeChannelObserver,
     };
     return result;
   }
@@ -108,6 +117,7 @@ class InternalKotlinOptions extends InternalOptions {
     this.errorClassName,
     this.includeErrorClass = true,
     this.fileSpecificClassNameComponent,
+    this.includeChannelObserver = false,
   });
 
   /// Creates InternalKotlinOptions from KotlinOptions.
@@ -121,7 +131,8 @@ class InternalKotlinOptions extends InternalOptions {
        includeErrorClass = options.includeErrorClass,
        fileSpecificClassNameComponent =
            options.fileSpecificClassNameComponent ??
-           kotlinOut.split('/').lastOrNull?.split('.').first;
+           kotlinOut.split('/').lastOrNull?.split('.').first,
+       includeChannelObserver = options.includeChannelObserver;
 
   /// The package where the generated class will live.
   final String? package;
@@ -143,6 +154,12 @@ class InternalKotlinOptions extends InternalOptions {
 
   /// A String to augment class names to avoid cross file collisions.
   final String? fileSpecificClassNameComponent;
+
+  /// Whether a `ChannelObserver` can be set to receive the size and timing of
+  /// each message handled by host APIs and sent by Flutter APIs.
+  ///
+  /// When no observer is set, messages are not measured.
+  final bool includeChannelObserver;
 }
 
 /// Options that control how Kotlin code will be generated for a specific
@@ -717,6 +734,7 @@ if (wrapped == null) {
                   returnType: returnType,
                   channelName: '$channelName\$separatedMessageChannelSuffix',
                   errorClassName: errorClassName,
+                  observed: generatorOptions.includeChannelObserver,
                 );
               },
         );
@@ -812,6 +830,7 @@ if (wrapped == null) {
                   method.taskQueueType == TaskQueueType.serialBackgroundThread
                   ? serialBackgroundQueue
                   : null,
+              observed: generatorOptions.includeChannelObserver,
             );
           }
         });
@@ -1369,12 +1388,199 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
         if (root.classes.isNotEmpty) {
           _writeDeepEquals(generatorOptions, indent);
         }
+        if (_includesChannelObserver(generatorOptions, root)) {
+          _writeChannelObserverUtilities(generatorOptions, root, indent);
+        }
       },
     );
 
     if (generatorOptions.includeErrorClass) {
       _writeErrorClass(generatorOptions, indent);
     }
+    if (_includesChannelObserver(generatorOptions, root)) {
+      _writeChannelObserver(generatorOptions, indent);
+    }
+  }
+
+  bool _includesChannelObserver(
+    InternalKotlinOptions generatorOptions,
+    Root root,
+  ) {
+    return generatorOptions.includeChannelObserver &&
+        root.apis.any((Api api) => api is AstHostApi || api is AstFlutterApi);
+  }
+
+  /// Writes the `ChannelObserver` interface and the `ChannelEvent` it
+  /// receives.
+  void _writeChannelObserver(
+    InternalKotlinOptions generatorOptions,
+    Indent indent,
+  ) {
+    final String? prefix = generatorOptions.fileSpecificClassNameComponent;
+    indent.newln();
+    indent.format('''
+/**
+ * The size and timing of a message handled by a host API or sent by a Flutter API.
+ *
+ * @property channelName The name of the channel.
+ * @property isHostApi Whether the message was sent by Flutter to a host API, rather than by a Flutter API.
+ * @property messageSize The size of the encoded message, in bytes.
+ * @property replySize The size of the encoded reply, in bytes.
+ * @property decodeNanos The time spent decoding the message for host APIs, or the reply for Flutter APIs.
+ * @property handlerNanos The time from decoding the message to the reply for host APIs, which includes the time until the result is returned for asynchronous methods, or from sending the message to receiving the reply for Flutter APIs.
+ * @property encodeNanos The time spent encoding the reply for host APIs, or the message for Flutter APIs.
+ * @property threadName The name of the thread that handled the message for host APIs, or received the reply for Flutter APIs.
+ */
+class ${prefix}ChannelEvent(
+    val channelName: String,
+    val isHostApi: Boolean,
+    val messageSize: Int,
+    val replySize: Int,
+    val decodeNanos: Long,
+    val handlerNanos: Long,
+    val encodeNanos: Long,
+    val threadName: String
+)
+
+/**
+ * Receives the size and timing of each message handled by a host API or sent by a Flutter API.
+ *
+ * Set with [setChannelObserver]. When no observer is set, messages are not measured.
+ */
+fun interface ${prefix}ChannelObserver {
+  /** Called once a host API has replied to a message, or a reply to a Flutter API message has been received. */
+  fun onMessage(event: ${prefix}ChannelEvent)
+
+  companion object {
+    /**
+     * Sets the observer of the messages of the APIs in this file, or removes it if null.
+     *
+     * Applies to the messages handled or sent afterwards, including by host APIs that were set up before it.
+     */
+    @JvmStatic
+    fun setChannelObserver(observer: ${prefix}ChannelObserver?) {
+      ${_getUtilsClassName(generatorOptions)}.channelObserver = observer
+    }
+  }
+}''');
+  }
+
+  /// Writes the helpers that host API handlers and Flutter API methods use to
+  /// measure messages when an observer is set.
+  void _writeChannelObserverUtilities(
+    InternalKotlinOptions generatorOptions,
+    Root root,
+    Indent indent,
+  ) {
+    final String? prefix = generatorOptions.fileSpecificClassNameComponent;
+    indent.newln();
+    indent.format('''
+@Volatile
+var channelObserver: ${prefix}ChannelObserver? = null''');
+    if (root.apis.any((Api api) => api is AstHostApi)) {
+      indent.newln();
+      indent.format('''
+fun setObservedMessageHandler(
+    binaryMessenger: BinaryMessenger,
+    channelName: String,
+    codec: MessageCodec<Any?>,
+    taskQueue: BinaryMessenger.TaskQueue?,
+    handler: BasicMessageChannel.MessageHandler<Any?>
+) {
+  // The observer is read for each message, so that it applies to handlers set up before it.
+  val binaryHandler = BinaryMessenger.BinaryMessageHandler { message, binaryReply ->
+    val observer = channelObserver
+    if (observer == null) {
+      try {
+        handler.onMessage(codec.decodeMessage(message)) { reply ->
+          binaryReply.reply(codec.encodeMessage(reply))
+        }
+      } catch (e: RuntimeException) {
+        Log.e("ChannelObserver", "Failed to handle message on \$channelName", e)
+        binaryReply.reply(null)
+      }
+      return@BinaryMessageHandler
+    }
+    val startNanos = System.nanoTime()
+    val messageSize = message?.remaining() ?: 0
+    val threadName = Thread.currentThread().name
+    try {
+      val decoded = codec.decodeMessage(message)
+      val decodedNanos = System.nanoTime()
+      handler.onMessage(decoded) { reply ->
+        val replyNanos = System.nanoTime()
+        val encoded = codec.encodeMessage(reply)
+        val encodedNanos = System.nanoTime()
+        binaryReply.reply(encoded)
+        observer.onMessage(
+            ${prefix}ChannelEvent(
+                channelName,
+                true,
+                messageSize,
+                encoded?.position() ?: 0,
+                decodedNanos - startNanos,
+                replyNanos - decodedNanos,
+                encodedNanos - replyNanos,
+                threadName))
+      }
+    } catch (e: RuntimeException) {
+      Log.e("ChannelObserver", "Failed to handle message on \$channelName", e)
+      binaryReply.reply(null)
+    }
+  }
+  // Uses the two parameter variant when possible, as BasicMessageChannel does.
+  if (taskQueue != null) {
+    binaryMessenger.setMessageHandler(channelName, binaryHandler, taskQueue)
+  } else {
+    binaryMessenger.setMessageHandler(channelName, binaryHandler)
+  }
+}''');
+    }
+    if (root.apis.any((Api api) => api is AstFlutterApi)) {
+      indent.newln();
+      indent.format('''
+fun sendObserved(
+    channel: BasicMessageChannel<Any?>,
+    binaryMessenger: BinaryMessenger,
+    channelName: String,
+    codec: MessageCodec<Any?>,
+    message: Any?,
+    callback: (Any?) -> Unit
+) {
+  val observer = channelObserver
+  if (observer == null) {
+    channel.send(message) { callback(it) }
+    return
+  }
+  val startNanos = System.nanoTime()
+  val encoded = codec.encodeMessage(message)
+  val sentNanos = System.nanoTime()
+  val messageSize = encoded?.position() ?: 0
+  binaryMessenger.send(channelName, encoded) { binaryReply ->
+    val receivedNanos = System.nanoTime()
+    val replySize = binaryReply?.remaining() ?: 0
+    val reply =
+        try {
+          codec.decodeMessage(binaryReply)
+        } catch (e: RuntimeException) {
+          Log.e("ChannelObserver", "Failed to handle message reply on \$channelName", e)
+          return@send
+        }
+    val decodedNanos = System.nanoTime()
+    observer.onMessage(
+        ${prefix}ChannelEvent(
+            channelName,
+            false,
+            messageSize,
+            replySize,
+            decodedNanos - receivedNanos,
+            receivedNanos - sentNanos,
+            sentNanos - startNanos,
+            Thread.currentThread().name))
+    callback(reply)
+  }
+}''');
+    }
   }
 
   static void _writeMethodDeclaration(
@@ -1448,6 +1654,7 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
     String? serialBackgroundQueue,
     String Function(List<String> safeArgNames, {required String apiVarName})?
     onCreateCall,
+    bool observed = false,
   }) {
     indent.write('run ');
     indent.addScoped('{', '}', () {
@@ -1465,7 +1672,13 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
       indent.addScoped('{', '}', () {
         final messageVarName = parameters.isNotEmpty ? 'message' : '_';
 
-        indent.write('channel.setMessageHandler ');
+        if (observed) {
+          indent.write(
+            '${_getUtilsClassName(generatorOptions)}.setObservedMessageHandler(binaryMessenger, "$channelName", codec, ${serialBackgroundQueue ?? 'null'}) ',
+          );
+        } else {
+          indent.write('channel.setMessageHandler ');
+        }
         indent.addScoped('{ $messageVarName, reply ->', '}', () {
           final methodArguments = <String>[];
           if (parameters.isNotEmpty) {
@@ -1585,6 +1798,7 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
     required TypeDeclaration returnType,
     required String channelName,
     required String errorClassName,
+    bool observed = false,
   }) {
     String sendArgument;
 
@@ -1604,7 +1818,10 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
     indent.writeln(
       'val $channel = BasicMessageChannel<Any?>(binaryMessenger, channelName, codec)',
     );
-    indent.writeScoped('$channel.send($sendArgument) {', '}', () {
+    final String send = observed
+        ? '${_getUtilsClassName(generatorOptions)}.sendObserved($channel, binaryMessenger, channelName, codec, $sendArgument)'
+        : '$channel.send($sendArgument)';
+    indent.writeScoped('$send {', '}', () {
       indent.writeScoped('if (it is List<*>) {', '} ', () {
         indent.writeScoped('if (it.size > 1) {', '} ', () {
           indent.writeln(
@@ -1893,6 +2110,15 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
         indent.writeln(
           'val codec = api?.pigeonRegistrar?.codec ?: ${generatorOptions.fileSpecificClassNameComponent}$_codecName()',
         );
+        String? serialBackgroundQueue;
+        if (api.hostMethods.any(
+          (Method m) => m.taskQueueType == TaskQueueType.serialBackgroundThread,
+        )) {
+          serialBackgroundQueue = 'taskQueue';
+          indent.writeln(
+            'val $serialBackgroundQueue = binaryMessenger.makeBackgroundTaskQueue()',
+          );
+        }
         void writeWithApiCheckIfNecessary(
           List<TypeDeclaration> types, {
           required String channelName,
@@ -2056,6 +2282,10 @@ fun deepEquals(a: Any?, b: Any?): Boolean {
                 taskQueueType: method.taskQueueType,
                 returnType: method.returnType,
                 isAsynchronous: method.isAsynchronous,
+                serialBackgroundQueue:
+                    method.taskQueueType == TaskQueueType.serialBackgroundThread
+                    ? serialBackgroundQueue
+                    : null,
                 parameters: <Parameter>[
                   if (!method.isStatic)
                     Parameter(
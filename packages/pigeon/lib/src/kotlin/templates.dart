@@ -34,6 +34,15 @@ String instanceManagerTemplate(InternalKotlinOptions options) {
  * reference is removed and then the identifier is retrieved with the intention to pass the identifier
  * to Dart (e.g. calling [getIdentifierForStrongReference]), the strong reference to the instance
  * is recreated. The strong reference will then need to be removed manually again.
+ *
+ * Methods are synchronized, so instances can be looked up and added by host methods that are
+ * handled on a background task queue.
+ *
+ * Instances and identifiers are stored in open addressing hash tables that are keyed by identity
+ * and by unboxed identifiers, so looking up an instance or an identifier does not allocate.
+ * Instances that have been garbage collected are released whenever an instance is added, so they
+ * are released as quickly as new instances are created, and otherwise every
+ * [clearFinalizedWeakReferencesInterval].
  */
 @Suppress("UNCHECKED_CAST", "MemberVisibilityCanBePrivate")
 class ${kotlinInstanceManagerClassName(options)}(private val finalizationListener: $_finalizationListenerClassName) {
@@ -51,10 +60,20 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
   class IdentityWeakReference<T : Any> : java.lang.ref.WeakReference<T> {
     private val savedHashCode: Int
 
+    /** The identifier the instance was added to the manager with, or -1. */
+    val identifier: Long
+
     constructor(instance: T) : this(instance, null)
 
-    constructor(instance: T, queue: java.lang.ref.ReferenceQueue<T>?) : super(instance, queue) {
+    constructor(instance: T, queue: java.lang.ref.ReferenceQueue<T>?) : this(instance, queue, -1)
+
+    constructor(
+        instance: T,
+        queue: java.lang.ref.ReferenceQueue<T>?,
+        identifier: Long
+    ) : super(instance, queue) {
       savedHashCode = System.identityHashCode(instance)
+      this.identifier = identifier
     }
 
     override fun equals(other: Any?): Boolean {
@@ -70,21 +89,28 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
     }
   }
 
-  private val identifiers = java.util.WeakHashMap<IdentityWeakReference<Any>, Long>()
-  private val weakInstances = HashMap<Long, IdentityWeakReference<Any>>()
-  private val strongInstances = HashMap<Long, Any>()
+  private val identifiers = IdentityReferenceTable()
+  private val weakInstances = IdentifierTable<IdentityWeakReference<Any>>()
+  private val strongInstances = IdentifierTable<Any>()
   private val referenceQueue = java.lang.ref.ReferenceQueue<Any>()
-  private val weakReferencesToIdentifiers = HashMap<IdentityWeakReference<Any>, Long>()
   private val handler = android.os.Handler(android.os.Looper.getMainLooper())
   private val releaseAllFinalizedInstancesRunnable = Runnable {
     this.releaseAllFinalizedInstances()
   }
+  private val notifyFinalizationListenerRunnable = Runnable { notifyFinalizationListener() }
+  // Identifiers of garbage collected instances that have not been passed to the
+  // finalizationListener yet.
+  private var finalizedIdentifiers = LongArray(16)
+  private var finalizedIdentifierCount = 0
   private var nextIdentifier: Long = minHostCreatedIdentifier
   private var hasFinalizationListenerStopped = false
 
   /**
    * Modifies the time interval used to define how often this instance removes garbage collected
    * weak references to native Android objects that this instance was managing.
+   *
+   * Garbage collected weak references are also removed whenever an instance is added, so this only
+   * needs to be short when instances are garbage collected while none are being added.
    */
   var clearFinalizedWeakReferencesInterval: Long = 3000
     set(value) {
@@ -120,6 +146,7 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    * Removes `identifier` and return its associated strongly referenced instance, if present,
    * from the manager.
    */
+  @Synchronized
   fun <T> remove(identifier: Long): T? {
     logWarningIfFinalizationListenerHasStopped()
     return strongInstances.remove(identifier) as T?
@@ -138,16 +165,15 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    * `${kotlinInstanceManagerClassName(options)}` to have, or recreate, a weak reference to the Dart instance the
    * identifier is associated with.
    */
+  @Synchronized
   fun getIdentifierForStrongReference(instance: Any?): Long? {
     logWarningIfFinalizationListenerHasStopped()
     if (instance == null) {
       return null
     }
-    val identifier = identifiers[IdentityWeakReference(instance)]
-    if (identifier != null) {
-      strongInstances[identifier] = instance
-    }
-    return identifier
+    val reference = identifiers.get(instance) ?: return null
+    strongInstances.put(reference.identifier, instance)
+    return reference.identifier
   }
 
   /**
@@ -161,7 +187,8 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    */
   fun addDartCreatedInstance(instance: Any, identifier: Long) {
     logWarningIfFinalizationListenerHasStopped()
-    addInstance(instance, identifier)
+    synchronized(this) { addInstance(instance, identifier) }
+    notifyFinalizationListener()
   }
 
   /**
@@ -173,23 +200,29 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    */
   fun addHostCreatedInstance(instance: Any): Long {
     logWarningIfFinalizationListenerHasStopped()
-    require(!containsInstance(instance)) { "Instance of \${instance.javaClass} has already been added." }
-    val identifier = nextIdentifier++
-    addInstance(instance, identifier)
+    val identifier = synchronized(this) {
+      require(!containsInstance(instance)) {
+        "Instance of \${instance.javaClass} has already been added."
+      }
+      nextIdentifier++.also { addInstance(instance, it) }
+    }
+    notifyFinalizationListener()
     return identifier
   }
 
   /** Retrieves the instance associated with identifier, if present, otherwise `null`. */
+  @Synchronized
   fun <T : Any> getInstance(identifier: Long): T? {
     logWarningIfFinalizationListenerHasStopped()
-    val instance = weakInstances[identifier] as IdentityWeakReference<T>?
+    val instance = weakInstances.get(identifier) as IdentityWeakReference<T>?
     return instance?.get()
   }
 
   /** Returns whether this manager contains the given `instance`. */
+  @Synchronized
   fun containsInstance(instance: Any?): Boolean {
     logWarningIfFinalizationListenerHasStopped()
-    return instance != null && identifiers.containsKey(IdentityWeakReference(instance))
+    return instance != null && identifiers.get(instance) != null
   }
 
   /**
@@ -199,8 +232,10 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    * The InstanceManager can continue to be used, but the [$_finalizationListenerClassName] will no
    * longer be called and methods will log a warning.
    */
+  @Synchronized
   fun stopFinalizationListener() {
     handler.removeCallbacks(releaseAllFinalizedInstancesRunnable)
+    handler.removeCallbacks(notifyFinalizationListenerRunnable)
     hasFinalizationListenerStopped = true
   }
 
@@ -209,11 +244,12 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    *
    * The manager will be empty after this call returns.
    */
+  @Synchronized
   fun clear() {
     identifiers.clear()
     weakInstances.clear()
     strongInstances.clear()
-    weakReferencesToIdentifiers.clear()
+    finalizedIdentifierCount = 0
   }
 
   /**
@@ -222,36 +258,74 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
    *
    * See [stopFinalizationListener].
    */
+  @Synchronized
   fun hasFinalizationListenerStopped(): Boolean {
     return hasFinalizationListenerStopped
   }
 
   private fun releaseAllFinalizedInstances() {
-    if (hasFinalizationListenerStopped()) {
+    synchronized(this) {
+      if (hasFinalizationListenerStopped) {
+        return
+      }
+      releaseFinalizedInstances()
+    }
+    notifyFinalizationListener()
+    handler.postDelayed(releaseAllFinalizedInstancesRunnable, clearFinalizedWeakReferencesInterval)
+  }
+
+  // Removes the instances whose weak references have been enqueued since they were garbage
+  // collected and records their identifiers for the finalizationListener. Must be called while
+  // synchronized on this manager.
+  private fun releaseFinalizedInstances() {
+    if (hasFinalizationListenerStopped) {
       return
     }
-    var reference: IdentityWeakReference<Any>?
-    while ((referenceQueue.poll() as IdentityWeakReference<Any>?).also { reference = it } != null) {
-      val identifier = weakReferencesToIdentifiers.remove(reference)
-      if (identifier != null) {
+    var reference = referenceQueue.poll() as IdentityWeakReference<Any>?
+    while (reference != null) {
+      identifiers.remove(reference)
+      val identifier = reference.identifier
+      // The identifier may have been removed with `clear`.
+      if (weakInstances.get(identifier) === reference) {
         weakInstances.remove(identifier)
         strongInstances.remove(identifier)
-        finalizationListener.onFinalize(identifier)
+        if (finalizedIdentifierCount == finalizedIdentifiers.size) {
+          finalizedIdentifiers = finalizedIdentifiers.copyOf(finalizedIdentifierCount * 2)
+        }
+        finalizedIdentifiers[finalizedIdentifierCount++] = identifier
       }
+      reference = referenceQueue.poll() as IdentityWeakReference<Any>?
     }
-    handler.postDelayed(releaseAllFinalizedInstancesRunnable, clearFinalizedWeakReferencesInterval)
   }
 
+  // Passes the identifiers of released instances to the finalizationListener on the main thread.
+  private fun notifyFinalizationListener() {
+    val finalized = synchronized(this) {
+      if (finalizedIdentifierCount == 0 || hasFinalizationListenerStopped) {
+        return
+      }
+      if (android.os.Looper.myLooper() != handler.looper) {
+        handler.post(notifyFinalizationListenerRunnable)
+        return
+      }
+      finalizedIdentifiers.copyOf(finalizedIdentifierCount).also { finalizedIdentifierCount = 0 }
+    }
+    for (identifier in finalized) {
+      finalizationListener.onFinalize(identifier)
+    }
+  }
+
+  // Must be called while synchronized on this manager.
   private fun addInstance(instance: Any, identifier: Long) {
     require(identifier >= 0) { "Identifier must be >= 0: \$identifier" }
+    releaseFinalizedInstances()
     require(!weakInstances.containsKey(identifier)) {
       "Identifier has already been added: \$identifier"
     }
-    val weakReference = IdentityWeakReference(instance, referenceQueue)
-    identifiers[weakReference] = identifier
-    weakInstances[identifier] = weakReference
-    weakReferencesToIdentifiers[weakReference] = identifier
-    strongInstances[identifier] = instance
+    val weakReference = IdentityWeakReference(instance, referenceQueue, identifier)
+    identifiers.put(weakReference)
+    weakInstances.put(identifier, weakReference)
+    strongInstances.put(identifier, instance)
   }
 
   private fun logWarningIfFinalizationListenerHasStopped() {
@@ -262,6 +336,189 @@ class ${kotlinInstanceManagerClassName(options)}(private val finalizationListene
       )
     }
   }
+
+  // An open addressing hash table from identifiers to values that does not box the identifiers.
+  private class IdentifierTable<V : Any> {
+    private var keys = LongArray(16)
+    private var values = arrayOfNulls<Any>(16)
+    private var size = 0
+
+    fun get(identifier: Long): V? {
+      val index = indexOf(identifier)
+      return if (index >= 0) values[index] as V else null
+    }
+
+    fun containsKey(identifier: Long): Boolean {
+      return indexOf(identifier) >= 0
+    }
+
+    fun put(identifier: Long, value: V) {
+      if ((size + 1) * 2 > values.size) {
+        resize(values.size * 2)
+      }
+      val mask = values.size - 1
+      var index = slot(identifier, mask)
+      while (values[index] != null) {
+        if (keys[index] == identifier) {
+          values[index] = value
+          return
+        }
+        index = (index + 1) and mask
+      }
+      keys[index] = identifier
+      values[index] = value
+      size++
+    }
+
+    fun remove(identifier: Long): V? {
+      val index = indexOf(identifier)
+      if (index < 0) {
+        return null
+      }
+      val value = values[index] as V
+      // Moves back the entries that follow the removed entry, so lookups never need to skip over
+      // removed entries.
+      val mask = values.size - 1
+      var gap = index
+      var next = (gap + 1) and mask
+      while (values[next] != null) {
+        val home = slot(keys[next], mask)
+        if (((next - home) and mask) >= ((next - gap) and mask)) {
+          keys[gap] = keys[next]
+          values[gap] = values[next]
+          gap = next
+        }
+        next = (next + 1) and mask
+      }
+      values[gap] = null
+      size--
+      return value
+    }
+
+    fun clear() {
+      values.fill(null)
+      size = 0
+    }
+
+    private fun indexOf(identifier: Long): Int {
+      val mask = values.size - 1
+      var index = slot(identifier, mask)
+      while (values[index] != null) {
+        if (keys[index] == identifier) {
+          return index
+        }
+        index = (index + 1) and mask
+      }
+      return -1
+    }
+
+    private fun resize(capacity: Int) {
+      val oldKeys = keys
+      val oldValues = values
+      keys = LongArray(capacity)
+      values = arrayOfNulls(capacity)
+      size = 0
+      for (index in oldValues.indices) {
+        val value = oldValues[index]
+        if (value != null) {
+          put(oldKeys[index], value as V)
+        }
+      }
+    }
+
+    private fun slot(identifier: Long, mask: Int): Int {
+      val hash = identifier * -0x61c8864680b583ebL
+      return (hash xor (hash ushr 32)).toInt() and mask
+    }
+  }
+
+  // An open addressing hash table of weak references that finds the reference to an instance by the
+  // instance's identity, without allocating a reference to compare with.
+  private class IdentityReferenceTable {
+    private var references = arrayOfNulls<IdentityWeakReference<Any>>(16)
+    private var size = 0
+
+    fun get(instance: Any): IdentityWeakReference<Any>? {
+      val mask = references.size - 1
+      var index = slot(System.identityHashCode(instance), mask)
+      while (true) {
+        val reference = references[index] ?: return null
+        if (reference.get() === instance) {
+          return reference
+        }
+        index = (index + 1) and mask
+      }
+    }
+
+    // Adds `reference`, replacing the reference to the same instance if there is one.
+    fun put(reference: IdentityWeakReference<Any>) {
+      if ((size + 1) * 2 > references.size) {
+        resize(references.size * 2)
+      }
+      val instance = reference.get()
+      val mask = references.size - 1
+      var index = slot(reference.hashCode(), mask)
+      while (true) {
+        val existing = references[index]
+        if (existing == null) {
+          references[index] = reference
+          size++
+          return
+        }
+        if (instance != null && existing.get() === instance) {
+          references[index] = reference
+          return
+        }
+        index = (index + 1) and mask
+      }
+    }
+
+    fun remove(reference: IdentityWeakReference<Any>) {
+      val mask = references.size - 1
+      var gap = slot(reference.hashCode(), mask)
+      while (references[gap] !== reference) {
+        if (references[gap] == null) {
+          return
+        }
+        gap = (gap + 1) and mask
+      }
+      // Moves back the references that follow the removed reference, so lookups never need to
+      // skip over removed references.
+      var next = (gap + 1) and mask
+      while (true) {
+        val moved = references[next] ?: break
+        val home = slot(moved.hashCode(), mask)
+        if (((next - home) and mask) >= ((next - gap) and mask)) {
+          references[gap] = moved
+          gap = next
+        }
+        next = (next + 1) and mask
+      }
+      references[gap] = null
+      size--
+    }
+
+    fun clear() {
+      references.fill(null)
+      size = 0
+    }
+
+    private fun resize(capacity: Int) {
+      val oldReferences = references
+      references = arrayOfNulls(capacity)
+      size = 0
+      for (reference in oldReferences) {
+        if (reference != null) {
+          put(reference)
+        }
+      }
+    }
+
+    private fun slot(hashCode: Int, mask: Int): Int {
+      val hash = hashCode * -0x61c88647
+      return (hash xor (hash ushr 16)) and mask
+    }
+  }
 }
 ''';
 }
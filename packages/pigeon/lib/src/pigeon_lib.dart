@@ -532,6 +532,18 @@ ${_argParser.usage}''';
       'java_use_generated_annotation',
       help: 'Adds the java.annotation.Generated annotation to the output.',
     )
+    ..addFlag(
+      'java_use_streaming_codec',
+      help:
+          'Encodes and decodes Java data classes field by field, without an '
+          'intermediate list.',
+    )
+    ..addFlag(
+      'java_include_channel_observer',
+      help:
+          'Adds a ChannelObserver to Java output, which receives the size and '
+          'timing of each message.',
+    )
     ..addOption(
       'swift_out',
       help: 'Path to generated Swift file (.swift).',
@@ -547,6 +559,12 @@ ${_argParser.usage}''';
       help: 'The package that generated Kotlin code will be in.',
       aliases: const <String>['experimental_kotlin_package'],
     )
+    ..addFlag(
+      'kotlin_include_channel_observer',
+      help:
+          'Adds a ChannelObserver to Kotlin output, which receives the size '
+          'and timing of each message.',
+    )
     ..addOption(
       'cpp_header_out',
       help: 'Path to generated C++ header file (.h).',
@@ -633,11 +651,16 @@ ${_argParser.usage}''';
         package: results['java_package'] as String?,
         useGeneratedAnnotation:
             results['java_use_generated_annotation'] as bool?,
+        useStreamingCodec: results['java_use_streaming_codec'] as bool?,
+        includeChannelObserver:
+            results['java_include_channel_observer'] as bool?,
       ),
       swiftOut: results['swift_out'] as String?,
       kotlinOut: results['kotlin_out'] as String?,
       kotlinOptions: KotlinOptions(
         package: results['kotlin_package'] as String?,
+        includeChannelObserver:
+            results['kotlin_include_channel_observer'] as bool? ?? false,
       ),
       cppHeaderOut: results['cpp_header_out'] as String?,
       cppSourceOut: results['cpp_source_out'] as String?,
@@ -961,6 +961,9 @@ List<Error> _validateProxyApi(
       customClasses.contains(type.type.baseName);
   bool isProxyApi(NamedType type) =>
       proxyApis.any((AstProxyApi api) => api.name == type.type.baseName);
+  bool containsProxyApi(TypeDeclaration type) =>
+      proxyApis.any((AstProxyApi api) => api.name == type.baseName) ||
+      type.typeArguments.any(containsProxyApi);
   Error unsupportedDataClassError(NamedType type) {
     return Error(
       message: 'ProxyApis do not support data classes: ${type.type.baseName}.',
@@ -1163,6 +1166,20 @@ List<Error> _validateProxyApi(
       }
     }
 
+    // The codec creates the Dart instance of a ProxyApi that has not been sent
+    // yet, and that message can only be sent from the platform thread.
+    if (method.location == ApiLocation.host &&
+        method.taskQueueType == TaskQueueType.serialBackgroundThread &&
+        containsProxyApi(method.returnType)) {
+      result.add(
+        Error(
+          message:
+              'Host methods on a background TaskQueue can not return a ProxyApi: ${method.name}.',
+          lineNumber: _calculateLineNumberNullable(source, method.offset),
+        ),
+      );
+    }
+
     if (method.location == ApiLocation.flutter) {
       if (!method.returnType.isVoid &&
           !method.returnType.isNullable &&
@@ -0,0 +1,169 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.example.alternate_language_test_plugin;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import com.example.alternate_language_test_plugin.Primitive.ChannelEvent;
+import com.example.alternate_language_test_plugin.Primitive.PrimitiveFlutterApi;
+import com.example.alternate_language_test_plugin.Primitive.PrimitiveHostApi;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MessageCodec;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class ChannelObserverTest {
+  private final List<ChannelEvent> events = new ArrayList<>();
+
+  @After
+  public void tearDown() {
+    Primitive.setChannelObserver(null);
+  }
+
+  @Test
+  public void observesHostApiMessages() {
+    Primitive.setChannelObserver(events::add);
+    PrimitiveHostApi mockApi = mock(PrimitiveHostApi.class);
+    when(mockApi.anInt(1L)).thenReturn(1L);
+    BinaryMessenger binaryMessenger = mock(BinaryMessenger.class);
+    PrimitiveHostApi.setUp(binaryMessenger, mockApi);
+    ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> handler =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(binaryMessenger)
+        .setMessageHandler(
+            eq("dev.flutter.pigeon.pigeon_integration_tests.PrimitiveHostApi.anInt"),
+            handler.capture());
+    MessageCodec<Object> codec = PrimitiveHostApi.getCodec();
+    ByteBuffer message = codec.encodeMessage(new ArrayList<Object>(Arrays.asList(1L)));
+    int messageSize = message.position();
+    message.rewind();
+    boolean[] didReply = {false};
+    handler
+        .getValue()
+        .onMessage(
+            message,
+            (bytes) -> {
+              didReply[0] = true;
+              bytes.rewind();
+              @SuppressWarnings("unchecked")
+              ArrayList<Object> wrapped = (ArrayList<Object>) codec.decodeMessage(bytes);
+              assertEquals(1L, ((Long) wrapped.get(0)).longValue());
+            });
+
+    assertTrue(didReply[0]);
+    assertEquals(1, events.size());
+    ChannelEvent event = events.get(0);
+    assertEquals(
+        "dev.flutter.pigeon.pigeon_integration_tests.PrimitiveHostApi.anInt", event.channelName);
+    assertTrue(event.isHostApi);
+    assertEquals(messageSize, event.messageSize);
+    assertTrue(event.replySize > 0);
+    assertTrue(event.decodeNanos >= 0);
+    assertTrue(event.handlerNanos >= 0);
+    assertTrue(event.encodeNanos >= 0);
+    assertEquals(Thread.currentThread().getName(), event.threadName);
+  }
+
+  @Test
+  public void observesFlutterApiMessages() {
+    Primitive.setChannelObserver(events::add);
+    BinaryMessenger binaryMessenger = mock(BinaryMessenger.class);
+    doAnswer(
+            invocation -> {
+              ByteBuffer message = invocation.getArgument(1);
+              BinaryMessenger.BinaryReply reply = invocation.getArgument(2);
+              message.position(0);
+              @SuppressWarnings("unchecked")
+              ArrayList<Object> args =
+                  (ArrayList<Object>) PrimitiveFlutterApi.getCodec().decodeMessage(message);
+              ByteBuffer replyData = PrimitiveFlutterApi.getCodec().encodeMessage(args);
+              replyData.position(0);
+              reply.reply(replyData);
+              return null;
+            })
+        .when(binaryMessenger)
+        .send(anyString(), any(), any());
+    PrimitiveFlutterApi api = new PrimitiveFlutterApi(binaryMessenger);
+    boolean[] didCall = {false};
+    api.aString(
+        "hello",
+        new Primitive.Result<String>() {
+          public void success(String result) {
+            didCall[0] = true;
+            assertEquals("hello", result);
+          }
+
+          public void error(Throwable error) {
+            assertEquals(error, null);
+          }
+        });
+
+    assertTrue(didCall[0]);
+    assertEquals(1, events.size());
+    ChannelEvent event = events.get(0);
+    assertEquals(
+        "dev.flutter.pigeon.pigeon_integration_tests.PrimitiveFlutterApi.aString",
+        event.channelName);
+    assertFalse(event.isHostApi);
+    assertTrue(event.messageSize > 0);
+    assertTrue(event.replySize > 0);
+  }
+
+  @Test
+  public void observesHostApisSetUpBeforeObserver() {
+    BinaryMessenger.BinaryMessageHandler handler = setUpHostApi();
+    Primitive.setChannelObserver(events::add);
+
+    assertTrue(sendAnInt(handler));
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  public void doesNotObserveMessagesAfterObserverIsRemoved() {
+    Primitive.setChannelObserver(events::add);
+    BinaryMessenger.BinaryMessageHandler handler = setUpHostApi();
+    Primitive.setChannelObserver(null);
+
+    assertTrue(sendAnInt(handler));
+    assertTrue(events.isEmpty());
+  }
+
+  private static BinaryMessenger.BinaryMessageHandler setUpHostApi() {
+    PrimitiveHostApi mockApi = mock(PrimitiveHostApi.class);
+    when(mockApi.anInt(1L)).thenReturn(1L);
+    BinaryMessenger binaryMessenger = mock(BinaryMessenger.class);
+    PrimitiveHostApi.setUp(binaryMessenger, mockApi);
+    ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> handler =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(binaryMessenger)
+        .setMessageHandler(
+            eq("dev.flutter.pigeon.pigeon_integration_tests.PrimitiveHostApi.anInt"),
+            handler.capture());
+    return handler.getValue();
+  }
+
+  /** Sends 1 to {@code anInt}, and returns whether it replied with 1. */
+  private static boolean sendAnInt(BinaryMessenger.BinaryMessageHandler handler) {
+    MessageCodec<Object> codec = PrimitiveHostApi.getCodec();
+    ByteBuffer message = codec.encodeMessage(new ArrayList<Object>(Arrays.asList(1L)));
+    message.rewind();
+    boolean[] didReply = {false};
+    handler.onMessage(
+        message,
+        (bytes) -> {
+          bytes.rewind();
+          @SuppressWarnings("unchecked")
+          ArrayList<Object> wrapped = (ArrayList<Object>) codec.decodeMessage(bytes);
+          didReply[0] = ((Long) wrapped.get(0)) == 1L;
+        });
+    return didReply[0];
+  }
+}
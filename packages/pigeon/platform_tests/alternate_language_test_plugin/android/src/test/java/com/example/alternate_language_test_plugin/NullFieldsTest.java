@@ -7,6 +7,11 @@ package com.example.alternate_language_test_plugin;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import androidx.annotation.NonNull;
+import io.flutter.plugin.common.MessageCodec;
+import io.flutter.plugin.common.StandardMessageCodec;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import org.junit.Test;
@@ -188,4 +193,50 @@ public class NullFieldsTest {
     assertNull(list.get(3));
     assertNull(list.get(4));
   }
+
+  @Test
+  public void codecMatchesListEncoding() {
+    NullFields.NullFieldsSearchRequest request =
+        new NullFields.NullFieldsSearchRequest.Builder()
+            .setQuery("hello")
+            .setIdentifier(1L)
+            .build();
+    NullFields.NullFieldsSearchReply reply =
+        new NullFields.NullFieldsSearchReply.Builder()
+            .setResult("result")
+            .setIndices(Arrays.asList(1L, null, 3L))
+            .setRequest(request)
+            .setType(NullFields.NullFieldsSearchReplyType.FAILURE)
+            .build();
+
+    // null_fields is generated with the streaming codec, which must produce the same bytes as the
+    // default codec.
+    MessageCodec<Object> codec = NullFields.NullFieldsHostApi.getCodec();
+    ByteBuffer message = codec.encodeMessage(reply);
+    ByteBuffer listMessage = new ListCodec().encodeMessage(reply);
+    message.rewind();
+    listMessage.rewind();
+    assertEquals(listMessage, message);
+
+    assertEquals(reply, codec.decodeMessage(message));
+  }
+
+  /** Encodes data classes as lists, like the default generated codec. */
+  private static class ListCodec extends StandardMessageCodec {
+    @Override
+    protected void writeValue(@NonNull ByteArrayOutputStream stream, Object value) {
+      if (value instanceof NullFields.NullFieldsSearchReplyType) {
+        stream.write(129);
+        writeValue(stream, ((NullFields.NullFieldsSearchReplyType) value).index);
+      } else if (value instanceof NullFields.NullFieldsSearchRequest) {
+        stream.write(130);
+        writeValue(stream, ((NullFields.NullFieldsSearchRequest) value).toList());
+      } else if (value instanceof NullFields.NullFieldsSearchReply) {
+        stream.write(131);
+        writeValue(stream, ((NullFields.NullFieldsSearchReply) value).toList());
+      } else {
+        super.writeValue(stream, value);
+      }
+    }
+  }
 }
@@ -0,0 +1,114 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package com.example.test_plugin
+
+import io.flutter.plugin.common.BinaryMessenger
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class ChannelObserverTest {
+  private val events = mutableListOf<PrimitiveChannelEvent>()
+
+  @After
+  fun tearDown() {
+    PrimitiveChannelObserver.setChannelObserver(null)
+  }
+
+  @Test
+  fun observesHostApiMessages() {
+    PrimitiveChannelObserver.setChannelObserver { events.add(it) }
+    val handler = setUpHostApi()
+
+    assertTrue(sendAnInt(handler))
+    assertEquals(1, events.size)
+    val event = events[0]
+    assertEquals(ANINT_CHANNEL_NAME, event.channelName)
+    assertTrue(event.isHostApi)
+    assertTrue(event.messageSize > 0)
+    assertTrue(event.replySize > 0)
+    assertTrue(event.decodeNanos >= 0)
+    assertTrue(event.handlerNanos >= 0)
+    assertTrue(event.encodeNanos >= 0)
+    assertEquals(Thread.currentThread().name, event.threadName)
+  }
+
+  @Test
+  fun observesFlutterApiMessages() {
+    PrimitiveChannelObserver.setChannelObserver { events.add(it) }
+    val api = PrimitiveFlutterApi(EchoBinaryMessenger(PrimitiveFlutterApi.codec))
+
+    var didCall = false
+    api.aString("hello") {
+      didCall = true
+      assertEquals("hello", it.getOrNull())
+    }
+
+    assertTrue(didCall)
+    assertEquals(1, events.size)
+    val event = events[0]
+    assertEquals(
+        "dev.flutter.pigeon.pigeon_integration_tests.PrimitiveFlutterApi.aString", event.channelName)
+    assertFalse(event.isHostApi)
+    assertTrue(event.messageSize > 0)
+    assertTrue(event.replySize > 0)
+  }
+
+  @Test
+  fun observesHostApisSetUpBeforeObserver() {
+    val handler = setUpHostApi()
+    PrimitiveChannelObserver.setChannelObserver { events.add(it) }
+
+    assertTrue(sendAnInt(handler))
+    assertEquals(1, events.size)
+  }
+
+  @Test
+  fun doesNotObserveMessagesAfterObserverIsRemoved() {
+    PrimitiveChannelObserver.setChannelObserver { events.add(it) }
+    val handler = setUpHostApi()
+    PrimitiveChannelObserver.setChannelObserver(null)
+
+    assertTrue(sendAnInt(handler))
+    assertTrue(events.isEmpty())
+  }
+
+  private fun setUpHostApi(): BinaryMessenger.BinaryMessageHandler {
+    val binaryMessenger = mockk<BinaryMessenger>(relaxed = true)
+    val api = mockk<PrimitiveHostApi>(relaxed = true)
+    val handlerSlot = slot<BinaryMessenger.BinaryMessageHandler>()
+    every { binaryMessenger.setMessageHandler(ANINT_CHANNEL_NAME, capture(handlerSlot)) } returns
+        Unit
+    every { api.anInt(any()) } returnsArgument 0
+
+    PrimitiveHostApi.setUp(binaryMessenger, api)
+
+    return handlerSlot.captured
+  }
+
+  /** Sends 1 to `anInt`, and returns whether it replied with 1. */
+  private fun sendAnInt(handler: BinaryMessenger.BinaryMessageHandler): Boolean {
+    val codec = PrimitiveHostApi.codec
+    val message = codec.encodeMessage(listOf(1L))
+    message?.rewind()
+    var didReply = false
+    handler.onMessage(message) {
+      it?.rewind()
+      @Suppress("UNCHECKED_CAST") val wrapped = codec.decodeMessage(it) as List<Any?>?
+      didReply = wrapped?.get(0) == 1L
+    }
+    return didReply
+  }
+
+  companion object {
+    private const val ANINT_CHANNEL_NAME =
+        "dev.flutter.pigeon.pigeon_integration_tests.PrimitiveHostApi.anInt"
+  }
+}
@@ -234,6 +234,62 @@ class InstanceManagerTest {
     assertFalse(reference1 == reference2)
   }
 
+  @Test
+  fun addingAnInstanceReleasesGarbageCollectedInstances() {
+    val finalizedIdentifiers = mutableListOf<Long>()
+    val instanceManager: ProxyApiTestsPigeonInstanceManager =
+        ProxyApiTestsPigeonInstanceManager.create(
+            object : ProxyApiTestsPigeonInstanceManager.PigeonFinalizationListener {
+              override fun onFinalize(identifier: Long) {
+                finalizedIdentifiers.add(identifier)
+              }
+            })
+
+    var testObject: Any? = Any()
+    instanceManager.addDartCreatedInstance(testObject!!, 0)
+    instanceManager.remove<Any?>(0)
+
+    // To allow for object to be garbage collected.
+    @Suppress("UNUSED_VALUE")
+    testObject = null
+    // The weak reference is enqueued some time after the object is garbage collected.
+    var identifier: Long = 1
+    while (finalizedIdentifiers.isEmpty() && identifier < 100) {
+      Runtime.getRuntime().gc()
+      Thread.sleep(10)
+      instanceManager.addDartCreatedInstance(Any(), identifier++)
+    }
+
+    assertEquals(listOf(0L), finalizedIdentifiers)
+    assertNull(instanceManager.getInstance(0))
+
+    instanceManager.stopFinalizationListener()
+  }
+
+  @Test
+  fun managesManyInstances() {
+    val instanceManager: ProxyApiTestsPigeonInstanceManager = createInstanceManager()
+    val instances = List(10000) { Any() }
+    instances.forEachIndexed { index, instance ->
+      instanceManager.addDartCreatedInstance(instance, index.toLong())
+    }
+
+    instances.forEachIndexed { index, instance ->
+      assertEquals(instance, instanceManager.getInstance(index.toLong()))
+      assertEquals(index.toLong(), instanceManager.getIdentifierForStrongReference(instance))
+    }
+    for (index in instances.indices step 2) {
+      assertEquals(instances[index], instanceManager.remove(index.toLong()))
+    }
+    for (index in instances.indices) {
+      val removed: Any? = instanceManager.remove(index.toLong())
+      assertEquals(if (index % 2 == 0) null else instances[index], removed)
+      assertTrue(instanceManager.containsInstance(instances[index]))
+    }
+
+    instanceManager.stopFinalizationListener()
+  }
+
   private fun createInstanceManager(): ProxyApiTestsPigeonInstanceManager {
     return ProxyApiTestsPigeonInstanceManager.create(
         object : ProxyApiTestsPigeonInstanceManager.PigeonFinalizationListener {
@@ -1820,6 +1820,225 @@ void main() {
     expect(code, contains(' extends StandardMessageCodec'));
   });
 
+  group('streaming codec', () {
+    final root = Root(
+      apis: <Api>[],
+      classes: <Class>[
+        Class(
+          name: 'Foobar',
+          fields: <NamedType>[
+            NamedType(
+              type: const TypeDeclaration(baseName: 'int', isNullable: false),
+              name: 'count',
+            ),
+            NamedType(
+              type: const TypeDeclaration(baseName: 'String', isNullable: true),
+              name: 'name',
+            ),
+          ],
+        ),
+      ],
+      enums: <Enum>[],
+    );
+
+    test('writes and reads fields directly', () {
+      final sink = StringBuffer();
+      const javaOptions = InternalJavaOptions(
+        className: 'Messages',
+        useStreamingCodec: true,
+        javaOut: '',
+      );
+      const generator = JavaGenerator();
+      generator.generate(
+        javaOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, contains('pigeonWriteFoobar(stream, (Foobar) value);'));
+      expect(code, contains('writeSize(stream, 2);'));
+      expect(code, contains('writeValue(stream, value.getCount());'));
+      expect(code, contains('writeValue(stream, value.getName());'));
+      expect(code, contains('return pigeonReadFoobar(buffer);'));
+      expect(
+        code,
+        contains('pigeonResult.setCount((Long) readValue(pigeonVar_buffer));'),
+      );
+      expect(
+        code,
+        contains('pigeonResult.setName((String) readValue(pigeonVar_buffer));'),
+      );
+      // toList and fromList are still generated for other uses.
+      expect(code, contains('ArrayList<Object> toList()'));
+      expect(code, isNot(contains('Foobar) value).toList()')));
+      expect(code, isNot(contains('Foobar.fromList(')));
+    });
+
+    test('does not collide with StandardMessageCodec methods', () {
+      Class classNamed(String name) => Class(
+        name: name,
+        fields: <NamedType>[
+          NamedType(
+            type: const TypeDeclaration(baseName: 'int', isNullable: true),
+            name: 'count',
+          ),
+        ],
+      );
+      final collidingRoot = Root(
+        apis: <Api>[],
+        classes: <Class>[classNamed('Value'), classNamed('Size')],
+        enums: <Enum>[],
+      );
+      final sink = StringBuffer();
+      const javaOptions = InternalJavaOptions(
+        className: 'Messages',
+        useStreamingCodec: true,
+        javaOut: '',
+      );
+      const generator = JavaGenerator();
+      generator.generate(
+        javaOptions,
+        collidingRoot,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, contains('pigeonWriteValue(stream, (Value) value);'));
+      expect(code, contains('pigeonWriteSize(stream, (Size) value);'));
+      expect(code, contains('return pigeonReadValue(buffer);'));
+      expect(code, contains('return pigeonReadSize(buffer);'));
+      expect(code, contains('private @NonNull Value pigeonReadValue('));
+      expect(code, contains('private @NonNull Size pigeonReadSize('));
+      // The codec's own methods are still called for the fields.
+      expect(code, contains('writeSize(stream, 1);'));
+    });
+
+    test('is not used by default', () {
+      final sink = StringBuffer();
+      const javaOptions = InternalJavaOptions(
+        className: 'Messages',
+        javaOut: '',
+      );
+      const generator = JavaGenerator();
+      generator.generate(
+        javaOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, contains('writeValue(stream, ((Foobar) value).toList());'));
+      expect(code, contains('Foobar.fromList((ArrayList<Object>) readValue'));
+      expect(code, isNot(contains('pigeonReadFieldCount')));
+    });
+  });
+
+  group('channel observer', () {
+    final root = Root(
+      apis: <Api>[
+        AstHostApi(
+          name: 'HostApi',
+          methods: <Method>[
+            Method(
+              name: 'doSomething',
+              location: ApiLocation.host,
+              parameters: <Parameter>[],
+              returnType: const TypeDeclaration.voidDeclaration(),
+            ),
+          ],
+        ),
+        AstFlutterApi(
+          name: 'FlutterApi',
+          methods: <Method>[
+            Method(
+              name: 'doSomething',
+              location: ApiLocation.flutter,
+              parameters: <Parameter>[],
+              returnType: const TypeDeclaration.voidDeclaration(),
+            ),
+          ],
+        ),
+      ],
+      classes: <Class>[],
+      enums: <Enum>[],
+      containsHostApi: true,
+      containsFlutterApi: true,
+    );
+
+    test('is measured through helpers when included', () {
+      final sink = StringBuffer();
+      const javaOptions = InternalJavaOptions(
+        className: 'Messages',
+        includeChannelObserver: true,
+        javaOut: '',
+      );
+      const generator = JavaGenerator();
+      generator.generate(
+        javaOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, contains('public interface ChannelObserver'));
+      expect(code, contains('public static final class ChannelEvent'));
+      expect(
+        code,
+        contains(
+          'public static void setChannelObserver(@Nullable ChannelObserver observer)',
+        ),
+      );
+      expect(
+        code,
+        contains(
+          RegExp(
+            r'setObservedMessageHandler\(\s*binaryMessenger,\s*"dev.flutter.pigeon.test_package.HostApi.doSomething" \+ messageChannelSuffix,\s*null,',
+          ),
+        ),
+      );
+      expect(
+        code,
+        contains(
+          RegExp(
+            r'sendObserved\(\s*channel,\s*binaryMessenger,\s*channelName,\s*null,',
+          ),
+        ),
+      );
+      // The observer is read for each message, so that it applies to handlers
+      // that were set up before it.
+      expect(
+        code,
+        contains(
+          RegExp(
+            r'\(message, binaryReply\) -> \{\s*ChannelObserver observer = channelObserver;',
+          ),
+        ),
+      );
+      // Handlers are still removed through the channel.
+      expect(code, contains('channel.setMessageHandler(null)'));
+    });
+
+    test('is not included by default', () {
+      final sink = StringBuffer();
+      const javaOptions = InternalJavaOptions(
+        className: 'Messages',
+        javaOut: '',
+      );
+      const generator = JavaGenerator();
+      generator.generate(
+        javaOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, isNot(contains('ChannelObserver')));
+      expect(code, isNot(contains('sendObserved')));
+      expect(code, contains('channel.send('));
+    });
+  });
+
   test('creates api error class for custom errors', () {
     final Api api = AstHostApi(name: 'Api', methods: <Method>[]);
     final root = Root(
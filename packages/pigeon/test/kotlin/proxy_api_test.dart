@@ -2,6 +2,7 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'package:pigeon/pigeon.dart' show TaskQueueType;
 import 'package:pigeon/src/ast.dart';
 import 'package:pigeon/src/kotlin/kotlin_generator.dart';
 import 'package:test/test.dart';
@@ -916,6 +917,106 @@ void main() {
         expect(collapsedCode, contains('abstract fun doSomething()'));
         expect(collapsedCode, contains(r'api.doSomething()'));
       });
+
+      test('background task queue method', () {
+        final root = Root(
+          apis: <Api>[
+            AstProxyApi(
+              name: 'Api',
+              constructors: <Constructor>[
+                Constructor(name: 'name', parameters: <Parameter>[]),
+              ],
+              fields: <ApiField>[],
+              methods: <Method>[
+                Method(
+                  name: 'doSomething',
+                  location: ApiLocation.host,
+                  parameters: <Parameter>[],
+                  returnType: const TypeDeclaration.voidDeclaration(),
+                  taskQueueType: TaskQueueType.serialBackgroundThread,
+                ),
+                Method(
+                  name: 'doSomethingElse',
+                  location: ApiLocation.host,
+                  parameters: <Parameter>[],
+                  returnType: const TypeDeclaration.voidDeclaration(),
+                ),
+              ],
+            ),
+          ],
+          classes: <Class>[],
+          enums: <Enum>[],
+        );
+        final sink = StringBuffer();
+        const generator = KotlinGenerator();
+        generator.generate(
+          const InternalKotlinOptions(kotlinOut: ''),
+          root,
+          sink,
+          dartPackageName: DEFAULT_PACKAGE_NAME,
+        );
+        final code = sink.toString();
+        final String collapsedCode = _collapseNewlineAndIndentation(code);
+        expect(
+          code,
+          contains('val taskQueue = binaryMessenger.makeBackgroundTaskQueue()'),
+        );
+        expect(
+          collapsedCode,
+          contains(
+            'BasicMessageChannel<Any?>(binaryMessenger, '
+            '"dev.flutter.pigeon.$DEFAULT_PACKAGE_NAME.Api.doSomething", '
+            'codec, taskQueue)',
+          ),
+        );
+        expect(
+          collapsedCode,
+          contains(
+            'BasicMessageChannel<Any?>(binaryMessenger, '
+            '"dev.flutter.pigeon.$DEFAULT_PACKAGE_NAME.Api.doSomethingElse", '
+            'codec)',
+          ),
+        );
+        expect(
+          collapsedCode,
+          contains(
+            'BasicMessageChannel<Any?>(binaryMessenger, '
+            '"dev.flutter.pigeon.$DEFAULT_PACKAGE_NAME.Api.name", codec)',
+          ),
+        );
+      });
+
+      test('no background task queue without background methods', () {
+        final root = Root(
+          apis: <Api>[
+            AstProxyApi(
+              name: 'Api',
+              constructors: <Constructor>[],
+              fields: <ApiField>[],
+              methods: <Method>[
+                Method(
+                  name: 'doSomething',
+                  location: ApiLocation.host,
+                  parameters: <Parameter>[],
+                  returnType: const TypeDeclaration.voidDeclaration(),
+                ),
+              ],
+            ),
+          ],
+          classes: <Class>[],
+          enums: <Enum>[],
+        );
+        final sink = StringBuffer();
+        const generator = KotlinGenerator();
+        generator.generate(
+          const InternalKotlinOptions(kotlinOut: ''),
+          root,
+          sink,
+          dartPackageName: DEFAULT_PACKAGE_NAME,
+        );
+        final code = sink.toString();
+        expect(code, isNot(contains('makeBackgroundTaskQueue')));
+      });
     });
 
     group('Flutter methods', () {
@@ -1100,6 +1201,122 @@ void main() {
           contains('fun <T : Any> getInstance(identifier: Long): T?'),
         );
       });
+
+      test('InstanceManager methods are synchronized', () {
+        final root = Root(
+          apis: <Api>[
+            AstProxyApi(
+              name: 'Api',
+              constructors: <Constructor>[],
+              fields: <ApiField>[],
+              methods: <Method>[],
+            ),
+          ],
+          classes: <Class>[],
+          enums: <Enum>[],
+        );
+        final sink = StringBuffer();
+        const generator = KotlinGenerator();
+        generator.generate(
+          const InternalKotlinOptions(kotlinOut: ''),
+          root,
+          sink,
+          dartPackageName: DEFAULT_PACKAGE_NAME,
+        );
+        final code = sink.toString();
+        final String collapsedCode = _collapseNewlineAndIndentation(code);
+
+        expect(
+          collapsedCode,
+          contains(
+            '@Synchronized fun <T : Any> getInstance(identifier: Long): T?',
+          ),
+        );
+        expect(
+          collapsedCode,
+          contains('@Synchronized fun containsInstance(instance: Any?)'),
+        );
+        expect(
+          collapsedCode,
+          contains('synchronized(this) { addInstance(instance, identifier) }'),
+        );
+      });
+
+      test('InstanceManager lookups do not allocate references', () {
+        final root = Root(
+          apis: <Api>[
+            AstProxyApi(
+              name: 'Api',
+              constructors: <Constructor>[],
+              fields: <ApiField>[],
+              methods: <Method>[],
+            ),
+          ],
+          classes: <Class>[],
+          enums: <Enum>[],
+        );
+        final sink = StringBuffer();
+        const generator = KotlinGenerator();
+        generator.generate(
+          const InternalKotlinOptions(kotlinOut: ''),
+          root,
+          sink,
+          dartPackageName: DEFAULT_PACKAGE_NAME,
+        );
+        final code = sink.toString();
+        final String collapsedCode = _collapseNewlineAndIndentation(code);
+
+        expect(code, isNot(contains('java.util.WeakHashMap')));
+        expect(code, isNot(contains('HashMap<Long')));
+        expect(
+          collapsedCode,
+          contains('private val weakInstances = IdentifierTable'),
+        );
+        expect(
+          collapsedCode,
+          contains('val reference = identifiers.get(instance) ?: return null'),
+        );
+        expect(
+          collapsedCode,
+          contains(
+            'return instance != null && identifiers.get(instance) != null',
+          ),
+        );
+      });
+
+      test('InstanceManager releases finalized instances when adding', () {
+        final root = Root(
+          apis: <Api>[
+            AstProxyApi(
+              name: 'Api',
+              constructors: <Constructor>[],
+              fields: <ApiField>[],
+              methods: <Method>[],
+            ),
+          ],
+          classes: <Class>[],
+          enums: <Enum>[],
+        );
+        final sink = StringBuffer();
+        const generator = KotlinGenerator();
+        generator.generate(
+          const InternalKotlinOptions(kotlinOut: ''),
+          root,
+          sink,
+          dartPackageName: DEFAULT_PACKAGE_NAME,
+        );
+        final code = sink.toString();
+        final String collapsedCode = _collapseNewlineAndIndentation(code);
+
+        expect(
+          collapsedCode,
+          contains(
+            'private fun addInstance(instance: Any, identifier: Long) { '
+            r'require(identifier >= 0) { "Identifier must be >= 0: $identifier" } '
+            'releaseFinalizedInstances()',
+          ),
+        );
+      });
     });
   });
 }
@@ -2027,4 +2027,121 @@ void main() {
     // There should be only one occurrence of 'is Foo' in the block
     expect(count, 1);
   });
+
+  group('channel observer', () {
+    final root = Root(
+      apis: <Api>[
+        AstHostApi(
+          name: 'HostApi',
+          methods: <Method>[
+            Method(
+              name: 'doSomething',
+              location: ApiLocation.host,
+              parameters: <Parameter>[],
+              returnType: const TypeDeclaration.voidDeclaration(),
+            ),
+          ],
+        ),
+        AstFlutterApi(
+          name: 'FlutterApi',
+          methods: <Method>[
+            Method(
+              name: 'doSomething',
+              location: ApiLocation.flutter,
+              parameters: <Parameter>[],
+              returnType: const TypeDeclaration.voidDeclaration(),
+            ),
+          ],
+        ),
+      ],
+      classes: <Class>[],
+      enums: <Enum>[],
+      containsHostApi: true,
+      containsFlutterApi: true,
+    );
+
+    test('is measured through helpers when included', () {
+      final sink = StringBuffer();
+      const kotlinOptions = InternalKotlinOptions(
+        kotlinOut: '',
+        fileSpecificClassNameComponent: 'Messages',
+        includeChannelObserver: true,
+      );
+      const generator = KotlinGenerator();
+      generator.generate(
+        kotlinOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, contains('fun interface MessagesChannelObserver'));
+      expect(code, contains('class MessagesChannelEvent('));
+      expect(
+        code,
+        contains(
+          'fun setChannelObserver(observer: MessagesChannelObserver?)',
+        ),
+      );
+      expect(code, contains('var channelObserver: MessagesChannelObserver?'));
+      expect(
+        code,
+        contains(
+          r'MessagesPigeonUtils.setObservedMessageHandler(binaryMessenger, "dev.flutter.pigeon.test_package.HostApi.doSomething$separatedMessageChannelSuffix", codec, null) {',
+        ),
+      );
+      expect(
+        code,
+        contains(
+          'MessagesPigeonUtils.sendObserved(channel, binaryMessenger, channelName, codec, null) {',
+        ),
+      );
+      // Handlers are still removed through the channel.
+      expect(code, contains('channel.setMessageHandler(null)'));
+    });
+
+    test('reads the observer for each message', () {
+      final sink = StringBuffer();
+      const kotlinOptions = InternalKotlinOptions(
+        kotlinOut: '',
+        fileSpecificClassNameComponent: 'Messages',
+        includeChannelObserver: true,
+      );
+      const generator = KotlinGenerator();
+      generator.generate(
+        kotlinOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(
+        code,
+        contains(
+          RegExp(
+            r'BinaryMessageHandler \{ message, binaryReply ->\s*val observer = channelObserver',
+          ),
+        ),
+      );
+    });
+
+    test('is not included by default', () {
+      final sink = StringBuffer();
+      const kotlinOptions = InternalKotlinOptions(
+        kotlinOut: '',
+        fileSpecificClassNameComponent: 'Messages',
+      );
+      const generator = KotlinGenerator();
+      generator.generate(
+        kotlinOptions,
+        root,
+        sink,
+        dartPackageName: DEFAULT_PACKAGE_NAME,
+      );
+      final code = sink.toString();
+      expect(code, isNot(contains('ChannelObserver')));
+      expect(code, isNot(contains('sendObserved')));
+      expect(code, contains('channel.send(null) {'));
+    });
+  });
 }
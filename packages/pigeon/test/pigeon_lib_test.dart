@@ -152,6 +152,27 @@ void main() {
     expect(opts.javaOptions!.useGeneratedAnnotation, isTrue);
   });
 
+  test('parse args - java_use_streaming_codec', () {
+    final PigeonOptions opts = Pigeon.parseArgs(<String>[
+      '--java_use_streaming_codec',
+    ]);
+    expect(opts.javaOptions!.useStreamingCodec, isTrue);
+  });
+
+  test('parse args - java_include_channel_observer', () {
+    final PigeonOptions opts = Pigeon.parseArgs(<String>[
+      '--java_include_channel_observer',
+    ]);
+    expect(opts.javaOptions!.includeChannelObserver, isTrue);
+  });
+
+  test('parse args - kotlin_include_channel_observer', () {
+    final PigeonOptions opts = Pigeon.parseArgs(<String>[
+      '--kotlin_include_channel_observer',
+    ]);
+    expect(opts.kotlinOptions!.includeChannelObserver, isTrue);
+  });
+
   test('parse args - cpp_source_out', () {
     final PigeonOptions opts = Pigeon.parseArgs(<String>[
       '--cpp_source_out',
@@ -1758,6 +1779,47 @@ abstract class MyClass {
       );
     });
 
+    test('background host methods can not return a ProxyApi', () {
+      const code = '''
+@ProxyApi()
+abstract class MyClass {
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  MyClass aMethod();
+
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  List<MyClass> aListMethod();
+}
+''';
+      final ParseResults parseResult = parseSource(code);
+      expect(parseResult.errors.length, equals(2));
+      expect(
+        parseResult.errors[0].message,
+        contains(
+          'Host methods on a background TaskQueue can not return a ProxyApi: aMethod.',
+        ),
+      );
+      expect(
+        parseResult.errors[1].message,
+        contains(
+          'Host methods on a background TaskQueue can not return a ProxyApi: aListMethod.',
+        ),
+      );
+    });
+
+    test('background host methods can return other types', () {
+      const code = '''
+@ProxyApi()
+abstract class MyClass {
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  String aMethod(MyClass other);
+
+  MyClass aPlatformThreadMethod();
+}
+''';
+      final ParseResults parseResult = parseSource(code);
+      expect(parseResult.errors, isEmpty);
+    });
+
     test('constructor parameters can share name of attached fields', () {
       const code = '''
 @ProxyApi()
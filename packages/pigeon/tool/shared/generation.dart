@@ -143,6 +143,7 @@ Future<int> generateTestPigeons({
       kotlinPackage: 'com.example.test_plugin',
       kotlinErrorClassName: kotlinErrorName,
       kotlinIncludeErrorClass: input != 'primitive',
+      kotlinIncludeChannelObserver: input == 'primitive',
       // iOS/macOS
       swiftOut: skipLanguages.contains(GeneratorLanguage.swift)
           ? null
@@ -186,6 +187,10 @@ Future<int> generateTestPigeons({
           : '$alternateOutputBase/android/src/main/java/com/example/'
                 'alternate_language_test_plugin/${_javaFilenameForName(input)}.java',
       javaPackage: 'com.example.alternate_language_test_plugin',
+      // Exercises the streaming codec with nested data classes, an enum and
+      // null fields. core_tests keeps the default codec.
+      javaUseStreamingCodec: input == 'null_fields',
+      javaIncludeChannelObserver: input == 'primitive',
       // iOS/macOS
       objcHeaderOut: skipLanguages.contains(GeneratorLanguage.objc)
           ? null
@@ -217,6 +222,7 @@ Future<int> runPigeon({
   String? kotlinPackage,
   String? kotlinErrorClassName,
   bool kotlinIncludeErrorClass = true,
+  bool kotlinIncludeChannelObserver = false,
   bool swiftIncludeErrorClass = true,
   String? swiftOut,
   String? swiftErrorClassName,
@@ -230,6 +236,8 @@ Future<int> runPigeon({
   String? gobjectModule,
   String? javaOut,
   String? javaPackage,
+  bool javaUseStreamingCodec = false,
+  bool javaIncludeChannelObserver = false,
   String? objcHeaderOut,
   String? objcSourceOut,
   String objcPrefix = '',
@@ -285,12 +293,17 @@ Future<int> runPigeon({
           ? null
           : GObjectOptions(module: gobjectModule),
       javaOut: javaOut,
-      javaOptions: JavaOptions(package: javaPackage),
+      javaOptions: JavaOptions(
+        package: javaPackage,
+        useStreamingCodec: javaUseStreamingCodec,
+        includeChannelObserver: javaIncludeChannelObserver,
+      ),
       kotlinOut: kotlinOut,
       kotlinOptions: KotlinOptions(
         package: kotlinPackage,
         errorClassName: kotlinErrorClassName,
         includeErrorClass: kotlinIncludeErrorClass,
+        includeChannelObserver: kotlinIncludeChannelObserver,
       ),
       objcHeaderOut: objcHeaderOut,
       objcSourceOut: objcSourceOut,
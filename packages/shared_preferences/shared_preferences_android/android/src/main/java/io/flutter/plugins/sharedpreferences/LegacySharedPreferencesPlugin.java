@@ -15,10 +15,8 @@ import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugins.sharedpreferences.Messages.SharedPreferencesApi;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -41,6 +39,10 @@ public class LegacySharedPreferencesPlugin implements FlutterPlugin, SharedPrefe
 
   private SharedPreferences preferences;
   private final SharedPreferencesListEncoder listEncoder;
+  // Whether writes are applied instead of committed. Applied writes are written to disk in the
+  // background, superseded writes are skipped, and pending writes are flushed by the framework
+  // when an activity pauses or stops.
+  private volatile boolean writeBehind;
 
   public LegacySharedPreferencesPlugin() {
     this(new ListEncoder());
@@ -72,7 +74,7 @@ public class LegacySharedPreferencesPlugin implements FlutterPlugin, SharedPrefe
 
   @Override
   public @NonNull Boolean setBool(@NonNull String key, @NonNull Boolean value) {
-    return preferences.edit().putBoolean(key, value).commit();
+    return write(preferences.edit().putBoolean(key, value));
   }
 
   @Override
@@ -84,29 +86,29 @@ public class LegacySharedPreferencesPlugin implements FlutterPlugin, SharedPrefe
       throw new RuntimeException(
           "StorageError: This string cannot be stored as it clashes with special identifier prefixes");
     }
-    return preferences.edit().putString(key, value).commit();
+    return write(preferences.edit().putString(key, value));
   }
 
   @Override
   public @NonNull Boolean setInt(@NonNull String key, @NonNull Long value) {
-    return preferences.edit().putLong(key, value).commit();
+    return write(preferences.edit().putLong(key, value));
   }
 
   @Override
   public @NonNull Boolean setDouble(@NonNull String key, @NonNull Double value) {
     String doubleValueStr = Double.toString(value);
-    return preferences.edit().putString(key, DOUBLE_PREFIX + doubleValueStr).commit();
+    return write(preferences.edit().putString(key, DOUBLE_PREFIX + doubleValueStr));
   }
 
   @Override
   public @NonNull Boolean remove(@NonNull String key) {
-    return preferences.edit().remove(key).commit();
+    return write(preferences.edit().remove(key));
   }
 
   @Override
   public @NonNull Boolean setEncodedStringList(@NonNull String key, @NonNull String value)
       throws RuntimeException {
-    return preferences.edit().putString(key, value).commit();
+    return write(preferences.edit().putString(key, value));
   }
 
   // Deprecated, for testing purposes only.
@@ -114,7 +116,43 @@ public class LegacySharedPreferencesPlugin implements FlutterPlugin, SharedPrefe
   @Override
   public @NonNull Boolean setDeprecatedStringList(@NonNull String key, @NonNull List<String> value)
       throws RuntimeException {
-    return preferences.edit().putString(key, LIST_IDENTIFIER + listEncoder.encode(value)).commit();
+    return write(preferences.edit().putString(key, LIST_IDENTIFIER + listEncoder.encode(value)));
+  }
+
+  @Override
+  public @NonNull Boolean setMany(@NonNull Map<String, Object> values) throws RuntimeException {
+    final SharedPreferences.Editor editor = preferences.edit();
+    for (Map.Entry<String, Object> entry : values.entrySet()) {
+      final String key = entry.getKey();
+      final Object value = entry.getValue();
+      if (value instanceof Boolean) {
+        editor.putBoolean(key, (Boolean) value);
+      } else if (value instanceof Long) {
+        editor.putLong(key, (Long) value);
+      } else if (value instanceof Double) {
+        editor.putString(key, DOUBLE_PREFIX + value);
+      } else if (value instanceof String) {
+        final String stringValue = (String) value;
+        // Encoded string lists are the only strings allowed to use a special prefix.
+        if (!stringValue.startsWith(JSON_LIST_IDENTIFIER)
+            && (stringValue.startsWith(LIST_IDENTIFIER)
+                || stringValue.startsWith(BIG_INTEGER_PREFIX)
+                || stringValue.startsWith(DOUBLE_PREFIX))) {
+          throw new RuntimeException(
+              "StorageError: This string cannot be stored as it clashes with special identifier prefixes");
+        }
+        editor.putString(key, stringValue);
+      } else {
+        throw new IllegalArgumentException(
+            "Unsupported value type for key " + key + ": " + value.getClass().getName());
+      }
+    }
+    return write(editor);
+  }
+
+  @Override
+  public void setWriteBehind(@NonNull Boolean enabled) {
+    writeBehind = enabled;
   }
 
   @Override
@@ -138,7 +176,15 @@ public class LegacySharedPreferencesPlugin implements FlutterPlugin, SharedPrefe
     for (String key : filteredPrefs) {
       clearEditor.remove(key);
     }
-    return clearEditor.commit();
+    return write(clearEditor);
+  }
+
+  private boolean write(@NonNull SharedPreferences.Editor editor) {
+    if (writeBehind) {
+      editor.apply();
+      return true;
+    }
+    return editor.commit();
   }
 
   // Gets all shared preferences, filtered to only those set with the given prefix.
@@ -195,23 +241,57 @@ public class LegacySharedPreferencesPlugin implements FlutterPlugin, SharedPrefe
     return value;
   }
 
+  /**
+   * Re-encodes string lists in {@code preferences} that were encoded with Java serialization by
+   * earlier versions of the plugin, using the smaller and faster {@link StringListEncoding}.
+   *
+   * <p>Lists are decoded transparently either way, so this is optional. Calling this also opts the
+   * app in to the compact encoding: lists written afterwards in this process, by either plugin API,
+   * use it too. Until then, lists are written with Java serialization. Once migrated or written
+   * with the compact encoding, lists cannot be read by versions of the plugin earlier than 2.5.2.
+   *
+   * @return the number of lists that were migrated.
+   */
+  public static int migrateStringLists(@NonNull SharedPreferences preferences) {
+    StringListEncoding.setCompactWritesEnabled(true);
+    final ListEncoder listEncoder = new ListEncoder();
+    final SharedPreferences.Editor editor = preferences.edit();
+    int migrated = 0;
+    for (Map.Entry<String, ?> entry : preferences.getAll().entrySet()) {
+      if (!(entry.getValue() instanceof String)) {
+        continue;
+      }
+      final String value = (String) entry.getValue();
+      if (!value.startsWith(LIST_IDENTIFIER) || value.startsWith(JSON_LIST_IDENTIFIER)) {
+        continue;
+      }
+      final String encoded = value.substring(LIST_IDENTIFIER.length());
+      if (!StringListEncoding.isCompact(encoded)) {
+        editor.putString(
+            entry.getKey(),
+            LIST_IDENTIFIER + StringListEncoding.encode(listEncoder.decode(encoded)));
+        migrated++;
+      }
+    }
+    if (migrated > 0) {
+      editor.apply();
+    }
+    return migrated;
+  }
+
   static class ListEncoder implements SharedPreferencesListEncoder {
     @Override
     public @NonNull String encode(@NonNull List<String> list) throws RuntimeException {
-      try {
-        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
-        ObjectOutputStream stream = new ObjectOutputStream(byteStream);
-        stream.writeObject(list);
-        stream.flush();
-        return Base64.encodeToString(byteStream.toByteArray(), 0);
-      } catch (IOException e) {
-        throw new RuntimeException(e);
-      }
+      return StringListEncoding.encodeForWrite(list);
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public @NonNull List<String> decode(@NonNull String listString) throws RuntimeException {
+      if (StringListEncoding.isCompact(listString)) {
+        return StringListEncoding.decode(listString);
+      }
+      // Lists written by earlier versions of the plugin are encoded with Java serialization.
       try {
         ObjectInputStream stream =
             new StringListObjectInputStream(new ByteArrayInputStream(Base64.decode(listString, 0)));
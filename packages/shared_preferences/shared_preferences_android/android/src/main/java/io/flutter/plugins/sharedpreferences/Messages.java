@@ -104,6 +104,19 @@ public class Messages {
      */
     @NonNull
     Boolean setDeprecatedStringList(@NonNull String key, @NonNull List<String> value);
+    /**
+     * Adds all of [values] to shared preferences data set with a single write.
+     *
+     * <p>Values must be bools, ints, doubles or Strings. String lists must already be encoded, as
+     * for [setEncodedStringList].
+     */
+    @NonNull
+    Boolean setMany(@NonNull Map<String, Object> values);
+    /**
+     * Sets whether writes are applied in memory and written to disk in the background, instead of
+     * being committed to disk before they return.
+     */
+    void setWriteBehind(@NonNull Boolean enabled);
     /** Removes all properties from shared preferences data set with matching prefix. */
     @NonNull
     Boolean clear(@NonNull String prefix, @Nullable List<String> allowList);
@@ -318,6 +331,58 @@ public class Messages {
           channel.setMessageHandler(null);
         }
       }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.shared_preferences_android.SharedPreferencesApi.setMany"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Map<String, Object> valuesArg = (Map<String, Object>) args.get(0);
+                try {
+                  Boolean output = api.setMany(valuesArg);
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.shared_preferences_android.SharedPreferencesApi.setWriteBehind"
+                    + messageChannelSuffix,
+                getCodec(),
+                taskQueue);
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                Boolean enabledArg = (Boolean) args.get(0);
+                try {
+                  api.setWriteBehind(enabledArg);
+                  wrapped.add(0, null);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
       {
         BasicMessageChannel<Object> channel =
             new BasicMessageChannel<>(
@@ -0,0 +1,118 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.sharedpreferences;
+
+import android.util.Base64;
+import androidx.annotation.NonNull;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact encoding of List<String> for platform-encoded lists.
+ *
+ * <p>Encoded lists start with {@link #VERSION_MARKER}, the version of the encoding, and {@link
+ * #VERSION_SEPARATOR}, followed by each string prefixed with its length and {@link
+ * #LENGTH_SEPARATOR}. For example, ["a", "bc"] is encoded as "#1|1:a2:bc".
+ *
+ * <p>Lists encoded with Java serialization are Base64 strings, which cannot contain {@link
+ * #VERSION_MARKER}, so the two encodings can be told apart. Versions of the plugin earlier than
+ * 2.5.2 can only read serialized lists, so lists are written with serialization until the app opts
+ * in with {@link LegacySharedPreferencesPlugin#migrateStringLists}.
+ */
+final class StringListEncoding {
+  static final char VERSION_MARKER = '#';
+  static final char VERSION_SEPARATOR = '|';
+  static final char LENGTH_SEPARATOR = ':';
+  static final int VERSION = 1;
+
+  private static final String HEADER = "" + VERSION_MARKER + VERSION + VERSION_SEPARATOR;
+
+  private static volatile boolean compactWritesEnabled = false;
+
+  private StringListEncoding() {}
+
+  /** Sets whether {@link #encodeForWrite} uses this encoding rather than serialization. */
+  static void setCompactWritesEnabled(boolean enabled) {
+    compactWritesEnabled = enabled;
+  }
+
+  /** Encodes {@code list} with the encoding that lists are currently written with. */
+  static @NonNull String encodeForWrite(@NonNull List<String> list) {
+    return compactWritesEnabled ? encode(list) : encodeSerialized(list);
+  }
+
+  /** Encodes {@code list} with Java serialization and Base64, which every version can read. */
+  static @NonNull String encodeSerialized(@NonNull List<String> list) {
+    try {
+      ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+      ObjectOutputStream stream = new ObjectOutputStream(byteStream);
+      stream.writeObject(list);
+      stream.flush();
+      return Base64.encodeToString(byteStream.toByteArray(), 0);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /** Returns whether {@code encoded} was encoded by {@link #encode} rather than serialization. */
+  static boolean isCompact(@NonNull String encoded) {
+    return !encoded.isEmpty() && encoded.charAt(0) == VERSION_MARKER;
+  }
+
+  static @NonNull String encode(@NonNull List<String> list) {
+    // Sized for lengths of up to five digits, so most lists are built without resizing.
+    int length = HEADER.length();
+    for (String value : list) {
+      length += value.length() + 6;
+    }
+    StringBuilder builder = new StringBuilder(length);
+    builder.append(HEADER);
+    for (String value : list) {
+      builder.append(value.length()).append(LENGTH_SEPARATOR).append(value);
+    }
+    return builder.toString();
+  }
+
+  static @NonNull List<String> decode(@NonNull String encoded) {
+    int versionEnd = encoded.indexOf(VERSION_SEPARATOR);
+    if (!isCompact(encoded) || versionEnd < 0) {
+      throw new IllegalArgumentException("Not a compact encoded string list");
+    }
+    int version;
+    try {
+      version = Integer.parseInt(encoded.substring(1, versionEnd));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid string list encoding version", e);
+    }
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported string list encoding version: " + version);
+    }
+
+    List<String> list = new ArrayList<>();
+    int position = versionEnd + 1;
+    while (position < encoded.length()) {
+      int lengthEnd = encoded.indexOf(LENGTH_SEPARATOR, position);
+      if (lengthEnd < 0) {
+        throw new IllegalArgumentException("Truncated encoded string list");
+      }
+      int length;
+      try {
+        length = Integer.parseInt(encoded.substring(position, lengthEnd));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Invalid length in encoded string list", e);
+      }
+      int valueEnd = lengthEnd + 1 + length;
+      if (length < 0 || valueEnd > encoded.length()) {
+        throw new IllegalArgumentException("Truncated encoded string list");
+      }
+      list.add(encoded.substring(lengthEnd + 1, valueEnd));
+      position = valueEnd;
+    }
+    return list;
+  }
+}
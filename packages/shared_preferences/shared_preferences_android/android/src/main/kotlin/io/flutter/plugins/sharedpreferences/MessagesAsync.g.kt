@@ -89,12 +89,18 @@ enum class StringListLookupResultType(val raw: Int) {
 }
 
 /** Generated class from Pigeon that represents data sent in messages. */
-data class SharedPreferencesPigeonOptions(val fileName: String? = null, val useDataStore: Boolean) {
+data class SharedPreferencesPigeonOptions(
+    val fileName: String? = null,
+    val useDataStore: Boolean,
+    /** Whether writes may be deferred and coalesced with later writes. */
+    val writeBehind: Boolean
+) {
   companion object {
     fun fromList(pigeonVar_list: List<Any?>): SharedPreferencesPigeonOptions {
       val fileName = pigeonVar_list[0] as String?
       val useDataStore = pigeonVar_list[1] as Boolean
-      return SharedPreferencesPigeonOptions(fileName, useDataStore)
+      val writeBehind = pigeonVar_list[2] as Boolean
+      return SharedPreferencesPigeonOptions(fileName, useDataStore, writeBehind)
     }
   }
 
@@ -102,6 +108,7 @@ data class SharedPreferencesPigeonOptions(val fileName: String? = null, val useD
     return listOf(
         fileName,
         useDataStore,
+        writeBehind,
     )
   }
 
@@ -212,6 +219,13 @@ interface SharedPreferencesAsyncApi {
       value: List<String>,
       options: SharedPreferencesPigeonOptions
   )
+  /**
+   * Adds all of [values] to shared preferences data set with a single write.
+   *
+   * Values must be bools, ints, doubles or Strings. String lists must already be encoded, as for
+   * [setEncodedStringList].
+   */
+  fun setMany(values: Map<String, Any>, options: SharedPreferencesPigeonOptions)
   /** Gets individual String value stored with [key], if any. */
   fun getString(key: String, options: SharedPreferencesPigeonOptions): String?
   /** Gets individual void value stored with [key], if any. */
@@ -406,6 +420,31 @@ interface SharedPreferencesAsyncApi {
           channel.setMessageHandler(null)
         }
       }
+      run {
+        val channel =
+            BasicMessageChannel<Any?>(
+                binaryMessenger,
+                "dev.flutter.pigeon.shared_preferences_android.SharedPreferencesAsyncApi.setMany$separatedMessageChannelSuffix",
+                codec,
+                taskQueue)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val valuesArg = args[0] as Map<String, Any>
+            val optionsArg = args[1] as SharedPreferencesPigeonOptions
+            val wrapped: List<Any?> =
+                try {
+                  api.setMany(valuesArg, optionsArg)
+                  listOf(null)
+                } catch (exception: Throwable) {
+                  MessagesAsyncPigeonUtils.wrapError(exception)
+                }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
       run {
         val channel =
             BasicMessageChannel<Any?>(
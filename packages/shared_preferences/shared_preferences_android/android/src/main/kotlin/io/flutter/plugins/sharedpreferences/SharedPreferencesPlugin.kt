@@ -4,12 +4,16 @@
 
 package io.flutter.plugins.sharedpreferences
 
+import android.app.Activity
+import android.app.Application
 import android.content.Context
 import android.content.SharedPreferences
+import android.os.Bundle
 import android.util.Base64
 import android.util.Log
 import androidx.annotation.VisibleForTesting
 import androidx.datastore.core.DataStore
+import androidx.datastore.preferences.core.MutablePreferences
 import androidx.datastore.preferences.core.Preferences
 import androidx.datastore.preferences.core.booleanPreferencesKey
 import androidx.datastore.preferences.core.doublePreferencesKey
@@ -21,13 +25,19 @@ import androidx.preference.PreferenceManager
 import io.flutter.embedding.engine.plugins.FlutterPlugin
 import io.flutter.plugin.common.BinaryMessenger
 import java.io.ByteArrayInputStream
-import java.io.ByteArrayOutputStream
-import java.io.ObjectOutputStream
 import java.lang.ClassCastException
-import kotlinx.coroutines.flow.Flow
-import kotlinx.coroutines.flow.firstOrNull
-import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.cancel
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withTimeoutOrNull
 
 const val TAG = "SharedPreferencesPlugin"
 const val SHARED_PREFERENCES_NAME = "FlutterSharedPreferences"
@@ -37,6 +47,10 @@ const val LIST_PREFIX = "VGhpcyBpcyB0aGUgcHJlZml4IGZvciBhIGxpc3Qu"
 // The symbol `!` was chosen as it cannot be created by the base 64 encoding used with LIST_PREFIX.
 const val JSON_LIST_PREFIX = LIST_PREFIX + "!"
 const val DOUBLE_PREFIX = "VGhpcyBpcyB0aGUgcHJlZml4IGZvciBEb3VibGUu"
+// How long write-behind writes are held to be coalesced with later writes.
+const val WRITE_BEHIND_WINDOW_MS = 100L
+// How long detaching from the engine waits for write-behind writes to be written.
+const val DETACH_FLUSH_TIMEOUT_MS = 1000L
 
 /*package private*/ val Context.sharedPreferencesDataStore: DataStore<Preferences> by
     preferencesDataStore(SHARED_PREFERENCES_NAME)
@@ -48,6 +62,14 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
 
   private var listEncoder = ListEncoder() as SharedPreferencesListEncoder
 
+  // Write-behind writes that have not been written to the data store yet. Reads and other writes
+  // flush them first, so they are never observed out of order.
+  private val pendingWritesLock = Any()
+  private var pendingWrites = mutableMapOf<String, Any>()
+  private var pendingFlush: Job? = null
+  private val scope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+  private val lifecycleCallbacks = FlushOnPauseCallbacks()
+
   @VisibleForTesting
   constructor(listEncoder: SharedPreferencesListEncoder) : this() {
     this.listEncoder = listEncoder
@@ -58,6 +80,7 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
     try {
       SharedPreferencesAsyncApi.setUp(messenger, this, "data_store")
       backend = SharedPreferencesBackend(messenger, context, listEncoder)
+      DataStorePreferencesCache.start(context)
     } catch (ex: Exception) {
       Log.e(TAG, "Received exception while setting up SharedPreferencesPlugin", ex)
     }
@@ -65,6 +88,8 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
 
   override fun onAttachedToEngine(binding: FlutterPlugin.FlutterPluginBinding) {
     setUp(binding.binaryMessenger, binding.applicationContext)
+    (binding.applicationContext as? Application)?.registerActivityLifecycleCallbacks(
+        lifecycleCallbacks)
     LegacySharedPreferencesPlugin().onAttachedToEngine(binding)
   }
 
@@ -72,40 +97,37 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
     SharedPreferencesAsyncApi.setUp(binding.binaryMessenger, null, "data_store")
     backend?.tearDown()
     backend = null
+    (binding.applicationContext as? Application)?.unregisterActivityLifecycleCallbacks(
+        lifecycleCallbacks)
+    // Detaching can happen on the main thread, so it only waits a bounded time for the writes. They
+    // are written in the background if they take longer.
+    val flush = CoroutineScope(Dispatchers.IO).launch { flushPendingWritesOrLog() }
+    runBlocking {
+      if (withTimeoutOrNull(DETACH_FLUSH_TIMEOUT_MS) { flush.join() } == null) {
+        Log.w(TAG, "Pending preferences are still being written after detaching")
+      }
+    }
+    scope.cancel()
   }
 
   /** Adds property to data store of type bool. */
   override fun setBool(key: String, value: Boolean, options: SharedPreferencesPigeonOptions) {
-    return runBlocking {
-      val boolKey = booleanPreferencesKey(key)
-      context.sharedPreferencesDataStore.edit { preferences -> preferences[boolKey] = value }
-    }
+    write(mapOf(key to value), options)
   }
 
   /** Adds property to data store of type String. */
   override fun setString(key: String, value: String, options: SharedPreferencesPigeonOptions) {
-    return runBlocking { dataStoreSetString(key, value) }
-  }
-
-  private suspend fun dataStoreSetString(key: String, value: String) {
-    val stringKey = stringPreferencesKey(key)
-    context.sharedPreferencesDataStore.edit { preferences -> preferences[stringKey] = value }
+    write(mapOf(key to value), options)
   }
 
   /** Adds property to data store of type int. Converted to Long by pigeon, and saved as such. */
   override fun setInt(key: String, value: Long, options: SharedPreferencesPigeonOptions) {
-    return runBlocking {
-      val intKey = longPreferencesKey(key)
-      context.sharedPreferencesDataStore.edit { preferences -> preferences[intKey] = value }
-    }
+    write(mapOf(key to value), options)
   }
 
   /** Adds property to data store of type double. */
   override fun setDouble(key: String, value: Double, options: SharedPreferencesPigeonOptions) {
-    return runBlocking {
-      val doubleKey = doublePreferencesKey(key)
-      context.sharedPreferencesDataStore.edit { preferences -> preferences[doubleKey] = value }
-    }
+    write(mapOf(key to value), options)
   }
 
   /** Adds property to data store of type List<String> as encoded String. */
@@ -114,7 +136,78 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
       value: String,
       options: SharedPreferencesPigeonOptions
   ) {
-    return runBlocking { dataStoreSetString(key, value) }
+    write(mapOf(key to value), options)
+  }
+
+  /** Adds all of [values] to data store with a single edit. */
+  override fun setMany(values: Map<String, Any>, options: SharedPreferencesPigeonOptions) {
+    values.forEach { (key, value) -> checkSupportedValue(key, value) }
+    write(values, options)
+  }
+
+  // Writes values to the data store, or queues them to be written with later writes if
+  // options.writeBehind is set.
+  private fun write(values: Map<String, Any>, options: SharedPreferencesPigeonOptions) {
+    if (options.writeBehind) {
+      synchronized(pendingWritesLock) {
+        pendingWrites.putAll(values)
+        if (pendingFlush == null) {
+          pendingFlush =
+              scope.launch {
+                delay(WRITE_BEHIND_WINDOW_MS)
+                flushPendingWritesOrLog()
+              }
+        }
+      }
+      return
+    }
+    runBlocking { editPreferences { preferences -> preferences.putValues(values) } }
+  }
+
+  private suspend fun flushPendingWrites() {
+    editPreferences(null)
+  }
+
+  // Edits the data store with any pending write-behind writes followed by [transform], and caches
+  // the edited preferences so they can be read immediately.
+  private suspend fun editPreferences(transform: ((MutablePreferences) -> Unit)?) {
+    DataStorePreferencesCache.editMutex.withLock {
+      val writes =
+          synchronized(pendingWritesLock) {
+            val writes = pendingWrites
+            pendingWrites = mutableMapOf()
+            pendingFlush = null
+            writes
+          }
+      if (writes.isEmpty() && transform == null) {
+        return
+      }
+      val preferences =
+          context.sharedPreferencesDataStore.edit { preferences ->
+            preferences.putValues(writes)
+            transform?.invoke(preferences)
+          }
+      DataStorePreferencesCache.onEdited(preferences)
+    }
+  }
+
+  // Returns the latest preferences, without waiting on the data store unless there are pending
+  // writes or the preferences have not been read yet.
+  private fun preferences(): Preferences {
+    val hasPendingWrites = synchronized(pendingWritesLock) { pendingWrites.isNotEmpty() }
+    if (hasPendingWrites || DataStorePreferencesCache.editMutex.isLocked) {
+      runBlocking { flushPendingWrites() }
+    }
+    return DataStorePreferencesCache.preferences
+        ?: runBlocking { context.sharedPreferencesDataStore.data.first() }
+  }
+
+  private suspend fun flushPendingWritesOrLog() {
+    try {
+      flushPendingWrites()
+    } catch (e: Exception) {
+      Log.e(TAG, "Failed to write pending preferences", e)
+    }
   }
 
   /** Deprecated, for testing purposes only. Adds property to data store of type List<String>. */
@@ -125,13 +218,13 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
       options: SharedPreferencesPigeonOptions
   ) {
     val valueString = LIST_PREFIX + listEncoder.encode(value)
-    return runBlocking { dataStoreSetString(key, valueString) }
+    write(mapOf(key to valueString), options)
   }
 
   /** Removes all properties from data store. */
   override fun clear(allowList: List<String>?, options: SharedPreferencesPigeonOptions) {
     runBlocking {
-      context.sharedPreferencesDataStore.edit { preferences ->
+      editPreferences { preferences ->
         allowList?.let { list ->
           list.forEach { key ->
             val preferencesKey = booleanPreferencesKey(key)
@@ -147,60 +240,27 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
       allowList: List<String>?,
       options: SharedPreferencesPigeonOptions
   ): Map<String, Any> {
-    return runBlocking { getPrefs(allowList) }
+    return getPrefs(allowList)
   }
 
   /** Gets int (as long) at [key] from data store. */
   override fun getInt(key: String, options: SharedPreferencesPigeonOptions): Long? {
-    val value: Long?
-    runBlocking {
-      val preferencesKey = longPreferencesKey(key)
-      val preferenceFlow: Flow<Long?> =
-          context.sharedPreferencesDataStore.data.map { preferences -> preferences[preferencesKey] }
-      value = preferenceFlow.firstOrNull()
-    }
-    return value
+    return preferences()[longPreferencesKey(key)]
   }
 
   /** Gets bool at [key] from data store. */
   override fun getBool(key: String, options: SharedPreferencesPigeonOptions): Boolean? {
-    val value: Boolean?
-
-    runBlocking {
-      val preferencesKey = booleanPreferencesKey(key)
-      val preferenceFlow: Flow<Boolean?> =
-          context.sharedPreferencesDataStore.data.map { preferences -> preferences[preferencesKey] }
-
-      value = preferenceFlow.firstOrNull()
-    }
-    return value
+    return preferences()[booleanPreferencesKey(key)]
   }
+
   /** Gets double at [key] from data store. */
   override fun getDouble(key: String, options: SharedPreferencesPigeonOptions): Double? {
-    val value: Double?
-    runBlocking {
-      val preferencesKey = stringPreferencesKey(key)
-      val preferenceFlow: Flow<Double?> =
-          context.sharedPreferencesDataStore.data.map { preferences ->
-            transformPref(preferences[preferencesKey] as Any?, listEncoder) as Double?
-          }
-
-      value = preferenceFlow.firstOrNull()
-    }
-    return value
+    return transformPref(preferences()[stringPreferencesKey(key)] as Any?, listEncoder) as Double?
   }
 
   /** Gets String at [key] from data store. */
   override fun getString(key: String, options: SharedPreferencesPigeonOptions): String? {
-    val value: String?
-    runBlocking {
-      val preferencesKey = stringPreferencesKey(key)
-      val preferenceFlow: Flow<String?> =
-          context.sharedPreferencesDataStore.data.map { preferences -> preferences[preferencesKey] }
-
-      value = preferenceFlow.firstOrNull()
-    }
-    return value
+    return preferences()[stringPreferencesKey(key)]
   }
 
   /** Gets StringList at [key] from data store. */
@@ -245,17 +305,15 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
       allowList: List<String>?,
       options: SharedPreferencesPigeonOptions
   ): List<String> {
-    val prefs = runBlocking { getPrefs(allowList) }
+    val prefs = getPrefs(allowList)
     return prefs.keys.toList()
   }
 
-  private suspend fun getPrefs(allowList: List<String>?): Map<String, Any> {
+  private fun getPrefs(allowList: List<String>?): Map<String, Any> {
     val allowSet = allowList?.toSet()
     val filteredMap = mutableMapOf<String, Any>()
 
-    val keys = readAllKeys()
-    keys?.forEach { key ->
-      val value = getValueByKey(key)
+    preferences().asMap().forEach { (key, value) ->
       if (preferencesFilter(key.toString(), value, allowSet)) {
         val transformedValue = transformPref(value, listEncoder)
         if (transformedValue != null) {
@@ -266,14 +324,88 @@ class SharedPreferencesPlugin() : FlutterPlugin, SharedPreferencesAsyncApi {
     return filteredMap
   }
 
-  private suspend fun readAllKeys(): Set<Preferences.Key<*>>? {
-    val keys = context.sharedPreferencesDataStore.data.map { it.asMap().keys }
-    return keys.firstOrNull()
+  // Flushes write-behind writes when an activity pauses, since the process may be killed at any
+  // time after that.
+  private inner class FlushOnPauseCallbacks : Application.ActivityLifecycleCallbacks {
+    override fun onActivityPaused(activity: Activity) {
+      scope.launch { flushPendingWritesOrLog() }
+    }
+
+    override fun onActivityCreated(activity: Activity, savedInstanceState: Bundle?) {}
+
+    override fun onActivityStarted(activity: Activity) {}
+
+    override fun onActivityResumed(activity: Activity) {}
+
+    override fun onActivityStopped(activity: Activity) {}
+
+    override fun onActivitySaveInstanceState(activity: Activity, outState: Bundle) {}
+
+    override fun onActivityDestroyed(activity: Activity) {}
+  }
+}
+
+/**
+ * The latest preferences in [sharedPreferencesDataStore], so that they can be read without waiting
+ * on the data store.
+ *
+ * Like the data store, it is shared by all plugin instances in the process. It is kept up to date
+ * by the edits made by the plugin and by a single collector on the data store's flow.
+ */
+internal object DataStorePreferencesCache {
+  /** Held while editing the data store, so that edits are cached in the order they are made. */
+  val editMutex = Mutex()
+
+  /** The latest preferences, or null if they have not been read yet. */
+  @Volatile
+  var preferences: Preferences? = null
+    private set
+
+  private val lock = Any()
+  // Incremented by each edit, so the collector can tell that the preferences it received may be
+  // older than the cached ones.
+  private var editCount = 0L
+  private var collector: Job? = null
+
+  /** Starts collecting the preferences in the data store, if that has not already been done. */
+  fun start(context: Context) {
+    synchronized(lock) {
+      if (collector == null) {
+        collector = CoroutineScope(Dispatchers.IO).launch { collect(context.applicationContext) }
+      }
+    }
+  }
+
+  /** Caches the [preferences] returned by an edit of the data store. */
+  fun onEdited(preferences: Preferences) {
+    synchronized(lock) {
+      editCount++
+      this.preferences = preferences
+    }
   }
 
-  private suspend fun getValueByKey(key: Preferences.Key<*>): Any? {
-    val value = context.sharedPreferencesDataStore.data.map { it[key] }
-    return value.firstOrNull()
+  private suspend fun collect(context: Context) {
+    val dataStore = context.sharedPreferencesDataStore
+    try {
+      dataStore.data.collect { preferences ->
+        val editCountBeforeRead = synchronized(lock) { editCount }
+        // The collector may receive preferences after an edit has already cached newer ones, so
+        // they are only cached if they are still the latest.
+        if (dataStore.data.first() == preferences) {
+          synchronized(lock) {
+            if (editCount == editCountBeforeRead) {
+              this.preferences = preferences
+            }
+          }
+        }
+      }
+    } catch (e: Exception) {
+      Log.e(TAG, "Failed to read preferences", e)
+      synchronized(lock) {
+        this.preferences = null
+        collector = null
+      }
+    }
   }
 }
 
@@ -343,6 +475,26 @@ class SharedPreferencesBackend(
     return createSharedPreferences(options).edit().putString(key, valueString).apply()
   }
 
+  /**
+   * Adds all of [values] to data store with a single edit.
+   *
+   * Writes to this backend are always applied in the background, so [options.writeBehind] has no
+   * effect.
+   */
+  override fun setMany(values: Map<String, Any>, options: SharedPreferencesPigeonOptions) {
+    val editor = createSharedPreferences(options).edit()
+    for ((key, value) in values) {
+      checkSupportedValue(key, value)
+      when (value) {
+        is Boolean -> editor.putBoolean(key, value)
+        is Long -> editor.putLong(key, value)
+        is Double -> editor.putString(key, DOUBLE_PREFIX + value)
+        is String -> editor.putString(key, value)
+      }
+    }
+    return editor.apply()
+  }
+
   /** Removes all properties from data store. */
   override fun clear(allowList: List<String>?, options: SharedPreferencesPigeonOptions) {
     val preferences = createSharedPreferences(options)
@@ -483,6 +635,26 @@ internal fun preferencesFilter(key: String, value: Any?, allowList: Set<String>?
   return allowList.contains(key)
 }
 
+/** Throws if [value] is not of a type that [setMany] can store. */
+internal fun checkSupportedValue(key: String, value: Any) {
+  if (value !is Boolean && value !is Long && value !is Double && value !is String) {
+    throw IllegalArgumentException(
+        "Unsupported value type for key $key: ${value.javaClass.name}")
+  }
+}
+
+/** Adds each of [values] with a key of the matching type. */
+internal fun MutablePreferences.putValues(values: Map<String, Any>) {
+  for ((key, value) in values) {
+    when (value) {
+      is Boolean -> this[booleanPreferencesKey(key)] = value
+      is Long -> this[longPreferencesKey(key)] = value
+      is Double -> this[doublePreferencesKey(key)] = value
+      is String -> this[stringPreferencesKey(key)] = value
+    }
+  }
+}
+
 /** Transforms preferences that are stored as Strings back to original type. */
 internal fun transformPref(value: Any?, listEncoder: SharedPreferencesListEncoder): Any? {
   if (value is String) {
@@ -504,14 +676,14 @@ internal fun transformPref(value: Any?, listEncoder: SharedPreferencesListEncode
 /** Class that provides tools for encoding and decoding List<String> to String and back. */
 class ListEncoder : SharedPreferencesListEncoder {
   override fun encode(list: List<String>): String {
-    val byteStream = ByteArrayOutputStream()
-    val stream = ObjectOutputStream(byteStream)
-    stream.writeObject(list)
-    stream.flush()
-    return Base64.encodeToString(byteStream.toByteArray(), 0)
+    return StringListEncoding.encodeForWrite(list)
   }
 
   override fun decode(listString: String): List<String> {
+    if (StringListEncoding.isCompact(listString)) {
+      return StringListEncoding.decode(listString)
+    }
+    // Lists written by earlier versions of the plugin are encoded with Java serialization.
     val byteArray = Base64.decode(listString, 0)
     val stream = StringListObjectInputStream(ByteArrayInputStream(byteArray))
     return (stream.readObject() as List<*>).filterIsInstance<String>()
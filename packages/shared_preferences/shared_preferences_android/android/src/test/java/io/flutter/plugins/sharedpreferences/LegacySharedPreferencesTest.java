@@ -7,6 +7,8 @@ package io.flutter.plugins.sharedpreferences;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyString;
 
@@ -203,6 +205,37 @@ public class LegacySharedPreferencesTest {
     assertFalse(plugin.getAll("", null).containsKey(key));
   }
 
+  @Test
+  public void setManySetsAllValues() {
+    final Map<String, Object> values = new HashMap<>();
+    values.put("Language", "Java");
+    values.put("Counter", 0L);
+    values.put("Pie", 3.14);
+    values.put("NewToFlutter", false);
+
+    assertTrue(plugin.setMany(values));
+
+    assertEquals(plugin.getAll("", null), values);
+  }
+
+  @Test
+  public void setManyRejectsStringsWithSpecialPrefixes() {
+    final Map<String, Object> values = new HashMap<>();
+    values.put("Language", "VGhpcyBpcyB0aGUgcHJlZml4IGZvciBEb3VibGUu3.14");
+
+    assertThrows(RuntimeException.class, () -> plugin.setMany(values));
+    assertEquals(plugin.getAll("", null).size(), 0);
+  }
+
+  @Test
+  public void setWriteBehindAppliesWrites() {
+    plugin.setWriteBehind(true);
+
+    assertTrue(plugin.setBool("NewToFlutter", true));
+
+    assertEquals(plugin.getAll("", null).get("NewToFlutter"), true);
+  }
+
   private void addData() {
     plugin.setString("Language", "Java");
     plugin.setInt("Counter", 0L);
@@ -279,7 +312,7 @@ public class LegacySharedPreferencesTest {
 
     @Override
     public void apply() {
-      throw new UnsupportedOperationException("This method is not implemented for testing");
+      // Values are stored as soon as they are put.
     }
 
     @Override
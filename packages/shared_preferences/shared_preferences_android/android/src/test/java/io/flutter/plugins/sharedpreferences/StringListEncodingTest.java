@@ -0,0 +1,54 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.sharedpreferences;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class StringListEncodingTest {
+  @Test
+  public void encodesLengthPrefixedStrings() {
+    assertEquals("#1|1:a2:bc", StringListEncoding.encode(Arrays.asList("a", "bc")));
+  }
+
+  @Test
+  public void roundTripsStrings() {
+    List<String> list =
+        Arrays.asList("", "Flutter", "12:34", "#1|", "multi\nline", "\u00e9\u6f22\ud83d\ude00");
+    assertEquals(list, StringListEncoding.decode(StringListEncoding.encode(list)));
+  }
+
+  @Test
+  public void roundTripsEmptyList() {
+    List<String> list = Collections.emptyList();
+    assertEquals(list, StringListEncoding.decode(StringListEncoding.encode(list)));
+  }
+
+  @Test
+  public void isCompactOnlyForCompactEncoding() {
+    assertTrue(StringListEncoding.isCompact(StringListEncoding.encode(Arrays.asList("a"))));
+    // Lists encoded with Java serialization start with the Base64 of the stream magic number.
+    assertFalse(StringListEncoding.isCompact("rO0ABXNyABNqYXZhLnV0aWwuQXJyYXlMaXN0"));
+    assertFalse(StringListEncoding.isCompact(""));
+  }
+
+  @Test
+  public void decodeRejectsUnsupportedVersion() {
+    assertThrows(IllegalArgumentException.class, () -> StringListEncoding.decode("#2|1:a"));
+  }
+
+  @Test
+  public void decodeRejectsTruncatedList() {
+    assertThrows(IllegalArgumentException.class, () -> StringListEncoding.decode("#1|5:abc"));
+    assertThrows(IllegalArgumentException.class, () -> StringListEncoding.decode("#1|1:a2"));
+  }
+}
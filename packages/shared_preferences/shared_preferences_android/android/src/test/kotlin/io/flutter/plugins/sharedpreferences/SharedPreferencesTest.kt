@@ -7,6 +7,8 @@ package io.flutter.plugins.sharedpreferences
 import android.content.Context
 import android.content.SharedPreferences
 import android.util.Base64
+import androidx.datastore.preferences.core.edit
+import androidx.datastore.preferences.core.stringPreferencesKey
 import androidx.preference.PreferenceManager
 import androidx.test.core.app.ApplicationProvider
 import androidx.test.ext.junit.runners.AndroidJUnit4
@@ -16,7 +18,10 @@ import io.mockk.every
 import io.mockk.mockk
 import java.io.ByteArrayOutputStream
 import java.io.ObjectOutputStream
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
 import org.junit.Assert
+import org.junit.After
 import org.junit.Assert.assertThrows
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -43,10 +48,20 @@ internal class SharedPreferencesTest {
 
   private val testList = JSON_LIST_PREFIX + listOf("foo", "bar").toString()
 
-  private val dataStoreOptions = SharedPreferencesPigeonOptions(useDataStore = true)
-  private val sharedPreferencesOptions = SharedPreferencesPigeonOptions(useDataStore = false)
+  private val dataStoreOptions =
+      SharedPreferencesPigeonOptions(useDataStore = true, writeBehind = false)
+  private val writeBehindDataStoreOptions =
+      SharedPreferencesPigeonOptions(useDataStore = true, writeBehind = true)
+  private val sharedPreferencesOptions =
+      SharedPreferencesPigeonOptions(useDataStore = false, writeBehind = false)
   private val testContext: Context = ApplicationProvider.getApplicationContext()
 
+  @After
+  fun tearDown() {
+    // migrateStringLists opts the whole process in to the compact encoding.
+    StringListEncoding.setCompactWritesEnabled(false)
+  }
+
   private fun pluginSetup(options: SharedPreferencesPigeonOptions): SharedPreferencesAsyncApi {
     val plugin = SharedPreferencesPlugin()
     val binaryMessenger = mockk<BinaryMessenger>()
@@ -205,6 +220,103 @@ internal class SharedPreferencesTest {
     Assert.assertNull(all[listKey])
   }
 
+  @Test
+  fun testSetManyWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    plugin.setMany(
+        mapOf(
+            boolKey to testBool,
+            stringKey to testString,
+            intKey to testInt,
+            doubleKey to testDouble,
+            listKey to testList),
+        dataStoreOptions)
+
+    val all = plugin.getAll(null, dataStoreOptions)
+
+    Assert.assertEquals(all[boolKey], testBool)
+    Assert.assertEquals(all[stringKey], testString)
+    Assert.assertEquals(all[intKey], testInt)
+    Assert.assertEquals(all[doubleKey], testDouble)
+    Assert.assertEquals(all[listKey], testList)
+  }
+
+  @Test
+  fun testSetManyWithUnsupportedValueThrowsWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    val unsetKey = "testUnset"
+    assertThrows(IllegalArgumentException::class.java) {
+      plugin.setMany(mapOf(unsetKey to testString, listKey to listOf("foo")), dataStoreOptions)
+    }
+    Assert.assertNull(plugin.getString(unsetKey, dataStoreOptions))
+  }
+
+  @Test
+  fun testWriteBehindWritesAreReadableWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    plugin.setBool(boolKey, testBool, writeBehindDataStoreOptions)
+    plugin.setMany(mapOf(stringKey to testString, intKey to testInt), writeBehindDataStoreOptions)
+
+    Assert.assertEquals(plugin.getBool(boolKey, dataStoreOptions), testBool)
+    val all = plugin.getAll(listOf(stringKey, intKey), dataStoreOptions)
+    Assert.assertEquals(all[stringKey], testString)
+    Assert.assertEquals(all[intKey], testInt)
+  }
+
+  @Test
+  fun testWriteBehindWritesAreOrderedWithOtherWritesWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    plugin.setString(stringKey, "first", writeBehindDataStoreOptions)
+    plugin.setString(stringKey, testString, dataStoreOptions)
+
+    Assert.assertEquals(plugin.getString(stringKey, dataStoreOptions), testString)
+  }
+
+  @Test
+  fun testDetachingWritesPendingWriteBehindWritesWithDataStore() {
+    val plugin = SharedPreferencesPlugin()
+    val flutterPluginBinding = mockk<FlutterPlugin.FlutterPluginBinding>()
+    every { flutterPluginBinding.binaryMessenger } returns mockk<BinaryMessenger>(relaxed = true)
+    every { flutterPluginBinding.applicationContext } returns testContext
+    plugin.onAttachedToEngine(flutterPluginBinding)
+    plugin.setString("testDetach", testString, writeBehindDataStoreOptions)
+
+    plugin.onDetachedFromEngine(flutterPluginBinding)
+
+    val preferences = runBlocking { testContext.sharedPreferencesDataStore.data.first() }
+    Assert.assertEquals(testString, preferences[stringPreferencesKey("testDetach")])
+  }
+
+  @Test
+  fun testWritesAreReadableFromOtherPluginsWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    val otherPlugin = pluginSetup(dataStoreOptions)
+    Assert.assertNull(otherPlugin.getString("testOtherPlugin", dataStoreOptions))
+
+    plugin.setString("testOtherPlugin", testString, dataStoreOptions)
+
+    Assert.assertEquals(otherPlugin.getString("testOtherPlugin", dataStoreOptions), testString)
+  }
+
+  @Test
+  fun testEditsMadeOutsideThePluginAreReadableWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    val key = "testOutsideEdit"
+    Assert.assertNull(plugin.getString(key, dataStoreOptions))
+
+    runBlocking {
+      testContext.sharedPreferencesDataStore.edit { it[stringPreferencesKey(key)] = testString }
+    }
+
+    // Edits made outside the plugin are cached once the collector receives them.
+    val deadline = System.currentTimeMillis() + 5000
+    while (plugin.getString(key, dataStoreOptions) == null &&
+        System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+    Assert.assertEquals(plugin.getString(key, dataStoreOptions), testString)
+  }
+
   @Test
   fun testSetAndGetBoolWithSharedPreferences() {
     val plugin = pluginSetup(sharedPreferencesOptions)
@@ -346,11 +458,33 @@ internal class SharedPreferencesTest {
     Assert.assertNull(all[listKey])
   }
 
+  @Test
+  fun testSetManyWithSharedPreferences() {
+    val plugin = pluginSetup(sharedPreferencesOptions)
+    plugin.setMany(
+        mapOf(
+            boolKey to testBool,
+            stringKey to testString,
+            intKey to testInt,
+            doubleKey to testDouble,
+            listKey to testList),
+        sharedPreferencesOptions)
+
+    val all = plugin.getAll(null, sharedPreferencesOptions)
+
+    Assert.assertEquals(all[boolKey], testBool)
+    Assert.assertEquals(all[stringKey], testString)
+    Assert.assertEquals(all[intKey], testInt)
+    Assert.assertEquals(all[doubleKey], testDouble)
+    Assert.assertEquals(all[listKey], testList)
+  }
+
   @Test
   fun testSharedPreferencesWithMultipleFiles() {
     val plugin = pluginSetup(sharedPreferencesOptions)
     val optionsWithNewFile =
-        SharedPreferencesPigeonOptions(useDataStore = false, fileName = "test_file")
+        SharedPreferencesPigeonOptions(
+            useDataStore = false, fileName = "test_file", writeBehind = false)
     plugin.setInt(intKey, 1, sharedPreferencesOptions)
     plugin.setInt(intKey, 2, optionsWithNewFile)
     Assert.assertEquals(plugin.getInt(intKey, sharedPreferencesOptions), 1L)
@@ -366,6 +500,65 @@ internal class SharedPreferencesTest {
     Assert.assertEquals(plugin.getString(stringKey, sharedPreferencesOptions), testString)
   }
 
+  @Test
+  fun testSetDeprecatedStringListUsesSerializationByDefaultWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    plugin.setDeprecatedStringList(listKey, listOf("foo", "bar"), dataStoreOptions)
+    // "rO0AB" is the Base64 encoding of the Java serialization header.
+    Assert.assertTrue(
+        plugin.getString(listKey, dataStoreOptions)!!.startsWith(LIST_PREFIX + "rO0AB"))
+    Assert.assertEquals(
+        plugin.getPlatformEncodedStringList(listKey, dataStoreOptions), listOf("foo", "bar"))
+  }
+
+  @Test
+  fun testSetDeprecatedStringListUsesCompactEncodingAfterMigrationWithDataStore() {
+    LegacySharedPreferencesPlugin.migrateStringLists(
+        testContext.getSharedPreferences("migration", Context.MODE_PRIVATE))
+    val plugin = pluginSetup(dataStoreOptions)
+    plugin.setDeprecatedStringList(listKey, listOf("foo", "bar"), dataStoreOptions)
+    Assert.assertEquals(plugin.getString(listKey, dataStoreOptions), LIST_PREFIX + "#1|3:foo3:bar")
+    Assert.assertEquals(
+        plugin.getPlatformEncodedStringList(listKey, dataStoreOptions), listOf("foo", "bar"))
+  }
+
+  @Test
+  fun testLegacyEncodedStringListIsDecodedWithDataStore() {
+    val plugin = pluginSetup(dataStoreOptions)
+    plugin.setString(listKey, legacyEncodedList(listOf("foo", "bar")), dataStoreOptions)
+    Assert.assertEquals(
+        plugin.getPlatformEncodedStringList(listKey, dataStoreOptions), listOf("foo", "bar"))
+  }
+
+  @Test
+  fun testMigrateStringLists() {
+    val preferences = testContext.getSharedPreferences("migration", Context.MODE_PRIVATE)
+    preferences
+        .edit()
+        .putString("legacyList", legacyEncodedList(listOf("foo", "bar")))
+        .putString("compactList", LIST_PREFIX + "#1|3:baz")
+        .putString("jsonList", testList)
+        .putString(stringKey, testString)
+        .commit()
+
+    Assert.assertEquals(LegacySharedPreferencesPlugin.migrateStringLists(preferences), 1)
+
+    Assert.assertEquals(preferences.getString("legacyList", null), LIST_PREFIX + "#1|3:foo3:bar")
+    Assert.assertEquals(preferences.getString("compactList", null), LIST_PREFIX + "#1|3:baz")
+    Assert.assertEquals(preferences.getString("jsonList", null), testList)
+    Assert.assertEquals(preferences.getString(stringKey, null), testString)
+    Assert.assertEquals(LegacySharedPreferencesPlugin.migrateStringLists(preferences), 0)
+  }
+
+  // Encodes [list] as versions of the plugin before the compact encoding did.
+  private fun legacyEncodedList(list: List<String>): String {
+    val byteStream = ByteArrayOutputStream()
+    val stream = ObjectOutputStream(byteStream)
+    stream.writeObject(list)
+    stream.flush()
+    return LIST_PREFIX + Base64.encodeToString(byteStream.toByteArray(), 0)
+  }
+
   @Test
   fun testUnexpectedClassDecodeThrows() {
     // Only String should be allowed in an encoded list.
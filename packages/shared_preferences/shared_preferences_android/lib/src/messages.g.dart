@@ -289,6 +289,71 @@ class SharedPreferencesApi {
     }
   }
 
+  /// Adds all of [values] to shared preferences data set with a single write.
+  ///
+  /// Values must be bools, ints, doubles or Strings. String lists must already
+  /// be encoded, as for [setEncodedStringList].
+  Future<bool> setMany(Map<String, Object> values) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.shared_preferences_android.SharedPreferencesApi.setMany$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[values],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else if (pigeonVar_replyList[0] == null) {
+      throw PlatformException(
+        code: 'null-error',
+        message: 'Host platform returned null value for non-null return value.',
+      );
+    } else {
+      return (pigeonVar_replyList[0] as bool?)!;
+    }
+  }
+
+  /// Sets whether writes are applied in memory and written to disk in the
+  /// background, instead of being committed to disk before they return.
+  Future<void> setWriteBehind(bool enabled) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.shared_preferences_android.SharedPreferencesApi.setWriteBehind$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[enabled],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   /// Removes all properties from shared preferences data set with matching prefix.
   Future<bool> clear(String prefix, List<String>? allowList) async {
     final String pigeonVar_channelName =
@@ -49,14 +49,21 @@ enum StringListLookupResultType {
 }
 
 class SharedPreferencesPigeonOptions {
-  SharedPreferencesPigeonOptions({this.fileName, this.useDataStore = true});
+  SharedPreferencesPigeonOptions({
+    this.fileName,
+    this.useDataStore = true,
+    this.writeBehind = false,
+  });
 
   String? fileName;
 
   bool useDataStore;
 
+  /// Whether writes may be deferred and coalesced with later writes.
+  bool writeBehind;
+
   List<Object?> _toList() {
-    return <Object?>[fileName, useDataStore];
+    return <Object?>[fileName, useDataStore, writeBehind];
   }
 
   Object encode() {
@@ -68,6 +75,7 @@ class SharedPreferencesPigeonOptions {
     return SharedPreferencesPigeonOptions(
       fileName: result[0] as String?,
       useDataStore: result[1]! as bool,
+      writeBehind: result[2]! as bool,
     );
   }
 
@@ -379,6 +387,40 @@ class SharedPreferencesAsyncApi {
     }
   }
 
+  /// Adds all of [values] to shared preferences data set with a single write.
+  ///
+  /// Values must be bools, ints, doubles or Strings. String lists must already
+  /// be encoded, as for [setEncodedStringList].
+  Future<void> setMany(
+    Map<String, Object> values,
+    SharedPreferencesPigeonOptions options,
+  ) async {
+    final String pigeonVar_channelName =
+        'dev.flutter.pigeon.shared_preferences_android.SharedPreferencesAsyncApi.setMany$pigeonVar_messageChannelSuffix';
+    final BasicMessageChannel<Object?> pigeonVar_channel =
+        BasicMessageChannel<Object?>(
+          pigeonVar_channelName,
+          pigeonChannelCodec,
+          binaryMessenger: pigeonVar_binaryMessenger,
+        );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[values, options],
+    );
+    final List<Object?>? pigeonVar_replyList =
+        await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   /// Gets individual String value stored with [key], if any.
   Future<String?> getString(
     String key,
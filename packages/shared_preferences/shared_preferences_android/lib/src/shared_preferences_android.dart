@@ -63,6 +63,24 @@ class SharedPreferencesAndroid extends SharedPreferencesStorePlatform {
     );
   }
 
+  /// Stores all of [values] with a single write.
+  ///
+  /// Values must be `bool`, `int`, `double`, `String` or `List<String>`.
+  Future<bool> setMany(Map<String, Object> values) async {
+    return api.setMany(encodeValuesForPlatform(values));
+  }
+
+  /// Sets whether writes are applied in memory and written to disk in the
+  /// background, instead of being written to disk before they complete.
+  ///
+  /// Android writes pending values to disk when an activity is paused or
+  /// stopped, and skips writes that are superseded by later ones before they
+  /// reach the disk. Writes still complete with `true` in this mode, even if
+  /// the later write to disk fails.
+  Future<void> setWriteBehind(bool enabled) {
+    return api.setWriteBehind(enabled);
+  }
+
   @override
   Future<bool> clear() async {
     return clearWithParameters(
@@ -50,6 +50,7 @@ base class SharedPreferencesAsyncAndroid
         fileName: options.originalSharedPreferencesOptions?.fileName,
         useDataStore:
             options.backend == SharedPreferencesAndroidBackendLibrary.DataStore,
+        writeBehind: options.writeBehind,
       );
     }
     return SharedPreferencesPigeonOptions();
@@ -146,6 +147,19 @@ base class SharedPreferencesAsyncAndroid
     return api.setString(key, stringValue, pigeonOptions);
   }
 
+  /// Stores all of [values] with a single write.
+  ///
+  /// Values must be `bool`, `int`, `double`, `String` or `List<String>`.
+  Future<void> setMany(
+    Map<String, Object> values,
+    SharedPreferencesOptions options,
+  ) async {
+    final SharedPreferencesPigeonOptions pigeonOptions =
+        convertOptionsToPigeonOptions(options);
+    final SharedPreferencesAsyncApi api = getApiForBackend(pigeonOptions);
+    return api.setMany(encodeValuesForPlatform(values), pigeonOptions);
+  }
+
   @override
   Future<String?> getString(
     String key,
@@ -298,6 +312,7 @@ class SharedPreferencesAsyncAndroidOptions extends SharedPreferencesOptions {
   const SharedPreferencesAsyncAndroidOptions({
     this.backend = SharedPreferencesAndroidBackendLibrary.DataStore,
     this.originalSharedPreferencesOptions,
+    this.writeBehind = false,
   });
 
   /// Which backend should be used for this method call.
@@ -308,6 +323,17 @@ class SharedPreferencesAsyncAndroidOptions extends SharedPreferencesOptions {
   /// Any options in this field will be ignored unless the backend that is selected
   /// is `SharedPreferences`.
   final AndroidSharedPreferencesStoreOptions? originalSharedPreferencesOptions;
+
+  /// Whether writes may complete before they are written to disk.
+  ///
+  /// With the DataStore backend, writes made with this option are held for a
+  /// short time and written together with any other writes made in that time.
+  /// They are visible to reads immediately, and are written when an activity
+  /// is paused. Errors while writing them are logged instead of reported.
+  ///
+  /// Writes to the `SharedPreferences` backend are always written to disk in
+  /// the background, so this option has no effect on it.
+  final bool writeBehind;
 }
 
 /// Options necessary for defining the use of the original `SharedPreferences`
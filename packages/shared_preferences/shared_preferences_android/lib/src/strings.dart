@@ -2,6 +2,8 @@
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
 
+import 'dart:convert';
+
 /// String prefix for lists that are encoded on the platform.
 const String listPrefix = 'VGhpcyBpcyB0aGUgcHJlZml4IGZvciBhIGxpc3Qu';
 
@@ -16,3 +18,27 @@ const String doublePrefix = 'VGhpcyBpcyB0aGUgcHJlZml4IGZvciBEb3VibGUu';
 
 /// String prefix for big ints that are encoded as strings on the platform.
 const String bigIntPrefix = 'VGhpcyBpcyB0aGUgcHJlZml4IGZvciBCaWdJbnRlZ2Vy';
+
+/// Converts [values] to the types expected by the `setMany` platform calls.
+///
+/// String lists are JSON-encoded with [jsonListPrefix]. Throws an
+/// [ArgumentError] for strings that clash with the list prefix, and for
+/// unsupported types.
+Map<String, Object> encodeValuesForPlatform(Map<String, Object> values) {
+  return values.map((String key, Object value) {
+    final Object encoded = switch (value) {
+      bool() || int() || double() => value,
+      String() when value.startsWith(listPrefix) => throw ArgumentError(
+        'StorageError: This string cannot be stored as it clashes with special identifier prefixes',
+      ),
+      String() => value,
+      List<String>() => '$jsonListPrefix${jsonEncode(value)}',
+      _ => throw ArgumentError.value(
+        value,
+        key,
+        'Only bool, int, double, String and List<String> values are supported',
+      ),
+    };
+    return MapEntry<String, Object>(key, encoded);
+  });
+}
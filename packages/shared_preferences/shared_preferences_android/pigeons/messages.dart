@@ -49,6 +49,18 @@ abstract class SharedPreferencesApi {
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   bool setDeprecatedStringList(String key, List<String> value);
 
+  /// Adds all of [values] to shared preferences data set with a single write.
+  ///
+  /// Values must be bools, ints, doubles or Strings. String lists must already
+  /// be encoded, as for [setEncodedStringList].
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  bool setMany(Map<String, Object> values);
+
+  /// Sets whether writes are applied in memory and written to disk in the
+  /// background, instead of being committed to disk before they return.
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  void setWriteBehind(bool enabled);
+
   /// Removes all properties from shared preferences data set with matching prefix.
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   bool clear(String prefix, List<String>? allowList);
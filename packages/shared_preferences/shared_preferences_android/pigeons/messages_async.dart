@@ -33,9 +33,16 @@ enum StringListLookupResultType {
 }
 
 class SharedPreferencesPigeonOptions {
-  SharedPreferencesPigeonOptions({this.fileName, this.useDataStore = true});
+  SharedPreferencesPigeonOptions({
+    this.fileName,
+    this.useDataStore = true,
+    this.writeBehind = false,
+  });
   String? fileName;
   bool useDataStore;
+
+  /// Whether writes may be deferred and coalesced with later writes.
+  bool writeBehind;
 }
 
 class StringListResult {
@@ -92,6 +99,16 @@ abstract class SharedPreferencesAsyncApi {
     SharedPreferencesPigeonOptions options,
   );
 
+  /// Adds all of [values] to shared preferences data set with a single write.
+  ///
+  /// Values must be bools, ints, doubles or Strings. String lists must already
+  /// be encoded, as for [setEncodedStringList].
+  @TaskQueue(type: TaskQueueType.serialBackgroundThread)
+  void setMany(
+    Map<String, Object> values,
+    SharedPreferencesPigeonOptions options,
+  );
+
   /// Gets individual String value stored with [key], if any.
   @TaskQueue(type: TaskQueueType.serialBackgroundThread)
   String? getString(String key, SharedPreferencesPigeonOptions options);
@@ -219,6 +219,41 @@ void main() {
     );
   });
 
+  test('setMany', () async {
+    expect(
+      await plugin.setMany(<String, Object>{
+        'flutter.Bool': true,
+        'flutter.Double': 1.5,
+        'flutter.Int': 12,
+        'flutter.String': 'hi',
+        'flutter.StringList': <String>['hi'],
+      }),
+      isTrue,
+    );
+    expect(api.items, <String, Object>{
+      'flutter.Bool': true,
+      'flutter.Double': 1.5,
+      'flutter.Int': 12,
+      'flutter.String': 'hi',
+      'flutter.StringList': '$jsonListPrefix${jsonEncode(<String>['hi'])}',
+    });
+  });
+
+  test('setMany with string that clashes with list prefix', () async {
+    expect(
+      () => plugin.setMany(<String, Object>{
+        'flutter.String': '${listPrefix}hi',
+      }),
+      throwsArgumentError,
+    );
+    expect(api.items, isEmpty);
+  });
+
+  test('setWriteBehind', () async {
+    await plugin.setWriteBehind(true);
+    expect(api.writeBehind, isTrue);
+  });
+
   test('setValue with unsupported type', () async {
     expect(() async {
       await plugin.setValue('Map', 'flutter.key', <String, String>{});
@@ -339,6 +374,19 @@ class _FakeSharedPreferencesApi implements SharedPreferencesApi {
     return true;
   }
 
+  @override
+  Future<bool> setMany(Map<String, Object> values) async {
+    items.addAll(values);
+    return true;
+  }
+
+  bool writeBehind = false;
+
+  @override
+  Future<void> setWriteBehind(bool enabled) async {
+    writeBehind = enabled;
+  }
+
   @override
   // ignore: non_constant_identifier_names
   BinaryMessenger? get pigeonVar_binaryMessenger => throw UnimplementedError();
@@ -97,6 +97,39 @@ void main() {
       expect(response, testList);
     });
 
+    test('setMany with $backend', () async {
+      final SharedPreferencesAsyncAndroid preferences = getPreferences(
+        useDataStore,
+      );
+
+      await preferences.setMany(<String, Object>{
+        stringKey: testString,
+        boolKey: testBool,
+        intKey: testInt,
+        doubleKey: testDouble,
+        listKey: testList,
+      }, emptyOptions);
+
+      expect(await preferences.getString(stringKey, emptyOptions), testString);
+      expect(await preferences.getBool(boolKey, emptyOptions), testBool);
+      expect(await preferences.getInt(intKey, emptyOptions), testInt);
+      expect(await preferences.getDouble(doubleKey, emptyOptions), testDouble);
+      expect(await preferences.getStringList(listKey, emptyOptions), testList);
+    });
+
+    test('setMany with unsupported value with $backend', () async {
+      final SharedPreferencesAsyncAndroid preferences = getPreferences(
+        useDataStore,
+      );
+
+      expect(
+        () => preferences.setMany(<String, Object>{
+          stringKey: <String, String>{},
+        }, emptyOptions),
+        throwsArgumentError,
+      );
+    });
+
     test('getPreferences with $backend', () async {
       final SharedPreferencesAsyncAndroid preferences = getPreferences(
         useDataStore,
@@ -244,6 +277,30 @@ void main() {
 
   runTests(true);
   runTests(false);
+
+  test('writeBehind is passed to the platform', () {
+    final preferences = SharedPreferencesAsyncAndroid(
+      dataStoreApi: _FakeSharedPreferencesApi(),
+      sharedPreferencesApi: _FakeSharedPreferencesApi(),
+    );
+
+    expect(
+      preferences
+          .convertOptionsToPigeonOptions(
+            const SharedPreferencesAsyncAndroidOptions(writeBehind: true),
+          )
+          .writeBehind,
+      isTrue,
+    );
+    expect(
+      preferences
+          .convertOptionsToPigeonOptions(
+            const SharedPreferencesAsyncAndroidOptions(),
+          )
+          .writeBehind,
+      isFalse,
+    );
+  });
 }
 
 class _FakeSharedPreferencesApi implements SharedPreferencesAsyncApi {
@@ -406,4 +463,12 @@ class _FakeSharedPreferencesApi implements SharedPreferencesAsyncApi {
     items[key] = value;
     return true;
   }
+
+  @override
+  Future<void> setMany(
+    Map<String, Object> values,
+    SharedPreferencesPigeonOptions options,
+  ) async {
+    items.addAll(values);
+  }
 }
@@ -0,0 +1,224 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.urllauncher;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.browser.customtabs.CustomTabsCallback;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsIntent;
+import androidx.browser.customtabs.CustomTabsService;
+import androidx.browser.customtabs.CustomTabsServiceConnection;
+import androidx.browser.customtabs.CustomTabsSession;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Keeps a connection to the Custom Tabs service of the default browser.
+ *
+ * <p>The service is only bound once Custom Tabs are used, by {@link #warmUp()}, {@link
+ * #prefetchUrls} or {@link #createIntentBuilder()}, since binding can start the browser process.
+ * While connected, Custom Tabs are launched with a shared {@link CustomTabsSession}, which
+ * allows URLs to be prefetched with {@link CustomTabsSession#mayLaunchUrl} and the page load of a
+ * launched tab to be observed. The browser process is only warmed up once {@link #warmUp()} is
+ * called.
+ *
+ * <p>If the binding dies or the browser returns no binding, the service is unbound and bound again
+ * after an exponentially increasing delay, up to {@link #MAX_REBIND_ATTEMPTS} times.
+ */
+class CustomTabsManager extends CustomTabsServiceConnection {
+  @VisibleForTesting static final long INITIAL_REBIND_DELAY_MILLIS = 1000;
+  @VisibleForTesting static final int MAX_REBIND_ATTEMPTS = 5;
+
+  private final @NonNull Context applicationContext;
+  private final @NonNull Handler handler = new Handler(Looper.getMainLooper());
+  private final @NonNull Runnable rebind = this::bind;
+
+  private boolean isBound;
+  private int rebindAttemptCount;
+  private boolean isWarmUpRequested;
+  private @Nullable CustomTabsClient client;
+  private @Nullable CustomTabsSession session;
+  private @NonNull List<String> pendingPrefetchUrls = Collections.emptyList();
+
+  private long launchTimeMillis = -1;
+  private @Nullable Long lastLaunchLatencyMillis;
+
+  CustomTabsManager(@NonNull Context context) {
+    this.applicationContext = context;
+  }
+
+  /**
+   * Connects to the Custom Tabs service of the default browser, returning false if there is no
+   * browser that supports Custom Tabs.
+   */
+  boolean bind() {
+    if (!isBound) {
+      isBound = bindCustomTabsService();
+    }
+    return isBound;
+  }
+
+  /** Disconnects from the Custom Tabs service and stops warming up the browser. */
+  void unbind() {
+    handler.removeCallbacks(rebind);
+    rebindAttemptCount = 0;
+    isWarmUpRequested = false;
+    unbindService();
+  }
+
+  /**
+   * Warms up the browser process, so the next Custom Tab opens sooner.
+   *
+   * <p>If the service is not connected yet, the browser is warmed up once it is.
+   */
+  void warmUp() {
+    bind();
+    isWarmUpRequested = true;
+    if (client != null) {
+      client.warmup(0);
+    }
+  }
+
+  @Override
+  public void onCustomTabsServiceConnected(
+      @NonNull ComponentName name, @NonNull CustomTabsClient client) {
+    rebindAttemptCount = 0;
+    this.client = client;
+    if (isWarmUpRequested) {
+      client.warmup(0);
+    }
+    session = client.newSession(new LaunchLatencyCallback());
+    if (session != null && !pendingPrefetchUrls.isEmpty()) {
+      mayLaunchUrls(session, pendingPrefetchUrls);
+    }
+    pendingPrefetchUrls = Collections.emptyList();
+  }
+
+  @Override
+  public void onServiceDisconnected(@NonNull ComponentName name) {
+    client = null;
+    session = null;
+  }
+
+  @Override
+  public void onBindingDied(@NonNull ComponentName name) {
+    scheduleRebind();
+  }
+
+  @Override
+  public void onNullBinding(@NonNull ComponentName name) {
+    scheduleRebind();
+  }
+
+  /**
+   * Tells the browser that the given URLs are likely to be launched, with the most likely first.
+   *
+   * <p>If the service is not connected yet, the URLs are prefetched once it is. Each call replaces
+   * the URLs of the previous one.
+   */
+  void prefetchUrls(@NonNull List<String> urls) {
+    bind();
+    if (session == null) {
+      pendingPrefetchUrls = new ArrayList<>(urls);
+      return;
+    }
+    mayLaunchUrls(session, urls);
+  }
+
+  /**
+   * Creates a builder for an intent that launches a Custom Tab in the connected session.
+   *
+   * <p>If the service is not connected yet, the tab is launched without a session, and later tabs
+   * use the session once it is connected.
+   */
+  @NonNull
+  CustomTabsIntent.Builder createIntentBuilder() {
+    bind();
+    return session != null ? new CustomTabsIntent.Builder(session) : new CustomTabsIntent.Builder();
+  }
+
+  /** Records that a Custom Tab created by {@link #createIntentBuilder()} was launched. */
+  void onCustomTabLaunched() {
+    launchTimeMillis = session != null ? SystemClock.elapsedRealtime() : -1;
+  }
+
+  /**
+   * The time in milliseconds between the most recent launch of a Custom Tab and the end of its
+   * first page load, or null if it is not known.
+   */
+  @Nullable
+  Long getLastLaunchLatencyMillis() {
+    return lastLaunchLatencyMillis;
+  }
+
+  @VisibleForTesting
+  void onNavigationEvent(int navigationEvent) {
+    if (navigationEvent == CustomTabsCallback.NAVIGATION_FINISHED && launchTimeMillis != -1) {
+      lastLaunchLatencyMillis = SystemClock.elapsedRealtime() - launchTimeMillis;
+      launchTimeMillis = -1;
+    }
+  }
+
+  @VisibleForTesting
+  boolean bindCustomTabsService() {
+    final String packageName =
+        CustomTabsClient.getPackageName(applicationContext, Collections.emptyList());
+    return packageName != null
+        && CustomTabsClient.bindCustomTabsService(applicationContext, packageName, this);
+  }
+
+  private void unbindService() {
+    if (isBound) {
+      applicationContext.unbindService(this);
+      isBound = false;
+    }
+    client = null;
+    session = null;
+  }
+
+  // A binding that died is not restored by the system, so the service is bound again.
+  private void scheduleRebind() {
+    unbindService();
+    if (rebindAttemptCount >= MAX_REBIND_ATTEMPTS) {
+      return;
+    }
+
+    final long delayMillis = INITIAL_REBIND_DELAY_MILLIS << rebindAttemptCount;
+    rebindAttemptCount++;
+    handler.postDelayed(rebind, delayMillis);
+  }
+
+  private static void mayLaunchUrls(@NonNull CustomTabsSession session, List<String> urls) {
+    if (urls.isEmpty()) {
+      return;
+    }
+
+    final List<Bundle> otherLikelyBundles = new ArrayList<>();
+    for (String url : urls.subList(1, urls.size())) {
+      final Bundle bundle = new Bundle();
+      bundle.putParcelable(CustomTabsService.KEY_URL, Uri.parse(url));
+      otherLikelyBundles.add(bundle);
+    }
+    session.mayLaunchUrl(Uri.parse(urls.get(0)), null, otherLikelyBundles);
+  }
+
+  // The Custom Tabs library delivers these events on the main thread.
+  private class LaunchLatencyCallback extends CustomTabsCallback {
+    @Override
+    public void onNavigationEvent(int navigationEvent, @Nullable Bundle extras) {
+      CustomTabsManager.this.onNavigationEvent(navigationEvent);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
@@ -316,6 +317,19 @@ public class Messages {
     Boolean supportsCustomTabs();
     /** Closes the view opened by [openUrlInSafariViewController]. */
     void closeWebView();
+    /** Warms up the Custom Tabs browser, so the next Custom Tab opens sooner. */
+    void warmUpCustomTabs();
+    /**
+     * Tells the Custom Tabs browser that the given URLs are likely to be opened, with the most
+     * likely first.
+     */
+    void prefetchUrls(@NonNull List<String> urls);
+    /**
+     * Returns the time in milliseconds between the most recent Custom Tab launch and the end of its
+     * first page load, or null if it is not known.
+     */
+    @Nullable
+    Long getLastCustomTabLaunchLatencyMillis();
 
     /** The codec used by UrlLauncherApi. */
     static @NonNull MessageCodec<Object> getCodec() {
@@ -459,6 +473,77 @@ public class Messages {
           channel.setMessageHandler(null);
         }
       }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.url_launcher_android.UrlLauncherApi.warmUpCustomTabs"
+                    + messageChannelSuffix,
+                getCodec());
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                try {
+                  api.warmUpCustomTabs();
+                  wrapped.add(0, null);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.url_launcher_android.UrlLauncherApi.prefetchUrls"
+                    + messageChannelSuffix,
+                getCodec());
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                ArrayList<Object> args = (ArrayList<Object>) message;
+                List<String> urlsArg = (List<String>) args.get(0);
+                try {
+                  api.prefetchUrls(urlsArg);
+                  wrapped.add(0, null);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
+      {
+        BasicMessageChannel<Object> channel =
+            new BasicMessageChannel<>(
+                binaryMessenger,
+                "dev.flutter.pigeon.url_launcher_android.UrlLauncherApi.getLastCustomTabLaunchLatencyMillis"
+                    + messageChannelSuffix,
+                getCodec());
+        if (api != null) {
+          channel.setMessageHandler(
+              (message, reply) -> {
+                ArrayList<Object> wrapped = new ArrayList<>();
+                try {
+                  Long output = api.getLastCustomTabLaunchLatencyMillis();
+                  wrapped.add(0, output);
+                } catch (Throwable exception) {
+                  wrapped = wrapError(exception);
+                }
+                reply.reply(wrapped);
+              });
+        } else {
+          channel.setMessageHandler(null);
+        }
+      }
     }
   }
 }
@@ -23,6 +23,7 @@ import io.flutter.plugins.urllauncher.Messages.BrowserOptions;
 import io.flutter.plugins.urllauncher.Messages.UrlLauncherApi;
 import io.flutter.plugins.urllauncher.Messages.WebViewOptions;
 import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -39,16 +40,32 @@ final class UrlLauncher implements UrlLauncherApi {
 
   private final @NonNull IntentResolver intentResolver;
 
+  private final @NonNull CustomTabsManager customTabsManager;
+
   private @Nullable Activity activity;
 
+  /**
+   * Creates an instance that uses {@code intentResolver} to look up the handler for intents and
+   * {@code customTabsManager} to launch Custom Tabs. This is to allow injecting alternates for unit
+   * testing.
+   */
+  @VisibleForTesting
+  UrlLauncher(
+      @NonNull Context context,
+      @NonNull IntentResolver intentResolver,
+      @NonNull CustomTabsManager customTabsManager) {
+    this.applicationContext = context;
+    this.intentResolver = intentResolver;
+    this.customTabsManager = customTabsManager;
+  }
+
   /**
    * Creates an instance that uses {@code intentResolver} to look up the handler for intents. This
    * is to allow injecting an alternate resolver for unit testing.
    */
   @VisibleForTesting
   UrlLauncher(@NonNull Context context, @NonNull IntentResolver intentResolver) {
-    this.applicationContext = context;
-    this.intentResolver = intentResolver;
+    this(context, intentResolver, new CustomTabsManager(context));
   }
 
   UrlLauncher(@NonNull Context context) {
@@ -64,6 +81,10 @@ final class UrlLauncher implements UrlLauncherApi {
     this.activity = activity;
   }
 
+  void disconnectCustomTabsService() {
+    customTabsManager.unbind();
+  }
+
   @Override
   public @NonNull Boolean canLaunchUrl(@NonNull String url) {
     Intent launchIntent = new Intent(Intent.ACTION_VIEW);
@@ -151,13 +172,28 @@ final class UrlLauncher implements UrlLauncherApi {
     return CustomTabsClient.getPackageName(applicationContext, Collections.emptyList()) != null;
   }
 
-  private static boolean openCustomTab(
+  @Override
+  public void warmUpCustomTabs() {
+    customTabsManager.warmUp();
+  }
+
+  @Override
+  public void prefetchUrls(@NonNull List<String> urls) {
+    customTabsManager.prefetchUrls(urls);
+  }
+
+  @Override
+  public @Nullable Long getLastCustomTabLaunchLatencyMillis() {
+    return customTabsManager.getLastLaunchLatencyMillis();
+  }
+
+  private boolean openCustomTab(
       @NonNull Context context,
       @NonNull Uri uri,
       @NonNull Bundle headersBundle,
       @NonNull BrowserOptions options) {
     CustomTabsIntent customTabsIntent =
-        new CustomTabsIntent.Builder().setShowTitle(options.getShowTitle()).build();
+        customTabsManager.createIntentBuilder().setShowTitle(options.getShowTitle()).build();
     customTabsIntent.intent.putExtra(Browser.EXTRA_HEADERS, headersBundle);
 
     try {
@@ -165,6 +201,7 @@ final class UrlLauncher implements UrlLauncherApi {
     } catch (ActivityNotFoundException ex) {
       return false;
     }
+    customTabsManager.onCustomTabLaunched();
     return true;
   }
 
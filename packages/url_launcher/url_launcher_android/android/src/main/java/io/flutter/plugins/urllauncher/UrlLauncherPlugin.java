@@ -34,6 +34,7 @@ public final class UrlLauncherPlugin implements FlutterPlugin, ActivityAware {
     }
 
     Messages.UrlLauncherApi.setUp(binding.getBinaryMessenger(), null);
+    urlLauncher.disconnectCustomTabsService();
     urlLauncher = null;
   }
 
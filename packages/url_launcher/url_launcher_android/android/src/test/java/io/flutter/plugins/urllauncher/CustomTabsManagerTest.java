@@ -0,0 +1,239 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.urllauncher;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.ComponentName;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Looper;
+import androidx.browser.customtabs.CustomTabsCallback;
+import androidx.browser.customtabs.CustomTabsClient;
+import androidx.browser.customtabs.CustomTabsService;
+import androidx.browser.customtabs.CustomTabsSession;
+import androidx.test.core.app.ApplicationProvider;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+
+@RunWith(RobolectricTestRunner.class)
+public class CustomTabsManagerTest {
+  private static final ComponentName COMPONENT_NAME =
+      new ComponentName("com.example.browser", "com.example.browser.CustomTabsService");
+
+  @Test
+  public void onCustomTabsServiceConnected_doesNotWarmUpBrowserUntilRequested() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+    CustomTabsClient client = mock(CustomTabsClient.class);
+
+    manager.onCustomTabsServiceConnected(COMPONENT_NAME, client);
+
+    verify(client, never()).warmup(anyLong());
+    verify(client).newSession(any(CustomTabsCallback.class));
+
+    manager.warmUp();
+
+    verify(client).warmup(0);
+  }
+
+  @Test
+  public void warmUp_beforeConnectionWarmsUpBrowserOnceConnected() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+    CustomTabsClient client = mock(CustomTabsClient.class);
+
+    manager.warmUp();
+    manager.onCustomTabsServiceConnected(COMPONENT_NAME, client);
+
+    verify(client).warmup(0);
+  }
+
+  @Test
+  public void doesNotBindUntilCustomTabsAreUsed() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+    assertEquals(0, manager.bindCount);
+
+    manager.createIntentBuilder();
+
+    assertEquals(1, manager.bindCount);
+  }
+
+  @Test
+  public void warmUp_bindsOnce() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+
+    manager.warmUp();
+    manager.warmUp();
+
+    assertEquals(1, manager.bindCount);
+  }
+
+  @Test
+  public void prefetchUrls_binds() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+
+    manager.prefetchUrls(Collections.singletonList("https://flutter.dev"));
+
+    assertEquals(1, manager.bindCount);
+  }
+
+  @Test
+  public void onBindingDied_rebindsWithBackoff() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+    manager.bind();
+
+    manager.onBindingDied(COMPONENT_NAME);
+    assertEquals(1, manager.bindCount);
+    idleMainLooper(CustomTabsManager.INITIAL_REBIND_DELAY_MILLIS);
+    assertEquals(2, manager.bindCount);
+
+    manager.onBindingDied(COMPONENT_NAME);
+    idleMainLooper(CustomTabsManager.INITIAL_REBIND_DELAY_MILLIS);
+    assertEquals(2, manager.bindCount);
+    idleMainLooper(CustomTabsManager.INITIAL_REBIND_DELAY_MILLIS);
+    assertEquals(3, manager.bindCount);
+  }
+
+  @Test
+  public void onNullBinding_stopsRebindingAfterMaxAttempts() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+    manager.bind();
+
+    for (int i = 0; i < CustomTabsManager.MAX_REBIND_ATTEMPTS + 1; i++) {
+      manager.onNullBinding(COMPONENT_NAME);
+      shadowOf(Looper.getMainLooper()).idleFor(Duration.ofHours(1));
+    }
+
+    assertEquals(CustomTabsManager.MAX_REBIND_ATTEMPTS + 1, manager.bindCount);
+  }
+
+  @Test
+  public void onCustomTabsServiceConnected_resetsRebindBackoff() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+    manager.bind();
+    manager.onBindingDied(COMPONENT_NAME);
+    idleMainLooper(CustomTabsManager.INITIAL_REBIND_DELAY_MILLIS);
+    manager.onCustomTabsServiceConnected(COMPONENT_NAME, mock(CustomTabsClient.class));
+
+    manager.onBindingDied(COMPONENT_NAME);
+    idleMainLooper(CustomTabsManager.INITIAL_REBIND_DELAY_MILLIS);
+
+    assertEquals(3, manager.bindCount);
+  }
+
+  @Test
+  public void unbind_cancelsScheduledRebind() {
+    TestCustomTabsManager manager = new TestCustomTabsManager();
+    manager.bind();
+    manager.onBindingDied(COMPONENT_NAME);
+
+    manager.unbind();
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofHours(1));
+
+    assertEquals(1, manager.bindCount);
+  }
+
+  @Test
+  public void prefetchUrls_callsMayLaunchUrlWithOtherLikelyUrls() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+    CustomTabsSession session = connect(manager);
+
+    manager.prefetchUrls(Arrays.asList("https://flutter.dev", "https://dart.dev"));
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<List<Bundle>> bundlesCaptor = ArgumentCaptor.forClass(List.class);
+    verify(session)
+        .mayLaunchUrl(eq(Uri.parse("https://flutter.dev")), isNull(), bundlesCaptor.capture());
+    assertEquals(1, bundlesCaptor.getValue().size());
+    assertEquals(
+        Uri.parse("https://dart.dev"),
+        bundlesCaptor.getValue().get(0).getParcelable(CustomTabsService.KEY_URL));
+  }
+
+  @Test
+  public void prefetchUrls_beforeConnectionIsSentOnceConnected() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+
+    manager.prefetchUrls(Collections.singletonList("https://flutter.dev"));
+    CustomTabsSession session = connect(manager);
+
+    verify(session).mayLaunchUrl(eq(Uri.parse("https://flutter.dev")), isNull(), any());
+  }
+
+  @Test
+  public void prefetchUrls_withEmptyListDoesNothing() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+    CustomTabsSession session = connect(manager);
+
+    manager.prefetchUrls(Collections.emptyList());
+
+    verify(session, never()).mayLaunchUrl(any(), any(), any());
+  }
+
+  @Test
+  public void getLastLaunchLatencyMillis_isSetWhenPageFinishesLoading() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+    connect(manager);
+
+    manager.onCustomTabLaunched();
+    manager.onNavigationEvent(CustomTabsCallback.NAVIGATION_STARTED);
+    assertNull(manager.getLastLaunchLatencyMillis());
+    manager.onNavigationEvent(CustomTabsCallback.NAVIGATION_FINISHED);
+
+    assertNotNull(manager.getLastLaunchLatencyMillis());
+  }
+
+  @Test
+  public void getLastLaunchLatencyMillis_isNullWithoutSession() {
+    CustomTabsManager manager = new CustomTabsManager(ApplicationProvider.getApplicationContext());
+
+    manager.onCustomTabLaunched();
+    manager.onNavigationEvent(CustomTabsCallback.NAVIGATION_FINISHED);
+
+    assertNull(manager.getLastLaunchLatencyMillis());
+  }
+
+  private static void idleMainLooper(long millis) {
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(millis));
+  }
+
+  private static CustomTabsSession connect(CustomTabsManager manager) {
+    CustomTabsClient client = mock(CustomTabsClient.class);
+    CustomTabsSession session = mock(CustomTabsSession.class);
+    when(client.newSession(any(CustomTabsCallback.class))).thenReturn(session);
+    manager.onCustomTabsServiceConnected(COMPONENT_NAME, client);
+    return session;
+  }
+
+  private static class TestCustomTabsManager extends CustomTabsManager {
+    int bindCount;
+
+    TestCustomTabsManager() {
+      super(ApplicationProvider.getApplicationContext());
+    }
+
+    @Override
+    boolean bindCustomTabsService() {
+      bindCount++;
+      return true;
+    }
+  }
+}
@@ -25,7 +25,9 @@ import android.os.Bundle;
 import android.provider.Browser;
 import androidx.browser.customtabs.CustomTabsIntent;
 import androidx.test.core.app.ApplicationProvider;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
@@ -521,4 +523,54 @@ public class UrlLauncherTest {
     verify(context).sendBroadcast(intentCaptor.capture());
     assertEquals(WebViewActivity.ACTION_CLOSE, intentCaptor.getValue().getAction());
   }
+
+  @Test
+  public void warmUpCustomTabs_warmsUpCustomTabsManager() {
+    CustomTabsManager customTabsManager = mock(CustomTabsManager.class);
+    UrlLauncher api =
+        new UrlLauncher(
+            ApplicationProvider.getApplicationContext(), intent -> null, customTabsManager);
+
+    api.warmUpCustomTabs();
+
+    verify(customTabsManager).warmUp();
+  }
+
+  @Test
+  public void prefetchUrls_passesUrlsToCustomTabsManager() {
+    CustomTabsManager customTabsManager = mock(CustomTabsManager.class);
+    UrlLauncher api =
+        new UrlLauncher(
+            ApplicationProvider.getApplicationContext(), intent -> null, customTabsManager);
+    List<String> urls = Collections.singletonList("https://flutter.dev");
+
+    api.prefetchUrls(urls);
+
+    verify(customTabsManager).prefetchUrls(urls);
+  }
+
+  @Test
+  public void openWebView_recordsCustomTabLaunch() {
+    Activity activity = mock(Activity.class);
+    CustomTabsManager customTabsManager = mock(CustomTabsManager.class);
+    when(customTabsManager.createIntentBuilder()).thenReturn(new CustomTabsIntent.Builder());
+    UrlLauncher api =
+        new UrlLauncher(
+            ApplicationProvider.getApplicationContext(), intent -> null, customTabsManager);
+    api.setActivity(activity);
+
+    boolean result =
+        api.openUrlInApp(
+            "https://flutter.dev",
+            true,
+            new Messages.WebViewOptions.Builder()
+                .setEnableJavaScript(false)
+                .setEnableDomStorage(false)
+                .setHeaders(new HashMap<>())
+                .build(),
+            new Messages.BrowserOptions.Builder().setShowTitle(false).build());
+
+    assertTrue(result);
+    verify(customTabsManager).onCustomTabLaunched();
+  }
 }
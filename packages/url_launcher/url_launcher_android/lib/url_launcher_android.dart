@@ -153,6 +153,38 @@ class UrlLauncherAndroid extends UrlLauncherPlatform {
     return mode == PreferredLaunchMode.inAppWebView;
   }
 
+  /// Warms up the browser that opens [PreferredLaunchMode.inAppBrowserView],
+  /// so the next Custom Tab opens sooner.
+  ///
+  /// Warming up starts the browser process, which uses memory and battery, so
+  /// this should only be called when a Custom Tab is likely to be opened soon.
+  Future<void> warmUpCustomTabs() {
+    return _hostApi.warmUpCustomTabs();
+  }
+
+  /// Tells the Custom Tabs browser that [urls] are likely to be opened with
+  /// [PreferredLaunchMode.inAppBrowserView], with the most likely first.
+  ///
+  /// The browser may start loading the first URL before it is launched, which
+  /// makes the Custom Tab show its content sooner. Each call replaces the URLs
+  /// passed to the previous one.
+  Future<void> prefetchUrls(List<String> urls) {
+    return _hostApi.prefetchUrls(urls);
+  }
+
+  /// Returns the time between the most recent Custom Tab launch and the end of
+  /// its first page load, or null if it is not known.
+  ///
+  /// This is only measured when the browser's Custom Tabs service was
+  /// connected at the time of the launch. The service is connected when Custom
+  /// Tabs are first used, so the first launch is not measured unless
+  /// [warmUpCustomTabs] or [prefetchUrls] was called before it.
+  Future<Duration?> getLastCustomTabLaunchLatency() async {
+    final int? milliseconds = await _hostApi
+        .getLastCustomTabLaunchLatencyMillis();
+    return milliseconds == null ? null : Duration(milliseconds: milliseconds);
+  }
+
   // Returns the part of [url] up to the first ':', or an empty string if there
   // is no ':'. This deliberately does not use [Uri] to extract the scheme
   // so that it works on strings that aren't actually valid URLs, since Android
@@ -59,4 +59,15 @@ abstract class UrlLauncherApi {
 
   /// Closes the view opened by [openUrlInSafariViewController].
   void closeWebView();
+
+  /// Warms up the Custom Tabs browser, so the next Custom Tab opens sooner.
+  void warmUpCustomTabs();
+
+  /// Tells the Custom Tabs browser that the given URLs are likely to be
+  /// opened, with the most likely first.
+  void prefetchUrls(List<String> urls);
+
+  /// Returns the time in milliseconds between the most recent Custom Tab
+  /// launch and the end of its first page load, or null if it is not known.
+  int? getLastCustomTabLaunchLatencyMillis();
 }
@@ -487,6 +487,42 @@ void main() {
       );
     });
   });
+
+  test('warmUpCustomTabs warms up the browser', () async {
+    final launcher = UrlLauncherAndroid(api: api);
+    await launcher.warmUpCustomTabs();
+
+    expect(api.warmedUpCustomTabs, true);
+  });
+
+  test('prefetchUrls passes URLs', () async {
+    final launcher = UrlLauncherAndroid(api: api);
+    await launcher.prefetchUrls(<String>[
+      'https://flutter.dev',
+      'https://dart.dev',
+    ]);
+
+    expect(api.prefetchedUrls, <String>[
+      'https://flutter.dev',
+      'https://dart.dev',
+    ]);
+  });
+
+  group('getLastCustomTabLaunchLatency', () {
+    test('returns null when unknown', () async {
+      final launcher = UrlLauncherAndroid(api: api);
+      expect(await launcher.getLastCustomTabLaunchLatency(), isNull);
+    });
+
+    test('returns duration', () async {
+      final launcher = UrlLauncherAndroid(api: api);
+      api.lastCustomTabLaunchLatencyMillis = 250;
+      expect(
+        await launcher.getLastCustomTabLaunchLatency(),
+        const Duration(milliseconds: 250),
+      );
+    });
+  });
 }
 
 /// A fake implementation of the host API that reacts to specific schemes.
@@ -500,6 +536,9 @@ class _FakeUrlLauncherApi implements UrlLauncherApi {
   bool? allowedCustomTab;
   bool? requiredNonBrowser;
   bool? closed;
+  bool warmedUpCustomTabs = false;
+  List<String>? prefetchedUrls;
+  int? lastCustomTabLaunchLatencyMillis;
 
   /// A domain that will be treated as having no handler, even for http(s).
   static String specialHandlerDomain = 'special.handler.domain';
@@ -550,6 +589,21 @@ class _FakeUrlLauncherApi implements UrlLauncherApi {
     return hasCustomTabSupport;
   }
 
+  @override
+  Future<void> warmUpCustomTabs() async {
+    warmedUpCustomTabs = true;
+  }
+
+  @override
+  Future<void> prefetchUrls(List<String> urls) async {
+    prefetchedUrls = urls;
+  }
+
+  @override
+  Future<int?> getLastCustomTabLaunchLatencyMillis() async {
+    return lastCustomTabLaunchLatencyMillis;
+  }
+
   bool _launch(String url) {
     final String scheme = url.split(':')[0];
     switch (scheme) {
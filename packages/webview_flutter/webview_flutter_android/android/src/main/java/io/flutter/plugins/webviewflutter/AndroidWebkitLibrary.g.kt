@@ -1,7 +1,7 @@
 // Copyright 2013 The Flutter Authors
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
-// Autogenerated from Pigeon (v26.1.4), do not edit directly.
+// Autogenerated from Pigeon (v26.4.1), do not edit directly.
 // See also: https://pub.dev/packages/pigeon
 @file:Suppress("UNCHECKED_CAST", "ArrayInDataClass")
 
@@ -64,6 +64,15 @@ class AndroidWebKitError(
  * strong reference is removed and then the identifier is retrieved with the intention to pass the
  * identifier to Dart (e.g. calling [getIdentifierForStrongReference]), the strong reference to the
  * instance is recreated. The strong reference will then need to be removed manually again.
+ *
+ * Methods are synchronized, so instances can be looked up and added by host methods that are
+ * handled on a background task queue.
+ *
+ * Instances and identifiers are stored in open addressing hash tables that are keyed by identity
+ * and by unboxed identifiers, so looking up an instance or an identifier does not allocate.
+ * Instances that have been garbage collected are released whenever an instance is added, so they
+ * are released as quickly as new instances are created, and otherwise every
+ * [clearFinalizedWeakReferencesInterval].
  */
 @Suppress("UNCHECKED_CAST", "MemberVisibilityCanBePrivate")
 class AndroidWebkitLibraryPigeonInstanceManager(
@@ -83,10 +92,20 @@ class AndroidWebkitLibraryPigeonInstanceManager(
   class IdentityWeakReference<T : Any> : java.lang.ref.WeakReference<T> {
     private val savedHashCode: Int
 
+    /** The identifier the instance was added to the manager with, or -1. */
+    val identifier: Long
+
     constructor(instance: T) : this(instance, null)
 
-    constructor(instance: T, queue: java.lang.ref.ReferenceQueue<T>?) : super(instance, queue) {
+    constructor(instance: T, queue: java.lang.ref.ReferenceQueue<T>?) : this(instance, queue, -1)
+
+    constructor(
+        instance: T,
+        queue: java.lang.ref.ReferenceQueue<T>?,
+        identifier: Long
+    ) : super(instance, queue) {
       savedHashCode = System.identityHashCode(instance)
+      this.identifier = identifier
     }
 
     override fun equals(other: Any?): Boolean {
@@ -102,21 +121,28 @@ class AndroidWebkitLibraryPigeonInstanceManager(
     }
   }
 
-  private val identifiers = java.util.WeakHashMap<IdentityWeakReference<Any>, Long>()
-  private val weakInstances = HashMap<Long, IdentityWeakReference<Any>>()
-  private val strongInstances = HashMap<Long, Any>()
+  private val identifiers = IdentityReferenceTable()
+  private val weakInstances = IdentifierTable<IdentityWeakReference<Any>>()
+  private val strongInstances = IdentifierTable<Any>()
   private val referenceQueue = java.lang.ref.ReferenceQueue<Any>()
-  private val weakReferencesToIdentifiers = HashMap<IdentityWeakReference<Any>, Long>()
   private val handler = android.os.Handler(android.os.Looper.getMainLooper())
   private val releaseAllFinalizedInstancesRunnable = Runnable {
     this.releaseAllFinalizedInstances()
   }
+  private val notifyFinalizationListenerRunnable = Runnable { notifyFinalizationListener() }
+  // Identifiers of garbage collected instances that have not been passed to the
+  // finalizationListener yet.
+  private var finalizedIdentifiers = LongArray(16)
+  private var finalizedIdentifierCount = 0
   private var nextIdentifier: Long = minHostCreatedIdentifier
   private var hasFinalizationListenerStopped = false
 
   /**
    * Modifies the time interval used to define how often this instance removes garbage collected
    * weak references to native Android objects that this instance was managing.
+   *
+   * Garbage collected weak references are also removed whenever an instance is added, so this only
+   * needs to be short when instances are garbage collected while none are being added.
    */
   var clearFinalizedWeakReferencesInterval: Long = 3000
     set(value) {
@@ -153,6 +179,7 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    * Removes `identifier` and return its associated strongly referenced instance, if present, from
    * the manager.
    */
+  @Synchronized
   fun <T> remove(identifier: Long): T? {
     logWarningIfFinalizationListenerHasStopped()
     val instance: Any? = getInstance(identifier)
@@ -173,16 +200,15 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    * `AndroidWebkitLibraryPigeonInstanceManager` to have, or recreate, a weak reference to the Dart
    * instance the identifier is associated with.
    */
+  @Synchronized
   fun getIdentifierForStrongReference(instance: Any?): Long? {
     logWarningIfFinalizationListenerHasStopped()
     if (instance == null) {
       return null
     }
-    val identifier = identifiers[IdentityWeakReference(instance)]
-    if (identifier != null) {
-      strongInstances[identifier] = instance
-    }
-    return identifier
+    val reference = identifiers.get(instance) ?: return null
+    strongInstances.put(reference.identifier, instance)
+    return reference.identifier
   }
 
   /**
@@ -196,7 +222,8 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    */
   fun addDartCreatedInstance(instance: Any, identifier: Long) {
     logWarningIfFinalizationListenerHasStopped()
-    addInstance(instance, identifier)
+    synchronized(this) { addInstance(instance, identifier) }
+    notifyFinalizationListener()
   }
 
   /**
@@ -208,25 +235,29 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    */
   fun addHostCreatedInstance(instance: Any): Long {
     logWarningIfFinalizationListenerHasStopped()
-    require(!containsInstance(instance)) {
-      "Instance of ${instance.javaClass} has already been added."
+    val identifier = synchronized(this) {
+      require(!containsInstance(instance)) {
+        "Instance of ${instance.javaClass} has already been added."
+      }
+      nextIdentifier++.also { addInstance(instance, it) }
     }
-    val identifier = nextIdentifier++
-    addInstance(instance, identifier)
+    notifyFinalizationListener()
     return identifier
   }
 
   /** Retrieves the instance associated with identifier, if present, otherwise `null`. */
+  @Synchronized
   fun <T : Any> getInstance(identifier: Long): T? {
     logWarningIfFinalizationListenerHasStopped()
-    val instance = weakInstances[identifier] as IdentityWeakReference<T>?
+    val instance = weakInstances.get(identifier) as IdentityWeakReference<T>?
     return instance?.get()
   }
 
   /** Returns whether this manager contains the given `instance`. */
+  @Synchronized
   fun containsInstance(instance: Any?): Boolean {
     logWarningIfFinalizationListenerHasStopped()
-    return instance != null && identifiers.containsKey(IdentityWeakReference(instance))
+    return instance != null && identifiers.get(instance) != null
   }
 
   /**
@@ -236,8 +267,10 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    * The InstanceManager can continue to be used, but the [PigeonFinalizationListener] will no
    * longer be called and methods will log a warning.
    */
+  @Synchronized
   fun stopFinalizationListener() {
     handler.removeCallbacks(releaseAllFinalizedInstancesRunnable)
+    handler.removeCallbacks(notifyFinalizationListenerRunnable)
     hasFinalizationListenerStopped = true
   }
 
@@ -246,11 +279,12 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    *
    * The manager will be empty after this call returns.
    */
+  @Synchronized
   fun clear() {
     identifiers.clear()
     weakInstances.clear()
     strongInstances.clear()
-    weakReferencesToIdentifiers.clear()
+    finalizedIdentifierCount = 0
   }
 
   /**
@@ -259,36 +293,74 @@ class AndroidWebkitLibraryPigeonInstanceManager(
    *
    * See [stopFinalizationListener].
    */
+  @Synchronized
   fun hasFinalizationListenerStopped(): Boolean {
     return hasFinalizationListenerStopped
   }
 
   private fun releaseAllFinalizedInstances() {
-    if (hasFinalizationListenerStopped()) {
+    synchronized(this) {
+      if (hasFinalizationListenerStopped) {
+        return
+      }
+      releaseFinalizedInstances()
+    }
+    notifyFinalizationListener()
+    handler.postDelayed(releaseAllFinalizedInstancesRunnable, clearFinalizedWeakReferencesInterval)
+  }
+
+  // Removes the instances whose weak references have been enqueued since they were garbage
+  // collected and records their identifiers for the finalizationListener. Must be called while
+  // synchronized on this manager.
+  private fun releaseFinalizedInstances() {
+    if (hasFinalizationListenerStopped) {
       return
     }
-    var reference: IdentityWeakReference<Any>?
-    while ((referenceQueue.poll() as IdentityWeakReference<Any>?).also { reference = it } != null) {
-      val identifier = weakReferencesToIdentifiers.remove(reference)
-      if (identifier != null) {
+    var reference = referenceQueue.poll() as IdentityWeakReference<Any>?
+    while (reference != null) {
+      identifiers.remove(reference)
+      val identifier = reference.identifier
+      // The identifier may have been removed with `clear`.
+      if (weakInstances.get(identifier) === reference) {
         weakInstances.remove(identifier)
         strongInstances.remove(identifier)
-        finalizationListener.onFinalize(identifier)
+        if (finalizedIdentifierCount == finalizedIdentifiers.size) {
+          finalizedIdentifiers = finalizedIdentifiers.copyOf(finalizedIdentifierCount * 2)
+        }
+        finalizedIdentifiers[finalizedIdentifierCount++] = identifier
       }
+      reference = referenceQueue.poll() as IdentityWeakReference<Any>?
     }
-    handler.postDelayed(releaseAllFinalizedInstancesRunnable, clearFinalizedWeakReferencesInterval)
   }
 
+  // Passes the identifiers of released instances to the finalizationListener on the main thread.
+  private fun notifyFinalizationListener() {
+    val finalized = synchronized(this) {
+      if (finalizedIdentifierCount == 0 || hasFinalizationListenerStopped) {
+        return
+      }
+      if (android.os.Looper.myLooper() != handler.looper) {
+        handler.post(notifyFinalizationListenerRunnable)
+        return
+      }
+      finalizedIdentifiers.copyOf(finalizedIdentifierCount).also { finalizedIdentifierCount = 0 }
+    }
+    for (identifier in finalized) {
+      finalizationListener.onFinalize(identifier)
+    }
+  }
+
+  // Must be called while synchronized on this manager.
   private fun addInstance(instance: Any, identifier: Long) {
     require(identifier >= 0) { "Identifier must be >= 0: $identifier" }
+    releaseFinalizedInstances()
     require(!weakInstances.containsKey(identifier)) {
       "Identifier has already been added: $identifier"
     }
-    val weakReference = IdentityWeakReference(instance, referenceQueue)
-    identifiers[weakReference] = identifier
-    weakInstances[identifier] = weakReference
-    weakReferencesToIdentifiers[weakReference] = identifier
-    strongInstances[identifier] = instance
+    val weakReference = IdentityWeakReference(instance, referenceQueue, identifier)
+    identifiers.put(weakReference)
+    weakInstances.put(identifier, weakReference)
+    strongInstances.put(identifier, instance)
   }
 
   private fun logWarningIfFinalizationListenerHasStopped() {
@@ -298,6 +370,189 @@ class AndroidWebkitLibraryPigeonInstanceManager(
           "The manager was used after calls to the PigeonFinalizationListener has been stopped.")
     }
   }
+
+  // An open addressing hash table from identifiers to values that does not box the identifiers.
+  private class IdentifierTable<V : Any> {
+    private var keys = LongArray(16)
+    private var values = arrayOfNulls<Any>(16)
+    private var size = 0
+
+    fun get(identifier: Long): V? {
+      val index = indexOf(identifier)
+      return if (index >= 0) values[index] as V else null
+    }
+
+    fun containsKey(identifier: Long): Boolean {
+      return indexOf(identifier) >= 0
+    }
+
+    fun put(identifier: Long, value: V) {
+      if ((size + 1) * 2 > values.size) {
+        resize(values.size * 2)
+      }
+      val mask = values.size - 1
+      var index = slot(identifier, mask)
+      while (values[index] != null) {
+        if (keys[index] == identifier) {
+          values[index] = value
+          return
+        }
+        index = (index + 1) and mask
+      }
+      keys[index] = identifier
+      values[index] = value
+      size++
+    }
+
+    fun remove(identifier: Long): V? {
+      val index = indexOf(identifier)
+      if (index < 0) {
+        return null
+      }
+      val value = values[index] as V
+      // Moves back the entries that follow the removed entry, so lookups never need to skip over
+      // removed entries.
+      val mask = values.size - 1
+      var gap = index
+      var next = (gap + 1) and mask
+      while (values[next] != null) {
+        val home = slot(keys[next], mask)
+        if (((next - home) and mask) >= ((next - gap) and mask)) {
+          keys[gap] = keys[next]
+          values[gap] = values[next]
+          gap = next
+        }
+        next = (next + 1) and mask
+      }
+      values[gap] = null
+      size--
+      return value
+    }
+
+    fun clear() {
+      values.fill(null)
+      size = 0
+    }
+
+    private fun indexOf(identifier: Long): Int {
+      val mask = values.size - 1
+      var index = slot(identifier, mask)
+      while (values[index] != null) {
+        if (keys[index] == identifier) {
+          return index
+        }
+        index = (index + 1) and mask
+      }
+      return -1
+    }
+
+    private fun resize(capacity: Int) {
+      val oldKeys = keys
+      val oldValues = values
+      keys = LongArray(capacity)
+      values = arrayOfNulls(capacity)
+      size = 0
+      for (index in oldValues.indices) {
+        val value = oldValues[index]
+        if (value != null) {
+          put(oldKeys[index], value as V)
+        }
+      }
+    }
+
+    private fun slot(identifier: Long, mask: Int): Int {
+      val hash = identifier * -0x61c8864680b583ebL
+      return (hash xor (hash ushr 32)).toInt() and mask
+    }
+  }
+
+  // An open addressing hash table of weak references that finds the reference to an instance by the
+  // instance's identity, without allocating a reference to compare with.
+  private class IdentityReferenceTable {
+    private var references = arrayOfNulls<IdentityWeakReference<Any>>(16)
+    private var size = 0
+
+    fun get(instance: Any): IdentityWeakReference<Any>? {
+      val mask = references.size - 1
+      var index = slot(System.identityHashCode(instance), mask)
+      while (true) {
+        val reference = references[index] ?: return null
+        if (reference.get() === instance) {
+          return reference
+        }
+        index = (index + 1) and mask
+      }
+    }
+
+    // Adds `reference`, replacing the reference to the same instance if there is one.
+    fun put(reference: IdentityWeakReference<Any>) {
+      if ((size + 1) * 2 > references.size) {
+        resize(references.size * 2)
+      }
+      val instance = reference.get()
+      val mask = references.size - 1
+      var index = slot(reference.hashCode(), mask)
+      while (true) {
+        val existing = references[index]
+        if (existing == null) {
+          references[index] = reference
+          size++
+          return
+        }
+        if (instance != null && existing.get() === instance) {
+          references[index] = reference
+          return
+        }
+        index = (index + 1) and mask
+      }
+    }
+
+    fun remove(reference: IdentityWeakReference<Any>) {
+      val mask = references.size - 1
+      var gap = slot(reference.hashCode(), mask)
+      while (references[gap] !== reference) {
+        if (references[gap] == null) {
+          return
+        }
+        gap = (gap + 1) and mask
+      }
+      // Moves back the references that follow the removed reference, so lookups never need to
+      // skip over removed references.
+      var next = (gap + 1) and mask
+      while (true) {
+        val moved = references[next] ?: break
+        val home = slot(moved.hashCode(), mask)
+        if (((next - home) and mask) >= ((next - gap) and mask)) {
+          references[gap] = moved
+          gap = next
+        }
+        next = (next + 1) and mask
+      }
+      references[gap] = null
+      size--
+    }
+
+    fun clear() {
+      references.fill(null)
+      size = 0
+    }
+
+    private fun resize(capacity: Int) {
+      val oldReferences = references
+      references = arrayOfNulls(capacity)
+      size = 0
+      for (reference in oldReferences) {
+        if (reference != null) {
+          put(reference)
+        }
+      }
+    }
+
+    private fun slot(hashCode: Int, mask: Int): Int {
+      val hash = hashCode * -0x61c88647
+      return (hash xor (hash ushr 16)) and mask
+    }
+  }
 }
 
 /** Generated API for managing the Dart and native `InstanceManager`s. */
@@ -473,6 +728,12 @@ abstract class AndroidWebkitLibraryPigeonProxyApiRegistrar(val binaryMessenger:
    */
   abstract fun getPigeonApiJavaScriptChannel(): PigeonApiJavaScriptChannel
 
+  /**
+   * An implementation of [PigeonApiJavaScriptReplyProxy] used to add a new Dart instance of
+   * `JavaScriptReplyProxy` to the Dart `InstanceManager`.
+   */
+  abstract fun getPigeonApiJavaScriptReplyProxy(): PigeonApiJavaScriptReplyProxy
+
   /**
    * An implementation of [PigeonApiWebViewClient] used to add a new Dart instance of
    * `WebViewClient` to the Dart `InstanceManager`.
@@ -617,6 +878,8 @@ abstract class AndroidWebkitLibraryPigeonProxyApiRegistrar(val binaryMessenger:
     PigeonApiWebSettings.setUpMessageHandlers(binaryMessenger, getPigeonApiWebSettings())
     PigeonApiJavaScriptChannel.setUpMessageHandlers(
         binaryMessenger, getPigeonApiJavaScriptChannel())
+    PigeonApiJavaScriptReplyProxy.setUpMessageHandlers(
+        binaryMessenger, getPigeonApiJavaScriptReplyProxy())
     PigeonApiWebViewClient.setUpMessageHandlers(binaryMessenger, getPigeonApiWebViewClient())
     PigeonApiDownloadListener.setUpMessageHandlers(binaryMessenger, getPigeonApiDownloadListener())
     PigeonApiWebChromeClient.setUpMessageHandlers(binaryMessenger, getPigeonApiWebChromeClient())
@@ -651,6 +914,7 @@ abstract class AndroidWebkitLibraryPigeonProxyApiRegistrar(val binaryMessenger:
     PigeonApiWebView.setUpMessageHandlers(binaryMessenger, null)
     PigeonApiWebSettings.setUpMessageHandlers(binaryMessenger, null)
     PigeonApiJavaScriptChannel.setUpMessageHandlers(binaryMessenger, null)
+    PigeonApiJavaScriptReplyProxy.setUpMessageHandlers(binaryMessenger, null)
     PigeonApiWebViewClient.setUpMessageHandlers(binaryMessenger, null)
     PigeonApiDownloadListener.setUpMessageHandlers(binaryMessenger, null)
     PigeonApiWebChromeClient.setUpMessageHandlers(binaryMessenger, null)
@@ -779,6 +1043,12 @@ private class AndroidWebkitLibraryPigeonProxyApiBaseCodec(
           logNewInstanceFailure("JavaScriptChannel", value, it.exceptionOrNull())
         }
       }
+    } else if (value is androidx.webkit.JavaScriptReplyProxy) {
+      registrar.getPigeonApiJavaScriptReplyProxy().pigeon_newInstance(value) {
+        if (it.isFailure) {
+          logNewInstanceFailure("JavaScriptReplyProxy", value, it.exceptionOrNull())
+        }
+      }
     } else if (value is android.webkit.WebViewClient) {
       registrar.getPigeonApiWebViewClient().pigeon_newInstance(value) {
         if (it.isFailure) {
@@ -1740,6 +2010,12 @@ abstract class PigeonApiWebView(
    */
   abstract fun setWebContentsDebuggingEnabled(enabled: Boolean)
 
+  /**
+   * Initializes the WebView provider and keeps up to `poolSize` instances ready to be returned by
+   * the default constructor.
+   */
+  abstract fun warmUp(poolSize: Long)
+
   /** Sets the WebViewClient that will receive various notifications and requests. */
   abstract fun setWebViewClient(
       pigeon_instance: android.webkit.WebView,
@@ -1752,6 +2028,22 @@ abstract class PigeonApiWebView(
       channel: JavaScriptChannel
   )
 
+  /**
+   * Injects a JavaScript object for [channel] into frames whose origin matches one of
+   * [allowedOriginRules] using `WebViewCompat.addWebMessageListener`.
+   *
+   * Messages are delivered to [JavaScriptChannel.postMessages] and may be a `String` or an
+   * `ArrayBuffer`.
+   *
+   * This should only be called if `WebViewFeature.isFeatureSupported` returns true for
+   * `WEB_MESSAGE_LISTENER`.
+   */
+  abstract fun addWebMessageListener(
+      pigeon_instance: android.webkit.WebView,
+      channel: JavaScriptChannel,
+      allowedOriginRules: List<String>
+  )
+
   /** Removes a previously injected Java object from this WebView. */
   abstract fun removeJavaScriptChannel(pigeon_instance: android.webkit.WebView, name: String)
 
@@ -2163,6 +2455,27 @@ abstract class PigeonApiWebView(
           channel.setMessageHandler(null)
         }
       }
+      run {
+        val channel =
+            BasicMessageChannel<Any?>(
+                binaryMessenger, "dev.flutter.pigeon.webview_flutter_android.WebView.warmUp", codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val poolSizeArg = args[0] as Long
+            val wrapped: List<Any?> =
+                try {
+                  api.warmUp(poolSizeArg)
+                  listOf(null)
+                } catch (exception: Throwable) {
+                  AndroidWebkitLibraryPigeonUtils.wrapError(exception)
+                }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
       run {
         val channel =
             BasicMessageChannel<Any?>(
@@ -2211,6 +2524,31 @@ abstract class PigeonApiWebView(
           channel.setMessageHandler(null)
         }
       }
+      run {
+        val channel =
+            BasicMessageChannel<Any?>(
+                binaryMessenger,
+                "dev.flutter.pigeon.webview_flutter_android.WebView.addWebMessageListener",
+                codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val pigeon_instanceArg = args[0] as android.webkit.WebView
+            val channelArg = args[1] as JavaScriptChannel
+            val allowedOriginRulesArg = args[2] as List<String>
+            val wrapped: List<Any?> =
+                try {
+                  api.addWebMessageListener(pigeon_instanceArg, channelArg, allowedOriginRulesArg)
+                  listOf(null)
+                } catch (exception: Throwable) {
+                  AndroidWebkitLibraryPigeonUtils.wrapError(exception)
+                }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
       run {
         val channel =
             BasicMessageChannel<Any?>(
@@ -3065,6 +3403,142 @@ abstract class PigeonApiJavaScriptChannel(
       }
     }
   }
+
+  /**
+   * Handles the messages from JavaScript that were posted within the same frame to a channel added
+   * with [WebView.addWebMessageListener].
+   *
+   * Each message is either a `String` or a `Uint8List` for an `ArrayBuffer`. [replyProxy] posts
+   * messages back to the JavaScript object that sent them.
+   */
+  fun postMessages(
+      pigeon_instanceArg: JavaScriptChannel,
+      replyProxyArg: androidx.webkit.JavaScriptReplyProxy,
+      messagesArg: List<Any>,
+      callback: (Result<Unit>) -> Unit
+  ) {
+    if (pigeonRegistrar.ignoreCallsToDart) {
+      callback(
+          Result.failure(
+              AndroidWebKitError("ignore-calls-error", "Calls to Dart are being ignored.", "")))
+      return
+    } else if (!pigeonRegistrar.instanceManager.containsInstance(pigeon_instanceArg)) {
+      callback(
+          Result.failure(
+              AndroidWebKitError(
+                  "missing-instance-error",
+                  "Callback to `JavaScriptChannel.postMessages` failed because native instance was not in the instance manager.",
+                  "")))
+      return
+    }
+    val binaryMessenger = pigeonRegistrar.binaryMessenger
+    val codec = pigeonRegistrar.codec
+    val channelName = "dev.flutter.pigeon.webview_flutter_android.JavaScriptChannel.postMessages"
+    val channel = BasicMessageChannel<Any?>(binaryMessenger, channelName, codec)
+    channel.send(listOf(pigeon_instanceArg, replyProxyArg, messagesArg)) {
+      if (it is List<*>) {
+        if (it.size > 1) {
+          callback(
+              Result.failure(
+                  AndroidWebKitError(it[0] as String, it[1] as String, it[2] as String?)))
+        } else {
+          callback(Result.success(Unit))
+        }
+      } else {
+        callback(Result.failure(AndroidWebkitLibraryPigeonUtils.createConnectionError(channelName)))
+      }
+    }
+  }
+}
+/**
+ * Posts messages to the JavaScript object of the frame that posted a message to a channel added
+ * with [WebView.addWebMessageListener].
+ *
+ * See https://developer.android.com/reference/androidx/webkit/JavaScriptReplyProxy.
+ */
+@Suppress("UNCHECKED_CAST")
+abstract class PigeonApiJavaScriptReplyProxy(
+    open val pigeonRegistrar: AndroidWebkitLibraryPigeonProxyApiRegistrar
+) {
+  /**
+   * Posts a message to the JavaScript object.
+   *
+   * [message] must be a `String` or a `Uint8List`, which is received as an `ArrayBuffer`. Posting a
+   * `Uint8List` throws a `PlatformException` if the `WEB_MESSAGE_ARRAY_BUFFER` feature is not
+   * supported.
+   */
+  abstract fun postMessage(pigeon_instance: androidx.webkit.JavaScriptReplyProxy, message: Any)
+
+  companion object {
+    @Suppress("LocalVariableName")
+    fun setUpMessageHandlers(
+        binaryMessenger: BinaryMessenger,
+        api: PigeonApiJavaScriptReplyProxy?
+    ) {
+      val codec = api?.pigeonRegistrar?.codec ?: AndroidWebkitLibraryPigeonCodec()
+      run {
+        val channel =
+            BasicMessageChannel<Any?>(
+                binaryMessenger,
+                "dev.flutter.pigeon.webview_flutter_android.JavaScriptReplyProxy.postMessage",
+                codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val pigeon_instanceArg = args[0] as androidx.webkit.JavaScriptReplyProxy
+            val messageArg = args[1] as Any
+            val wrapped: List<Any?> =
+                try {
+                  api.postMessage(pigeon_instanceArg, messageArg)
+                  listOf(null)
+                } catch (exception: Throwable) {
+                  AndroidWebkitLibraryPigeonUtils.wrapError(exception)
+                }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
+    }
+  }
+
+  @Suppress("LocalVariableName", "FunctionName")
+  /** Creates a Dart instance of JavaScriptReplyProxy and attaches it to [pigeon_instanceArg]. */
+  fun pigeon_newInstance(
+      pigeon_instanceArg: androidx.webkit.JavaScriptReplyProxy,
+      callback: (Result<Unit>) -> Unit
+  ) {
+    if (pigeonRegistrar.ignoreCallsToDart) {
+      callback(
+          Result.failure(
+              AndroidWebKitError("ignore-calls-error", "Calls to Dart are being ignored.", "")))
+    } else if (pigeonRegistrar.instanceManager.containsInstance(pigeon_instanceArg)) {
+      callback(Result.success(Unit))
+    } else {
+      val pigeon_identifierArg =
+          pigeonRegistrar.instanceManager.addHostCreatedInstance(pigeon_instanceArg)
+      val binaryMessenger = pigeonRegistrar.binaryMessenger
+      val codec = pigeonRegistrar.codec
+      val channelName =
+          "dev.flutter.pigeon.webview_flutter_android.JavaScriptReplyProxy.pigeon_newInstance"
+      val channel = BasicMessageChannel<Any?>(binaryMessenger, channelName, codec)
+      channel.send(listOf(pigeon_identifierArg)) {
+        if (it is List<*>) {
+          if (it.size > 1) {
+            callback(
+                Result.failure(
+                    AndroidWebKitError(it[0] as String, it[1] as String, it[2] as String?)))
+          } else {
+            callback(Result.success(Unit))
+          }
+        } else {
+          callback(
+              Result.failure(AndroidWebkitLibraryPigeonUtils.createConnectionError(channelName)))
+        }
+      }
+    }
+  }
 }
 /**
  * Receives various notifications and requests from a `WebView`.
@@ -3095,6 +3569,19 @@ abstract class PigeonApiWebViewClient(
       value: Boolean
   )
 
+  /**
+   * Sets the names of the callback methods that are sent to Dart.
+   *
+   * Events for callback methods not in [callbackNames] are handled with the default behavior of the
+   * native `WebViewClient` and are not sent to Dart.
+   *
+   * Defaults to sending every callback method.
+   */
+  abstract fun setSubscribedCallbacks(
+      pigeon_instance: android.webkit.WebViewClient,
+      callbackNames: List<String>
+  )
+
   companion object {
     @Suppress("LocalVariableName")
     fun setUpMessageHandlers(binaryMessenger: BinaryMessenger, api: PigeonApiWebViewClient?) {
@@ -3148,6 +3635,30 @@ abstract class PigeonApiWebViewClient(
           channel.setMessageHandler(null)
         }
       }
+      run {
+        val channel =
+            BasicMessageChannel<Any?>(
+                binaryMessenger,
+                "dev.flutter.pigeon.webview_flutter_android.WebViewClient.setSubscribedCallbacks",
+                codec)
+        if (api != null) {
+          channel.setMessageHandler { message, reply ->
+            val args = message as List<Any?>
+            val pigeon_instanceArg = args[0] as android.webkit.WebViewClient
+            val callbackNamesArg = args[1] as List<String>
+            val wrapped: List<Any?> =
+                try {
+                  api.setSubscribedCallbacks(pigeon_instanceArg, callbackNamesArg)
+                  listOf(null)
+                } catch (exception: Throwable) {
+                  AndroidWebkitLibraryPigeonUtils.wrapError(exception)
+                }
+            reply.reply(wrapped)
+          }
+        } else {
+          channel.setMessageHandler(null)
+        }
+      }
     }
   }
 
@@ -3653,6 +4164,52 @@ abstract class PigeonApiWebViewClient(
     }
   }
 
+  /**
+   * Notify the host application that the WebView will load the resources specified by the given
+   * urls.
+   *
+   * Once subscribed with [setSubscribedCallbacks], this is called instead of [onLoadResource] with
+   * the resources that were loaded within the same frame.
+   */
+  fun onLoadResources(
+      pigeon_instanceArg: android.webkit.WebViewClient,
+      viewArg: android.webkit.WebView,
+      urlsArg: List<String>,
+      callback: (Result<Unit>) -> Unit
+  ) {
+    if (pigeonRegistrar.ignoreCallsToDart) {
+      callback(
+          Result.failure(
+              AndroidWebKitError("ignore-calls-error", "Calls to Dart are being ignored.", "")))
+      return
+    } else if (!pigeonRegistrar.instanceManager.containsInstance(pigeon_instanceArg)) {
+      callback(
+          Result.failure(
+              AndroidWebKitError(
+                  "missing-instance-error",
+                  "Callback to `WebViewClient.onLoadResources` failed because native instance was not in the instance manager.",
+                  "")))
+      return
+    }
+    val binaryMessenger = pigeonRegistrar.binaryMessenger
+    val codec = pigeonRegistrar.codec
+    val channelName = "dev.flutter.pigeon.webview_flutter_android.WebViewClient.onLoadResources"
+    val channel = BasicMessageChannel<Any?>(binaryMessenger, channelName, codec)
+    channel.send(listOf(pigeon_instanceArg, viewArg, urlsArg)) {
+      if (it is List<*>) {
+        if (it.size > 1) {
+          callback(
+              Result.failure(
+                  AndroidWebKitError(it[0] as String, it[1] as String, it[2] as String?)))
+        } else {
+          callback(Result.success(Unit))
+        }
+      } else {
+        callback(Result.failure(AndroidWebkitLibraryPigeonUtils.createConnectionError(channelName)))
+      }
+    }
+  }
+
   /**
    * Notify the host application that WebView content left over from previous page navigations will
    * no longer be drawn.
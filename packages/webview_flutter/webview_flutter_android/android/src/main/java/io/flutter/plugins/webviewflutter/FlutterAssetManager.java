@@ -9,6 +9,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import java.io.IOException;
+import java.io.InputStream;
 
 /** Provides access to the assets registered as part of the App bundle. */
 public abstract class FlutterAssetManager {
@@ -49,6 +50,19 @@ public abstract class FlutterAssetManager {
     return assetManager.list(path);
   }
 
+  /**
+   * Opens the asset at the given path for streaming.
+   *
+   * @param path A relative path within the assets, as returned by {@link
+   *     #getAssetFilePathByName(String)}.
+   * @return InputStream for reading the asset. The caller is responsible for closing it.
+   * @throws IOException Throws an IOException if the asset does not exist or can't be opened.
+   */
+  @NonNull
+  public InputStream open(@NonNull String path) throws IOException {
+    return assetManager.open(path);
+  }
+
   /**
    * Provides access to assets using the {@link FlutterPlugin.FlutterAssets} for looking up file
    * paths to Flutter assets.
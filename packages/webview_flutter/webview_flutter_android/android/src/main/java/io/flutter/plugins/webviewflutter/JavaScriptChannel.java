@@ -4,8 +4,18 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import android.annotation.SuppressLint;
+import android.net.Uri;
 import android.webkit.JavascriptInterface;
+import android.webkit.WebView;
 import androidx.annotation.NonNull;
+import androidx.webkit.JavaScriptReplyProxy;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebViewCompat;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Added as a JavaScript interface to the WebView for any JavaScript channel that the Dart code sets
@@ -13,11 +23,19 @@ import androidx.annotation.NonNull;
  *
  * <p>Exposes a single method named `postMessage` to JavaScript, which sends a message to the Dart
  * code.
+ *
+ * <p>When added with {@link WebViewCompat#addWebMessageListener}, `postMessage` also accepts an
+ * `ArrayBuffer`, and the messages posted within a frame are sent to Dart together with the {@link
+ * JavaScriptReplyProxy} of the JavaScript object that posted them, so Dart can reply to it.
  */
-public class JavaScriptChannel {
+public class JavaScriptChannel implements WebViewCompat.WebMessageListener {
   final String javaScriptChannelName;
   private final JavaScriptChannelProxyApi api;
 
+  // Messages received within the current frame, grouped by the proxy of the JavaScript object that
+  // sent them. Only accessed on the main thread.
+  private final Map<JavaScriptReplyProxy, List<Object>> pendingMessages = new LinkedHashMap<>();
+
   /** Creates a {@link JavaScriptChannel} that passes arguments of callback methods to Dart. */
   public JavaScriptChannel(@NonNull String channelName, @NonNull JavaScriptChannelProxyApi api) {
     this.javaScriptChannelName = channelName;
@@ -34,4 +52,42 @@ public class JavaScriptChannel {
               api.postMessage(JavaScriptChannel.this, message, reply -> null);
             });
   }
+
+  // Array buffer messages are only received when WEB_MESSAGE_ARRAY_BUFFER is supported.
+  @SuppressLint("RequiresFeature")
+  @Override
+  public void onPostMessage(
+      @NonNull WebView view,
+      @NonNull WebMessageCompat message,
+      @NonNull Uri sourceOrigin,
+      boolean isMainFrame,
+      @NonNull JavaScriptReplyProxy replyProxy) {
+    final boolean flushScheduled = !pendingMessages.isEmpty();
+    List<Object> messages = pendingMessages.get(replyProxy);
+    if (messages == null) {
+      messages = new ArrayList<>();
+      pendingMessages.put(replyProxy, messages);
+    }
+    if (message.getType() == WebMessageCompat.TYPE_ARRAY_BUFFER) {
+      messages.add(message.getArrayBuffer());
+    } else {
+      final String data = message.getData();
+      messages.add(data != null ? data : "");
+    }
+
+    // This is already called on the main thread, so messages are sent to Dart once per frame
+    // instead of posting a task for each message.
+    if (!flushScheduled) {
+      api.getPigeonRegistrar().runOnNextFrame(this::flushPendingMessages);
+    }
+  }
+
+  private void flushPendingMessages() {
+    final List<Map.Entry<JavaScriptReplyProxy, List<Object>>> entries =
+        new ArrayList<>(pendingMessages.entrySet());
+    pendingMessages.clear();
+    for (Map.Entry<JavaScriptReplyProxy, List<Object>> entry : entries) {
+      api.postMessages(this, entry.getKey(), entry.getValue(), reply -> null);
+    }
+  }
 }
@@ -0,0 +1,39 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import androidx.annotation.NonNull;
+import androidx.webkit.JavaScriptReplyProxy;
+import androidx.webkit.WebViewFeature;
+
+/**
+ * Host api implementation for {@link JavaScriptReplyProxy}.
+ *
+ * <p>Handles creating {@link JavaScriptReplyProxy}s that intercommunicate with a paired Dart
+ * object.
+ */
+public class JavaScriptReplyProxyProxyApi extends PigeonApiJavaScriptReplyProxy {
+  /** Constructs a {@link JavaScriptReplyProxyProxyApi}. */
+  public JavaScriptReplyProxyProxyApi(@NonNull ProxyApiRegistrar pigeonRegistrar) {
+    super(pigeonRegistrar);
+  }
+
+  @Override
+  public void postMessage(@NonNull JavaScriptReplyProxy pigeon_instance, @NonNull Object message) {
+    if (message instanceof String) {
+      pigeon_instance.postMessage((String) message);
+    } else if (message instanceof byte[]) {
+      if (!WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_ARRAY_BUFFER)) {
+        throw new UnsupportedOperationException(
+            "Posting a Uint8List requires WebViewFeature.WEB_MESSAGE_ARRAY_BUFFER, which is not"
+                + " supported by this WebView. Post a String instead.");
+      }
+      pigeon_instance.postMessage((byte[]) message);
+    } else {
+      throw new IllegalArgumentException(
+          "Unsupported message type: " + message.getClass().getSimpleName());
+    }
+  }
+}
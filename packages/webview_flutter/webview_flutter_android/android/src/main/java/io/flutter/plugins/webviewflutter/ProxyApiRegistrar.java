@@ -10,15 +10,21 @@ import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
+import android.view.Choreographer;
 import androidx.annotation.ChecksSdkIntAtLeast;
 import androidx.annotation.NonNull;
 import io.flutter.plugin.common.BinaryMessenger;
+import java.io.File;
 
 public class ProxyApiRegistrar extends AndroidWebkitLibraryPigeonProxyApiRegistrar {
   @NonNull private Context context;
 
   @NonNull private final FlutterAssetManager flutterAssetManager;
 
+  @NonNull private final WebResourceInterceptor webResourceInterceptor;
+
+  @NonNull private final WebViewPool webViewPool;
+
   public ProxyApiRegistrar(
       @NonNull BinaryMessenger binaryMessenger,
       @NonNull Context context,
@@ -26,6 +32,10 @@ public class ProxyApiRegistrar extends AndroidWebkitLibraryPigeonProxyApiRegistr
     super(binaryMessenger);
     this.context = context;
     this.flutterAssetManager = flutterAssetManager;
+    this.webResourceInterceptor =
+        new WebResourceInterceptor(
+            flutterAssetManager, new File(context.getCacheDir(), "webview_flutter_resource_cache"));
+    this.webViewPool = new WebViewPool(this);
   }
 
   // Interface for an injectable SDK version checker.
@@ -44,6 +54,27 @@ public class ProxyApiRegistrar extends AndroidWebkitLibraryPigeonProxyApiRegistr
     }
   }
 
+  // Runs `runnable` before the next frame is drawn so events that occur within one frame can be
+  // sent to Dart together. Must be called on the main thread. Overridden for tests to call
+  // `runnable` immediately.
+  void runOnNextFrame(Runnable runnable) {
+    Choreographer.getInstance().postFrameCallback(frameTimeNanos -> runnable.run());
+  }
+
+  // Runs `runnable` on the main thread once it has no pending messages, so work that is not needed
+  // for the current frame does not delay it. Overridden for tests to call `runnable` immediately.
+  void runWhenMainThreadIdle(Runnable runnable) {
+    new Handler(Looper.getMainLooper())
+        .post(
+            () ->
+                Looper.myQueue()
+                    .addIdleHandler(
+                        () -> {
+                          runnable.run();
+                          return false;
+                        }));
+  }
+
   // For logging exception received from Host -> Dart message calls.
   void logError(String tag, Throwable exception) {
     Log.e(
@@ -128,6 +159,12 @@ public class ProxyApiRegistrar extends AndroidWebkitLibraryPigeonProxyApiRegistr
     return new JavaScriptChannelProxyApi(this);
   }
 
+  @NonNull
+  @Override
+  public PigeonApiJavaScriptReplyProxy getPigeonApiJavaScriptReplyProxy() {
+    return new JavaScriptReplyProxyProxyApi(this);
+  }
+
   @NonNull
   @Override
   public PigeonApiWebViewClient getPigeonApiWebViewClient() {
@@ -242,7 +279,10 @@ public class ProxyApiRegistrar extends AndroidWebkitLibraryPigeonProxyApiRegistr
   }
 
   public void setContext(@NonNull Context context) {
-    this.context = context;
+    if (this.context != context) {
+      this.context = context;
+      webViewPool.onContextChanged(context instanceof Activity);
+    }
   }
 
   @NonNull
@@ -250,6 +290,16 @@ public class ProxyApiRegistrar extends AndroidWebkitLibraryPigeonProxyApiRegistr
     return flutterAssetManager;
   }
 
+  @NonNull
+  public WebResourceInterceptor getWebResourceInterceptor() {
+    return webResourceInterceptor;
+  }
+
+  @NonNull
+  public WebViewPool getWebViewPool() {
+    return webViewPool;
+  }
+
   @NonNull
   @Override
   public PigeonApiWebViewFeature getPigeonApiWebViewFeature() {
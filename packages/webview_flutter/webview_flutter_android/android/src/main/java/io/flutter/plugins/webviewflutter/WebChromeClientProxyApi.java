@@ -43,6 +43,10 @@ public class WebChromeClientProxyApi extends PigeonApiWebChromeClient {
     private boolean returnValueForOnJsConfirm = false;
     private boolean returnValueForOnJsPrompt = false;
 
+    // Latest progress that hasn't been sent to Dart. Only accessed on the main thread.
+    @Nullable private WebView pendingProgressWebView;
+    private int pendingProgress;
+
     /** Creates a {@link WebChromeClient} that passes arguments of callbacks methods to Dart. */
     public WebChromeClientImpl(@NonNull WebChromeClientProxyApi api) {
       this.api = api;
@@ -50,7 +54,28 @@ public class WebChromeClientProxyApi extends PigeonApiWebChromeClient {
 
     @Override
     public void onProgressChanged(@NonNull WebView view, int progress) {
-      api.onProgressChanged(this, view, (long) progress, reply -> null);
+      // Progress can be reported many times within a single frame, so only the latest value of a
+      // frame is sent to Dart. Completion is sent immediately so it is never delayed.
+      final boolean flushScheduled = pendingProgressWebView != null;
+      if (flushScheduled && pendingProgressWebView != view) {
+        flushPendingProgress();
+      }
+      pendingProgressWebView = view;
+      pendingProgress = progress;
+      if (progress >= 100) {
+        flushPendingProgress();
+      } else if (!flushScheduled) {
+        api.getPigeonRegistrar().runOnNextFrame(this::flushPendingProgress);
+      }
+    }
+
+    private void flushPendingProgress() {
+      final WebView view = pendingProgressWebView;
+      if (view == null) {
+        return;
+      }
+      pendingProgressWebView = null;
+      api.onProgressChanged(this, view, (long) pendingProgress, reply -> null);
     }
 
     @Override
@@ -0,0 +1,977 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.util.Log;
+import android.webkit.CookieManager;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves configured URL prefixes to a {@link android.webkit.WebView} without a round trip through
+ * Dart.
+ *
+ * <p>Two kinds of routes are supported:
+ *
+ * <ul>
+ *   <li>Asset routes map a URL prefix to a directory of Flutter assets bundled with the app.
+ *   <li>Cache routes keep a copy of each cacheable network response on disk and serve it for later
+ *       requests of the same URL while it is fresh.
+ * </ul>
+ *
+ * <p>Cache routes follow the `Cache-Control`, `Pragma` and `Expires` headers of a response.
+ * Responses that are `private`, `no-store`, set cookies or have a `Vary` header are never stored,
+ * and stale responses with an `ETag` or `Last-Modified` header are revalidated with a conditional
+ * request. Requests with a `Range` header and redirects are left to the network stack. The cache is
+ * limited to {@link #getMaxCacheSize()} bytes, and the least recently used responses are evicted
+ * first.
+ *
+ * <p>Interception is opt-in: until a route is added every request is left to the network stack.
+ * Routes are matched in the order they were added and only `GET` requests are intercepted.
+ */
+public class WebResourceInterceptor {
+  private static final String TAG = "WebResourceInterceptor";
+  private static final String TEMPORARY_SUFFIX = ".tmp";
+  private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+  private static final int CACHE_FORMAT_VERSION = 1;
+
+  /** The default value of {@link #getMaxCacheSize()}. */
+  public static final long DEFAULT_MAX_CACHE_SIZE = 50L * 1024 * 1024;
+
+  // MimeTypeMap does not know about several types that are common for web content, so these are
+  // checked first.
+  private static final Map<String, String> WEB_MIME_TYPES = new HashMap<>();
+
+  static {
+    WEB_MIME_TYPES.put("html", "text/html");
+    WEB_MIME_TYPES.put("htm", "text/html");
+    WEB_MIME_TYPES.put("js", "text/javascript");
+    WEB_MIME_TYPES.put("mjs", "text/javascript");
+    WEB_MIME_TYPES.put("css", "text/css");
+    WEB_MIME_TYPES.put("json", "application/json");
+    WEB_MIME_TYPES.put("map", "application/json");
+    WEB_MIME_TYPES.put("wasm", "application/wasm");
+    WEB_MIME_TYPES.put("svg", "image/svg+xml");
+    WEB_MIME_TYPES.put("png", "image/png");
+    WEB_MIME_TYPES.put("jpg", "image/jpeg");
+    WEB_MIME_TYPES.put("jpeg", "image/jpeg");
+    WEB_MIME_TYPES.put("gif", "image/gif");
+    WEB_MIME_TYPES.put("webp", "image/webp");
+    WEB_MIME_TYPES.put("ico", "image/x-icon");
+    WEB_MIME_TYPES.put("woff", "font/woff");
+    WEB_MIME_TYPES.put("woff2", "font/woff2");
+    WEB_MIME_TYPES.put("ttf", "font/ttf");
+    WEB_MIME_TYPES.put("txt", "text/plain");
+  }
+
+  // Headers that describe how the response was transferred rather than its content. The body that
+  // is served has already been decoded by HttpURLConnection.
+  private static final List<String> UNREPLAYED_HEADERS =
+      Arrays.asList(
+          "connection",
+          "content-encoding",
+          "content-length",
+          "keep-alive",
+          "set-cookie",
+          "transfer-encoding");
+
+  private static class Route {
+    @NonNull final String urlPrefix;
+    // Null for cache routes.
+    @Nullable final String assetDirectory;
+
+    Route(@NonNull String urlPrefix, @Nullable String assetDirectory) {
+      this.urlPrefix = urlPrefix;
+      this.assetDirectory = assetDirectory;
+    }
+  }
+
+  @NonNull private final FlutterAssetManager flutterAssetManager;
+  @NonNull private final File cacheDirectory;
+  private final List<Route> routes = new CopyOnWriteArrayList<>();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  // The sizes of the cached responses by cache key, least recently used first. Loaded from the
+  // cache directory when the cache is first used.
+  @Nullable private LinkedHashMap<String, Long> cachedResponseSizes;
+  private long cacheSize = 0;
+  private long maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+  /**
+   * Constructs a new {@link WebResourceInterceptor}.
+   *
+   * @param flutterAssetManager used to open assets for asset routes.
+   * @param cacheDirectory directory where responses for cache routes are stored. It is created when
+   *     the first response is cached.
+   */
+  public WebResourceInterceptor(
+      @NonNull FlutterAssetManager flutterAssetManager, @NonNull File cacheDirectory) {
+    this.flutterAssetManager = flutterAssetManager;
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * Serves requests for URLs starting with `urlPrefix` from the Flutter assets in `assetDirectory`.
+   *
+   * <p>The remainder of the URL after the prefix, without query or fragment, is resolved relative
+   * to `assetDirectory`. A URL ending in `/` resolves to `index.html`.
+   */
+  public void addAssetRoute(@NonNull String urlPrefix, @NonNull String assetDirectory) {
+    routes.add(new Route(urlPrefix, trimTrailingSlash(assetDirectory)));
+  }
+
+  /**
+   * Serves requests for URLs starting with `urlPrefix` from the native disk cache.
+   *
+   * <p>The first request for a URL is fetched from the network and, if its headers allow it,
+   * written to the cache while it is streamed to the `WebView`.
+   */
+  public void addCacheRoute(@NonNull String urlPrefix) {
+    routes.add(new Route(urlPrefix, null));
+  }
+
+  /** Removes all routes. Cached responses are kept until {@link #clearCache()} is called. */
+  public void clearRoutes() {
+    routes.clear();
+  }
+
+  /** Deletes every response stored by cache routes. */
+  public synchronized void clearCache() {
+    final File[] files = cacheDirectory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (!file.delete()) {
+          Log.w(TAG, "Could not delete cached response " + file);
+        }
+      }
+    }
+    if (cachedResponseSizes != null) {
+      cachedResponseSizes.clear();
+    }
+    cacheSize = 0;
+  }
+
+  /** The maximum number of bytes stored by cache routes. */
+  public synchronized long getMaxCacheSize() {
+    return maxCacheSize;
+  }
+
+  /**
+   * Sets the maximum number of bytes stored by cache routes.
+   *
+   * <p>The least recently used responses are deleted until the cache fits. Responses larger than
+   * this are not cached.
+   */
+  public synchronized void setMaxCacheSize(long maxCacheSize) {
+    this.maxCacheSize = maxCacheSize;
+    trimCache();
+  }
+
+  /** Number of requests served from assets or the disk cache. */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Number of requests that matched a route, but could not be served locally.
+   *
+   * <p>This includes requests for cache routes that were fetched from the network.
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /** Resets the hit and miss counters. */
+  public void resetStatistics() {
+    hitCount.set(0);
+    missCount.set(0);
+  }
+
+  /**
+   * Returns a response for `request` if it matches a route and can be served locally, or null to
+   * let the `WebView` load the resource itself.
+   *
+   * <p>This is called from {@link android.webkit.WebViewClient#shouldInterceptRequest} on a
+   * background thread.
+   */
+  @Nullable
+  public WebResourceResponse intercept(@NonNull WebResourceRequest request) {
+    if (routes.isEmpty() || !"GET".equalsIgnoreCase(request.getMethod())) {
+      return null;
+    }
+
+    final String url = request.getUrl().toString();
+    for (Route route : routes) {
+      if (!url.startsWith(route.urlPrefix)) {
+        continue;
+      }
+
+      if (route.assetDirectory == null) {
+        final Map<String, String> requestHeaders = request.getRequestHeaders();
+        if (hasHeader(requestHeaders, "Range")) {
+          // Partial responses are not cached, and a full cached response can't answer the request.
+          missCount.incrementAndGet();
+          return null;
+        }
+        return interceptWithCache(url, requestHeaders);
+      }
+
+      final WebResourceResponse response = interceptWithAsset(url, route);
+      if (response == null) {
+        missCount.incrementAndGet();
+      }
+      return response;
+    }
+
+    return null;
+  }
+
+  @Nullable
+  private WebResourceResponse interceptWithAsset(@NonNull String url, @NonNull Route route) {
+    String path = stripQueryAndFragment(url.substring(route.urlPrefix.length()));
+    if (path.isEmpty() || path.endsWith("/")) {
+      path += "index.html";
+    }
+    if (path.startsWith("/")) {
+      path = path.substring(1);
+    }
+
+    final String assetName =
+        route.assetDirectory.isEmpty() ? path : route.assetDirectory + "/" + path;
+    final String assetFilePath = flutterAssetManager.getAssetFilePathByName(assetName);
+    if (assetFilePath == null) {
+      return null;
+    }
+
+    try {
+      final InputStream stream = flutterAssetManager.open(assetFilePath);
+      hitCount.incrementAndGet();
+      return createWebResourceResponse(
+          getMimeTypeForPath(path),
+          null,
+          HttpURLConnection.HTTP_OK,
+          "OK",
+          Collections.<String, String>emptyMap(),
+          stream);
+    } catch (IOException exception) {
+      return null;
+    }
+  }
+
+  @Nullable
+  private WebResourceResponse interceptWithCache(
+      @NonNull String url, @Nullable Map<String, String> requestHeaders) {
+    final String key = createCacheKey(url);
+    final File file = new File(cacheDirectory, key);
+    final CachedResponse cachedResponse = readCachedResponse(key, file);
+
+    if (cachedResponse != null && cachedResponse.expirationTime > currentTimeMillis()) {
+      markUsed(key);
+      hitCount.incrementAndGet();
+      return createWebResourceResponse(cachedResponse, cachedResponse.body);
+    }
+
+    return fetch(url, requestHeaders, key, cachedResponse);
+  }
+
+  @Nullable
+  private WebResourceResponse fetch(
+      @NonNull String url,
+      @Nullable Map<String, String> requestHeaders,
+      @NonNull String key,
+      @Nullable CachedResponse staleResponse) {
+    HttpURLConnection connection = null;
+    try {
+      connection = openConnection(url);
+      // A redirected response must not be cached or served under the URL of the request, so
+      // redirects are returned to the WebView, which follows them itself.
+      connection.setInstanceFollowRedirects(false);
+      if (requestHeaders != null) {
+        for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+          connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+      }
+      final CookieManager cookieManager = CookieManager.getInstance();
+      final String cookies = cookieManager != null ? cookieManager.getCookie(url) : null;
+      if (cookies != null) {
+        connection.setRequestProperty("Cookie", cookies);
+      }
+      if (staleResponse != null) {
+        if (staleResponse.entityTag != null) {
+          connection.setRequestProperty("If-None-Match", staleResponse.entityTag);
+        }
+        if (staleResponse.lastModified != null) {
+          connection.setRequestProperty("If-Modified-Since", staleResponse.lastModified);
+        }
+      }
+
+      final int statusCode = connection.getResponseCode();
+      final Map<String, List<String>> headerFields = connection.getHeaderFields();
+      storeCookies(cookieManager, url, headerFields);
+
+      if (staleResponse != null && statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+        connection.disconnect();
+        hitCount.incrementAndGet();
+        return revalidate(key, staleResponse, headerFields);
+      }
+      closeQuietly(staleResponse);
+
+      missCount.incrementAndGet();
+      if (statusCode != HttpURLConnection.HTTP_OK) {
+        // Let the WebView handle anything other than a plain successful response.
+        connection.disconnect();
+        return null;
+      }
+
+      final CachedResponse response = new CachedResponse();
+      response.statusCode = statusCode;
+      response.reasonPhrase = connection.getResponseMessage();
+      response.headers = toResponseHeaders(headerFields);
+      response.expirationTime = getExpirationTime(headerFields, currentTimeMillis());
+      response.entityTag = getHeader(headerFields, "ETag");
+      response.lastModified = getHeader(headerFields, "Last-Modified");
+      response.setContentType(connection.getContentType());
+      if (response.mimeType.isEmpty()) {
+        response.mimeType = getMimeTypeForPath(stripQueryAndFragment(url));
+      }
+
+      final InputStream body = connection.getInputStream();
+      if (response.expirationTime < 0) {
+        return createWebResourceResponse(response, body);
+      }
+      return createWebResourceResponse(response, createCachingInputStream(key, response, body));
+    } catch (IOException exception) {
+      closeQuietly(staleResponse);
+      if (connection != null) {
+        connection.disconnect();
+      }
+      return null;
+    }
+  }
+
+  // Serves a stale response that the server confirmed is unchanged, and stores it again with the
+  // freshness and headers of the confirmation.
+  @NonNull
+  private WebResourceResponse revalidate(
+      @NonNull String key,
+      @NonNull CachedResponse staleResponse,
+      @Nullable Map<String, List<String>> notModifiedHeaderFields) {
+    final Map<String, List<String>> headerFields = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    for (Map.Entry<String, String> header : staleResponse.headers.entrySet()) {
+      headerFields.put(header.getKey(), Collections.singletonList(header.getValue()));
+    }
+    if (notModifiedHeaderFields != null) {
+      for (Map.Entry<String, List<String>> header : notModifiedHeaderFields.entrySet()) {
+        if (header.getKey() != null && header.getValue() != null) {
+          headerFields.put(header.getKey(), header.getValue());
+        }
+      }
+    }
+    staleResponse.headers = toResponseHeaders(headerFields);
+    staleResponse.expirationTime = getExpirationTime(headerFields, currentTimeMillis());
+    if (staleResponse.expirationTime < 0) {
+      removeCachedResponse(key);
+      return createWebResourceResponse(staleResponse, staleResponse.body);
+    }
+
+    markUsed(key);
+    return createWebResourceResponse(
+        staleResponse, createCachingInputStream(key, staleResponse, staleResponse.body));
+  }
+
+  @NonNull
+  private InputStream createCachingInputStream(
+      @NonNull String key, @NonNull CachedResponse response, @NonNull InputStream body) {
+    if (!cacheDirectory.exists() && !cacheDirectory.mkdirs()) {
+      Log.w(TAG, "Could not create cache directory " + cacheDirectory);
+      return body;
+    }
+    try {
+      // Every request writes its own file, so concurrent requests for a URL don't corrupt each
+      // other. The last one to finish replaces the others.
+      final File temporary = File.createTempFile(key, TEMPORARY_SUFFIX, cacheDirectory);
+      return new CachingInputStream(body, key, response, temporary);
+    } catch (IOException exception) {
+      Log.w(TAG, "Could not create cache file: " + exception);
+      return body;
+    }
+  }
+
+  @Nullable
+  private CachedResponse readCachedResponse(@NonNull String key, @NonNull File file) {
+    if (!file.exists()) {
+      return null;
+    }
+
+    DataInputStream stream = null;
+    try {
+      stream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+      return CachedResponse.read(stream);
+    } catch (IOException exception) {
+      Log.w(TAG, "Could not read cached response " + file + ": " + exception);
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (IOException ignored) {
+        }
+      }
+      removeCachedResponse(key);
+      return null;
+    }
+  }
+
+  // Overridden in tests to inspect the response, which the framework stubs don't expose.
+  @VisibleForTesting
+  @NonNull
+  WebResourceResponse createWebResourceResponse(
+      @NonNull String mimeType,
+      @Nullable String encoding,
+      int statusCode,
+      @NonNull String reasonPhrase,
+      @NonNull Map<String, String> responseHeaders,
+      @NonNull InputStream data) {
+    return new WebResourceResponse(
+        mimeType, encoding, statusCode, reasonPhrase, responseHeaders, data);
+  }
+
+  @NonNull
+  private WebResourceResponse createWebResourceResponse(
+      @NonNull CachedResponse response, @NonNull InputStream data) {
+    return createWebResourceResponse(
+        response.mimeType,
+        response.encoding,
+        response.statusCode,
+        // WebResourceResponse rejects an empty reason phrase, which HTTP/2 responses don't have.
+        response.reasonPhrase == null || response.reasonPhrase.isEmpty()
+            ? "OK"
+            : response.reasonPhrase,
+        response.headers,
+        data);
+  }
+
+  // Overridden in tests to avoid network access.
+  @VisibleForTesting
+  @NonNull
+  HttpURLConnection openConnection(@NonNull String url) throws IOException {
+    return (HttpURLConnection) new URL(url).openConnection();
+  }
+
+  // Overridden in tests to control freshness.
+  @VisibleForTesting
+  long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  private synchronized void markUsed(@NonNull String key) {
+    final LinkedHashMap<String, Long> sizes = getCachedResponseSizes();
+    final Long size = sizes.remove(key);
+    if (size != null) {
+      sizes.put(key, size);
+    }
+  }
+
+  private synchronized void commitCachedResponse(
+      @NonNull String key, @NonNull File temporary, long size) {
+    if (size > maxCacheSize) {
+      //noinspection ResultOfMethodCallIgnored
+      temporary.delete();
+      return;
+    }
+    if (!temporary.renameTo(new File(cacheDirectory, key))) {
+      //noinspection ResultOfMethodCallIgnored
+      temporary.delete();
+      return;
+    }
+
+    final LinkedHashMap<String, Long> sizes = getCachedResponseSizes();
+    final Long previousSize = sizes.remove(key);
+    if (previousSize != null) {
+      cacheSize -= previousSize;
+    }
+    sizes.put(key, size);
+    cacheSize += size;
+    trimCache();
+  }
+
+  private synchronized void removeCachedResponse(@NonNull String key) {
+    //noinspection ResultOfMethodCallIgnored
+    new File(cacheDirectory, key).delete();
+    final Long size = getCachedResponseSizes().remove(key);
+    if (size != null) {
+      cacheSize -= size;
+    }
+  }
+
+  private synchronized void trimCache() {
+    final Iterator<Map.Entry<String, Long>> iterator =
+        getCachedResponseSizes().entrySet().iterator();
+    while (cacheSize > maxCacheSize && iterator.hasNext()) {
+      final Map.Entry<String, Long> entry = iterator.next();
+      // Requests that are still reading the file keep it open after it is deleted.
+      //noinspection ResultOfMethodCallIgnored
+      new File(cacheDirectory, entry.getKey()).delete();
+      cacheSize -= entry.getValue();
+      iterator.remove();
+    }
+  }
+
+  @NonNull
+  private synchronized LinkedHashMap<String, Long> getCachedResponseSizes() {
+    if (cachedResponseSizes != null) {
+      return cachedResponseSizes;
+    }
+
+    cachedResponseSizes = new LinkedHashMap<>();
+    cacheSize = 0;
+    final File[] files = cacheDirectory.listFiles();
+    if (files == null) {
+      return cachedResponseSizes;
+    }
+
+    final List<File> cachedFiles = new ArrayList<>();
+    for (File file : files) {
+      if (file.getName().endsWith(TEMPORARY_SUFFIX)) {
+        // Left behind by a previous process that stopped while a response was being read.
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+      } else {
+        cachedFiles.add(file);
+      }
+    }
+    Collections.sort(cachedFiles, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+    for (File file : cachedFiles) {
+      cachedResponseSizes.put(file.getName(), file.length());
+      cacheSize += file.length();
+    }
+    trimCache();
+    return cachedResponseSizes;
+  }
+
+  /**
+   * Returns the time until which a response with `headers` can be served without revalidation, or
+   * -1 if it must not be cached.
+   */
+  @VisibleForTesting
+  static long getExpirationTime(@NonNull Map<String, List<String>> headers, long now) {
+    // The cache is keyed by URL only, so a response that varies with request headers could be
+    // served for a request it doesn't match.
+    if (getHeader(headers, "Set-Cookie") != null || getHeader(headers, "Vary") != null) {
+      return -1;
+    }
+
+    final boolean hasValidator =
+        getHeader(headers, "ETag") != null || getHeader(headers, "Last-Modified") != null;
+    long expirationTime = now;
+    boolean hasMaxAge = false;
+    final String cacheControl = getHeader(headers, "Cache-Control");
+    if (cacheControl != null) {
+      for (String directive : cacheControl.split(",")) {
+        final String name = directive.trim().toLowerCase(Locale.ROOT);
+        if (name.equals("no-store") || name.startsWith("private")) {
+          return -1;
+        } else if (name.equals("no-cache")) {
+          return hasValidator ? now : -1;
+        } else if (name.startsWith("max-age=")) {
+          try {
+            final long maxAgeSeconds =
+                Long.parseLong(unquote(name.substring("max-age=".length())));
+            expirationTime = now + Math.max(0, maxAgeSeconds) * 1000;
+            hasMaxAge = true;
+          } catch (NumberFormatException ignored) {
+          }
+        }
+      }
+    }
+    final String pragma = getHeader(headers, "Pragma");
+    if (cacheControl == null
+        && pragma != null
+        && pragma.toLowerCase(Locale.ROOT).contains("no-cache")) {
+      return hasValidator ? now : -1;
+    }
+
+    if (!hasMaxAge) {
+      final String expires = getHeader(headers, "Expires");
+      if (expires != null) {
+        final long expiresTime = parseHttpDate(expires);
+        final long date = parseHttpDate(getHeader(headers, "Date"));
+        // An invalid Expires header, like 0, means the response has already expired.
+        if (expiresTime > 0) {
+          expirationTime = now + (expiresTime - (date > 0 ? date : now));
+        }
+      }
+    }
+
+    if (expirationTime <= now && !hasValidator) {
+      // The response could never be served from the cache.
+      return -1;
+    }
+    return expirationTime;
+  }
+
+  @Nullable
+  private static String getHeader(
+      @NonNull Map<String, List<String>> headers, @NonNull String name) {
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())
+          && header.getValue() != null
+          && !header.getValue().isEmpty()) {
+        return joinHeaderValues(header.getValue());
+      }
+    }
+    return null;
+  }
+
+  private static boolean hasHeader(@Nullable Map<String, String> headers, @NonNull String name) {
+    if (headers == null) {
+      return false;
+    }
+    for (String headerName : headers.keySet()) {
+      if (name.equalsIgnoreCase(headerName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @NonNull
+  private static Map<String, String> toResponseHeaders(
+      @Nullable Map<String, List<String>> headerFields) {
+    final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    if (headerFields == null) {
+      return headers;
+    }
+    for (Map.Entry<String, List<String>> header : headerFields.entrySet()) {
+      // The status line is returned with a null name.
+      if (header.getKey() == null
+          || header.getValue() == null
+          || UNREPLAYED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+        continue;
+      }
+      headers.put(header.getKey(), joinHeaderValues(header.getValue()));
+    }
+    return headers;
+  }
+
+  @NonNull
+  private static String joinHeaderValues(@NonNull List<String> values) {
+    final StringBuilder builder = new StringBuilder();
+    for (String value : values) {
+      if (builder.length() > 0) {
+        builder.append(", ");
+      }
+      builder.append(value);
+    }
+    return builder.toString();
+  }
+
+  // Responses from an intercepted request don't set cookies in the WebView, so they are set here.
+  private static void storeCookies(
+      @Nullable CookieManager cookieManager,
+      @NonNull String url,
+      @Nullable Map<String, List<String>> headerFields) {
+    if (cookieManager == null || headerFields == null) {
+      return;
+    }
+    for (Map.Entry<String, List<String>> header : headerFields.entrySet()) {
+      if ("Set-Cookie".equalsIgnoreCase(header.getKey()) && header.getValue() != null) {
+        for (String cookie : header.getValue()) {
+          cookieManager.setCookie(url, cookie);
+        }
+      }
+    }
+  }
+
+  private static long parseHttpDate(@Nullable String date) {
+    if (date == null) {
+      return -1;
+    }
+    final SimpleDateFormat format =
+        new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    format.setTimeZone(TimeZone.getTimeZone("GMT"));
+    try {
+      final Date parsed = format.parse(date.trim());
+      return parsed != null ? parsed.getTime() : -1;
+    } catch (ParseException exception) {
+      return -1;
+    }
+  }
+
+  @NonNull
+  private static String unquote(@NonNull String value) {
+    return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")
+        ? value.substring(1, value.length() - 1)
+        : value;
+  }
+
+  private static void closeQuietly(@Nullable CachedResponse response) {
+    if (response != null) {
+      try {
+        response.body.close();
+      } catch (IOException ignored) {
+      }
+    }
+  }
+
+  @NonNull
+  static String getMimeTypeForPath(@NonNull String path) {
+    final int dot = path.lastIndexOf('.');
+    if (dot < 0 || dot == path.length() - 1) {
+      return DEFAULT_MIME_TYPE;
+    }
+
+    final String extension = path.substring(dot + 1).toLowerCase(Locale.ROOT);
+    final String webMimeType = WEB_MIME_TYPES.get(extension);
+    if (webMimeType != null) {
+      return webMimeType;
+    }
+
+    final MimeTypeMap mimeTypeMap = MimeTypeMap.getSingleton();
+    final String mimeType =
+        mimeTypeMap != null ? mimeTypeMap.getMimeTypeFromExtension(extension) : null;
+    return mimeType != null ? mimeType : DEFAULT_MIME_TYPE;
+  }
+
+  @NonNull
+  private static String stripQueryAndFragment(@NonNull String url) {
+    int end = url.length();
+    final int query = url.indexOf('?');
+    if (query >= 0) {
+      end = query;
+    }
+    final int fragment = url.indexOf('#');
+    if (fragment >= 0 && fragment < end) {
+      end = fragment;
+    }
+    return url.substring(0, end);
+  }
+
+  @NonNull
+  private static String trimTrailingSlash(@NonNull String path) {
+    return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+  }
+
+  @NonNull
+  private static String createCacheKey(@NonNull String url) {
+    try {
+      final byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+      final StringBuilder builder = new StringBuilder(digest.length * 2);
+      for (byte b : digest) {
+        builder.append(String.format(Locale.ROOT, "%02x", b));
+      }
+      return builder.toString();
+    } catch (NoSuchAlgorithmException exception) {
+      // SHA-256 is required to be available on every Android device.
+      throw new IllegalStateException(exception);
+    }
+  }
+
+  /**
+   * A response stored by a cache route.
+   *
+   * <p>Each response is stored in one file that starts with its status, headers and freshness,
+   * followed by the body, so it can be replaced with a single rename.
+   */
+  private static class CachedResponse {
+    int statusCode;
+    @Nullable String reasonPhrase;
+    @NonNull String mimeType = "";
+    @Nullable String encoding;
+    @NonNull Map<String, String> headers = Collections.emptyMap();
+    long expirationTime;
+    @Nullable String entityTag;
+    @Nullable String lastModified;
+    // The rest of the cached file after the metadata. Null for responses that were not read from
+    // the cache.
+    InputStream body;
+
+    void setContentType(@Nullable String contentType) {
+      if (contentType == null) {
+        return;
+      }
+      final String[] parts = contentType.split(";");
+      mimeType = parts[0].trim();
+      for (int i = 1; i < parts.length; i++) {
+        final String parameter = parts[i].trim();
+        if (parameter.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+          encoding = unquote(parameter.substring("charset=".length()));
+        }
+      }
+    }
+
+    void write(@NonNull DataOutputStream output) throws IOException {
+      output.writeInt(CACHE_FORMAT_VERSION);
+      output.writeInt(statusCode);
+      output.writeUTF(reasonPhrase != null ? reasonPhrase : "");
+      output.writeUTF(mimeType);
+      output.writeUTF(encoding != null ? encoding : "");
+      output.writeLong(expirationTime);
+      output.writeUTF(entityTag != null ? entityTag : "");
+      output.writeUTF(lastModified != null ? lastModified : "");
+      output.writeInt(headers.size());
+      for (Map.Entry<String, String> header : headers.entrySet()) {
+        output.writeUTF(header.getKey());
+        output.writeUTF(header.getValue());
+      }
+    }
+
+    @NonNull
+    static CachedResponse read(@NonNull DataInputStream input) throws IOException {
+      if (input.readInt() != CACHE_FORMAT_VERSION) {
+        throw new IOException("Unknown cache format.");
+      }
+      final CachedResponse response = new CachedResponse();
+      response.statusCode = input.readInt();
+      response.reasonPhrase = input.readUTF();
+      response.mimeType = input.readUTF();
+      response.encoding = emptyToNull(input.readUTF());
+      response.expirationTime = input.readLong();
+      response.entityTag = emptyToNull(input.readUTF());
+      response.lastModified = emptyToNull(input.readUTF());
+      final int headerCount = input.readInt();
+      final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (int i = 0; i < headerCount; i++) {
+        headers.put(input.readUTF(), input.readUTF());
+      }
+      response.headers = headers;
+      response.body = input;
+      return response;
+    }
+
+    @Nullable
+    private static String emptyToNull(@NonNull String value) {
+      return value.isEmpty() ? null : value;
+    }
+  }
+
+  /**
+   * Copies the bytes of a response into a temporary file while the `WebView` reads them, and moves
+   * the file into the cache once the whole response has been read.
+   */
+  private class CachingInputStream extends FilterInputStream {
+    @NonNull private final String key;
+    @NonNull private final File temporary;
+    @Nullable private DataOutputStream output;
+    private long size = 0;
+    private boolean complete = false;
+
+    CachingInputStream(
+        @NonNull InputStream input,
+        @NonNull String key,
+        @NonNull CachedResponse response,
+        @NonNull File temporary) {
+      super(input);
+      this.key = key;
+      this.temporary = temporary;
+      try {
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)));
+        response.write(output);
+      } catch (IOException exception) {
+        abandon();
+      }
+    }
+
+    @Override
+    public int read() throws IOException {
+      final int value = super.read();
+      if (value == -1) {
+        complete = true;
+      } else {
+        write(new byte[] {(byte) value}, 0, 1);
+      }
+      return value;
+    }
+
+    @Override
+    public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+      final int count = super.read(buffer, offset, length);
+      if (count == -1) {
+        complete = true;
+      } else {
+        write(buffer, offset, count);
+      }
+      return count;
+    }
+
+    private void write(@NonNull byte[] buffer, int offset, int length) {
+      if (output == null) {
+        return;
+      }
+      size += length;
+      if (size > getMaxCacheSize()) {
+        abandon();
+        return;
+      }
+      try {
+        output.write(buffer, offset, length);
+      } catch (IOException exception) {
+        abandon();
+      }
+    }
+
+    private void abandon() {
+      if (output != null) {
+        try {
+          output.close();
+        } catch (IOException ignored) {
+        }
+        output = null;
+      }
+      //noinspection ResultOfMethodCallIgnored
+      temporary.delete();
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        super.close();
+      } finally {
+        if (output != null && complete) {
+          output.close();
+          output = null;
+          commitCachedResponse(key, temporary, temporary.length());
+        } else {
+          abandon();
+        }
+      }
+    }
+  }
+}
@@ -14,6 +14,10 @@ import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Host api implementation for {@link WebViewClient}.
@@ -26,6 +30,13 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     private final WebViewClientProxyApi api;
     private boolean returnValueForShouldOverrideUrlLoading = false;
 
+    // Null when every callback is sent to Dart.
+    @Nullable private volatile Set<String> subscribedCallbacks;
+
+    // Resources loaded within the current frame. Only accessed on the main thread.
+    @Nullable private WebView pendingResourceWebView;
+    private final List<String> pendingResourceUrls = new ArrayList<>();
+
     /**
      * Creates a {@link WebViewClient} that passes arguments of callbacks methods to Dart.
      *
@@ -37,12 +48,20 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
 
     @Override
     public void onPageStarted(@NonNull WebView view, @NonNull String url, @NonNull Bitmap favicon) {
+      if (!isSubscribed("onPageStarted")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(() -> api.onPageStarted(this, view, url, reply -> null));
     }
 
     @Override
     public void onPageFinished(@NonNull WebView view, @NonNull String url) {
+      if (!isSubscribed("onPageFinished")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(() -> api.onPageFinished(this, view, url, reply -> null));
     }
@@ -52,6 +71,10 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
         @NonNull WebView view,
         @NonNull WebResourceRequest request,
         @NonNull WebResourceResponse response) {
+      if (!isSubscribed("onReceivedHttpError")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.onReceivedHttpError(this, view, request, response, reply -> null));
@@ -62,6 +85,10 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
         @NonNull WebView view,
         @NonNull WebResourceRequest request,
         @NonNull WebResourceError error) {
+      if (!isSubscribed("onReceivedRequestError")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.onReceivedRequestError(this, view, request, error, reply -> null));
@@ -70,8 +97,10 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     @Override
     public boolean shouldOverrideUrlLoading(
         @NonNull WebView view, @NonNull WebResourceRequest request) {
-      api.getPigeonRegistrar()
-          .runOnMainThread(() -> api.requestLoading(this, view, request, reply -> null));
+      if (isSubscribed("requestLoading")) {
+        api.getPigeonRegistrar()
+            .runOnMainThread(() -> api.requestLoading(this, view, request, reply -> null));
+      }
 
       // The client is only allowed to stop navigations that target the main frame because
       // overridden URLs are passed to `loadUrl` and `loadUrl` cannot load a subframe.
@@ -81,6 +110,10 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     @Override
     public void doUpdateVisitedHistory(
         @NonNull WebView view, @NonNull String url, boolean isReload) {
+      if (!isSubscribed("doUpdateVisitedHistory")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.doUpdateVisitedHistory(this, view, url, isReload, reply -> null));
@@ -92,6 +125,11 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
         @NonNull HttpAuthHandler handler,
         @NonNull String host,
         @NonNull String realm) {
+      if (!isSubscribed("onReceivedHttpAuthRequest")) {
+        super.onReceivedHttpAuthRequest(view, handler, host, realm);
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.onReceivedHttpAuthRequest(this, view, handler, host, realm, reply -> null));
@@ -102,6 +140,11 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
         @NonNull android.webkit.WebView view,
         @NonNull android.os.Message dontResend,
         @NonNull android.os.Message resend) {
+      if (!isSubscribed("onFormResubmission")) {
+        super.onFormResubmission(view, dontResend, resend);
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.onFormResubmission(this, view, dontResend, resend, reply -> null));
@@ -109,12 +152,48 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
 
     @Override
     public void onLoadResource(@NonNull android.webkit.WebView view, @NonNull String url) {
-      api.getPigeonRegistrar()
-          .runOnMainThread(() -> api.onLoadResource(this, view, url, reply -> null));
+      // This is called for every subresource of a page, so when `onLoadResources` is subscribed the
+      // resources loaded within a frame are sent to Dart in a single message instead.
+      final Set<String> callbacks = subscribedCallbacks;
+      if (callbacks != null && callbacks.contains("onLoadResources")) {
+        // WebViewClient callbacks are called on the main thread.
+        addPendingResource(view, url);
+      } else if (isSubscribed("onLoadResource")) {
+        api.getPigeonRegistrar()
+            .runOnMainThread(() -> api.onLoadResource(this, view, url, reply -> null));
+      }
+    }
+
+    private void addPendingResource(@NonNull WebView view, @NonNull String url) {
+      if (pendingResourceWebView != null && pendingResourceWebView != view) {
+        flushPendingResources();
+      }
+      final boolean flushScheduled = !pendingResourceUrls.isEmpty();
+      pendingResourceWebView = view;
+      pendingResourceUrls.add(url);
+      if (!flushScheduled) {
+        api.getPigeonRegistrar().runOnNextFrame(this::flushPendingResources);
+      }
+    }
+
+    private void flushPendingResources() {
+      final WebView view = pendingResourceWebView;
+      if (view == null || pendingResourceUrls.isEmpty()) {
+        return;
+      }
+      final List<String> urls = new ArrayList<>(pendingResourceUrls);
+      pendingResourceUrls.clear();
+      pendingResourceWebView = null;
+
+      api.onLoadResources(this, view, urls, reply -> null);
     }
 
     @Override
     public void onPageCommitVisible(@NonNull android.webkit.WebView view, @NonNull String url) {
+      if (!isSubscribed("onPageCommitVisible")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(() -> api.onPageCommitVisible(this, view, url, reply -> null));
     }
@@ -122,6 +201,11 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     @Override
     public void onReceivedClientCertRequest(
         @NonNull android.webkit.WebView view, @NonNull android.webkit.ClientCertRequest request) {
+      if (!isSubscribed("onReceivedClientCertRequest")) {
+        super.onReceivedClientCertRequest(view, request);
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.onReceivedClientCertRequest(this, view, request, reply -> null));
@@ -133,6 +217,10 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
         @NonNull String realm,
         @Nullable String account,
         @NonNull String args) {
+      if (!isSubscribed("onReceivedLoginRequest")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(
               () -> api.onReceivedLoginRequest(this, view, realm, account, args, reply -> null));
@@ -143,6 +231,11 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
         @NonNull android.webkit.WebView view,
         @NonNull android.webkit.SslErrorHandler handler,
         @NonNull android.net.http.SslError error) {
+      if (!isSubscribed("onReceivedSslError")) {
+        super.onReceivedSslError(view, handler, error);
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(() -> api.onReceivedSslError(this, view, handler, error, reply -> null));
     }
@@ -150,10 +243,22 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     @Override
     public void onScaleChanged(
         @NonNull android.webkit.WebView view, float oldScale, float newScale) {
+      if (!isSubscribed("onScaleChanged")) {
+        return;
+      }
+
       api.getPigeonRegistrar()
           .runOnMainThread(() -> api.onScaleChanged(this, view, oldScale, newScale, reply -> null));
     }
 
+    @Nullable
+    @Override
+    public WebResourceResponse shouldInterceptRequest(
+        @NonNull WebView view, @NonNull WebResourceRequest request) {
+      // Called on a background thread, so this doesn't hop to the main thread or message Dart.
+      return api.getPigeonRegistrar().getWebResourceInterceptor().intercept(request);
+    }
+
     @Override
     public void onUnhandledKeyEvent(@NonNull WebView view, @NonNull KeyEvent event) {
       // Deliberately empty. Occasionally the webview will mark events as having failed to be
@@ -165,6 +270,21 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     public void setReturnValueForShouldOverrideUrlLoading(boolean value) {
       returnValueForShouldOverrideUrlLoading = value;
     }
+
+    /**
+     * Sets the names of the Dart callback methods that events are sent to.
+     *
+     * <p>Events for any other callback method are handled with the default behavior of {@link
+     * WebViewClient}. Passing null sends every event to Dart.
+     */
+    public void setSubscribedCallbacks(@Nullable Set<String> callbackNames) {
+      subscribedCallbacks = callbackNames != null ? new HashSet<>(callbackNames) : null;
+    }
+
+    private boolean isSubscribed(@NonNull String callbackName) {
+      final Set<String> callbacks = subscribedCallbacks;
+      return callbacks == null || callbacks.contains(callbackName);
+    }
   }
 
   /** Creates a host API that handles creating {@link WebViewClient}s. */
@@ -189,6 +309,17 @@ public class WebViewClientProxyApi extends PigeonApiWebViewClient {
     }
   }
 
+  @Override
+  public void setSubscribedCallbacks(
+      @NonNull WebViewClient pigeon_instance, @NonNull List<String> callbackNames) {
+    if (pigeon_instance instanceof WebViewClientImpl) {
+      ((WebViewClientImpl) pigeon_instance).setSubscribedCallbacks(new HashSet<>(callbackNames));
+    } else {
+      throw new IllegalStateException(
+          "This WebViewClient doesn't support setting the subscribed callbacks.");
+    }
+  }
+
   @NonNull
   @Override
   public ProxyApiRegistrar getPigeonRegistrar() {
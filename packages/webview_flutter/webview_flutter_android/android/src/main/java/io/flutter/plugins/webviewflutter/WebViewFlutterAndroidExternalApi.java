@@ -48,4 +48,41 @@ public interface WebViewFlutterAndroidExternalApi {
 
     return null;
   }
+
+  /**
+   * Retrieves the {@link WebResourceInterceptor} used by every `WebView` created by the plugin.
+   *
+   * <p>Routes added to the interceptor serve matching requests from Flutter assets or a native disk
+   * cache without sending a message to Dart. No requests are intercepted until a route is added.
+   *
+   * @param engine the execution environment the {@link WebViewFlutterPlugin} should belong to. If
+   *     the engine doesn't contain an attached instance of {@link WebViewFlutterPlugin}, this
+   *     method returns null.
+   * @return the interceptor of the attached plugin or null.
+   */
+  @Nullable
+  static WebResourceInterceptor getWebResourceInterceptor(@NonNull FlutterEngine engine) {
+    final WebViewFlutterPlugin webViewPlugin =
+        (WebViewFlutterPlugin) engine.getPlugins().get(WebViewFlutterPlugin.class);
+    return webViewPlugin != null ? webViewPlugin.getWebResourceInterceptor() : null;
+  }
+
+  /**
+   * Retrieves the {@link WebViewPool} that provides the `WebView`s created by the plugin.
+   *
+   * <p>Calling {@link WebViewPool#warmUp(int)} when the app starts initializes the WebView provider
+   * and, once an `Activity` is attached, creates `WebView`s while the main thread is idle, so the
+   * first `WebView` widget is shown sooner. The pool also reports how long cold and warm `WebView` creation took.
+   *
+   * @param engine the execution environment the {@link WebViewFlutterPlugin} should belong to. If
+   *     the engine doesn't contain an attached instance of {@link WebViewFlutterPlugin}, this
+   *     method returns null.
+   * @return the pool of the attached plugin or null.
+   */
+  @Nullable
+  static WebViewPool getWebViewPool(@NonNull FlutterEngine engine) {
+    final WebViewFlutterPlugin webViewPlugin =
+        (WebViewFlutterPlugin) engine.getPlugins().get(WebViewFlutterPlugin.class);
+    return webViewPlugin != null ? webViewPlugin.getWebViewPool() : null;
+  }
 }
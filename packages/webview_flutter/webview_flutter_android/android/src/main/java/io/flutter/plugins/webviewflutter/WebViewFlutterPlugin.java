@@ -51,6 +51,7 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
   @Override
   public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
     if (proxyApiRegistrar != null) {
+      proxyApiRegistrar.getWebViewPool().release();
       proxyApiRegistrar.tearDown();
       proxyApiRegistrar.getInstanceManager().stopFinalizationListener();
       proxyApiRegistrar = null;
@@ -85,4 +86,16 @@ public class WebViewFlutterPlugin implements FlutterPlugin, ActivityAware {
   public AndroidWebkitLibraryPigeonInstanceManager getInstanceManager() {
     return proxyApiRegistrar.getInstanceManager();
   }
+
+  /** Serves configured URL prefixes from Flutter assets or a native disk cache. */
+  @Nullable
+  public WebResourceInterceptor getWebResourceInterceptor() {
+    return proxyApiRegistrar != null ? proxyApiRegistrar.getWebResourceInterceptor() : null;
+  }
+
+  /** Creates `WebView`s before they are requested by Dart. */
+  @Nullable
+  public WebViewPool getWebViewPool() {
+    return proxyApiRegistrar != null ? proxyApiRegistrar.getWebViewPool() : null;
+  }
 }
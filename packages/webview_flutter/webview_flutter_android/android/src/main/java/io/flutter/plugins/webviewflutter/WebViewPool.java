@@ -0,0 +1,212 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import android.content.Context;
+import android.hardware.display.DisplayManager;
+import android.os.SystemClock;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps a small number of {@link WebViewProxyApi.WebViewPlatformView}s that are created before
+ * they are requested.
+ *
+ * <p>Loading the WebView provider the first time a {@link WebView} is created in a process can
+ * block the main thread for hundreds of milliseconds. {@link #warmUp(int)} does this work, and
+ * fills the pool, while the main thread is idle so the next `WebView` requested by Dart can be
+ * returned without waiting.
+ *
+ * <p>`WebView`s are only created for the pool while an `Activity` is attached, since they are
+ * created with the current context. Until then, only the provider is initialized.
+ *
+ * <p>Except for {@link #warmUp(int)}, the methods of this class must be called on the main thread.
+ */
+public class WebViewPool {
+  @NonNull private final ProxyApiRegistrar registrar;
+
+  private final Deque<WebView> pooledWebViews = new ArrayDeque<>();
+
+  private int maxSize = 0;
+  private boolean isWarmUpRequested = false;
+  private boolean isRefillScheduled = false;
+  private boolean isProviderInitialized = false;
+  private boolean hasActivityContext = false;
+
+  private long coldCreationTimeMillis = -1;
+  private long lastWarmCreationTimeMillis = -1;
+  private long hitCount = 0;
+  private long missCount = 0;
+
+  public WebViewPool(@NonNull ProxyApiRegistrar registrar) {
+    this.registrar = registrar;
+  }
+
+  /**
+   * Initializes the WebView provider and keeps up to `poolSize` `WebView`s ready to be returned by
+   * {@link #obtain()}.
+   *
+   * <p>The work is done on the main thread when it becomes idle. A `poolSize` of 0 only
+   * initializes the provider and releases any `WebView` kept by the pool.
+   */
+  public void warmUp(int poolSize) {
+    if (poolSize < 0) {
+      throw new IllegalArgumentException("poolSize must not be negative.");
+    }
+    registrar.runOnMainThread(
+        () -> {
+          isWarmUpRequested = true;
+          maxSize = poolSize;
+          while (pooledWebViews.size() > maxSize) {
+            pooledWebViews.removeLast().destroy();
+          }
+          scheduleRefill();
+        });
+  }
+
+  /**
+   * Returns a `WebView` from the pool or creates a new one if the pool is empty.
+   *
+   * <p>The pool is refilled the next time the main thread is idle.
+   */
+  @NonNull
+  public WebView obtain() {
+    final WebView webView = pooledWebViews.pollFirst();
+    if (webView != null) {
+      hitCount++;
+      scheduleRefill();
+      return webView;
+    }
+
+    missCount++;
+    return createWebView();
+  }
+
+  /**
+   * Destroys the pooled `WebView`s.
+   *
+   * <p>The pool is refilled afterwards if an `Activity` is attached.
+   */
+  public void clear() {
+    while (!pooledWebViews.isEmpty()) {
+      pooledWebViews.removeFirst().destroy();
+    }
+    scheduleRefill();
+  }
+
+  /**
+   * Called when the context used to create `WebView`s changes.
+   *
+   * <p>Destroys the pooled `WebView`s so that a `WebView` is never returned with a stale
+   * `Activity`, and only refills the pool if the new context is an `Activity`.
+   */
+  void onContextChanged(boolean isActivity) {
+    hasActivityContext = isActivity;
+    clear();
+  }
+
+  /** Destroys the pooled `WebView`s and stops refilling the pool. */
+  public void release() {
+    isWarmUpRequested = false;
+    maxSize = 0;
+    clear();
+  }
+
+  /** The number of `WebView`s currently kept by the pool. */
+  public int getSize() {
+    return pooledWebViews.size();
+  }
+
+  /**
+   * The time in milliseconds it took to create the first `WebView` in this pool, or -1 if none has
+   * been created.
+   *
+   * <p>This includes initializing the WebView provider unless {@link #warmUp(int)} had already
+   * done so.
+   */
+  public long getColdCreationTimeMillis() {
+    return coldCreationTimeMillis;
+  }
+
+  /**
+   * The time in milliseconds it took to create the most recent `WebView` after the first one, or
+   * -1 if only one `WebView` has been created.
+   */
+  public long getLastWarmCreationTimeMillis() {
+    return lastWarmCreationTimeMillis;
+  }
+
+  /** The number of calls to {@link #obtain()} that were served from the pool. */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /** The number of calls to {@link #obtain()} that had to create a new `WebView`. */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  private void scheduleRefill() {
+    if (!isWarmUpRequested
+        || isRefillScheduled
+        || (isProviderInitialized && (!hasActivityContext || pooledWebViews.size() >= maxSize))) {
+      return;
+    }
+
+    isRefillScheduled = true;
+    registrar.runWhenMainThreadIdle(this::refill);
+  }
+
+  // Performs one unit of work per idle callback so a frame is never delayed by more than one
+  // `WebView` creation.
+  private void refill() {
+    isRefillScheduled = false;
+    if (!isWarmUpRequested) {
+      return;
+    } else if (!isProviderInitialized) {
+      initializeProvider();
+    } else if (hasActivityContext && pooledWebViews.size() < maxSize) {
+      pooledWebViews.addLast(createWebView());
+    }
+    scheduleRefill();
+  }
+
+  private void initializeProvider() {
+    isProviderInitialized = true;
+    if (coldCreationTimeMillis == -1) {
+      // Loads the WebView provider without creating a view.
+      WebSettings.getDefaultUserAgent(registrar.getContext());
+    }
+  }
+
+  @VisibleForTesting
+  @NonNull
+  WebView createWebView() {
+    final long startTime = SystemClock.elapsedRealtime();
+
+    DisplayListenerProxy displayListenerProxy = new DisplayListenerProxy();
+    DisplayManager displayManager =
+        (DisplayManager) registrar.getContext().getSystemService(Context.DISPLAY_SERVICE);
+    displayListenerProxy.onPreWebViewInitialization(displayManager);
+
+    final WebView webView =
+        new WebViewProxyApi.WebViewPlatformView((WebViewProxyApi) registrar.getPigeonApiWebView());
+    displayListenerProxy.onPostWebViewInitialization(displayManager);
+
+    final long creationTime = SystemClock.elapsedRealtime() - startTime;
+    if (coldCreationTimeMillis == -1) {
+      coldCreationTimeMillis = creationTime;
+      isProviderInitialized = true;
+    } else {
+      lastWarmCreationTimeMillis = creationTime;
+    }
+
+    return webView;
+  }
+}
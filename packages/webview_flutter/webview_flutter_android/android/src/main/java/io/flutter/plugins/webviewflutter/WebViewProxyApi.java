@@ -5,8 +5,6 @@
 package io.flutter.plugins.webviewflutter;
 
 import android.annotation.SuppressLint;
-import android.content.Context;
-import android.hardware.display.DisplayManager;
 import android.os.Build;
 import android.view.View;
 import android.view.ViewParent;
@@ -17,9 +15,13 @@ import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.webkit.WebViewCompat;
 import io.flutter.embedding.android.FlutterView;
 import io.flutter.plugin.platform.PlatformView;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import kotlin.Result;
 import kotlin.Unit;
 import kotlin.jvm.functions.Function1;
@@ -39,6 +41,9 @@ public class WebViewProxyApi extends PigeonApiWebView {
 
     private WebChromeClientProxyApi.SecureWebChromeClient currentWebChromeClient;
 
+    // Names of the channels added with `WebViewCompat.addWebMessageListener`.
+    final Set<String> webMessageListenerNames = new HashSet<>();
+
     WebViewPlatformView(@NonNull WebViewProxyApi api) {
       super(api.getPigeonRegistrar().getContext());
       this.api = api;
@@ -131,16 +136,7 @@ public class WebViewProxyApi extends PigeonApiWebView {
   @NonNull
   @Override
   public WebView pigeon_defaultConstructor() {
-    DisplayListenerProxy displayListenerProxy = new DisplayListenerProxy();
-    DisplayManager displayManager =
-        (DisplayManager)
-            getPigeonRegistrar().getContext().getSystemService(Context.DISPLAY_SERVICE);
-    displayListenerProxy.onPreWebViewInitialization(displayManager);
-
-    final WebView webView = new WebViewPlatformView(this);
-    displayListenerProxy.onPostWebViewInitialization(displayManager);
-
-    return webView;
+    return getPigeonRegistrar().getWebViewPool().obtain();
   }
 
   @NonNull
@@ -236,6 +232,11 @@ public class WebViewProxyApi extends PigeonApiWebView {
     WebView.setWebContentsDebuggingEnabled(enabled);
   }
 
+  @Override
+  public void warmUp(long poolSize) {
+    getPigeonRegistrar().getWebViewPool().warmUp((int) poolSize);
+  }
+
   @Override
   public void setWebViewClient(@NonNull WebView pigeon_instance, @Nullable WebViewClient client) {
     pigeon_instance.setWebViewClient(client);
@@ -248,9 +249,35 @@ public class WebViewProxyApi extends PigeonApiWebView {
     pigeon_instance.addJavascriptInterface(channel, channel.javaScriptChannelName);
   }
 
+  /**
+   * This method should only be called if {@link WebViewFeatureProxyApi#isFeatureSupported(String)}
+   * with WEB_MESSAGE_LISTENER returns true.
+   */
+  @SuppressLint("RequiresFeature")
+  @Override
+  public void addWebMessageListener(
+      @NonNull WebView pigeon_instance,
+      @NonNull JavaScriptChannel channel,
+      @NonNull List<String> allowedOriginRules) {
+    WebViewCompat.addWebMessageListener(
+        pigeon_instance,
+        channel.javaScriptChannelName,
+        new HashSet<>(allowedOriginRules),
+        channel);
+    if (pigeon_instance instanceof WebViewPlatformView) {
+      ((WebViewPlatformView) pigeon_instance)
+          .webMessageListenerNames.add(channel.javaScriptChannelName);
+    }
+  }
+
+  @SuppressLint("RequiresFeature")
   @Override
   public void removeJavaScriptChannel(@NonNull WebView pigeon_instance, @NonNull String channel) {
     pigeon_instance.removeJavascriptInterface(channel);
+    if (pigeon_instance instanceof WebViewPlatformView
+        && ((WebViewPlatformView) pigeon_instance).webMessageListenerNames.remove(channel)) {
+      WebViewCompat.removeWebMessageListener(pigeon_instance, channel);
+    }
   }
 
   @Override
@@ -4,13 +4,25 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.net.Uri;
+import android.webkit.WebView;
+import androidx.webkit.JavaScriptReplyProxy;
+import androidx.webkit.WebMessageCompat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 public class JavaScriptChannelTest {
   @Test
@@ -24,4 +36,81 @@ public class JavaScriptChannelTest {
 
     verify(mockApi).postMessage(eq(instance), eq(message), any());
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void onPostMessageSendsMessagesOfAFrameTogether() {
+    final JavaScriptChannelProxyApi mockApi = mock(JavaScriptChannelProxyApi.class);
+    final List<Runnable> frameCallbacks = new ArrayList<>();
+    when(mockApi.getPigeonRegistrar())
+        .thenReturn(
+            new TestProxyApiRegistrar() {
+              @Override
+              void runOnNextFrame(Runnable runnable) {
+                frameCallbacks.add(runnable);
+              }
+            });
+
+    final JavaScriptChannel instance = new JavaScriptChannel("channel", mockApi);
+    final WebMessageCompat stringMessage = mock(WebMessageCompat.class);
+    when(stringMessage.getType()).thenReturn(WebMessageCompat.TYPE_STRING);
+    when(stringMessage.getData()).thenReturn("myString");
+    final WebMessageCompat bufferMessage = mock(WebMessageCompat.class);
+    when(bufferMessage.getType()).thenReturn(WebMessageCompat.TYPE_ARRAY_BUFFER);
+    when(bufferMessage.getArrayBuffer()).thenReturn(new byte[] {1, 2});
+
+    final WebView webView = mock(WebView.class);
+    final JavaScriptReplyProxy replyProxy = mock(JavaScriptReplyProxy.class);
+    instance.onPostMessage(webView, stringMessage, Uri.parse("https://a.com"), true, replyProxy);
+    instance.onPostMessage(webView, bufferMessage, Uri.parse("https://a.com"), true, replyProxy);
+
+    verify(mockApi, never()).postMessages(any(), any(), any(), any());
+    assertEquals(1, frameCallbacks.size());
+
+    frameCallbacks.get(0).run();
+    final ArgumentCaptor<List<Object>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+    verify(mockApi).postMessages(eq(instance), eq(replyProxy), messagesCaptor.capture(), any());
+    assertEquals(2, messagesCaptor.getValue().size());
+    assertEquals("myString", messagesCaptor.getValue().get(0));
+    assertArrayEquals(new byte[] {1, 2}, (byte[]) messagesCaptor.getValue().get(1));
+  }
+
+  @Test
+  public void onPostMessageSendsMessagesOfEachJavaScriptObjectSeparately() {
+    final JavaScriptChannelProxyApi mockApi = mock(JavaScriptChannelProxyApi.class);
+    final List<Runnable> frameCallbacks = new ArrayList<>();
+    when(mockApi.getPigeonRegistrar())
+        .thenReturn(
+            new TestProxyApiRegistrar() {
+              @Override
+              void runOnNextFrame(Runnable runnable) {
+                frameCallbacks.add(runnable);
+              }
+            });
+
+    final JavaScriptChannel instance = new JavaScriptChannel("channel", mockApi);
+    final WebMessageCompat message = mock(WebMessageCompat.class);
+    when(message.getType()).thenReturn(WebMessageCompat.TYPE_STRING);
+    when(message.getData()).thenReturn("myString");
+
+    final WebView webView = mock(WebView.class);
+    final JavaScriptReplyProxy mainFrameReplyProxy = mock(JavaScriptReplyProxy.class);
+    final JavaScriptReplyProxy iframeReplyProxy = mock(JavaScriptReplyProxy.class);
+    instance.onPostMessage(webView, message, Uri.parse("https://a.com"), true, mainFrameReplyProxy);
+    instance.onPostMessage(webView, message, Uri.parse("https://b.com"), false, iframeReplyProxy);
+    instance.onPostMessage(webView, message, Uri.parse("https://a.com"), true, mainFrameReplyProxy);
+
+    assertEquals(1, frameCallbacks.size());
+    frameCallbacks.get(0).run();
+
+    verify(mockApi)
+        .postMessages(
+            eq(instance),
+            eq(mainFrameReplyProxy),
+            eq(Arrays.asList("myString", "myString")),
+            any());
+    verify(mockApi)
+        .postMessages(
+            eq(instance), eq(iframeReplyProxy), eq(Collections.singletonList("myString")), any());
+  }
 }
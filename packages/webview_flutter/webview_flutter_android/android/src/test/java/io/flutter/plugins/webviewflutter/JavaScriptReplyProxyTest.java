@@ -0,0 +1,63 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import androidx.webkit.JavaScriptReplyProxy;
+import androidx.webkit.WebViewFeature;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+
+public class JavaScriptReplyProxyTest {
+  @Test
+  public void postMessage() {
+    final PigeonApiJavaScriptReplyProxy api =
+        new TestProxyApiRegistrar().getPigeonApiJavaScriptReplyProxy();
+
+    final JavaScriptReplyProxy instance = mock(JavaScriptReplyProxy.class);
+    try (MockedStatic<WebViewFeature> mockedWebViewFeature = mockStatic(WebViewFeature.class)) {
+      mockedWebViewFeature
+          .when(() -> WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_ARRAY_BUFFER))
+          .thenReturn(true);
+      api.postMessage(instance, "myString");
+      api.postMessage(instance, new byte[] {3});
+    }
+
+    verify(instance).postMessage("myString");
+    verify(instance).postMessage(new byte[] {3});
+  }
+
+  @Test
+  public void postMessageWithBytesThrowsWhenArrayBufferIsNotSupported() {
+    final PigeonApiJavaScriptReplyProxy api =
+        new TestProxyApiRegistrar().getPigeonApiJavaScriptReplyProxy();
+
+    final JavaScriptReplyProxy instance = mock(JavaScriptReplyProxy.class);
+    try (MockedStatic<WebViewFeature> mockedWebViewFeature = mockStatic(WebViewFeature.class)) {
+      mockedWebViewFeature
+          .when(() -> WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_ARRAY_BUFFER))
+          .thenReturn(false);
+      assertThrows(
+          UnsupportedOperationException.class,
+          () -> api.postMessage(instance, new byte[] {3}));
+    }
+
+    verify(instance, never()).postMessage(any(byte[].class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void postMessageWithUnsupportedTypeThrows() {
+    final PigeonApiJavaScriptReplyProxy api =
+        new TestProxyApiRegistrar().getPigeonApiJavaScriptReplyProxy();
+
+    api.postMessage(mock(JavaScriptReplyProxy.class), 5L);
+  }
+}
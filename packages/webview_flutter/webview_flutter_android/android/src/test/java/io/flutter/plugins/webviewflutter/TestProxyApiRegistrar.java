@@ -23,6 +23,16 @@ public class TestProxyApiRegistrar extends ProxyApiRegistrar {
     runnable.run();
   }
 
+  @Override
+  void runOnNextFrame(Runnable runnable) {
+    runnable.run();
+  }
+
+  @Override
+  void runWhenMainThreadIdle(Runnable runnable) {
+    runnable.run();
+  }
+
   @Override
   boolean sdkIsAtLeast(int version) {
     return true;
@@ -4,9 +4,11 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -27,6 +29,8 @@ import android.webkit.WebView;
 import android.webkit.WebView.WebViewTransport;
 import android.webkit.WebViewClient;
 import io.flutter.plugins.webviewflutter.WebChromeClientProxyApi.WebChromeClientImpl;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -44,6 +48,51 @@ public class WebChromeClientTest {
     verify(mockApi).onProgressChanged(eq(instance), eq(webView), eq(progress), any());
   }
 
+  @Test
+  public void onProgressChangedSendsLatestProgressOfAFrame() {
+    final WebChromeClientProxyApi mockApi = mock(WebChromeClientProxyApi.class);
+    final List<Runnable> frameCallbacks = new ArrayList<>();
+    when(mockApi.getPigeonRegistrar())
+        .thenReturn(
+            new TestProxyApiRegistrar() {
+              @Override
+              void runOnNextFrame(Runnable runnable) {
+                frameCallbacks.add(runnable);
+              }
+            });
+
+    final WebChromeClientImpl instance = new WebChromeClientImpl(mockApi);
+    final android.webkit.WebView webView = mock(WebView.class);
+    instance.onProgressChanged(webView, 10);
+    instance.onProgressChanged(webView, 40);
+
+    verify(mockApi, never()).onProgressChanged(any(), any(), anyLong(), any());
+    assertEquals(1, frameCallbacks.size());
+
+    frameCallbacks.get(0).run();
+    verify(mockApi).onProgressChanged(eq(instance), eq(webView), eq(40L), any());
+    verify(mockApi, never()).onProgressChanged(eq(instance), eq(webView), eq(10L), any());
+  }
+
+  @Test
+  public void onProgressChangedSendsCompletionImmediately() {
+    final WebChromeClientProxyApi mockApi = mock(WebChromeClientProxyApi.class);
+    when(mockApi.getPigeonRegistrar())
+        .thenReturn(
+            new TestProxyApiRegistrar() {
+              @Override
+              void runOnNextFrame(Runnable runnable) {}
+            });
+
+    final WebChromeClientImpl instance = new WebChromeClientImpl(mockApi);
+    final android.webkit.WebView webView = mock(WebView.class);
+    instance.onProgressChanged(webView, 70);
+    instance.onProgressChanged(webView, 100);
+
+    verify(mockApi).onProgressChanged(eq(instance), eq(webView), eq(100L), any());
+    verify(mockApi, never()).onProgressChanged(eq(instance), eq(webView), eq(70L), any());
+  }
+
   @Test
   public void onCreateWindow() {
     final WebView mockOnCreateWindowWebView = mock(WebView.class);
@@ -0,0 +1,385 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.net.Uri;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WebResourceInterceptorTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private FlutterAssetManager mockAssetManager;
+  private TestWebResourceInterceptor interceptor;
+
+  @Before
+  public void setUp() throws IOException {
+    mockAssetManager = mock(FlutterAssetManager.class);
+    interceptor =
+        new TestWebResourceInterceptor(mockAssetManager, temporaryFolder.newFolder("cache"));
+  }
+
+  @Test
+  public void interceptWithoutRoutesReturnsNull() {
+    assertNull(interceptor.intercept(createRequest("GET", "https://www.example.com/app.js")));
+    assertEquals(0, interceptor.getHitCount());
+    assertEquals(0, interceptor.getMissCount());
+  }
+
+  @Test
+  public void interceptServesAssetRoute() throws IOException {
+    interceptor.addAssetRoute("https://app.local/", "web/");
+    when(mockAssetManager.getAssetFilePathByName("web/js/app.js"))
+        .thenReturn("flutter_assets/web/js/app.js");
+    when(mockAssetManager.open("flutter_assets/web/js/app.js"))
+        .thenReturn(new ByteArrayInputStream("code".getBytes(StandardCharsets.UTF_8)));
+
+    assertNotNull(interceptor.intercept(createRequest("GET", "https://app.local/js/app.js?v=2")));
+    assertEquals("text/javascript", interceptor.lastMimeType);
+    assertEquals("code", readFully(interceptor.lastData));
+    assertEquals(1, interceptor.getHitCount());
+  }
+
+  @Test
+  public void interceptServesIndexForDirectory() throws IOException {
+    interceptor.addAssetRoute("https://app.local/", "web");
+    when(mockAssetManager.getAssetFilePathByName("web/index.html"))
+        .thenReturn("flutter_assets/web/index.html");
+    when(mockAssetManager.open("flutter_assets/web/index.html"))
+        .thenReturn(new ByteArrayInputStream(new byte[0]));
+
+    assertNotNull(interceptor.intercept(createRequest("GET", "https://app.local/")));
+    assertEquals("text/html", interceptor.lastMimeType);
+  }
+
+  @Test
+  public void interceptCountsMissForMissingAsset() throws IOException {
+    interceptor.addAssetRoute("https://app.local/", "web");
+    when(mockAssetManager.getAssetFilePathByName("web/missing.css"))
+        .thenReturn("flutter_assets/web/missing.css");
+    when(mockAssetManager.open("flutter_assets/web/missing.css")).thenThrow(new IOException());
+
+    assertNull(interceptor.intercept(createRequest("GET", "https://app.local/missing.css")));
+    assertEquals(0, interceptor.getHitCount());
+    assertEquals(1, interceptor.getMissCount());
+  }
+
+  @Test
+  public void interceptIgnoresNonGetRequests() {
+    interceptor.addAssetRoute("https://app.local/", "web");
+
+    assertNull(interceptor.intercept(createRequest("POST", "https://app.local/api")));
+    assertEquals(0, interceptor.getMissCount());
+  }
+
+  @Test
+  public void interceptCachesNetworkResponse() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    final HttpURLConnection mockConnection =
+        createConnection(
+            200, "{}", "Cache-Control", "max-age=60", "Access-Control-Allow-Origin", "*");
+    when(mockConnection.getContentType()).thenReturn("application/json; charset=utf-8");
+    interceptor.connection = mockConnection;
+
+    final WebResourceRequest request = createRequest("GET", "https://api.example.com/items");
+    assertNotNull(interceptor.intercept(request));
+    assertEquals("{}", readFully(interceptor.lastData));
+    assertEquals(1, interceptor.getMissCount());
+
+    interceptor.connection = null;
+    assertNotNull(interceptor.intercept(request));
+    assertEquals("application/json", interceptor.lastMimeType);
+    assertEquals("utf-8", interceptor.lastEncoding);
+    assertEquals(200, interceptor.lastStatusCode);
+    assertEquals("OK", interceptor.lastReasonPhrase);
+    assertEquals("*", interceptor.lastHeaders.get("access-control-allow-origin"));
+    assertEquals("{}", readFully(interceptor.lastData));
+    assertEquals(1, interceptor.getHitCount());
+
+    interceptor.clearCache();
+    interceptor.connection = mockConnection;
+    when(mockConnection.getResponseCode()).thenReturn(404);
+    assertNull(interceptor.intercept(request));
+    assertEquals(2, interceptor.getMissCount());
+  }
+
+  @Test
+  public void interceptDoesNotCacheUncacheableResponses() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    final WebResourceRequest request = createRequest("GET", "https://api.example.com/items");
+
+    final String[][] uncacheableHeaders = {
+      {"Cache-Control", "no-store"},
+      {"Cache-Control", "private, max-age=60"},
+      {"Cache-Control", "max-age=60", "Set-Cookie", "session=1"},
+      {},
+    };
+    for (String[] headers : uncacheableHeaders) {
+      interceptor.connection = createConnection(200, "{}", headers);
+      assertNotNull(interceptor.intercept(request));
+      assertEquals("{}", readFully(interceptor.lastData));
+    }
+
+    interceptor.connection = null;
+    assertNull(interceptor.intercept(request));
+    assertEquals(0, interceptor.getHitCount());
+  }
+
+  @Test
+  public void interceptDoesNotCacheRangeRequests() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    interceptor.connection = createConnection(200, "{}", "Cache-Control", "max-age=60");
+    final WebResourceRequest request = createRequest("GET", "https://api.example.com/video");
+    assertNotNull(interceptor.intercept(request));
+    readFully(interceptor.lastData);
+
+    final WebResourceRequest rangeRequest = createRequest("GET", "https://api.example.com/video");
+    when(rangeRequest.getRequestHeaders())
+        .thenReturn(Collections.singletonMap("range", "bytes=1-"));
+    interceptor.connection = null;
+    assertNull(interceptor.intercept(rangeRequest));
+    assertEquals(0, interceptor.getHitCount());
+    assertEquals(2, interceptor.getMissCount());
+  }
+
+  @Test
+  public void interceptReturnsRedirectsToWebView() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    final HttpURLConnection mockConnection =
+        createConnection(
+            302, "", "Location", "https://api.example.com/new", "Cache-Control", "max-age=60");
+    interceptor.connection = mockConnection;
+
+    final WebResourceRequest request = createRequest("GET", "https://api.example.com/old");
+    assertNull(interceptor.intercept(request));
+    verify(mockConnection).setInstanceFollowRedirects(false);
+
+    interceptor.connection = null;
+    assertNull(interceptor.intercept(request));
+    assertEquals(0, interceptor.getHitCount());
+  }
+
+  @Test
+  public void interceptRevalidatesExpiredResponse() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    final WebResourceRequest request = createRequest("GET", "https://api.example.com/items");
+    interceptor.connection =
+        createConnection(200, "{}", "Cache-Control", "max-age=1", "ETag", "\"1\"");
+    assertNotNull(interceptor.intercept(request));
+    readFully(interceptor.lastData);
+
+    interceptor.now += 2000;
+    final HttpURLConnection notModifiedConnection =
+        createConnection(304, "", "Cache-Control", "max-age=60");
+    interceptor.connection = notModifiedConnection;
+    assertNotNull(interceptor.intercept(request));
+    verify(notModifiedConnection).setRequestProperty("If-None-Match", "\"1\"");
+    assertEquals(200, interceptor.lastStatusCode);
+    assertEquals("{}", readFully(interceptor.lastData));
+
+    // The revalidated response is fresh for another minute.
+    interceptor.connection = null;
+    interceptor.now += 30000;
+    assertNotNull(interceptor.intercept(request));
+    assertEquals("{}", readFully(interceptor.lastData));
+    assertEquals(2, interceptor.getHitCount());
+  }
+
+  @Test
+  public void interceptEvictsLeastRecentlyUsedResponses() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    final WebResourceRequest first = createRequest("GET", "https://api.example.com/1");
+    final WebResourceRequest second = createRequest("GET", "https://api.example.com/2");
+    final WebResourceRequest third = createRequest("GET", "https://api.example.com/3");
+    for (WebResourceRequest request : new WebResourceRequest[] {first, second}) {
+      interceptor.connection = createConnection(200, "{}", "Cache-Control", "max-age=60");
+      interceptor.intercept(request);
+      readFully(interceptor.lastData);
+    }
+    interceptor.setMaxCacheSize(interceptor.cacheDirectorySize());
+
+    interceptor.connection = null;
+    interceptor.intercept(first);
+    readFully(interceptor.lastData);
+    interceptor.connection = createConnection(200, "{}", "Cache-Control", "max-age=60");
+    interceptor.intercept(third);
+    readFully(interceptor.lastData);
+
+    // The second response was used least recently, so it was evicted for the third.
+    interceptor.connection = null;
+    assertNotNull(interceptor.intercept(first));
+    assertNotNull(interceptor.intercept(third));
+    assertNull(interceptor.intercept(second));
+  }
+
+  @Test
+  public void interceptWritesConcurrentResponsesToSeparateFiles() throws IOException {
+    interceptor.addCacheRoute("https://api.example.com/");
+    final WebResourceRequest request = createRequest("GET", "https://api.example.com/items");
+    interceptor.connection = createConnection(200, "first", "Cache-Control", "max-age=60");
+    interceptor.intercept(request);
+    final InputStream firstData = interceptor.lastData;
+    interceptor.connection = createConnection(200, "second", "Cache-Control", "max-age=60");
+    interceptor.intercept(request);
+    final InputStream secondData = interceptor.lastData;
+
+    assertEquals("first", readFully(firstData));
+    assertEquals("second", readFully(secondData));
+
+    interceptor.connection = null;
+    assertNotNull(interceptor.intercept(request));
+    assertEquals("second", readFully(interceptor.lastData));
+  }
+
+  @Test
+  public void getExpirationTime() {
+    assertEquals(61000, getExpirationTime(1000, "Cache-Control", "public, max-age=60"));
+    assertEquals(
+        61000,
+        getExpirationTime(
+            1000,
+            "Date",
+            "Thu, 01 Jan 2026 00:00:00 GMT",
+            "Expires",
+            "Thu, 01 Jan 2026 00:01:00 GMT"));
+    assertEquals(1000, getExpirationTime(1000, "Cache-Control", "no-cache", "ETag", "\"1\""));
+    assertEquals(-1, getExpirationTime(1000, "Cache-Control", "no-cache"));
+    assertEquals(-1, getExpirationTime(1000, "Pragma", "no-cache"));
+    assertEquals(-1, getExpirationTime(1000, "Expires", "0"));
+    assertEquals(-1, getExpirationTime(1000, "Cache-Control", "max-age=60", "Vary", "*"));
+    assertEquals(
+        -1, getExpirationTime(1000, "Cache-Control", "max-age=60", "Vary", "Accept-Language"));
+  }
+
+  @Test
+  public void getMimeTypeForPath() {
+    assertEquals("text/css", WebResourceInterceptor.getMimeTypeForPath("styles/main.CSS"));
+    assertEquals("application/wasm", WebResourceInterceptor.getMimeTypeForPath("a/b.wasm"));
+    assertEquals("application/octet-stream", WebResourceInterceptor.getMimeTypeForPath("blob"));
+  }
+
+  private static long getExpirationTime(long now, String... headers) {
+    return WebResourceInterceptor.getExpirationTime(createHeaderFields(headers), now);
+  }
+
+  private static Map<String, List<String>> createHeaderFields(String... headers) {
+    final Map<String, List<String>> headerFields = new HashMap<>();
+    for (int i = 0; i < headers.length; i += 2) {
+      headerFields.put(headers[i], Collections.singletonList(headers[i + 1]));
+    }
+    return headerFields;
+  }
+
+  private static HttpURLConnection createConnection(int statusCode, String body, String... headers)
+      throws IOException {
+    final HttpURLConnection connection = mock(HttpURLConnection.class);
+    when(connection.getResponseCode()).thenReturn(statusCode);
+    when(connection.getResponseMessage()).thenReturn(statusCode == 200 ? "OK" : "Not Modified");
+    when(connection.getHeaderFields()).thenReturn(createHeaderFields(headers));
+    when(connection.getInputStream())
+        .thenReturn(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+    return connection;
+  }
+
+  private static WebResourceRequest createRequest(String method, String url) {
+    final WebResourceRequest request = mock(WebResourceRequest.class);
+    when(request.getMethod()).thenReturn(method);
+    when(request.getUrl()).thenReturn(Uri.parse(url));
+    return request;
+  }
+
+  private static String readFully(InputStream stream) throws IOException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[16];
+    int count;
+    while ((count = stream.read(buffer)) != -1) {
+      output.write(buffer, 0, count);
+    }
+    stream.close();
+    return output.toString("UTF-8");
+  }
+
+  private static class TestWebResourceInterceptor extends WebResourceInterceptor {
+    @Nullable HttpURLConnection connection;
+    @Nullable String lastMimeType;
+    @Nullable String lastEncoding;
+    int lastStatusCode;
+    @Nullable String lastReasonPhrase;
+    @Nullable Map<String, String> lastHeaders;
+    @Nullable InputStream lastData;
+    long now = 0;
+    @NonNull private final File cacheDirectory;
+
+    TestWebResourceInterceptor(
+        @NonNull FlutterAssetManager flutterAssetManager, @NonNull File cacheDirectory) {
+      super(flutterAssetManager, cacheDirectory);
+      this.cacheDirectory = cacheDirectory;
+    }
+
+    long cacheDirectorySize() {
+      long size = 0;
+      for (File file : cacheDirectory.listFiles()) {
+        size += file.length();
+      }
+      return size;
+    }
+
+    @NonNull
+    @Override
+    WebResourceResponse createWebResourceResponse(
+        @NonNull String mimeType,
+        @Nullable String encoding,
+        int statusCode,
+        @NonNull String reasonPhrase,
+        @NonNull Map<String, String> responseHeaders,
+        @NonNull InputStream data) {
+      lastMimeType = mimeType;
+      lastEncoding = encoding;
+      lastStatusCode = statusCode;
+      lastReasonPhrase = reasonPhrase;
+      lastHeaders = responseHeaders;
+      lastData = data;
+      return mock(WebResourceResponse.class);
+    }
+
+    @Override
+    long currentTimeMillis() {
+      return now;
+    }
+
+    @NonNull
+    @Override
+    HttpURLConnection openConnection(@NonNull String url) throws IOException {
+      if (connection == null) {
+        throw new IOException("Unexpected network request for " + url);
+      }
+      return connection;
+    }
+  }
+}
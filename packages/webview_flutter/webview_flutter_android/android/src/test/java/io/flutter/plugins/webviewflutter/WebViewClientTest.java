@@ -4,14 +4,18 @@
 
 package io.flutter.plugins.webviewflutter;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.net.Uri;
 import android.net.http.SslError;
 import android.os.Message;
 import android.webkit.ClientCertRequest;
@@ -21,6 +25,10 @@ import android.webkit.WebResourceError;
 import android.webkit.WebResourceRequest;
 import android.webkit.WebView;
 import io.flutter.plugins.webviewflutter.WebViewClientProxyApi.WebViewClientImpl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.Test;
 
 public class WebViewClientTest {
@@ -123,6 +131,21 @@ public class WebViewClientTest {
     verify(mockApi).requestLoading(eq(instance), eq(webView), eq(request), any());
   }
 
+  @Test
+  public void shouldInterceptRequestWithoutRoutesReturnsNull() {
+    final WebViewClientProxyApi mockApi = mock(WebViewClientProxyApi.class);
+    when(mockApi.getPigeonRegistrar()).thenReturn(new TestProxyApiRegistrar());
+
+    final WebViewClientImpl instance = new WebViewClientImpl(mockApi);
+    final android.webkit.WebView webView = mock(WebView.class);
+    final android.webkit.WebResourceRequest request = mock(WebResourceRequest.class);
+    when(request.getMethod()).thenReturn("GET");
+    when(request.getUrl()).thenReturn(Uri.parse("https://www.example.com/app.js"));
+
+    assertNull(instance.shouldInterceptRequest(webView, request));
+    verify(mockApi, never()).onLoadResource(any(), any(), any(), any());
+  }
+
   @Test
   public void doUpdateVisitedHistory() {
     final WebViewClientProxyApi mockApi = mock(WebViewClientProxyApi.class);
@@ -181,6 +204,59 @@ public class WebViewClientTest {
     verify(mockApi).onLoadResource(eq(instance), eq(view), eq(url), any());
   }
 
+  @Test
+  public void onLoadResourceIsNotSentWhenUnsubscribed() {
+    final WebViewClientProxyApi mockApi = mock(WebViewClientProxyApi.class);
+    when(mockApi.getPigeonRegistrar()).thenReturn(new TestProxyApiRegistrar());
+
+    final WebViewClientImpl instance = new WebViewClientImpl(mockApi);
+    instance.setSubscribedCallbacks(Collections.singleton("onPageFinished"));
+    final android.webkit.WebView view = mock(WebView.class);
+    instance.onLoadResource(view, "myString");
+    instance.onPageFinished(view, "myString");
+
+    verify(mockApi, never()).onLoadResource(any(), any(), any(), any());
+    verify(mockApi).onPageFinished(eq(instance), eq(view), eq("myString"), any());
+  }
+
+  @Test
+  public void onLoadResourcesSendsResourcesOfAFrameTogether() {
+    final WebViewClientProxyApi mockApi = mock(WebViewClientProxyApi.class);
+    final List<Runnable> frameCallbacks = new ArrayList<>();
+    when(mockApi.getPigeonRegistrar())
+        .thenReturn(
+            new TestProxyApiRegistrar() {
+              @Override
+              void runOnNextFrame(Runnable runnable) {
+                frameCallbacks.add(runnable);
+              }
+            });
+
+    final WebViewClientImpl instance = new WebViewClientImpl(mockApi);
+    instance.setSubscribedCallbacks(Collections.singleton("onLoadResources"));
+    final android.webkit.WebView view = mock(WebView.class);
+    instance.onLoadResource(view, "a.js");
+    instance.onLoadResource(view, "b.css");
+
+    verify(mockApi, never()).onLoadResources(any(), any(), any(), any());
+    assertEquals(1, frameCallbacks.size());
+
+    frameCallbacks.get(0).run();
+    verify(mockApi)
+        .onLoadResources(eq(instance), eq(view), eq(Arrays.asList("a.js", "b.css")), any());
+    verify(mockApi, never()).onLoadResource(any(), any(), any(), any());
+  }
+
+  @Test
+  public void setSubscribedCallbacks() {
+    final WebViewClientProxyApi api = new TestProxyApiRegistrar().getPigeonApiWebViewClient();
+
+    final WebViewClientImpl instance = mock(WebViewClientImpl.class);
+    api.setSubscribedCallbacks(instance, Collections.singletonList("onPageStarted"));
+
+    verify(instance).setSubscribedCallbacks(Collections.singleton("onPageStarted"));
+  }
+
   @Test
   public void onPageCommitVisible() {
     final WebViewClientProxyApi mockApi = mock(WebViewClientProxyApi.class);
@@ -0,0 +1,130 @@
+// Copyright 2013 The Flutter Authors
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugins.webviewflutter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import android.app.Activity;
+import android.content.Context;
+import android.webkit.WebView;
+import org.junit.Test;
+
+public class WebViewPoolTest {
+  @Test
+  public void obtainWithoutWarmUpCreatesWebView() {
+    final WebViewPool pool = new TestProxyApiRegistrar().getWebViewPool();
+
+    assertTrue(pool.obtain() instanceof WebViewProxyApi.WebViewPlatformView);
+    assertEquals(0, pool.getSize());
+    assertEquals(0, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+  }
+
+  @Test
+  public void warmUpFillsPool() {
+    final WebViewPool pool = createPoolWithActivity();
+
+    pool.warmUp(2);
+
+    assertEquals(2, pool.getSize());
+    assertTrue(pool.getColdCreationTimeMillis() >= 0);
+    assertTrue(pool.getLastWarmCreationTimeMillis() >= 0);
+  }
+
+  @Test
+  public void obtainReturnsPooledWebViewAndRefillsPool() {
+    final WebViewPool pool = createPoolWithActivity();
+    pool.warmUp(1);
+
+    final WebView first = pool.obtain();
+    final WebView second = pool.obtain();
+
+    assertNotSame(first, second);
+    assertEquals(1, pool.getSize());
+    assertEquals(2, pool.getHitCount());
+    assertEquals(0, pool.getMissCount());
+  }
+
+  @Test
+  public void warmUpWithSmallerSizeShrinksPool() {
+    final WebViewPool pool = createPoolWithActivity();
+    pool.warmUp(3);
+
+    pool.warmUp(1);
+
+    assertEquals(1, pool.getSize());
+  }
+
+  @Test
+  public void warmUpWithoutActivityOnlyInitializesProvider() {
+    final WebViewPool pool = new TestProxyApiRegistrar().getWebViewPool();
+
+    pool.warmUp(2);
+
+    assertEquals(0, pool.getSize());
+    assertEquals(-1, pool.getColdCreationTimeMillis());
+  }
+
+  @Test
+  public void attachingActivityFillsPool() {
+    final TestProxyApiRegistrar registrar = new TestProxyApiRegistrar();
+    final WebViewPool pool = registrar.getWebViewPool();
+    pool.warmUp(2);
+
+    registrar.setContext(mock(Activity.class));
+
+    assertEquals(2, pool.getSize());
+  }
+
+  @Test
+  public void settingNewActivityReplacesPooledWebViews() {
+    final TestProxyApiRegistrar registrar = new TestProxyApiRegistrar();
+    final WebViewPool pool = registrar.getWebViewPool();
+    registrar.setContext(mock(Activity.class));
+    pool.warmUp(1);
+    final long coldCreationTime = pool.getColdCreationTimeMillis();
+
+    registrar.setContext(mock(Activity.class));
+
+    assertEquals(1, pool.getSize());
+    assertEquals(coldCreationTime, pool.getColdCreationTimeMillis());
+    assertTrue(pool.getLastWarmCreationTimeMillis() >= 0);
+  }
+
+  @Test
+  public void detachingActivityEmptiesPoolWithoutRefilling() {
+    final TestProxyApiRegistrar registrar = new TestProxyApiRegistrar();
+    final WebViewPool pool = registrar.getWebViewPool();
+    registrar.setContext(mock(Activity.class));
+    pool.warmUp(2);
+
+    registrar.setContext(mock(Context.class));
+    pool.obtain();
+
+    assertEquals(0, pool.getSize());
+    assertEquals(1, pool.getMissCount());
+  }
+
+  @Test
+  public void releaseEmptiesPoolAndStopsRefilling() {
+    final WebViewPool pool = createPoolWithActivity();
+    pool.warmUp(2);
+
+    pool.release();
+    pool.obtain();
+
+    assertEquals(0, pool.getSize());
+    assertEquals(1, pool.getMissCount());
+  }
+
+  private static WebViewPool createPoolWithActivity() {
+    final TestProxyApiRegistrar registrar = new TestProxyApiRegistrar();
+    registrar.setContext(mock(Activity.class));
+    return registrar.getWebViewPool();
+  }
+}
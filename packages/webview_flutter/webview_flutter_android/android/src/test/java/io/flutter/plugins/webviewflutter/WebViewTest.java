@@ -10,6 +10,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -19,11 +20,14 @@ import android.webkit.DownloadListener;
 import android.webkit.ValueCallback;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
+import androidx.webkit.WebViewCompat;
 import io.flutter.embedding.android.FlutterView;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
 
 public class WebViewTest {
   @Test
@@ -33,6 +37,18 @@ public class WebViewTest {
     assertTrue(api.pigeon_defaultConstructor() instanceof WebViewProxyApi.WebViewPlatformView);
   }
 
+  @Test
+  public void warmUp() {
+    final TestProxyApiRegistrar registrar = new TestProxyApiRegistrar();
+    final PigeonApiWebView api = registrar.getPigeonApiWebView();
+
+    api.warmUp(2L);
+
+    assertEquals(2, registrar.getWebViewPool().getSize());
+    assertTrue(api.pigeon_defaultConstructor() instanceof WebViewProxyApi.WebViewPlatformView);
+    assertEquals(1, registrar.getWebViewPool().getHitCount());
+  }
+
   @Test
   public void loadData() {
     final PigeonApiWebView api = new TestProxyApiRegistrar().getPigeonApiWebView();
@@ -251,6 +267,23 @@ public class WebViewTest {
     verify(instance).addJavascriptInterface(channel, channel.javaScriptChannelName);
   }
 
+  @Test
+  public void addWebMessageListener() {
+    final PigeonApiWebView api = new TestProxyApiRegistrar().getPigeonApiWebView();
+
+    final WebView instance = mock(WebView.class);
+    final JavaScriptChannel channel =
+        new JavaScriptChannel("myChannel", mock(JavaScriptChannelProxyApi.class));
+    try (MockedStatic<WebViewCompat> mockedWebViewCompat = mockStatic(WebViewCompat.class)) {
+      api.addWebMessageListener(instance, channel, Collections.singletonList("*"));
+
+      mockedWebViewCompat.verify(
+          () ->
+              WebViewCompat.addWebMessageListener(
+                  instance, "myChannel", Collections.singleton("*"), channel));
+    }
+  }
+
   @Test
   public void removeJavaScriptChannel() {
     final PigeonApiWebView api = new TestProxyApiRegistrar().getPigeonApiWebView();
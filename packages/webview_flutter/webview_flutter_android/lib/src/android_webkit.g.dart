@@ -1,7 +1,7 @@
 // Copyright 2013 The Flutter Authors
 // Use of this source code is governed by a BSD-style license that can be
 // found in the LICENSE file.
-// Autogenerated from Pigeon (v26.1.4), do not edit directly.
+// Autogenerated from Pigeon (v26.4.1), do not edit directly.
 // See also: https://pub.dev/packages/pigeon
 // ignore_for_file: public_member_api_docs, non_constant_identifier_names, avoid_as, unused_import, unnecessary_parenthesis, prefer_null_aware_operators, omit_local_variable_types, omit_obvious_local_variable_types, unused_shown_name, unnecessary_import, no_leading_underscores_for_local_identifiers
 
@@ -62,6 +62,12 @@ class PigeonOverrides {
     required String channelName,
     required void Function(JavaScriptChannel pigeon_instance, String message)
     postMessage,
+    void Function(
+      JavaScriptChannel pigeon_instance,
+      JavaScriptReplyProxy replyProxy,
+      List<Object> messages,
+    )?
+    postMessages,
   })?
   javaScriptChannel_new;
 
@@ -124,6 +130,12 @@ class PigeonOverrides {
     onFormResubmission,
     void Function(WebViewClient pigeon_instance, WebView view, String url)?
     onLoadResource,
+    void Function(
+      WebViewClient pigeon_instance,
+      WebView view,
+      List<String> urls,
+    )?
+    onLoadResources,
     void Function(WebViewClient pigeon_instance, WebView view, String url)?
     onPageCommitVisible,
     void Function(
@@ -241,6 +253,9 @@ class PigeonOverrides {
   /// Overrides [WebView.setWebContentsDebuggingEnabled].
   static Future<void> Function(bool)? webView_setWebContentsDebuggingEnabled;
 
+  /// Overrides [WebView.warmUp].
+  static Future<void> Function(int)? webView_warmUp;
+
   /// Overrides [WebSettingsCompat.setPaymentRequestEnabled].
   static Future<void> Function(WebSettings, bool)?
   webSettingsCompat_setPaymentRequestEnabled;
@@ -253,6 +268,7 @@ class PigeonOverrides {
     cookieManager_instance = null;
     webView_new = null;
     webView_setWebContentsDebuggingEnabled = null;
+    webView_warmUp = null;
     javaScriptChannel_new = null;
     webViewClient_new = null;
     downloadListener_new = null;
@@ -404,6 +420,9 @@ class PigeonInstanceManager {
     JavaScriptChannel.pigeon_setUpMessageHandlers(
       pigeon_instanceManager: instanceManager,
     );
+    JavaScriptReplyProxy.pigeon_setUpMessageHandlers(
+      pigeon_instanceManager: instanceManager,
+    );
     WebViewClient.pigeon_setUpMessageHandlers(
       pigeon_instanceManager: instanceManager,
     );
@@ -2502,6 +2521,45 @@ class WebView extends View {
     }
   }
 
+  /// Initializes the WebView provider and keeps up to `poolSize` instances
+  /// ready to be returned by the default constructor.
+  static Future<void> warmUp(
+    int poolSize, {
+    BinaryMessenger? pigeon_binaryMessenger,
+    PigeonInstanceManager? pigeon_instanceManager,
+  }) async {
+    if (PigeonOverrides.webView_warmUp != null) {
+      return PigeonOverrides.webView_warmUp!(poolSize);
+    }
+    final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
+        _PigeonInternalProxyApiBaseCodec(
+          pigeon_instanceManager ?? PigeonInstanceManager.instance,
+        );
+    final BinaryMessenger? pigeonVar_binaryMessenger = pigeon_binaryMessenger;
+    const pigeonVar_channelName =
+        'dev.flutter.pigeon.webview_flutter_android.WebView.warmUp';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[poolSize],
+    );
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   /// Sets the WebViewClient that will receive various notifications and
   /// requests.
   Future<void> setWebViewClient(WebViewClient? client) async {
@@ -2561,6 +2619,46 @@ class WebView extends View {
     }
   }
 
+  /// Injects a JavaScript object for [channel] into frames whose origin
+  /// matches one of [allowedOriginRules] using
+  /// `WebViewCompat.addWebMessageListener`.
+  ///
+  /// Messages are delivered to [JavaScriptChannel.postMessages] and may be a
+  /// `String` or an `ArrayBuffer`.
+  ///
+  /// This should only be called if `WebViewFeature.isFeatureSupported` returns
+  /// true for `WEB_MESSAGE_LISTENER`.
+  Future<void> addWebMessageListener(
+    JavaScriptChannel channel,
+    List<String> allowedOriginRules,
+  ) async {
+    final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
+        _pigeonVar_codecWebView;
+    final BinaryMessenger? pigeonVar_binaryMessenger = pigeon_binaryMessenger;
+    const pigeonVar_channelName =
+        'dev.flutter.pigeon.webview_flutter_android.WebView.addWebMessageListener';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[this, channel, allowedOriginRules],
+    );
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   /// Removes a previously injected Java object from this WebView.
   Future<void> removeJavaScriptChannel(String name) async {
     final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
@@ -3311,11 +3409,18 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
     required String channelName,
     required void Function(JavaScriptChannel pigeon_instance, String message)
     postMessage,
+    void Function(
+      JavaScriptChannel pigeon_instance,
+      JavaScriptReplyProxy replyProxy,
+      List<Object> messages,
+    )?
+    postMessages,
   }) {
     if (PigeonOverrides.javaScriptChannel_new != null) {
       return PigeonOverrides.javaScriptChannel_new!(
         channelName: channelName,
         postMessage: postMessage,
+        postMessages: postMessages,
       );
     }
     return JavaScriptChannel.pigeon_new(
@@ -3323,6 +3428,7 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
       pigeon_instanceManager: pigeon_instanceManager,
       channelName: channelName,
       postMessage: postMessage,
+      postMessages: postMessages,
     );
   }
 
@@ -3332,6 +3438,7 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
     super.pigeon_instanceManager,
     required this.channelName,
     required this.postMessage,
+    this.postMessages,
   }) {
     final int pigeonVar_instanceIdentifier = pigeon_instanceManager
         .addDartCreatedInstance(this);
@@ -3374,6 +3481,7 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
     super.pigeon_instanceManager,
     required this.channelName,
     required this.postMessage,
+    this.postMessages,
   });
 
   late final _PigeonInternalProxyApiBaseCodec
@@ -3405,12 +3513,48 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
   final void Function(JavaScriptChannel pigeon_instance, String message)
   postMessage;
 
+  /// Handles the messages from JavaScript that were posted within the same
+  /// frame to a channel added with [WebView.addWebMessageListener].
+  ///
+  /// Each message is either a `String` or a `Uint8List` for an `ArrayBuffer`.
+  /// [replyProxy] posts messages back to the JavaScript object that sent them.
+  ///
+  /// For the associated Native object to be automatically garbage collected,
+  /// it is required that the implementation of this `Function` doesn't have a
+  /// strong reference to the encapsulating class instance. When this `Function`
+  /// references a non-local variable, it is strongly recommended to access it
+  /// with a `WeakReference`:
+  ///
+  /// ```dart
+  /// final WeakReference weakMyVariable = WeakReference(myVariable);
+  /// final JavaScriptChannel instance = JavaScriptChannel(
+  ///  postMessages: (JavaScriptChannel pigeon_instance, ...) {
+  ///    print(weakMyVariable?.target);
+  ///  },
+  /// );
+  /// ```
+  ///
+  /// Alternatively, [PigeonInstanceManager.removeWeakReference] can be used to
+  /// release the associated Native object manually.
+  final void Function(
+    JavaScriptChannel pigeon_instance,
+    JavaScriptReplyProxy replyProxy,
+    List<Object> messages,
+  )?
+  postMessages;
+
   static void pigeon_setUpMessageHandlers({
     bool pigeon_clearHandlers = false,
     BinaryMessenger? pigeon_binaryMessenger,
     PigeonInstanceManager? pigeon_instanceManager,
     void Function(JavaScriptChannel pigeon_instance, String message)?
     postMessage,
+    void Function(
+      JavaScriptChannel pigeon_instance,
+      JavaScriptReplyProxy replyProxy,
+      List<Object> messages,
+    )?
+    postMessages,
   }) {
     final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
         _PigeonInternalProxyApiBaseCodec(
@@ -3459,6 +3603,57 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
         });
       }
     }
+
+    {
+      final pigeonVar_channel = BasicMessageChannel<Object?>(
+        'dev.flutter.pigeon.webview_flutter_android.JavaScriptChannel.postMessages',
+        pigeonChannelCodec,
+        binaryMessenger: binaryMessenger,
+      );
+      if (pigeon_clearHandlers) {
+        pigeonVar_channel.setMessageHandler(null);
+      } else {
+        pigeonVar_channel.setMessageHandler((Object? message) async {
+          assert(
+            message != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.JavaScriptChannel.postMessages was null.',
+          );
+          final List<Object?> args = (message as List<Object?>?)!;
+          final JavaScriptChannel? arg_pigeon_instance =
+              (args[0] as JavaScriptChannel?);
+          assert(
+            arg_pigeon_instance != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.JavaScriptChannel.postMessages was null, expected non-null JavaScriptChannel.',
+          );
+          final JavaScriptReplyProxy? arg_replyProxy =
+              (args[1] as JavaScriptReplyProxy?);
+          assert(
+            arg_replyProxy != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.JavaScriptChannel.postMessages was null, expected non-null JavaScriptReplyProxy.',
+          );
+          final List<Object>? arg_messages = (args[2] as List<Object?>?)
+              ?.cast<Object>();
+          assert(
+            arg_messages != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.JavaScriptChannel.postMessages was null, expected non-null List<Object>.',
+          );
+          try {
+            (postMessages ?? arg_pigeon_instance!.postMessages)?.call(
+              arg_pigeon_instance!,
+              arg_replyProxy!,
+              arg_messages!,
+            );
+            return wrapResponse(empty: true);
+          } on PlatformException catch (e) {
+            return wrapResponse(error: e);
+          } catch (e) {
+            return wrapResponse(
+              error: PlatformException(code: 'error', message: e.toString()),
+            );
+          }
+        });
+      }
+    }
   }
 
   @override
@@ -3468,6 +3663,123 @@ class JavaScriptChannel extends PigeonInternalProxyApiBaseClass {
       pigeon_instanceManager: pigeon_instanceManager,
       channelName: channelName,
       postMessage: postMessage,
+      postMessages: postMessages,
+    );
+  }
+}
+
+/// Posts messages to the JavaScript object of the frame that posted a message
+/// to a channel added with [WebView.addWebMessageListener].
+///
+/// See https://developer.android.com/reference/androidx/webkit/JavaScriptReplyProxy.
+class JavaScriptReplyProxy extends PigeonInternalProxyApiBaseClass {
+  /// Constructs [JavaScriptReplyProxy] without creating the associated native object.
+  ///
+  /// This should only be used by subclasses created by this library or to
+  /// create copies for an [PigeonInstanceManager].
+  @protected
+  JavaScriptReplyProxy.pigeon_detached({
+    super.pigeon_binaryMessenger,
+    super.pigeon_instanceManager,
+  });
+
+  late final _PigeonInternalProxyApiBaseCodec
+  _pigeonVar_codecJavaScriptReplyProxy = _PigeonInternalProxyApiBaseCodec(
+    pigeon_instanceManager,
+  );
+
+  static void pigeon_setUpMessageHandlers({
+    bool pigeon_clearHandlers = false,
+    BinaryMessenger? pigeon_binaryMessenger,
+    PigeonInstanceManager? pigeon_instanceManager,
+    JavaScriptReplyProxy Function()? pigeon_newInstance,
+  }) {
+    final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
+        _PigeonInternalProxyApiBaseCodec(
+          pigeon_instanceManager ?? PigeonInstanceManager.instance,
+        );
+    final BinaryMessenger? binaryMessenger = pigeon_binaryMessenger;
+    {
+      final pigeonVar_channel = BasicMessageChannel<Object?>(
+        'dev.flutter.pigeon.webview_flutter_android.JavaScriptReplyProxy.pigeon_newInstance',
+        pigeonChannelCodec,
+        binaryMessenger: binaryMessenger,
+      );
+      if (pigeon_clearHandlers) {
+        pigeonVar_channel.setMessageHandler(null);
+      } else {
+        pigeonVar_channel.setMessageHandler((Object? message) async {
+          assert(
+            message != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.JavaScriptReplyProxy.pigeon_newInstance was null.',
+          );
+          final List<Object?> args = (message as List<Object?>?)!;
+          final int? arg_pigeon_instanceIdentifier = (args[0] as int?);
+          assert(
+            arg_pigeon_instanceIdentifier != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.JavaScriptReplyProxy.pigeon_newInstance was null, expected non-null int.',
+          );
+          try {
+            (pigeon_instanceManager ?? PigeonInstanceManager.instance)
+                .addHostCreatedInstance(
+                  pigeon_newInstance?.call() ??
+                      JavaScriptReplyProxy.pigeon_detached(
+                        pigeon_binaryMessenger: pigeon_binaryMessenger,
+                        pigeon_instanceManager: pigeon_instanceManager,
+                      ),
+                  arg_pigeon_instanceIdentifier!,
+                );
+            return wrapResponse(empty: true);
+          } on PlatformException catch (e) {
+            return wrapResponse(error: e);
+          } catch (e) {
+            return wrapResponse(
+              error: PlatformException(code: 'error', message: e.toString()),
+            );
+          }
+        });
+      }
+    }
+  }
+
+  /// Posts a message to the JavaScript object.
+  ///
+  /// [message] must be a `String` or a `Uint8List`, which is received as an
+  /// `ArrayBuffer`. Posting a `Uint8List` throws a `PlatformException` if the
+  /// `WEB_MESSAGE_ARRAY_BUFFER` feature is not supported.
+  Future<void> postMessage(Object message) async {
+    final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
+        _pigeonVar_codecJavaScriptReplyProxy;
+    final BinaryMessenger? pigeonVar_binaryMessenger = pigeon_binaryMessenger;
+    const pigeonVar_channelName =
+        'dev.flutter.pigeon.webview_flutter_android.JavaScriptReplyProxy.postMessage';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[this, message],
+    );
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
+  @override
+  JavaScriptReplyProxy pigeon_copy() {
+    return JavaScriptReplyProxy.pigeon_detached(
+      pigeon_binaryMessenger: pigeon_binaryMessenger,
+      pigeon_instanceManager: pigeon_instanceManager,
     );
   }
 }
@@ -3536,6 +3848,12 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
     onFormResubmission,
     void Function(WebViewClient pigeon_instance, WebView view, String url)?
     onLoadResource,
+    void Function(
+      WebViewClient pigeon_instance,
+      WebView view,
+      List<String> urls,
+    )?
+    onLoadResources,
     void Function(WebViewClient pigeon_instance, WebView view, String url)?
     onPageCommitVisible,
     void Function(
@@ -3580,6 +3898,7 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
         onReceivedHttpAuthRequest: onReceivedHttpAuthRequest,
         onFormResubmission: onFormResubmission,
         onLoadResource: onLoadResource,
+        onLoadResources: onLoadResources,
         onPageCommitVisible: onPageCommitVisible,
         onReceivedClientCertRequest: onReceivedClientCertRequest,
         onReceivedLoginRequest: onReceivedLoginRequest,
@@ -3601,6 +3920,7 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
       onReceivedHttpAuthRequest: onReceivedHttpAuthRequest,
       onFormResubmission: onFormResubmission,
       onLoadResource: onLoadResource,
+      onLoadResources: onLoadResources,
       onPageCommitVisible: onPageCommitVisible,
       onReceivedClientCertRequest: onReceivedClientCertRequest,
       onReceivedLoginRequest: onReceivedLoginRequest,
@@ -3624,6 +3944,7 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
     this.onReceivedHttpAuthRequest,
     this.onFormResubmission,
     this.onLoadResource,
+    this.onLoadResources,
     this.onPageCommitVisible,
     this.onReceivedClientCertRequest,
     this.onReceivedLoginRequest,
@@ -3680,6 +4001,7 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
     this.onReceivedHttpAuthRequest,
     this.onFormResubmission,
     this.onLoadResource,
+    this.onLoadResources,
     this.onPageCommitVisible,
     this.onReceivedClientCertRequest,
     this.onReceivedLoginRequest,
@@ -3985,6 +4307,37 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
   final void Function(WebViewClient pigeon_instance, WebView view, String url)?
   onLoadResource;
 
+  /// Notify the host application that the WebView will load the resources
+  /// specified by the given urls.
+  ///
+  /// Once subscribed with [setSubscribedCallbacks], this is called instead of
+  /// [onLoadResource] with the resources that were loaded within the same
+  /// frame.
+  ///
+  /// For the associated Native object to be automatically garbage collected,
+  /// it is required that the implementation of this `Function` doesn't have a
+  /// strong reference to the encapsulating class instance. When this `Function`
+  /// references a non-local variable, it is strongly recommended to access it
+  /// with a `WeakReference`:
+  ///
+  /// ```dart
+  /// final WeakReference weakMyVariable = WeakReference(myVariable);
+  /// final WebViewClient instance = WebViewClient(
+  ///  onLoadResources: (WebViewClient pigeon_instance, ...) {
+  ///    print(weakMyVariable?.target);
+  ///  },
+  /// );
+  /// ```
+  ///
+  /// Alternatively, [PigeonInstanceManager.removeWeakReference] can be used to
+  /// release the associated Native object manually.
+  final void Function(
+    WebViewClient pigeon_instance,
+    WebView view,
+    List<String> urls,
+  )?
+  onLoadResources;
+
   /// Notify the host application that WebView content left over from previous
   /// page navigations will no longer be drawn.
   ///
@@ -4181,6 +4534,12 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
     onFormResubmission,
     void Function(WebViewClient pigeon_instance, WebView view, String url)?
     onLoadResource,
+    void Function(
+      WebViewClient pigeon_instance,
+      WebView view,
+      List<String> urls,
+    )?
+    onLoadResources,
     void Function(WebViewClient pigeon_instance, WebView view, String url)?
     onPageCommitVisible,
     void Function(
@@ -4856,6 +5215,56 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
       }
     }
 
+    {
+      final pigeonVar_channel = BasicMessageChannel<Object?>(
+        'dev.flutter.pigeon.webview_flutter_android.WebViewClient.onLoadResources',
+        pigeonChannelCodec,
+        binaryMessenger: binaryMessenger,
+      );
+      if (pigeon_clearHandlers) {
+        pigeonVar_channel.setMessageHandler(null);
+      } else {
+        pigeonVar_channel.setMessageHandler((Object? message) async {
+          assert(
+            message != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.WebViewClient.onLoadResources was null.',
+          );
+          final List<Object?> args = (message as List<Object?>?)!;
+          final WebViewClient? arg_pigeon_instance =
+              (args[0] as WebViewClient?);
+          assert(
+            arg_pigeon_instance != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.WebViewClient.onLoadResources was null, expected non-null WebViewClient.',
+          );
+          final WebView? arg_view = (args[1] as WebView?);
+          assert(
+            arg_view != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.WebViewClient.onLoadResources was null, expected non-null WebView.',
+          );
+          final List<String>? arg_urls = (args[2] as List<Object?>?)
+              ?.cast<String>();
+          assert(
+            arg_urls != null,
+            'Argument for dev.flutter.pigeon.webview_flutter_android.WebViewClient.onLoadResources was null, expected non-null List<String>.',
+          );
+          try {
+            (onLoadResources ?? arg_pigeon_instance!.onLoadResources)?.call(
+              arg_pigeon_instance!,
+              arg_view!,
+              arg_urls!,
+            );
+            return wrapResponse(empty: true);
+          } on PlatformException catch (e) {
+            return wrapResponse(error: e);
+          } catch (e) {
+            return wrapResponse(
+              error: PlatformException(code: 'error', message: e.toString()),
+            );
+          }
+        });
+      }
+    }
+
     {
       final pigeonVar_channel = BasicMessageChannel<Object?>(
         'dev.flutter.pigeon.webview_flutter_android.WebViewClient.onPageCommitVisible',
@@ -5163,6 +5572,40 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
     }
   }
 
+  /// Sets the names of the callback methods that are sent to Dart.
+  ///
+  /// Events for callback methods not in [callbackNames] are handled with the
+  /// default behavior of the native `WebViewClient` and are not sent to Dart.
+  ///
+  /// Defaults to sending every callback method.
+  Future<void> setSubscribedCallbacks(List<String> callbackNames) async {
+    final _PigeonInternalProxyApiBaseCodec pigeonChannelCodec =
+        _pigeonVar_codecWebViewClient;
+    final BinaryMessenger? pigeonVar_binaryMessenger = pigeon_binaryMessenger;
+    const pigeonVar_channelName =
+        'dev.flutter.pigeon.webview_flutter_android.WebViewClient.setSubscribedCallbacks';
+    final pigeonVar_channel = BasicMessageChannel<Object?>(
+      pigeonVar_channelName,
+      pigeonChannelCodec,
+      binaryMessenger: pigeonVar_binaryMessenger,
+    );
+    final Future<Object?> pigeonVar_sendFuture = pigeonVar_channel.send(
+      <Object?>[this, callbackNames],
+    );
+    final pigeonVar_replyList = await pigeonVar_sendFuture as List<Object?>?;
+    if (pigeonVar_replyList == null) {
+      throw _createConnectionError(pigeonVar_channelName);
+    } else if (pigeonVar_replyList.length > 1) {
+      throw PlatformException(
+        code: pigeonVar_replyList[0]! as String,
+        message: pigeonVar_replyList[1] as String?,
+        details: pigeonVar_replyList[2],
+      );
+    } else {
+      return;
+    }
+  }
+
   @override
   WebViewClient pigeon_copy() {
     return WebViewClient.pigeon_detached(
@@ -5179,6 +5622,7 @@ class WebViewClient extends PigeonInternalProxyApiBaseClass {
       onReceivedHttpAuthRequest: onReceivedHttpAuthRequest,
       onFormResubmission: onFormResubmission,
       onLoadResource: onLoadResource,
+      onLoadResources: onLoadResources,
       onPageCommitVisible: onPageCommitVisible,
       onReceivedClientCertRequest: onReceivedClientCertRequest,
       onReceivedLoginRequest: onReceivedLoginRequest,
@@ -127,4 +127,9 @@ class WebViewFeatureConstants {
   ///
   /// See https://developer.android.com/reference/androidx/webkit/WebViewFeature#PAYMENT_REQUEST.
   static const String paymentRequest = 'PAYMENT_REQUEST';
+
+  /// This feature covers [WebView.addWebMessageListener].
+  ///
+  /// See https://developer.android.com/reference/androidx/webkit/WebViewFeature#WEB_MESSAGE_LISTENER.
+  static const String webMessageListener = 'WEB_MESSAGE_LISTENER';
 }
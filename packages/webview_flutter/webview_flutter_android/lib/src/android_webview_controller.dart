@@ -420,6 +420,23 @@ class AndroidWebViewController extends PlatformWebViewController {
     return android_webview.WebView.setWebContentsDebuggingEnabled(enabled);
   }
 
+  /// Prepares native `WebView`s before they are needed.
+  ///
+  /// Initializes the Android WebView provider and creates up to [poolSize]
+  /// `WebView`s while the main thread is idle. Controllers created afterwards
+  /// use one of these `WebView`s instead of creating a new one, which avoids
+  /// the cost of loading the provider when the first `WebView` is shown.
+  ///
+  /// `WebView`s are only kept while an `Activity` is attached, and the pool
+  /// is emptied when it is detached.
+  ///
+  /// This is typically called once when the app starts. A [poolSize] of 0
+  /// only initializes the provider and releases previously created `WebView`s.
+  static Future<void> warmUpWebViews({int poolSize = 1}) {
+    assert(poolSize >= 0);
+    return android_webview.WebView.warmUp(poolSize);
+  }
+
   /// Identifier used to retrieve the underlying native `WebView`.
   ///
   /// This is typically used by other plugins to retrieve the native `WebView`
@@ -581,6 +598,13 @@ class AndroidWebViewController extends PlatformWebViewController {
     _javaScriptChannelParams[androidJavaScriptParams.name] =
         androidJavaScriptParams;
 
+    if (androidJavaScriptParams is AndroidWebMessageChannelParams) {
+      return _webView.addWebMessageListener(
+        androidJavaScriptParams._javaScriptChannel,
+        androidJavaScriptParams.allowedOriginRules,
+      );
+    }
+
     return _webView.addJavaScriptChannel(
       androidJavaScriptParams._javaScriptChannel,
     );
@@ -841,6 +865,8 @@ class AndroidWebViewController extends PlatformWebViewController {
     final String feature = switch (featureType) {
       WebViewFeatureType.paymentRequest =>
         WebViewFeatureConstants.paymentRequest,
+      WebViewFeatureType.webMessageListener =>
+        WebViewFeatureConstants.webMessageListener,
     };
     return android_webview.WebViewFeature.isFeatureSupported(feature);
   }
@@ -997,6 +1023,11 @@ enum WebViewFeatureType {
   ///
   /// This feature covers [WebSettingsCompat.setPaymentRequestEnabled].
   paymentRequest,
+
+  /// Feature for isFeatureSupported.
+  ///
+  /// This feature covers [AndroidWebMessageChannelParams].
+  webMessageListener,
 }
 
 /// Parameters received when the `WebView` should show a file selector.
@@ -1077,9 +1108,102 @@ class AndroidJavaScriptChannelParams extends JavaScriptChannelParams {
     JavaScriptChannelParams params,
   ) : this(name: params.name, onMessageReceived: params.onMessageReceived);
 
+  AndroidJavaScriptChannelParams._withJavaScriptChannel({
+    required super.name,
+    required super.onMessageReceived,
+    required android_webview.JavaScriptChannel javaScriptChannel,
+  }) : assert(name.isNotEmpty),
+       _javaScriptChannel = javaScriptChannel;
+
   final android_webview.JavaScriptChannel _javaScriptChannel;
 }
 
+/// An [AndroidJavaScriptChannelParams] for a channel that is added with
+/// `WebViewCompat.addWebMessageListener` instead of a `JavascriptInterface`.
+///
+/// JavaScript posts messages with the same `postMessage` method, but a message
+/// can also be an `ArrayBuffer`, the messages posted within the same frame are
+/// delivered together to [onMessagesReceived], and Dart can reply to the
+/// JavaScript object that posted them without building JavaScript source.
+///
+/// Only supported when [AndroidWebViewController.isWebViewFeatureSupported]
+/// returns true for [WebViewFeatureType.webMessageListener].
+@immutable
+class AndroidWebMessageChannelParams extends AndroidJavaScriptChannelParams {
+  /// Constructs an [AndroidWebMessageChannelParams].
+  ///
+  /// Each message passed to [onMessagesReceived] is either a `String` or a
+  /// `Uint8List` for an `ArrayBuffer`. The object is only injected into frames
+  /// whose origin matches one of [allowedOriginRules].
+  AndroidWebMessageChannelParams({
+    required super.name,
+    required this.onMessagesReceived,
+    this.allowedOriginRules = const <String>['*'],
+  }) : super._withJavaScriptChannel(
+         // Messages are only received through `postMessages`, since the
+         // channel is never added as a `JavascriptInterface`.
+         onMessageReceived: (_) {},
+         javaScriptChannel: android_webview.JavaScriptChannel(
+           channelName: name,
+           postMessage: (_, __) {},
+           postMessages: withWeakReferenceTo(onMessagesReceived, (
+             WeakReference<
+               void Function(AndroidJavaScriptReplyProxy, List<Object>)
+             >
+             weakReference,
+           ) {
+             return (
+               _,
+               android_webview.JavaScriptReplyProxy replyProxy,
+               List<Object> messages,
+             ) {
+               weakReference.target?.call(
+                 AndroidJavaScriptReplyProxy._(replyProxy),
+                 messages,
+               );
+             };
+           }),
+         ),
+       );
+
+  /// Invoked with the messages that a JavaScript object posted to this channel
+  /// within a frame.
+  ///
+  /// [replyProxy] posts messages back to the JavaScript object of the frame
+  /// that posted [messages].
+  final void Function(
+    AndroidJavaScriptReplyProxy replyProxy,
+    List<Object> messages,
+  )
+  onMessagesReceived;
+
+  /// The origin rules of the frames the channel is injected into.
+  ///
+  /// See https://developer.android.com/reference/androidx/webkit/WebViewCompat#addWebMessageListener(android.webkit.WebView,java.lang.String,java.util.Set%3Cjava.lang.String%3E,androidx.webkit.WebViewCompat.WebMessageListener).
+  final List<String> allowedOriginRules;
+}
+
+/// Posts messages to the JavaScript object of the frame that posted messages to
+/// an [AndroidWebMessageChannelParams] channel.
+///
+/// See https://developer.android.com/reference/androidx/webkit/JavaScriptReplyProxy.
+@immutable
+class AndroidJavaScriptReplyProxy {
+  const AndroidJavaScriptReplyProxy._(this._replyProxy);
+
+  final android_webview.JavaScriptReplyProxy _replyProxy;
+
+  /// Posts [message] to the JavaScript object.
+  ///
+  /// [message] must be a `String` or a `Uint8List`, which JavaScript receives
+  /// as an `ArrayBuffer`. Posting a `Uint8List` throws a `PlatformException`
+  /// if the WebView does not support the `WEB_MESSAGE_ARRAY_BUFFER` feature.
+  Future<void> postMessage(Object message) {
+    assert(message is String || message is Uint8List);
+    return _replyProxy.postMessage(message);
+  }
+}
+
 /// Object specifying creation parameters for creating a [AndroidWebViewWidget].
 ///
 /// When adding additional fields make sure they can be null or have a default
@@ -1594,6 +1718,10 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
           },
     );
 
+    // The native WebViewClient only sends the callbacks that have a handler,
+    // and uses the default behavior of `WebViewClient` for the others.
+    unawaited(_updateSubscribedCallbacks());
+
     _downloadListener = android_webview.DownloadListener(
       onDownloadStart:
           (
@@ -1652,6 +1780,32 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
   HttpAuthRequestCallback? _onHttpAuthRequest;
   SslAuthErrorCallback? _onSslAuthError;
 
+  // The callback names last sent with `setSubscribedCallbacks`.
+  List<String>? _subscribedCallbacks;
+
+  // Subscribes the native WebViewClient to the callbacks whose handlers are
+  // set. `onFormResubmission` and `onReceivedClientCertRequest` are not
+  // subscribed because their handlers do the same as the default behavior,
+  // and `onLoadResource` is never used.
+  Future<void> _updateSubscribedCallbacks() async {
+    final callbacks = <String>[
+      if (_onPageStarted != null) 'onPageStarted',
+      if (_onPageFinished != null) 'onPageFinished',
+      if (_onHttpError != null) 'onReceivedHttpError',
+      if (_onWebResourceError != null) 'onReceivedRequestError',
+      if (_onNavigationRequest != null && _onLoadRequest != null)
+        'requestLoading',
+      if (_onUrlChange != null) 'doUpdateVisitedHistory',
+      if (_onHttpAuthRequest != null) 'onReceivedHttpAuthRequest',
+      if (_onSslAuthError != null) 'onReceivedSslError',
+    ];
+    if (listEquals(callbacks, _subscribedCallbacks)) {
+      return;
+    }
+    _subscribedCallbacks = callbacks;
+    await _webViewClient.setSubscribedCallbacks(callbacks);
+  }
+
   void _handleNavigation(
     String url, {
     required bool isForMainFrame,
@@ -1689,6 +1843,7 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
   /// Invoked when loading the url after a navigation request is approved.
   Future<void> setOnLoadRequest(LoadRequestCallback onLoadRequest) async {
     _onLoadRequest = onLoadRequest;
+    await _updateSubscribedCallbacks();
   }
 
   @override
@@ -1696,6 +1851,7 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
     NavigationRequestCallback onNavigationRequest,
   ) async {
     _onNavigationRequest = onNavigationRequest;
+    await _updateSubscribedCallbacks();
     return _webViewClient.setSynchronousReturnValueForShouldOverrideUrlLoading(
       true,
     );
@@ -1704,16 +1860,19 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
   @override
   Future<void> setOnPageStarted(PageEventCallback onPageStarted) async {
     _onPageStarted = onPageStarted;
+    await _updateSubscribedCallbacks();
   }
 
   @override
   Future<void> setOnPageFinished(PageEventCallback onPageFinished) async {
     _onPageFinished = onPageFinished;
+    await _updateSubscribedCallbacks();
   }
 
   @override
   Future<void> setOnHttpError(HttpResponseErrorCallback onHttpError) async {
     _onHttpError = onHttpError;
+    await _updateSubscribedCallbacks();
   }
 
   @override
@@ -1726,11 +1885,13 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
     WebResourceErrorCallback onWebResourceError,
   ) async {
     _onWebResourceError = onWebResourceError;
+    await _updateSubscribedCallbacks();
   }
 
   @override
   Future<void> setOnUrlChange(UrlChangeCallback onUrlChange) async {
     _onUrlChange = onUrlChange;
+    await _updateSubscribedCallbacks();
   }
 
   @override
@@ -1738,10 +1899,12 @@ class AndroidNavigationDelegate extends PlatformNavigationDelegate {
     HttpAuthRequestCallback onHttpAuthRequest,
   ) async {
     _onHttpAuthRequest = onHttpAuthRequest;
+    await _updateSubscribedCallbacks();
   }
 
   @override
   Future<void> setOnSSlAuthError(SslAuthErrorCallback onSslAuthError) async {
     _onSslAuthError = onSslAuthError;
+    await _updateSubscribedCallbacks();
   }
 }
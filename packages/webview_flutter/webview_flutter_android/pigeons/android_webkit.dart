@@ -334,6 +334,11 @@ abstract class WebView extends View {
   @static
   void setWebContentsDebuggingEnabled(bool enabled);
 
+  /// Initializes the WebView provider and keeps up to `poolSize` instances
+  /// ready to be returned by the default constructor.
+  @static
+  void warmUp(int poolSize);
+
   /// Sets the WebViewClient that will receive various notifications and
   /// requests.
   void setWebViewClient(WebViewClient? client);
@@ -341,6 +346,20 @@ abstract class WebView extends View {
   /// Injects the supplied Java object into this WebView.
   void addJavaScriptChannel(JavaScriptChannel channel);
 
+  /// Injects a JavaScript object for [channel] into frames whose origin
+  /// matches one of [allowedOriginRules] using
+  /// `WebViewCompat.addWebMessageListener`.
+  ///
+  /// Messages are delivered to [JavaScriptChannel.postMessages] and may be a
+  /// `String` or an `ArrayBuffer`.
+  ///
+  /// This should only be called if `WebViewFeature.isFeatureSupported` returns
+  /// true for `WEB_MESSAGE_LISTENER`.
+  void addWebMessageListener(
+    JavaScriptChannel channel,
+    List<String> allowedOriginRules,
+  );
+
   /// Removes a previously injected Java object from this WebView.
   void removeJavaScriptChannel(String name);
 
@@ -437,6 +456,34 @@ abstract class JavaScriptChannel {
 
   /// Handles callbacks messages from JavaScript.
   late void Function(String message) postMessage;
+
+  /// Handles the messages from JavaScript that were posted within the same
+  /// frame to a channel added with [WebView.addWebMessageListener].
+  ///
+  /// Each message is either a `String` or a `Uint8List` for an `ArrayBuffer`.
+  /// [replyProxy] posts messages back to the JavaScript object that sent them.
+  late void Function(
+    JavaScriptReplyProxy replyProxy,
+    List<Object> messages,
+  )? postMessages;
+}
+
+/// Posts messages to the JavaScript object of the frame that posted a message
+/// to a channel added with [WebView.addWebMessageListener].
+///
+/// See https://developer.android.com/reference/androidx/webkit/JavaScriptReplyProxy.
+@ProxyApi(
+  kotlinOptions: KotlinProxyApiOptions(
+    fullClassName: 'androidx.webkit.JavaScriptReplyProxy',
+  ),
+)
+abstract class JavaScriptReplyProxy {
+  /// Posts a message to the JavaScript object.
+  ///
+  /// [message] must be a `String` or a `Uint8List`, which is received as an
+  /// `ArrayBuffer`. Posting a `Uint8List` throws a `PlatformException` if the
+  /// `WEB_MESSAGE_ARRAY_BUFFER` feature is not supported.
+  void postMessage(Object message);
 }
 
 /// Receives various notifications and requests from a `WebView`.
@@ -513,6 +560,14 @@ abstract class WebViewClient {
   /// specified by the given url.
   void Function(WebView view, String url)? onLoadResource;
 
+  /// Notify the host application that the WebView will load the resources
+  /// specified by the given urls.
+  ///
+  /// Once subscribed with [setSubscribedCallbacks], this is called instead of
+  /// [onLoadResource] with the resources that were loaded within the same
+  /// frame.
+  void Function(WebView view, List<String> urls)? onLoadResources;
+
   /// Notify the host application that WebView content left over from previous
   /// page navigations will no longer be drawn.
   void Function(WebView view, String url)? onPageCommitVisible;
@@ -548,6 +603,14 @@ abstract class WebViewClient {
   ///
   /// Defaults to false.
   void setSynchronousReturnValueForShouldOverrideUrlLoading(bool value);
+
+  /// Sets the names of the callback methods that are sent to Dart.
+  ///
+  /// Events for callback methods not in [callbackNames] are handled with the
+  /// default behavior of the native `WebViewClient` and are not sent to Dart.
+  ///
+  /// Defaults to sending every callback method.
+  void setSubscribedCallbacks(List<String> callbackNames);
 }
 
 /// Handles notifications that a file should be downloaded.
@@ -600,6 +600,79 @@ void main() {
       expect(urlChange.isReload, isFalse);
     });
 
+    test('does not subscribe to callbacks without a handler', () {
+      AndroidNavigationDelegate(_buildCreationParams());
+
+      expect(
+        CapturingWebViewClient.lastCreatedDelegate.subscribedCallbacks,
+        isEmpty,
+      );
+    });
+
+    test('subscribes to the callbacks with a handler', () async {
+      final androidNavigationDelegate = AndroidNavigationDelegate(
+        _buildCreationParams(),
+      );
+
+      await androidNavigationDelegate.setOnPageFinished((String url) {});
+      await androidNavigationDelegate.setOnUrlChange((UrlChange change) {});
+      await androidNavigationDelegate.setOnNavigationRequest(
+        (NavigationRequest request) => NavigationDecision.navigate,
+      );
+
+      // `requestLoading` also needs the handler set by the controller.
+      expect(
+        CapturingWebViewClient.lastCreatedDelegate.subscribedCallbacks,
+        unorderedEquals(<String>['onPageFinished', 'doUpdateVisitedHistory']),
+      );
+
+      await androidNavigationDelegate.setOnLoadRequest(
+        (LoadRequestParams params) async {},
+      );
+
+      expect(
+        CapturingWebViewClient.lastCreatedDelegate.subscribedCallbacks,
+        unorderedEquals(<String>[
+          'onPageFinished',
+          'doUpdateVisitedHistory',
+          'requestLoading',
+        ]),
+      );
+    });
+
+    test('keeps callbacks without a handler unsubscribed', () async {
+      final androidNavigationDelegate = AndroidNavigationDelegate(
+        _buildCreationParams(),
+      );
+
+      await androidNavigationDelegate.setOnSSlAuthError(
+        (PlatformSslAuthError error) {},
+      );
+      expect(
+        CapturingWebViewClient.lastCreatedDelegate.subscribedCallbacks,
+        <String>['onReceivedSslError'],
+      );
+
+      await androidNavigationDelegate.setOnHttpAuthRequest(
+        (HttpAuthRequest request) {},
+      );
+
+      // Every other handler is still unset.
+      final List<String> callbacks =
+          CapturingWebViewClient.lastCreatedDelegate.subscribedCallbacks!;
+      expect(
+        callbacks,
+        unorderedEquals(<String>[
+          'onReceivedSslError',
+          'onReceivedHttpAuthRequest',
+        ]),
+      );
+      expect(callbacks, isNot(contains('onPageStarted')));
+      expect(callbacks, isNot(contains('onFormResubmission')));
+      expect(callbacks, isNot(contains('onReceivedClientCertRequest')));
+      expect(callbacks, isNot(contains('onLoadResource')));
+    });
+
     test('onReceivedHttpAuthRequest emits host and realm', () {
       final androidNavigationDelegate = AndroidNavigationDelegate(
         _buildCreationParams(),
@@ -759,6 +832,13 @@ class CapturingWebViewClient extends android_webview.WebViewClient {
   ) async {
     synchronousReturnValueForShouldOverrideUrlLoading = value;
   }
+
+  List<String>? subscribedCallbacks;
+
+  @override
+  Future<void> setSubscribedCallbacks(List<String> callbackNames) async {
+    subscribedCallbacks = callbackNames;
+  }
 }
 
 // Records the last created instance of itself.
@@ -312,6 +312,12 @@ void main() {
           required String channelName,
           required void Function(android_webview.JavaScriptChannel, String)
           postMessage,
+          void Function(
+            android_webview.JavaScriptChannel,
+            android_webview.JavaScriptReplyProxy,
+            List<Object>,
+          )?
+          postMessages,
         }) => mockJavaScriptChannel ?? MockJavaScriptChannel();
     android_webview.PigeonOverrides.webViewFeature_isFeatureSupported =
         isWebViewFeatureSupported ?? (_) async => false;
@@ -344,6 +350,12 @@ void main() {
             required String channelName,
             required void Function(android_webview.JavaScriptChannel, String)
             postMessage,
+            void Function(
+              android_webview.JavaScriptChannel,
+              android_webview.JavaScriptReplyProxy,
+              List<Object>,
+            )?
+            postMessages,
           }) => mockJavaScriptChannel ?? MockJavaScriptChannel();
       return AndroidJavaScriptChannelParams(
         name: name ?? 'test',
@@ -1684,6 +1696,92 @@ void main() {
       ).called(1);
     });
 
+    test('addJavaScriptChannel with AndroidWebMessageChannelParams', () async {
+      final mockWebView = MockWebView();
+      final AndroidWebViewController controller = createControllerWithMocks(
+        mockWebView: mockWebView,
+      );
+      final params = AndroidWebMessageChannelParams(
+        name: 'test',
+        onMessagesReceived: (_, __) {},
+        allowedOriginRules: const <String>['https://flutter.dev'],
+      );
+      await controller.addJavaScriptChannel(params);
+      verify(
+        mockWebView.addWebMessageListener(
+          argThat(isA<android_webview.JavaScriptChannel>()),
+          <String>['https://flutter.dev'],
+        ),
+      ).called(1);
+      verifyNever(mockWebView.addJavaScriptChannel(any));
+    });
+
+    test(
+      'AndroidWebMessageChannelParams receives messages with their reply proxy',
+      () {
+        late void Function(
+          android_webview.JavaScriptChannel,
+          android_webview.JavaScriptReplyProxy,
+          List<Object>,
+        )
+        postMessagesCallback;
+        android_webview.PigeonOverrides.javaScriptChannel_new =
+            ({
+              required String channelName,
+              required void Function(android_webview.JavaScriptChannel, String)
+              postMessage,
+              void Function(
+                android_webview.JavaScriptChannel,
+                android_webview.JavaScriptReplyProxy,
+                List<Object>,
+              )?
+              postMessages,
+            }) {
+              postMessagesCallback = postMessages!;
+              return MockJavaScriptChannel();
+            };
+
+        final receivedReplyProxies = <AndroidJavaScriptReplyProxy>[];
+        final receivedMessages = <List<Object>>[];
+        final params = AndroidWebMessageChannelParams(
+          name: 'test',
+          onMessagesReceived: (
+            AndroidJavaScriptReplyProxy replyProxy,
+            List<Object> messages,
+          ) {
+            receivedReplyProxies.add(replyProxy);
+            receivedMessages.add(messages);
+          },
+        );
+
+        final pigeonInstanceManager = android_webview.PigeonInstanceManager(
+          onWeakReferenceRemoved: (_) {},
+        );
+        postMessagesCallback(
+          MockJavaScriptChannel(),
+          android_webview.JavaScriptReplyProxy.pigeon_detached(
+            pigeon_instanceManager: pigeonInstanceManager,
+          ),
+          <Object>['main frame'],
+        );
+        postMessagesCallback(
+          MockJavaScriptChannel(),
+          android_webview.JavaScriptReplyProxy.pigeon_detached(
+            pigeon_instanceManager: pigeonInstanceManager,
+          ),
+          <Object>['iframe'],
+        );
+
+        expect(params.name, 'test');
+        expect(receivedMessages, <List<Object>>[
+          <Object>['main frame'],
+          <Object>['iframe'],
+        ]);
+        expect(receivedReplyProxies, hasLength(2));
+        expect(receivedReplyProxies[0], isNot(receivedReplyProxies[1]));
+      },
+    );
+
     test(
       'addJavaScriptChannel add channel with same name should remove existing channel',
       () async {
@@ -1902,6 +2000,17 @@ void main() {
       verify(mockWebView.settings).called(1);
       verify(mockSettings.setAllowFileAccess(true)).called(1);
     });
+
+    test('warmUpWebViews', () async {
+      int? warmUpPoolSize;
+      android_webview.PigeonOverrides.webView_warmUp = (int poolSize) async {
+        warmUpPoolSize = poolSize;
+      };
+
+      await AndroidWebViewController.warmUpWebViews(poolSize: 2);
+
+      expect(warmUpPoolSize, 2);
+    });
   });
 
   test('setMediaPlaybackRequiresUserGesture', () async {
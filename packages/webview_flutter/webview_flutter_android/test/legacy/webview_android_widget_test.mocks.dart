@@ -559,6 +559,21 @@ class MockWebView extends _i1.Mock implements _i2.WebView {
           )
           as _i4.Future<void>);
 
+  @override
+  _i4.Future<void> addWebMessageListener(
+    _i2.JavaScriptChannel? channel,
+    List<String>? allowedOriginRules,
+  ) =>
+      (super.noSuchMethod(
+            Invocation.method(#addWebMessageListener, [
+              channel,
+              allowedOriginRules,
+            ]),
+            returnValue: _i4.Future<void>.value(),
+            returnValueForMissingStub: _i4.Future<void>.value(),
+          )
+          as _i4.Future<void>);
+
   @override
   _i4.Future<void> removeJavaScriptChannel(String? name) =>
       (super.noSuchMethod(
@@ -1018,6 +1033,15 @@ class MockWebViewClient extends _i1.Mock implements _i2.WebViewClient {
           )
           as _i4.Future<void>);
 
+  @override
+  _i4.Future<void> setSubscribedCallbacks(List<String>? callbackNames) =>
+      (super.noSuchMethod(
+            Invocation.method(#setSubscribedCallbacks, [callbackNames]),
+            returnValue: _i4.Future<void>.value(),
+            returnValueForMissingStub: _i4.Future<void>.value(),
+          )
+          as _i4.Future<void>);
+
   @override
   _i2.WebViewClient pigeon_copy() =>
       (super.noSuchMethod(